@@ -1001,10 +1001,9 @@ public class DataSeeder implements CommandLineRunner {
 
         // Update account balance
         if (type == TransactionType.INCOME) {
-            account.setCurrentBalance(account.getCurrentBalance().add(amount));
+            accountRepository.adjustBalance(account.getId(), amount);
         } else if (type == TransactionType.EXPENSE) {
-            account.setCurrentBalance(account.getCurrentBalance().subtract(amount));
+            accountRepository.adjustBalance(account.getId(), amount.negate());
         }
-        accountRepository.save(account);
     }
 }
@@ -0,0 +1,23 @@
+package com.financetracker.config;
+
+import org.flywaydb.database.postgresql.PostgreSQLConfigurationExtension;
+import org.springframework.boot.autoconfigure.flyway.FlywayConfigurationCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Flyway takes a session-level advisory lock instead of its default transactional one, so
+ * non-transactional migrations (CREATE INDEX CONCURRENTLY, e.g. V50) are not blocked by
+ * Flyway's own lock transaction. Boot 3.2 only binds spring.flyway.postgresql.* against the
+ * Flyway 9 extension class, so with Flyway 10 the property has no effect and this is set here.
+ */
+@Configuration
+public class FlywayConfig {
+
+    @Bean
+    public FlywayConfigurationCustomizer postgresSessionLockCustomizer() {
+        return configuration -> configuration.getPluginRegister()
+                .getPlugin(PostgreSQLConfigurationExtension.class)
+                .setTransactionalLock(false);
+    }
+}
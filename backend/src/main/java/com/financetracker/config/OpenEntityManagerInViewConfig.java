@@ -0,0 +1,30 @@
+package com.financetracker.config;
+
+import jakarta.persistence.EntityManagerFactory;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.orm.jpa.support.OpenEntityManagerInViewInterceptor;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/**
+ * Open-EntityManager-in-view for every request except the notification stream. Hibernate holds
+ * the JDBC connection until the EntityManager closes, and for an SSE request that is when the
+ * emitter completes, so each open stream would pin a pool connection for up to 30 minutes.
+ * Replaces Boot's interceptor (spring.jpa.open-in-view is false), which cannot exclude paths.
+ */
+@Configuration
+@RequiredArgsConstructor
+public class OpenEntityManagerInViewConfig implements WebMvcConfigurer {
+
+    private static final String STREAM_PATH = "/api/notifications/stream";
+
+    private final EntityManagerFactory entityManagerFactory;
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        OpenEntityManagerInViewInterceptor interceptor = new OpenEntityManagerInViewInterceptor();
+        interceptor.setEntityManagerFactory(entityManagerFactory);
+        registry.addWebRequestInterceptor(interceptor).excludePathPatterns(STREAM_PATH);
+    }
+}
@@ -0,0 +1,33 @@
+package com.financetracker.config;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Routes read-only transactions to the replica pool and everything else to the primary.
+ * Must be wrapped in a LazyConnectionDataSourceProxy so the read-only flag is already
+ * bound when the connection is requested.
+ */
+@RequiredArgsConstructor
+public class ReadReplicaRoutingDataSource extends AbstractRoutingDataSource {
+
+    public enum Route {
+        PRIMARY,
+        REPLICA
+    }
+
+    private final ReplicaLagGuard replicaLagGuard;
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            return Route.PRIMARY;
+        }
+        // Read-your-writes: the replica may not have caught up with this client's last mutation yet
+        if (replicaLagGuard.isCurrentRequestWithinLagWindow()) {
+            return Route.PRIMARY;
+        }
+        return Route.REPLICA;
+    }
+}
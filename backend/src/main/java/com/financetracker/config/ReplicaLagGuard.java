@@ -0,0 +1,73 @@
+package com.financetracker.config;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.lang.NonNull;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+import java.time.Duration;
+import java.util.Set;
+
+/**
+ * Read-your-writes for replica routing without per-instance state. Mutating requests are
+ * answered with {@value #PRIMARY_UNTIL_HEADER}: the time (epoch millis) until which the replica
+ * may still lag behind the write. The client echoes it on later requests, so its reads stay on
+ * the primary whichever instance serves them. Reads inside a mutating request always use the primary.
+ */
+public class ReplicaLagGuard implements HandlerInterceptor {
+
+    public static final String PRIMARY_UNTIL_HEADER = "X-Read-Primary-Until";
+
+    private static final Set<String> MUTATING_METHODS = Set.of("POST", "PUT", "PATCH", "DELETE");
+
+    // Markers come from other instances whose clocks may run slightly ahead
+    private static final Duration MAX_CLOCK_SKEW = Duration.ofSeconds(5);
+
+    private final Duration maxLag;
+
+    public ReplicaLagGuard(Duration maxLag) {
+        this.maxLag = maxLag;
+    }
+
+    @Override
+    public boolean preHandle(@NonNull HttpServletRequest request, @NonNull HttpServletResponse response,
+                             @NonNull Object handler) {
+        // Stamped up front so responses without a body carry it too; ReplicaLagHeaderAdvice
+        // restamps it after the write has committed
+        if (isMutating(request.getMethod())) {
+            response.setHeader(PRIMARY_UNTIL_HEADER, primaryUntil());
+        }
+        return true;
+    }
+
+    public boolean isCurrentRequestWithinLagWindow() {
+        if (!(RequestContextHolder.getRequestAttributes() instanceof ServletRequestAttributes attributes)) {
+            return false;
+        }
+        HttpServletRequest request = attributes.getRequest();
+        if (isMutating(request.getMethod())) {
+            return true;
+        }
+        String marker = request.getHeader(PRIMARY_UNTIL_HEADER);
+        if (marker == null) {
+            return false;
+        }
+        try {
+            long remaining = Long.parseLong(marker) - System.currentTimeMillis();
+            // A marker further out than one window was not issued by us; it must not pin the client to the primary
+            return remaining > 0 && remaining <= maxLag.plus(MAX_CLOCK_SKEW).toMillis();
+        } catch (NumberFormatException e) {
+            return false;
+        }
+    }
+
+    String primaryUntil() {
+        return String.valueOf(System.currentTimeMillis() + maxLag.toMillis());
+    }
+
+    static boolean isMutating(String method) {
+        return MUTATING_METHODS.contains(method);
+    }
+}
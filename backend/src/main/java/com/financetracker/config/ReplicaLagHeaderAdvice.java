@@ -0,0 +1,45 @@
+package com.financetracker.config;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.http.server.ServletServerHttpResponse;
+import org.springframework.lang.NonNull;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyAdvice;
+
+/**
+ * Restamps the replica lag header of a mutating request once its handler has returned, so the
+ * window counts from the commit of the write rather than from the start of the request.
+ */
+@RestControllerAdvice
+@ConditionalOnProperty(prefix = "app.datasource.replica", name = "url")
+@RequiredArgsConstructor
+public class ReplicaLagHeaderAdvice implements ResponseBodyAdvice<Object> {
+
+    private final ReplicaLagGuard replicaLagGuard;
+
+    @Override
+    public boolean supports(@NonNull MethodParameter returnType,
+                            @NonNull Class<? extends HttpMessageConverter<?>> converterType) {
+        return true;
+    }
+
+    @Override
+    public Object beforeBodyWrite(Object body, @NonNull MethodParameter returnType,
+                                  @NonNull MediaType selectedContentType,
+                                  @NonNull Class<? extends HttpMessageConverter<?>> selectedConverterType,
+                                  @NonNull ServerHttpRequest request, @NonNull ServerHttpResponse response) {
+        // Set on the servlet response: the header stamped in preHandle must be replaced, not repeated
+        if (ReplicaLagGuard.isMutating(request.getMethod().name())
+                && response instanceof ServletServerHttpResponse servletResponse) {
+            servletResponse.getServletResponse()
+                    .setHeader(ReplicaLagGuard.PRIMARY_UNTIL_HEADER, replicaLagGuard.primaryUntil());
+        }
+        return body;
+    }
+}
@@ -11,11 +11,13 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.data.web.PageableDefault;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.LocalDate;
 import java.util.List;
 import java.util.UUID;
 
@@ -63,6 +65,31 @@ public class CreditCardPaymentPlanController {
                 .body(planService.createBulk(userDetails.getId(), request));
     }
 
+    @PostMapping("/simulate")
+    public ResponseEntity<PaymentPlanSimulationResponse> simulate(
+            @AuthenticationPrincipal CustomUserDetails userDetails,
+            @Valid @RequestBody PaymentPlanSimulationRequest request
+    ) {
+        return ResponseEntity.ok(planService.simulate(userDetails.getId(), request));
+    }
+
+    @GetMapping("/{id}/payoff")
+    public ResponseEntity<PayoffQuoteResponse> getPayoffQuote(
+            @AuthenticationPrincipal CustomUserDetails userDetails,
+            @PathVariable UUID id,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date
+    ) {
+        return ResponseEntity.ok(planService.getPayoffQuote(userDetails.getId(), id, date));
+    }
+
+    @PostMapping("/{id}/payoff")
+    public ResponseEntity<CreditCardPaymentPlanResponse> payOff(
+            @AuthenticationPrincipal CustomUserDetails userDetails,
+            @PathVariable UUID id
+    ) {
+        return ResponseEntity.ok(planService.payOff(userDetails.getId(), id));
+    }
+
     @PostMapping("/{planId}/payments/{paymentId}/pay")
     public ResponseEntity<CreditCardPaymentResponse> markPaymentAsPaid(
             @AuthenticationPrincipal CustomUserDetails userDetails,
@@ -1,10 +1,12 @@
 package com.financetracker.controller;
 
+import com.financetracker.dto.dashboard.CashflowForecast;
 import com.financetracker.dto.dashboard.CashflowReport;
 import com.financetracker.dto.dashboard.CategoryReport;
 import com.financetracker.dto.dashboard.DashboardSummary;
 import com.financetracker.entity.TransactionType;
 import com.financetracker.security.CustomUserDetails;
+import com.financetracker.service.CashflowForecastService;
 import com.financetracker.service.DashboardService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
@@ -23,6 +25,7 @@ import java.time.LocalDate;
 public class DashboardController {
 
     private final DashboardService dashboardService;
+    private final CashflowForecastService cashflowForecastService;
 
     @GetMapping("/summary")
     @Operation(summary = "Get financial summary")
@@ -50,4 +53,12 @@ public class DashboardController {
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate) {
         return ResponseEntity.ok(dashboardService.getCategoryReport(userDetails.getId(), type, startDate, endDate));
     }
+
+    @GetMapping("/forecast")
+    @Operation(summary = "Get projected daily balances from recurring rules, card installments and debts")
+    public ResponseEntity<CashflowForecast> getCashflowForecast(
+            @AuthenticationPrincipal CustomUserDetails userDetails,
+            @RequestParam(defaultValue = "6") int months) {
+        return ResponseEntity.ok(cashflowForecastService.getForecast(userDetails.getId(), months));
+    }
 }
@@ -4,6 +4,7 @@ import com.financetracker.dto.debt.*;
 import com.financetracker.entity.DebtStatus;
 import com.financetracker.entity.DebtType;
 import com.financetracker.security.CustomUserDetails;
+import com.financetracker.service.DebtAnalyticsService;
 import com.financetracker.service.DebtService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
@@ -11,11 +12,14 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.data.web.PageableDefault;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
 
+import java.math.BigDecimal;
+import java.time.LocalDate;
 import java.util.List;
 import java.util.UUID;
 
@@ -25,6 +29,7 @@ import java.util.UUID;
 public class DebtController {
 
     private final DebtService debtService;
+    private final DebtAnalyticsService debtAnalyticsService;
 
     @GetMapping
     public ResponseEntity<Page<DebtResponse>> getAll(
@@ -71,6 +76,17 @@ public class DebtController {
         return ResponseEntity.ok(debtService.recordPayment(userDetails.getId(), id, request));
     }
 
+    @GetMapping("/{id}/payments")
+    public ResponseEntity<DebtPaymentHistoryResponse> getPayments(
+            @AuthenticationPrincipal CustomUserDetails userDetails,
+            @PathVariable UUID id,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate beforeDate,
+            @RequestParam(required = false) UUID beforeId,
+            @RequestParam(defaultValue = "20") int size
+    ) {
+        return ResponseEntity.ok(debtService.getPayments(userDetails.getId(), id, beforeDate, beforeId, size));
+    }
+
     @PostMapping("/{id}/mark-paid")
     public ResponseEntity<DebtResponse> markAsPaid(
             @AuthenticationPrincipal CustomUserDetails userDetails,
@@ -103,6 +119,14 @@ public class DebtController {
         return ResponseEntity.ok(debtService.getSummary(userDetails.getId()));
     }
 
+    @GetMapping("/analytics")
+    public ResponseEntity<DebtAnalyticsResponse> getAnalytics(
+            @AuthenticationPrincipal CustomUserDetails userDetails,
+            @RequestParam(required = false) BigDecimal monthlyPayment
+    ) {
+        return ResponseEntity.ok(debtAnalyticsService.getAnalytics(userDetails.getId(), monthlyPayment));
+    }
+
     @GetMapping("/overdue")
     public ResponseEntity<List<DebtResponse>> getOverdueDebts(
             @AuthenticationPrincipal CustomUserDetails userDetails
@@ -2,6 +2,7 @@ package com.financetracker.controller;
 
 import com.financetracker.dto.family.*;
 import com.financetracker.security.CustomUserDetails;
+import com.financetracker.service.FamilyAnalyticsService;
 import com.financetracker.service.FamilyService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
@@ -22,6 +23,7 @@ import java.util.UUID;
 public class FamilyController {
 
     private final FamilyService familyService;
+    private final FamilyAnalyticsService familyAnalyticsService;
 
     @PostMapping
     @Operation(summary = "Tạo gia đình mới")
@@ -47,6 +49,15 @@ public class FamilyController {
         return ResponseEntity.ok(familyService.getFamily(userDetails.getId(), id));
     }
 
+    @GetMapping("/{id}/analytics")
+    @Operation(summary = "Thống kê thu chi hợp nhất của gia đình theo tháng, thành viên và danh mục")
+    public ResponseEntity<FamilyAnalyticsResponse> getAnalytics(
+            @AuthenticationPrincipal CustomUserDetails userDetails,
+            @PathVariable UUID id,
+            @RequestParam(defaultValue = "12") int months) {
+        return ResponseEntity.ok(familyAnalyticsService.getAnalytics(userDetails.getId(), id, months));
+    }
+
     @PutMapping("/{id}")
     @Operation(summary = "Cập nhật thông tin gia đình")
     public ResponseEntity<FamilyResponse> updateFamily(
@@ -2,12 +2,15 @@ package com.financetracker.controller;
 
 import com.financetracker.dto.notification.NotificationResponse;
 import com.financetracker.security.CustomUserDetails;
+import com.financetracker.security.JwtService;
 import com.financetracker.service.NotificationService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.util.List;
 import java.util.Map;
@@ -19,6 +22,7 @@ import java.util.UUID;
 public class NotificationController {
 
     private final NotificationService notificationService;
+    private final JwtService jwtService;
 
     @GetMapping
     public ResponseEntity<Page<NotificationResponse>> getNotifications(
@@ -42,6 +46,19 @@ public class NotificationController {
         return ResponseEntity.ok(Map.of("count", count));
     }
 
+    // Short-lived ticket for /stream?ticket=..., since EventSource cannot send the Authorization header
+    @PostMapping("/stream-ticket")
+    public ResponseEntity<Map<String, String>> createStreamTicket(
+            @AuthenticationPrincipal CustomUserDetails userDetails) {
+        return ResponseEntity.ok(Map.of("ticket", jwtService.generateStreamTicket(userDetails, userDetails.getId())));
+    }
+
+    // Server-Sent Events: "notification" for each new notification, "unread-count" on every change
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter stream(@AuthenticationPrincipal CustomUserDetails userDetails) {
+        return notificationService.subscribe(userDetails.getId());
+    }
+
     @PostMapping("/{id}/read")
     public ResponseEntity<Void> markAsRead(
             @AuthenticationPrincipal CustomUserDetails userDetails,
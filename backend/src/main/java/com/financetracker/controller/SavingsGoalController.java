@@ -2,6 +2,7 @@ package com.financetracker.controller;
 
 import com.financetracker.dto.savings.*;
 import com.financetracker.security.CustomUserDetails;
+import com.financetracker.service.SavingsGoalAnalyticsService;
 import com.financetracker.service.SavingsGoalService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
@@ -91,6 +92,15 @@ public class SavingsGoalController {
         return ResponseEntity.ok(savingsGoalService.getContributorsSummary(userDetails.getId(), id));
     }
 
+    @GetMapping("/{id}/progress")
+    @Operation(summary = "Tiến độ theo thời gian và dự báo ngày hoàn thành")
+    public ResponseEntity<SavingsGoalProgressResponse> getProgress(
+            @AuthenticationPrincipal CustomUserDetails userDetails,
+            @PathVariable UUID id,
+            @RequestParam(defaultValue = "MONTH") SavingsGoalAnalyticsService.Period period) {
+        return ResponseEntity.ok(savingsGoalService.getProgress(userDetails.getId(), id, period));
+    }
+
     @PutMapping("/{goalId}/contributions/{contributionId}")
     @Operation(summary = "Cập nhật đóng góp")
     public ResponseEntity<SavingsContributionResponse> updateContribution(
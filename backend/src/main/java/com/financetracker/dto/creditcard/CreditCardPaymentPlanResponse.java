@@ -33,6 +33,9 @@ public class CreditCardPaymentPlanResponse {
     private String currency;
     private LocalDate startDate;
     private LocalDate nextPaymentDate;
+    private BigDecimal totalFeeAmount;
+    private BigDecimal totalInterestAmount;
+    private LocalDate finalPaymentDate;
 
     // Installment specific
     private Integer totalInstallments;
@@ -0,0 +1,52 @@
+package com.financetracker.dto.creditcard;
+
+import com.financetracker.entity.PaymentType;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.UUID;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class PaymentPlanSimulationRequest {
+
+    @NotNull(message = "Amount is required")
+    @Positive(message = "Amount must be positive")
+    private BigDecimal amount;
+
+    @NotNull(message = "Payment type is required")
+    private PaymentType paymentType;
+
+    // Billing day is taken from the credit card when given, otherwise from billingDay (default 1)
+    private UUID accountId;
+
+    @Min(value = 1, message = "Billing day must be between 1 and 31")
+    @Max(value = 31, message = "Billing day must be between 1 and 31")
+    private Integer billingDay;
+
+    // For INSTALLMENT
+    @Min(value = 2, message = "Minimum installments is 2")
+    private Integer totalInstallments;
+
+    @Positive(message = "Fee rate must be positive")
+    private BigDecimal installmentFeeRate;
+
+    // For REVOLVING
+    @Positive(message = "Monthly payment must be positive")
+    private BigDecimal monthlyPayment;
+
+    @Positive(message = "Interest rate must be positive")
+    private BigDecimal interestRate;
+
+    private LocalDate startDate;
+}
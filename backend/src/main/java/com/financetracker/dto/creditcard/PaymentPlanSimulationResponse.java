@@ -0,0 +1,31 @@
+package com.financetracker.dto.creditcard;
+
+import com.financetracker.entity.PaymentType;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class PaymentPlanSimulationResponse {
+
+    private PaymentType paymentType;
+    private BigDecimal originalAmount;
+    private BigDecimal installmentAmount;
+    private BigDecimal totalFeeAmount;
+    private BigDecimal totalInterestAmount;
+    private BigDecimal totalAmount;
+    private Integer totalInstallments;
+    private LocalDate firstPaymentDate;
+    private LocalDate finalPaymentDate;
+
+    // Not persisted: payments have no id or payment date
+    private List<CreditCardPaymentResponse> payments;
+}
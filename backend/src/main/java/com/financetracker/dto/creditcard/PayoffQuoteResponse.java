@@ -0,0 +1,29 @@
+package com.financetracker.dto.creditcard;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.UUID;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class PayoffQuoteResponse {
+
+    private UUID planId;
+    private LocalDate payoffDate;
+    private String currency;
+    private Integer unpaidInstallments;
+    private BigDecimal outstandingPrincipal;
+    // Fees/interest of installments already due plus interest accrued in the current period
+    private BigDecimal accruedCharges;
+    private BigDecimal payoffAmount;
+    // What the unpaid installments would cost on schedule
+    private BigDecimal scheduledRemaining;
+    private BigDecimal savings;
+}
@@ -0,0 +1,53 @@
+package com.financetracker.dto.dashboard;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class CashflowForecast {
+
+    private LocalDate startDate;
+    private LocalDate endDate;
+    private List<AccountForecast> accounts;
+    // Debts are not tied to an account; their settlements are projected per currency
+    private List<DebtForecast> debts;
+
+    @Data
+    @Builder
+    @AllArgsConstructor
+    @NoArgsConstructor
+    public static class AccountForecast {
+        private UUID accountId;
+        private String accountName;
+        private String currency;
+        private BigDecimal currentBalance;
+        private BigDecimal endingBalance;
+        private BigDecimal lowestBalance;
+        private LocalDate lowestBalanceDate;
+        private LocalDate firstNegativeDate;
+        // Projected end-of-day balance, one entry per day from startDate to endDate
+        private List<BigDecimal> dailyBalances;
+    }
+
+    @Data
+    @Builder
+    @AllArgsConstructor
+    @NoArgsConstructor
+    public static class DebtForecast {
+        private String currency;
+        private BigDecimal totalIncoming;
+        private BigDecimal totalOutgoing;
+        // Cumulative net settlement (LEND due = incoming, BORROW due = outgoing), one entry per day
+        private List<BigDecimal> dailyCumulativeNet;
+    }
+}
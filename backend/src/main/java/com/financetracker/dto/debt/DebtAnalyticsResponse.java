@@ -0,0 +1,71 @@
+package com.financetracker.dto.debt;
+
+import com.financetracker.entity.DebtStatus;
+import com.financetracker.entity.DebtType;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class DebtAnalyticsResponse {
+
+    // Totals below are converted into this currency (the user's default)
+    private String currency;
+    private BigDecimal totalLent;
+    private BigDecimal totalBorrowed;
+    private BigDecimal netBalance;
+    private List<Breakdown> breakdown;
+    // Currencies without an exchange rate; left out of the totals and the simulation
+    private List<String> unconvertedCurrencies;
+    private BigDecimal monthlyPayment;
+    private List<PayoffStrategy> strategies;
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Breakdown {
+        private DebtType type;
+        private String currency;
+        private DebtStatus status;
+        private long count;
+        private BigDecimal outstanding;
+        private BigDecimal convertedOutstanding;
+    }
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class PayoffStrategy {
+        private String strategy;
+        private boolean paidOff;
+        private int months;
+        private LocalDate payoffDate;
+        private BigDecimal totalInterest;
+        private BigDecimal totalPaid;
+        private List<DebtPayoff> debts;
+    }
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class DebtPayoff {
+        private UUID debtId;
+        private String personName;
+        private BigDecimal interestRate;
+        private BigDecimal balance;
+        // Null when the debt is still open at the end of the simulation
+        private LocalDate payoffDate;
+    }
+}
@@ -0,0 +1,21 @@
+package com.financetracker.dto.debt;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class DebtPaymentHistoryResponse {
+    private List<DebtPaymentResponse> payments;
+    // Cursor for the next page; both null on the last page
+    private LocalDate nextBeforeDate;
+    private UUID nextBeforeId;
+}
@@ -0,0 +1,25 @@
+package com.financetracker.dto.debt;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.util.UUID;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class DebtPaymentResponse {
+    private UUID id;
+    private BigDecimal amount;
+    private LocalDate paymentDate;
+    private UUID accountId;
+    private String accountName;
+    private String note;
+    private OffsetDateTime createdAt;
+}
@@ -4,6 +4,7 @@ import com.financetracker.entity.DebtType;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Positive;
+import jakarta.validation.constraints.PositiveOrZero;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -38,4 +39,7 @@ public class DebtRequest {
     private LocalDate dueDate;
 
     private String note;
+
+    @PositiveOrZero(message = "Interest rate must not be negative")
+    private BigDecimal interestRate;
 }
@@ -30,6 +30,7 @@ public class DebtResponse {
     private BigDecimal paidAmount;
     private BigDecimal remainingAmount;
     private String note;
+    private BigDecimal interestRate;
     private boolean overdue;
     private OffsetDateTime createdAt;
     private OffsetDateTime updatedAt;
@@ -0,0 +1,72 @@
+package com.financetracker.dto.family;
+
+import com.financetracker.entity.TransactionType;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class FamilyAnalyticsResponse {
+    private UUID familyId;
+    // Amounts are converted into the family currency
+    private String currency;
+    private LocalDate startDate;
+    private LocalDate endDate;
+    private BigDecimal totalIncome;
+    private BigDecimal totalExpense;
+    private BigDecimal net;
+    private List<MonthTotal> months;
+    private List<MemberTotal> members;
+    private List<CategoryTotal> categories;
+    // Currencies without an exchange rate; left out of every total
+    private List<String> unconvertedCurrencies;
+
+    @Data
+    @Builder
+    @AllArgsConstructor
+    @NoArgsConstructor
+    public static class MonthTotal {
+        private LocalDate month;
+        private BigDecimal income;
+        private BigDecimal expense;
+        private BigDecimal net;
+        private long transactions;
+    }
+
+    @Data
+    @Builder
+    @AllArgsConstructor
+    @NoArgsConstructor
+    public static class MemberTotal {
+        private UUID userId;
+        // Null for people who have since left the family
+        private String fullName;
+        private BigDecimal income;
+        private BigDecimal expense;
+        private long transactions;
+    }
+
+    @Data
+    @Builder
+    @AllArgsConstructor
+    @NoArgsConstructor
+    public static class CategoryTotal {
+        // Null for uncategorized transactions
+        private UUID categoryId;
+        private String name;
+        private String icon;
+        private String color;
+        private TransactionType type;
+        private BigDecimal amount;
+        private long transactions;
+    }
+}
@@ -23,6 +23,7 @@ public class FamilyResponse {
     private UUID createdById;
     private String createdByName;
     private int memberCount;
+    private int accountCount;
     private FamilyRole myRole;
     private OffsetDateTime createdAt;
 }
@@ -0,0 +1,49 @@
+package com.financetracker.dto.savings;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class SavingsGoalProgressResponse {
+    private UUID goalId;
+    private String currency;
+    private String period;
+    private BigDecimal targetAmount;
+    private BigDecimal currentAmount;
+    private BigDecimal remainingAmount;
+    private LocalDate targetDate;
+
+    // Contributions per period, from the first contribution to the current period (empty periods included)
+    private List<PeriodPoint> series;
+
+    private BigDecimal averagePerPeriod;
+    // Least-squares change of the contribution rate per period over recent complete periods
+    private BigDecimal trendPerPeriod;
+    private BigDecimal projectedPerPeriod;
+    // Null when the goal is reached or the contribution rate is zero
+    private LocalDate projectedCompletionDate;
+    // Null without a target date; the whole remainder when the target date has passed
+    private BigDecimal requiredMonthlyAmount;
+    private Boolean onTrack;
+
+    @Data
+    @Builder
+    @AllArgsConstructor
+    @NoArgsConstructor
+    public static class PeriodPoint {
+        private LocalDate periodStart;
+        private BigDecimal amount;
+        private BigDecimal cumulativeAmount;
+        private long contributions;
+    }
+}
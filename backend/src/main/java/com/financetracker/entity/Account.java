@@ -44,7 +44,8 @@ public class Account extends BaseEntity {
     @Builder.Default
     private BigDecimal initialBalance = BigDecimal.ZERO;
 
-    @Column(name = "current_balance", precision = 19, scale = 4)
+    // Changed only by atomic delta updates (AccountRepository.adjustBalance)
+    @Column(name = "current_balance", precision = 19, scale = 4, updatable = false)
     @Builder.Default
     private BigDecimal currentBalance = BigDecimal.ZERO;
 
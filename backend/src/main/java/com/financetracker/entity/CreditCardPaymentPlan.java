@@ -52,6 +52,18 @@ public class CreditCardPaymentPlan extends BaseEntity {
     @Column(name = "next_payment_date")
     private LocalDate nextPaymentDate;
 
+    // Schedule summary, kept on the plan so listings never load the payments
+    @Column(name = "total_fee_amount", nullable = false, precision = 19, scale = 4)
+    @Builder.Default
+    private BigDecimal totalFeeAmount = BigDecimal.ZERO;
+
+    @Column(name = "total_interest_amount", nullable = false, precision = 19, scale = 4)
+    @Builder.Default
+    private BigDecimal totalInterestAmount = BigDecimal.ZERO;
+
+    @Column(name = "final_payment_date")
+    private LocalDate finalPaymentDate;
+
     // Installment specific
     @Column(name = "total_installments")
     private Integer totalInstallments;
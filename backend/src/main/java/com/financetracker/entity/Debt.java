@@ -40,14 +40,20 @@ public class Debt extends BaseEntity {
     @Column(name = "due_date")
     private LocalDate dueDate;
 
+    // Only changed by DebtRepository statements, so saving an instance loaded before a payment cannot undo it
     @Enumerated(EnumType.STRING)
-    @Column(nullable = false, length = 20)
+    @Column(nullable = false, length = 20, updatable = false)
     @Builder.Default
     private DebtStatus status = DebtStatus.ACTIVE;
 
-    @Column(name = "paid_amount", nullable = false, precision = 19, scale = 4)
+    // Only moved by DebtRepository.addPayment / markPaid so concurrent payments never overwrite each other
+    @Column(name = "paid_amount", nullable = false, precision = 19, scale = 4, updatable = false)
     @Builder.Default
     private BigDecimal paidAmount = BigDecimal.ZERO;
 
     private String note;
+
+    // Annual, e.g. 0.15 = 15%
+    @Column(name = "interest_rate", precision = 8, scale = 4)
+    private BigDecimal interestRate;
 }
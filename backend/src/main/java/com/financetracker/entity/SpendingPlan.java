@@ -53,11 +53,12 @@ public class SpendingPlan extends BaseEntity {
     @Builder.Default
     private SpendingPlanStatus status = SpendingPlanStatus.PLANNING;
 
-    @Column(name = "total_estimated", nullable = false, precision = 19, scale = 4)
+    // Running totals maintained by atomic delta updates (SpendingPlanRepository.addToTotals)
+    @Column(name = "total_estimated", nullable = false, precision = 19, scale = 4, updatable = false)
     @Builder.Default
     private BigDecimal totalEstimated = BigDecimal.ZERO;
 
-    @Column(name = "total_actual", nullable = false, precision = 19, scale = 4)
+    @Column(name = "total_actual", nullable = false, precision = 19, scale = 4, updatable = false)
     @Builder.Default
     private BigDecimal totalActual = BigDecimal.ZERO;
 
@@ -78,13 +79,4 @@ public class SpendingPlan extends BaseEntity {
     public BigDecimal getRemainingAmount() {
         return totalEstimated.subtract(totalActual);
     }
-
-    public void recalculateTotals() {
-        this.totalEstimated = items.stream()
-                .map(SpendingPlanItem::getEstimatedAmount)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
-        this.totalActual = items.stream()
-                .map(SpendingPlanItem::getActualAmount)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
-    }
 }
@@ -32,7 +32,8 @@ public class SpendingPlanItem extends BaseEntity {
     @Column(name = "estimated_amount", nullable = false, precision = 19, scale = 4)
     private BigDecimal estimatedAmount;
 
-    @Column(name = "actual_amount", nullable = false, precision = 19, scale = 4)
+    // Maintained by atomic delta updates (SpendingPlanItemRepository.addToActualAmount)
+    @Column(name = "actual_amount", nullable = false, precision = 19, scale = 4, updatable = false)
     @Builder.Default
     private BigDecimal actualAmount = BigDecimal.ZERO;
 
@@ -74,10 +75,4 @@ public class SpendingPlanItem extends BaseEntity {
     public boolean isOverBudget() {
         return actualAmount.compareTo(estimatedAmount) > 0;
     }
-
-    public void recalculateActual() {
-        this.actualAmount = expenses.stream()
-                .map(SpendingPlanExpense::getAmountInPlanCurrency)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
-    }
 }
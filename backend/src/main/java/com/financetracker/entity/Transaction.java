@@ -58,6 +58,10 @@ public class Transaction extends BaseEntity {
     @JoinColumn(name = "recurring_transaction_id")
     private RecurringTransaction recurringTransaction;
 
+    // Occurrence of the recurring rule this transaction was posted for (idempotency key)
+    @Column(name = "recurring_occurrence_date")
+    private LocalDate recurringOccurrenceDate;
+
     @Enumerated(EnumType.STRING)
     @Column(name = "payment_type", length = 20)
     @Builder.Default
@@ -3,11 +3,14 @@ package com.financetracker.repository;
 import com.financetracker.entity.Account;
 import com.financetracker.entity.AccountType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.math.BigDecimal;
+import java.time.OffsetDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -21,25 +24,76 @@ public interface AccountRepository extends JpaRepository<Account, UUID> {
 
     List<Account> findByUserIdAndType(UUID userId, AccountType type);
 
+    // Admin list: account counts for a page of users
+    @Query("SELECT a.user.id, COUNT(a) FROM Account a WHERE a.user.id IN :userIds GROUP BY a.user.id")
+    List<Object[]> countByUserIds(@Param("userIds") Collection<UUID> userIds);
+
     Optional<Account> findByIdAndUserId(UUID id, UUID userId);
 
+    // Atomic delta so concurrent postings to the same account (e.g. recurring workers) cannot lose updates
+    @Modifying(flushAutomatically = true)
+    @Query(value = "UPDATE accounts SET current_balance = current_balance + :delta, updated_at = now() WHERE id = :id",
+            nativeQuery = true)
+    int adjustBalance(@Param("id") UUID id, @Param("delta") BigDecimal delta);
+
     @Query("SELECT SUM(a.currentBalance) FROM Account a WHERE a.user.id = :userId AND a.isActive = true AND a.currency = :currency")
     BigDecimal sumBalanceByUserIdAndCurrency(@Param("userId") UUID userId, @Param("currency") String currency);
 
     @Query("SELECT a.currency, SUM(a.currentBalance) FROM Account a WHERE a.user.id = :userId AND a.isActive = true GROUP BY a.currency")
     List<Object[]> sumBalanceByUserIdGroupByCurrency(@Param("userId") UUID userId);
 
-    @Query("SELECT a FROM Account a WHERE a.type = 'CREDIT_CARD' AND a.isActive = true AND a.billingDay = :day AND a.linkedAccount IS NOT NULL")
-    List<Account> findCreditCardsDueForPayment(@Param("day") int day);
-
-    @Query("SELECT a FROM Account a WHERE a.isActive = true AND a.currentBalance <= :threshold")
-    List<Account> findByCurrentBalanceLessThanEqual(@Param("threshold") BigDecimal threshold);
-
     List<Account> findByCurrencyAndIsActiveTrue(String currency);
 
     default List<Account> findByCurrency(String currency) {
         return findByCurrencyAndIsActiveTrue(currency);
     }
 
+    /**
+     * Notification candidates: active accounts with balance <= 0, one row per user (lowest balance)
+     * in the given user-id hash partition that has no ACCOUNT_EMPTY notification since :after.
+     * Columns: user_id, name, current_balance, currency
+     */
+    @Query(value = """
+            SELECT DISTINCT ON (a.user_id) a.user_id, a.name, a.current_balance, a.currency
+            FROM accounts a
+            WHERE a.is_active = true
+              AND a.current_balance <= 0
+              AND (hashtext(CAST(a.user_id AS text)) & 2147483647) % :partitions = :partition
+              AND NOT EXISTS (
+                SELECT 1 FROM notifications n
+                WHERE n.user_id = a.user_id
+                  AND n.type = 'ACCOUNT_EMPTY'
+                  AND n.created_at > :after
+              )
+            ORDER BY a.user_id, a.current_balance
+            """, nativeQuery = true)
+    List<Object[]> findEmptyBalanceNotificationCandidates(
+            @Param("after") OffsetDateTime after,
+            @Param("partition") int partition,
+            @Param("partitions") int partitions);
+
+    /**
+     * Users in the given user-id hash partition holding an active account in :currency
+     * with no EXCHANGE_RATE_ALERT notification since :after.
+     */
+    @Query(value = """
+            SELECT DISTINCT a.user_id
+            FROM accounts a
+            WHERE a.is_active = true
+              AND a.currency = :currency
+              AND (hashtext(CAST(a.user_id AS text)) & 2147483647) % :partitions = :partition
+              AND NOT EXISTS (
+                SELECT 1 FROM notifications n
+                WHERE n.user_id = a.user_id
+                  AND n.type = 'EXCHANGE_RATE_ALERT'
+                  AND n.created_at > :after
+              )
+            """, nativeQuery = true)
+    List<UUID> findExchangeRateAlertCandidates(
+            @Param("currency") String currency,
+            @Param("after") OffsetDateTime after,
+            @Param("partition") int partition,
+            @Param("partitions") int partitions);
+
     void deleteByUserId(UUID userId);
 }
@@ -8,6 +8,7 @@ import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDate;
+import java.time.OffsetDateTime;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -44,5 +45,40 @@ public interface BudgetRepository extends JpaRepository<Budget, UUID> {
     @Query("SELECT b FROM Budget b WHERE (b.user.id = :userId OR b.family.id IN :familyIds) AND b.isActive = true")
     List<Budget> findAccessibleActiveBudgets(@Param("userId") UUID userId, @Param("familyIds") List<UUID> familyIds);
 
+    /**
+     * Notification candidates: personal budgets at or above their alert threshold but below 100%
+     * (or at/over 100% when :exceeded), one row per user (highest percentage) in the given user-id hash partition
+     * that has no notification of :type since :after.
+     * Columns: user_id, category_name, percentage
+     */
+    @Query(value = """
+            SELECT DISTINCT ON (x.user_id) x.user_id, x.category_name, x.percentage
+            FROM (
+                SELECT b.user_id, c.name AS category_name, COALESCE(b.alert_threshold, 80) AS alert_threshold,
+                       CAST(ROUND(b.spent_amount * 100 / b.amount) AS integer) AS percentage
+                FROM budgets b
+                LEFT JOIN categories c ON c.id = b.category_id
+                WHERE b.is_active = true
+                  AND b.user_id IS NOT NULL
+                  AND b.amount > 0
+                  AND (hashtext(CAST(b.user_id AS text)) & 2147483647) % :partitions = :partition
+            ) x
+            WHERE CASE WHEN :exceeded THEN x.percentage >= 100
+                       ELSE x.percentage >= x.alert_threshold AND x.percentage < 100 END
+              AND NOT EXISTS (
+                SELECT 1 FROM notifications n
+                WHERE n.user_id = x.user_id
+                  AND n.type = :type
+                  AND n.created_at > :after
+              )
+            ORDER BY x.user_id, x.percentage DESC
+            """, nativeQuery = true)
+    List<Object[]> findThresholdNotificationCandidates(
+            @Param("exceeded") boolean exceeded,
+            @Param("type") String type,
+            @Param("after") OffsetDateTime after,
+            @Param("partition") int partition,
+            @Param("partitions") int partitions);
+
     void deleteByUserId(UUID userId);
 }
@@ -18,26 +18,28 @@ import java.util.UUID;
 @Repository
 public interface CreditCardPaymentPlanRepository extends JpaRepository<CreditCardPaymentPlan, UUID> {
 
-    Page<CreditCardPaymentPlan> findByUserId(UUID userId, Pageable pageable);
-
-    Page<CreditCardPaymentPlan> findByUserIdAndStatus(UUID userId, PaymentPlanStatus status, Pageable pageable);
-
-    Page<CreditCardPaymentPlan> findByUserIdAndPaymentType(UUID userId, PaymentType paymentType, Pageable pageable);
-
-    Page<CreditCardPaymentPlan> findByUserIdAndStatusAndPaymentType(
-            UUID userId, PaymentPlanStatus status, PaymentType paymentType, Pageable pageable);
-
-    // Filter by account
-    Page<CreditCardPaymentPlan> findByUserIdAndAccountId(UUID userId, UUID accountId, Pageable pageable);
-
-    Page<CreditCardPaymentPlan> findByUserIdAndAccountIdAndStatus(
-            UUID userId, UUID accountId, PaymentPlanStatus status, Pageable pageable);
-
-    Page<CreditCardPaymentPlan> findByUserIdAndAccountIdAndPaymentType(
-            UUID userId, UUID accountId, PaymentType paymentType, Pageable pageable);
-
-    Page<CreditCardPaymentPlan> findByUserIdAndAccountIdAndStatusAndPaymentType(
-            UUID userId, UUID accountId, PaymentPlanStatus status, PaymentType paymentType, Pageable pageable);
+    /**
+     * Plan listing with optional filters. Transaction and account are fetched in the same query;
+     * schedule figures come from the plan's summary columns, never from the payments.
+     */
+    @Query(value = "SELECT p FROM CreditCardPaymentPlan p " +
+                   "JOIN FETCH p.transaction " +
+                   "JOIN FETCH p.account a " +
+                   "WHERE p.user.id = :userId " +
+                   "AND (:accountId IS NULL OR a.id = :accountId) " +
+                   "AND (:status IS NULL OR p.status = :status) " +
+                   "AND (:paymentType IS NULL OR p.paymentType = :paymentType)",
+           countQuery = "SELECT COUNT(p) FROM CreditCardPaymentPlan p " +
+                        "WHERE p.user.id = :userId " +
+                        "AND (:accountId IS NULL OR p.account.id = :accountId) " +
+                        "AND (:status IS NULL OR p.status = :status) " +
+                        "AND (:paymentType IS NULL OR p.paymentType = :paymentType)")
+    Page<CreditCardPaymentPlan> findForListing(
+            @Param("userId") UUID userId,
+            @Param("accountId") UUID accountId,
+            @Param("status") PaymentPlanStatus status,
+            @Param("paymentType") PaymentType paymentType,
+            Pageable pageable);
 
     Optional<CreditCardPaymentPlan> findByIdAndUserId(UUID id, UUID userId);
 
@@ -9,6 +9,7 @@ import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDate;
+import java.time.OffsetDateTime;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -28,8 +29,75 @@ public interface CreditCardPaymentRepository extends JpaRepository<CreditCardPay
             @Param("startDate") LocalDate startDate,
             @Param("endDate") LocalDate endDate);
 
-    @Query("SELECT p FROM CreditCardPayment p WHERE p.status = 'PENDING' AND p.dueDate < :date")
-    List<CreditCardPayment> findOverduePayments(@Param("date") LocalDate date);
+    @Query("SELECT p FROM CreditCardPayment p " +
+           "JOIN FETCH p.plan pl " +
+           "JOIN FETCH pl.account a " +
+           "LEFT JOIN FETCH a.linkedAccount " +
+           "WHERE pl.user.id = :userId AND pl.status = 'ACTIVE' " +
+           "AND p.status IN ('PENDING', 'OVERDUE') AND p.dueDate <= :endDate")
+    List<CreditCardPayment> findOutstandingForForecast(
+            @Param("userId") UUID userId,
+            @Param("endDate") LocalDate endDate);
+
+    /**
+     * Reminder candidates: one row per user (earliest due) with a pending installment due between
+     * :today and :endDate and no CREDIT_CARD_PAYMENT_DUE notification since :after.
+     * Keyset-paged by user id so the job streams the backlog in chunks.
+     * Columns: user_id, plan_id, payment_id, payment_number, days_until_due, description
+     */
+    @Query(value = """
+            SELECT DISTINCT ON (pl.user_id) pl.user_id, pl.id, p.id, p.payment_number,
+                   p.due_date - :today, t.description
+            FROM credit_card_payments p
+            JOIN credit_card_payment_plans pl ON pl.id = p.plan_id
+            JOIN transactions t ON t.id = pl.transaction_id
+            WHERE p.status = 'PENDING'
+              AND p.due_date BETWEEN :today AND :endDate
+              AND pl.user_id > :afterUserId
+              AND NOT EXISTS (
+                SELECT 1 FROM notifications n
+                WHERE n.user_id = pl.user_id
+                  AND n.type = 'CREDIT_CARD_PAYMENT_DUE'
+                  AND n.created_at > :after
+              )
+            ORDER BY pl.user_id, p.due_date, p.payment_number
+            LIMIT :limit
+            """, nativeQuery = true)
+    List<Object[]> findDueSoonReminderCandidates(
+            @Param("today") LocalDate today,
+            @Param("endDate") LocalDate endDate,
+            @Param("after") OffsetDateTime after,
+            @Param("afterUserId") UUID afterUserId,
+            @Param("limit") int limit);
+
+    /**
+     * Overdue notification candidates: one row per user (most overdue) with an OVERDUE installment
+     * and no CREDIT_CARD_PAYMENT_OVERDUE notification since :after. Keyset-paged by user id.
+     * Columns: user_id, plan_id, payment_id, payment_number, days_overdue, description
+     */
+    @Query(value = """
+            SELECT DISTINCT ON (pl.user_id) pl.user_id, pl.id, p.id, p.payment_number,
+                   :today - p.due_date, t.description
+            FROM credit_card_payments p
+            JOIN credit_card_payment_plans pl ON pl.id = p.plan_id
+            JOIN transactions t ON t.id = pl.transaction_id
+            WHERE p.status = 'OVERDUE'
+              AND p.due_date < :today
+              AND pl.user_id > :afterUserId
+              AND NOT EXISTS (
+                SELECT 1 FROM notifications n
+                WHERE n.user_id = pl.user_id
+                  AND n.type = 'CREDIT_CARD_PAYMENT_OVERDUE'
+                  AND n.created_at > :after
+              )
+            ORDER BY pl.user_id, p.due_date, p.payment_number
+            LIMIT :limit
+            """, nativeQuery = true)
+    List<Object[]> findOverdueReminderCandidates(
+            @Param("today") LocalDate today,
+            @Param("after") OffsetDateTime after,
+            @Param("afterUserId") UUID afterUserId,
+            @Param("limit") int limit);
 
     @Modifying
     @Query("UPDATE CreditCardPayment p SET p.status = 'OVERDUE' WHERE p.status = 'PENDING' AND p.dueDate < :date")
@@ -43,4 +111,8 @@ public interface CreditCardPaymentRepository extends JpaRepository<CreditCardPay
     @Modifying
     @Query("DELETE FROM CreditCardPayment p WHERE p.plan.id = :planId")
     void deleteByPaymentPlanId(@Param("planId") UUID planId);
+
+    @Modifying
+    @Query("DELETE FROM CreditCardPayment p WHERE p.plan.id = :planId AND p.paymentNumber > :paymentNumber AND p.status <> 'PAID'")
+    int deleteUnpaidAfter(@Param("planId") UUID planId, @Param("paymentNumber") int paymentNumber);
 }
@@ -0,0 +1,36 @@
+package com.financetracker.repository;
+
+import com.financetracker.entity.DebtPayment;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface DebtPaymentRepository extends JpaRepository<DebtPayment, UUID> {
+
+    /**
+     * Newest payments first; pass Pageable.ofSize(limit) and page on with {@link #findHistoryBefore}.
+     */
+    @Query("SELECT p FROM DebtPayment p LEFT JOIN FETCH p.account " +
+           "WHERE p.debt.id = :debtId " +
+           "ORDER BY p.paymentDate DESC, p.id DESC")
+    List<DebtPayment> findHistory(@Param("debtId") UUID debtId, Pageable pageable);
+
+    /**
+     * Keyset page after the (paymentDate, id) of the last row already returned.
+     */
+    @Query("SELECT p FROM DebtPayment p LEFT JOIN FETCH p.account " +
+           "WHERE p.debt.id = :debtId " +
+           "AND (p.paymentDate < :beforeDate OR (p.paymentDate = :beforeDate AND p.id < :beforeId)) " +
+           "ORDER BY p.paymentDate DESC, p.id DESC")
+    List<DebtPayment> findHistoryBefore(@Param("debtId") UUID debtId,
+                                        @Param("beforeDate") LocalDate beforeDate,
+                                        @Param("beforeId") UUID beforeId,
+                                        Pageable pageable);
+}
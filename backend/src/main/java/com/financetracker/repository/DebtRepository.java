@@ -6,12 +6,14 @@ import com.financetracker.entity.DebtType;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.time.OffsetDateTime;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -31,6 +33,15 @@ public interface DebtRepository extends JpaRepository<Debt, UUID> {
 
     List<Debt> findByUserIdAndStatusIn(UUID userId, List<DebtStatus> statuses);
 
+    List<Debt> findByUserIdAndTypeAndStatusIn(UUID userId, DebtType type, List<DebtStatus> statuses);
+
+    /**
+     * Columns: type, currency, status, count, outstanding (amount - paid)
+     */
+    @Query("SELECT d.type, d.currency, d.status, COUNT(d), SUM(d.amount - d.paidAmount) FROM Debt d " +
+           "WHERE d.user.id = :userId GROUP BY d.type, d.currency, d.status")
+    List<Object[]> sumOutstandingByTypeCurrencyAndStatus(@Param("userId") UUID userId);
+
     @Query("SELECT d FROM Debt d WHERE d.user.id = :userId AND d.status IN ('ACTIVE', 'PARTIALLY_PAID') AND d.dueDate <= :date")
     List<Debt> findOverdueDebts(@Param("userId") UUID userId, @Param("date") LocalDate date);
 
@@ -40,11 +51,70 @@ public interface DebtRepository extends JpaRepository<Debt, UUID> {
     @Query("SELECT COUNT(d) FROM Debt d WHERE d.user.id = :userId AND d.status IN ('ACTIVE', 'PARTIALLY_PAID')")
     long countActiveDebts(@Param("userId") UUID userId);
 
-    @Query("SELECT d FROM Debt d WHERE d.dueDate BETWEEN :startDate AND :endDate AND d.status = :status")
-    List<Debt> findByDueDateBetweenAndStatus(
-            @Param("startDate") LocalDate startDate,
+    /**
+     * Notification candidates: one row per user (earliest due) in the given user-id hash partition
+     * that has no DEBT_DUE_SOON notification since :after.
+     * Columns: user_id, person_name, days_until_due, remaining_amount, currency
+     */
+    @Query(value = """
+            SELECT DISTINCT ON (d.user_id) d.user_id, d.person_name, d.due_date - :today,
+                   d.amount - d.paid_amount, d.currency
+            FROM debts d
+            WHERE d.status = 'ACTIVE'
+              AND d.due_date BETWEEN :today AND :endDate
+              AND (hashtext(CAST(d.user_id AS text)) & 2147483647) % :partitions = :partition
+              AND NOT EXISTS (
+                SELECT 1 FROM notifications n
+                WHERE n.user_id = d.user_id
+                  AND n.type = 'DEBT_DUE_SOON'
+                  AND n.created_at > :after
+              )
+            ORDER BY d.user_id, d.due_date
+            """, nativeQuery = true)
+    List<Object[]> findDueSoonNotificationCandidates(
+            @Param("today") LocalDate today,
             @Param("endDate") LocalDate endDate,
-            @Param("status") DebtStatus status);
+            @Param("after") OffsetDateTime after,
+            @Param("partition") int partition,
+            @Param("partitions") int partitions);
+
+    /**
+     * Add a payment to an open debt and move its status, unless the payment exceeds the remaining amount.
+     *
+     * @return 1 if applied, 0 if the debt is closed or the payment is too large
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query(value = """
+            UPDATE debts
+            SET paid_amount = paid_amount + :amount,
+                status = CASE WHEN paid_amount + :amount >= amount THEN 'PAID' ELSE 'PARTIALLY_PAID' END,
+                updated_at = now()
+            WHERE id = :id
+              AND status IN ('ACTIVE', 'PARTIALLY_PAID')
+              AND paid_amount + :amount <= amount
+            """, nativeQuery = true)
+    int addPayment(@Param("id") UUID id, @Param("amount") BigDecimal amount);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query(value = "UPDATE debts SET paid_amount = amount, status = 'PAID', updated_at = now() WHERE id = :id",
+            nativeQuery = true)
+    int markPaid(@Param("id") UUID id);
+
+    // After an edit of the amount, from the paid amount as it is now rather than as it was loaded
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query(value = """
+            UPDATE debts
+            SET status = CASE WHEN paid_amount >= amount THEN 'PAID'
+                              WHEN paid_amount > 0 THEN 'PARTIALLY_PAID'
+                              ELSE 'ACTIVE' END
+            WHERE id = :id
+            """, nativeQuery = true)
+    int refreshStatus(@Param("id") UUID id);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query(value = "UPDATE debts SET status = 'CANCELLED', updated_at = now() WHERE id = :id AND status <> 'PAID'",
+            nativeQuery = true)
+    int cancel(@Param("id") UUID id);
 
     void deleteByUserId(UUID userId);
 }
@@ -18,10 +18,23 @@ public interface FamilyMemberRepository extends JpaRepository<FamilyMember, UUID
 
     List<FamilyMember> findByFamilyId(UUID familyId);
 
+    /**
+     * Columns: member id, user id, email, full name, role, joined at
+     */
+    @Query("SELECT m.id, u.id, u.email, u.fullName, m.role, m.joinedAt FROM FamilyMember m JOIN m.user u " +
+           "WHERE m.family.id = :familyId ORDER BY m.joinedAt")
+    List<Object[]> findMemberSummariesByFamilyId(@Param("familyId") UUID familyId);
+
     List<FamilyMember> findByUserId(UUID userId);
 
     boolean existsByFamilyIdAndUserId(UUID familyId, UUID userId);
 
+    /**
+     * Columns: family_id, role
+     */
+    @Query("SELECT m.family.id, m.role FROM FamilyMember m WHERE m.user.id = :userId")
+    List<Object[]> findRolesByUserId(@Param("userId") UUID userId);
+
     @Query("SELECT m FROM FamilyMember m WHERE m.family.id = :familyId AND m.role IN :roles")
     List<FamilyMember> findByFamilyIdAndRoleIn(@Param("familyId") UUID familyId, @Param("roles") List<FamilyRole> roles);
 
@@ -13,8 +13,27 @@ import java.util.UUID;
 @Repository
 public interface FamilyRepository extends JpaRepository<Family, UUID> {
 
-    @Query("SELECT DISTINCT f FROM Family f JOIN f.members m WHERE m.user.id = :userId")
-    List<Family> findByMemberUserId(@Param("userId") UUID userId);
+    /**
+     * The user's families with everything a listing shows, in one round trip.
+     * Columns: family, creator, caller's role, member count, account count
+     */
+    @Query("SELECT f, c, m.role, " +
+           "(SELECT COUNT(m2) FROM FamilyMember m2 WHERE m2.family = f), " +
+           "(SELECT COUNT(a) FROM Account a WHERE a.family = f) " +
+           "FROM FamilyMember m JOIN m.family f JOIN f.createdBy c " +
+           "WHERE m.user.id = :userId " +
+           "ORDER BY f.createdAt")
+    List<Object[]> findSummariesByMemberUserId(@Param("userId") UUID userId);
+
+    /**
+     * Same columns as {@link #findSummariesByMemberUserId}; empty unless the user is a member.
+     */
+    @Query("SELECT f, c, m.role, " +
+           "(SELECT COUNT(m2) FROM FamilyMember m2 WHERE m2.family = f), " +
+           "(SELECT COUNT(a) FROM Account a WHERE a.family = f) " +
+           "FROM FamilyMember m JOIN m.family f JOIN f.createdBy c " +
+           "WHERE f.id = :familyId AND m.user.id = :userId")
+    List<Object[]> findSummaryByIdAndMemberUserId(@Param("familyId") UUID familyId, @Param("userId") UUID userId);
 
     Optional<Family> findByIdAndCreatedById(UUID id, UUID userId);
 
@@ -28,12 +28,9 @@ public interface NotificationRepository extends JpaRepository<Notification, UUID
     int markAllAsRead(@Param("userId") UUID userId);
 
     @Modifying
-    @Query("UPDATE Notification n SET n.isRead = true WHERE n.id = :id AND n.user.id = :userId")
+    @Query("UPDATE Notification n SET n.isRead = true WHERE n.id = :id AND n.user.id = :userId AND n.isRead = false")
     int markAsRead(@Param("id") UUID id, @Param("userId") UUID userId);
 
-    // Check if notification already exists (to avoid duplicates)
-    boolean existsByUserIdAndTypeAndCreatedAtAfter(UUID userId, NotificationType type, OffsetDateTime after);
-
     @Query("SELECT n FROM Notification n WHERE n.user.id = :userId AND n.type = :type AND n.createdAt > :after")
     List<Notification> findRecentByUserAndType(@Param("userId") UUID userId, @Param("type") NotificationType type, @Param("after") OffsetDateTime after);
 
@@ -10,6 +10,8 @@ import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -28,10 +30,12 @@ public interface RecurringTransactionRepository extends JpaRepository<RecurringT
     Optional<RecurringTransaction> findByIdAndUserId(UUID id, UUID userId);
 
     @Query("SELECT r FROM RecurringTransaction r " +
-           "WHERE r.status = 'ACTIVE' " +
-           "AND r.nextExecutionDate <= :today " +
-           "AND (r.endDate IS NULL OR r.endDate >= :today)")
-    List<RecurringTransaction> findDueForExecution(@Param("today") LocalDate today);
+           "JOIN FETCH r.user " +
+           "JOIN FETCH r.account " +
+           "LEFT JOIN FETCH r.toAccount " +
+           "LEFT JOIN FETCH r.category " +
+           "WHERE r.id IN :ids")
+    List<RecurringTransaction> findAllForExecution(@Param("ids") Collection<UUID> ids);
 
     @Query("SELECT r FROM RecurringTransaction r " +
            "WHERE r.user.id = :userId " +
@@ -44,12 +48,31 @@ public interface RecurringTransactionRepository extends JpaRepository<RecurringT
 
     long countByUserIdAndStatus(UUID userId, RecurringStatus status);
 
-    @Query("SELECT r FROM RecurringTransaction r " +
-           "WHERE r.status = 'ACTIVE' " +
-           "AND r.nextExecutionDate BETWEEN :startDate AND :endDate")
-    List<RecurringTransaction> findByIsActiveTrueAndNextExecutionDateBetween(
-            @Param("startDate") LocalDate startDate,
-            @Param("endDate") LocalDate endDate);
+    /**
+     * Notification candidates: one row per user (earliest due) in the given user-id hash partition
+     * that has no RECURRING_DUE_SOON notification since :after.
+     * Columns: user_id, description, days_until_due
+     */
+    @Query(value = """
+            SELECT DISTINCT ON (r.user_id) r.user_id, r.description, r.next_execution_date - :today
+            FROM recurring_transactions r
+            WHERE r.status = 'ACTIVE'
+              AND r.next_execution_date BETWEEN :today AND :endDate
+              AND (hashtext(CAST(r.user_id AS text)) & 2147483647) % :partitions = :partition
+              AND NOT EXISTS (
+                SELECT 1 FROM notifications n
+                WHERE n.user_id = r.user_id
+                  AND n.type = 'RECURRING_DUE_SOON'
+                  AND n.created_at > :after
+              )
+            ORDER BY r.user_id, r.next_execution_date
+            """, nativeQuery = true)
+    List<Object[]> findDueSoonNotificationCandidates(
+            @Param("today") LocalDate today,
+            @Param("endDate") LocalDate endDate,
+            @Param("after") OffsetDateTime after,
+            @Param("partition") int partition,
+            @Param("partitions") int partitions);
 
     void deleteByUserId(UUID userId);
 }
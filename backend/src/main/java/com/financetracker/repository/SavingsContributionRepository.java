@@ -30,6 +30,20 @@ public interface SavingsContributionRepository extends JpaRepository<SavingsCont
     @Query("SELECT COUNT(DISTINCT c.user.id) FROM SavingsContribution c WHERE c.goal.id = :goalId")
     long countDistinctUsersByGoalId(@Param("goalId") UUID goalId);
 
+    /**
+     * Contributions of a goal summed per period in goal currency.
+     * Columns: period_start (date), amount, contributions
+     */
+    @Query(value = """
+            SELECT CAST(date_trunc(:unit, CAST(c.contribution_date AS timestamp)) AS date),
+                   SUM(c.amount_in_goal_currency), COUNT(*)
+            FROM savings_contributions c
+            WHERE c.goal_id = :goalId
+            GROUP BY 1
+            ORDER BY 1
+            """, nativeQuery = true)
+    List<Object[]> sumAmountInGoalCurrencyByPeriod(@Param("goalId") UUID goalId, @Param("unit") String unit);
+
     boolean existsByTransactionId(UUID transactionId);
 
     void deleteByUserId(UUID userId);
@@ -32,6 +32,19 @@ public interface SavingsGoalRepository extends JpaRepository<SavingsGoal, UUID>
     @Query("SELECT sg FROM SavingsGoal sg WHERE (sg.user.id = :userId OR sg.family.id IN :familyIds) AND sg.status = :status")
     List<SavingsGoal> findAccessibleGoalsByStatus(@Param("userId") UUID userId, @Param("familyIds") List<UUID> familyIds, @Param("status") SavingsGoalStatus status);
 
+    /**
+     * Goals visible to the user (personal and family goals) with family and user fetched and the
+     * distinct contributor count per goal, in one statement.
+     * Rows: [SavingsGoal, Long contributorsCount]
+     */
+    @Query("SELECT sg, (SELECT COUNT(DISTINCT c.user.id) FROM SavingsContribution c WHERE c.goal.id = sg.id) " +
+           "FROM SavingsGoal sg " +
+           "LEFT JOIN FETCH sg.family " +
+           "LEFT JOIN FETCH sg.user " +
+           "WHERE sg.user.id = :userId " +
+           "OR sg.family.id IN (SELECT fm.family.id FROM FamilyMember fm WHERE fm.user.id = :userId)")
+    List<Object[]> findAccessibleGoalsWithContributorCounts(@Param("userId") UUID userId);
+
     void deleteByUserIdAndFamilyIsNull(UUID userId);
 
     void deleteByFamilyId(UUID familyId);
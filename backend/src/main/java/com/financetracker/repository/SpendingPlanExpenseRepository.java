@@ -2,6 +2,7 @@ package com.financetracker.repository;
 
 import com.financetracker.entity.SpendingPlanExpense;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
@@ -20,6 +21,62 @@ public interface SpendingPlanExpenseRepository extends JpaRepository<SpendingPla
     @Query("SELECT COUNT(DISTINCT e.user.id) FROM SpendingPlanExpense e WHERE e.item.plan.id = :planId")
     long countDistinctUsersByPlanId(@Param("planId") UUID planId);
 
+    long countByItemId(UUID itemId);
+
+    /**
+     * Refund every expense of a plan: one grouped balance delta per distinct account.
+     *
+     * @return number of accounts refunded
+     */
+    @Modifying
+    @Query(value = """
+            UPDATE accounts a
+            SET current_balance = a.current_balance + s.total, updated_at = now()
+            FROM (
+                SELECT e.account_id, SUM(e.amount) AS total
+                FROM spending_plan_expenses e
+                JOIN spending_plan_items i ON i.id = e.item_id
+                WHERE i.plan_id = :planId
+                GROUP BY e.account_id
+            ) s
+            WHERE a.id = s.account_id
+            """, nativeQuery = true)
+    int refundAccountsByPlanId(@Param("planId") UUID planId);
+
+    @Modifying
+    @Query(value = """
+            UPDATE accounts a
+            SET current_balance = a.current_balance + s.total, updated_at = now()
+            FROM (
+                SELECT e.account_id, SUM(e.amount) AS total
+                FROM spending_plan_expenses e
+                WHERE e.item_id = :itemId
+                GROUP BY e.account_id
+            ) s
+            WHERE a.id = s.account_id
+            """, nativeQuery = true)
+    int refundAccountsByItemId(@Param("itemId") UUID itemId);
+
+    // Expense rows keep existing (transaction_id is ON DELETE SET NULL) until the plan or item cascade
+    @Modifying
+    @Query(value = """
+            DELETE FROM transactions t
+            USING spending_plan_expenses e, spending_plan_items i
+            WHERE t.id = e.transaction_id
+              AND i.id = e.item_id
+              AND i.plan_id = :planId
+            """, nativeQuery = true)
+    int deleteTransactionsByPlanId(@Param("planId") UUID planId);
+
+    @Modifying
+    @Query(value = """
+            DELETE FROM transactions t
+            USING spending_plan_expenses e
+            WHERE t.id = e.transaction_id
+              AND e.item_id = :itemId
+            """, nativeQuery = true)
+    int deleteTransactionsByItemId(@Param("itemId") UUID itemId);
+
     void deleteByItemId(UUID itemId);
 
     void deleteByUserId(UUID userId);
@@ -2,10 +2,13 @@ package com.financetracker.repository;
 
 import com.financetracker.entity.SpendingPlanItem;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.math.BigDecimal;
+import java.util.Collection;
 import java.util.List;
 import java.util.UUID;
 
@@ -17,5 +20,61 @@ public interface SpendingPlanItemRepository extends JpaRepository<SpendingPlanIt
     @Query("SELECT COALESCE(MAX(i.sortOrder), 0) FROM SpendingPlanItem i WHERE i.plan.id = :planId")
     Integer findMaxSortOrderByPlanId(@Param("planId") UUID planId);
 
+    // Atomic delta; actual_amount is never written through the entity
+    @Modifying
+    @Query("UPDATE SpendingPlanItem i SET i.actualAmount = i.actualAmount + :delta WHERE i.id = :itemId")
+    int addToActualAmount(@Param("itemId") UUID itemId, @Param("delta") BigDecimal delta);
+
+    /**
+     * Lock items whose actual drifted from the sum of their expenses. Expense writers hold the item
+     * row (FK check or delta update), so once this returns no delta for these items is in flight.
+     */
+    @Query(value = """
+            SELECT i.id
+            FROM spending_plan_items i
+            WHERE i.actual_amount <> (
+                SELECT COALESCE(SUM(e.amount_in_plan_currency), 0)
+                FROM spending_plan_expenses e
+                WHERE e.item_id = i.id
+            )
+            ORDER BY i.id
+            FOR UPDATE OF i
+            """, nativeQuery = true)
+    List<UUID> lockDriftedItems();
+
+    /**
+     * Reset the actuals of items locked by {@link #lockDriftedItems()}. Runs as a separate statement
+     * so the sums come from a snapshot taken after the locks were granted.
+     *
+     * @return number of corrected items
+     */
+    @Modifying
+    @Query(value = """
+            UPDATE spending_plan_items i
+            SET actual_amount = s.total, updated_at = now()
+            FROM (
+                SELECT i2.id, COALESCE(SUM(e.amount_in_plan_currency), 0) AS total
+                FROM spending_plan_items i2
+                LEFT JOIN spending_plan_expenses e ON e.item_id = i2.id
+                WHERE i2.id IN (:itemIds)
+                GROUP BY i2.id
+            ) s
+            WHERE s.id = i.id
+              AND i.actual_amount <> s.total
+            """, nativeQuery = true)
+    int repairActualAmounts(@Param("itemIds") Collection<UUID> itemIds);
+
+    /**
+     * Delete an item and return its estimated_amount and actual_amount as of the delete, so the
+     * plan totals are reduced by the stored values rather than a copy loaded earlier.
+     * Expenses go with the ON DELETE CASCADE foreign key instead of the entity cascade.
+     */
+    @Query(value = """
+            DELETE FROM spending_plan_items
+            WHERE id = :itemId
+            RETURNING estimated_amount, actual_amount
+            """, nativeQuery = true)
+    List<Object[]> deleteItemByIdReturningAmounts(@Param("itemId") UUID itemId);
+
     void deleteByPlanId(UUID planId);
 }
@@ -3,10 +3,13 @@ package com.financetracker.repository;
 import com.financetracker.entity.SpendingPlan;
 import com.financetracker.entity.SpendingPlanStatus;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.math.BigDecimal;
+import java.util.Collection;
 import java.util.List;
 import java.util.UUID;
 
@@ -25,6 +28,57 @@ public interface SpendingPlanRepository extends JpaRepository<SpendingPlan, UUID
     @Query("SELECT sp FROM SpendingPlan sp WHERE (sp.user.id = :userId OR sp.family.id IN :familyIds) AND sp.status = :status ORDER BY sp.createdAt DESC")
     List<SpendingPlan> findAccessiblePlansByStatus(@Param("userId") UUID userId, @Param("familyIds") List<UUID> familyIds, @Param("status") SpendingPlanStatus status);
 
+    // Atomic deltas; the totals are never written through the entity
+    @Modifying
+    @Query("UPDATE SpendingPlan p SET p.totalEstimated = p.totalEstimated + :estimatedDelta, " +
+           "p.totalActual = p.totalActual + :actualDelta WHERE p.id = :planId")
+    int addToTotals(@Param("planId") UUID planId,
+                    @Param("estimatedDelta") BigDecimal estimatedDelta,
+                    @Param("actualDelta") BigDecimal actualDelta);
+
+    /**
+     * Lock plans whose totals drifted from the sums of their items. Run after item actuals are repaired.
+     */
+    @Query(value = """
+            SELECT p.id
+            FROM spending_plans p
+            WHERE p.total_estimated <> (
+                    SELECT COALESCE(SUM(i.estimated_amount), 0) FROM spending_plan_items i WHERE i.plan_id = p.id)
+               OR p.total_actual <> (
+                    SELECT COALESCE(SUM(i.actual_amount), 0) FROM spending_plan_items i WHERE i.plan_id = p.id)
+            ORDER BY p.id
+            FOR UPDATE OF p
+            """, nativeQuery = true)
+    List<UUID> lockDriftedPlans();
+
+    /**
+     * Reset the totals of plans locked by {@link #lockDriftedPlans()}, from a snapshot taken after the locks.
+     *
+     * @return number of corrected plans
+     */
+    @Modifying
+    @Query(value = """
+            UPDATE spending_plans p
+            SET total_estimated = s.estimated, total_actual = s.actual, updated_at = now()
+            FROM (
+                SELECT p2.id,
+                       COALESCE(SUM(i.estimated_amount), 0) AS estimated,
+                       COALESCE(SUM(i.actual_amount), 0) AS actual
+                FROM spending_plans p2
+                LEFT JOIN spending_plan_items i ON i.plan_id = p2.id
+                WHERE p2.id IN (:planIds)
+                GROUP BY p2.id
+            ) s
+            WHERE s.id = p.id
+              AND (p.total_estimated <> s.estimated OR p.total_actual <> s.actual)
+            """, nativeQuery = true)
+    int repairTotals(@Param("planIds") Collection<UUID> planIds);
+
+    // Items and expenses go with the ON DELETE CASCADE foreign keys instead of entity cascades
+    @Modifying
+    @Query("DELETE FROM SpendingPlan p WHERE p.id = :planId")
+    int deletePlanById(@Param("planId") UUID planId);
+
     void deleteByUserIdAndFamilyIsNull(UUID userId);
 
     void deleteByFamilyId(UUID familyId);
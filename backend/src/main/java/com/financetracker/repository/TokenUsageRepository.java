@@ -50,10 +50,10 @@ public interface TokenUsageRepository extends JpaRepository<TokenUsage, UUID> {
            "ORDER BY total DESC")
     List<Object[]> findTopUsersByTokenUsage(Pageable pageable);
 
-    // Usage by date
-    @Query("SELECT CAST(t.createdAt AS date), SUM(t.totalTokens) " +
-           "FROM TokenUsage t WHERE t.createdAt >= :since " +
-           "GROUP BY CAST(t.createdAt AS date) ORDER BY CAST(t.createdAt AS date)")
+    // Usage by UTC date (CAST alone would bucket in the session time zone)
+    @Query(value = "SELECT CAST(created_at AT TIME ZONE 'UTC' AS date) AS day, SUM(total_tokens) " +
+           "FROM token_usages WHERE created_at >= :since " +
+           "GROUP BY day ORDER BY day", nativeQuery = true)
     List<Object[]> findDailyUsageSince(@Param("since") OffsetDateTime since);
 
     // Usage by model
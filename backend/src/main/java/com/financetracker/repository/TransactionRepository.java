@@ -13,6 +13,7 @@ import org.springframework.stereotype.Repository;
 import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.time.OffsetDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -22,6 +23,9 @@ public interface TransactionRepository extends JpaRepository<Transaction, UUID>,
 
     List<Transaction> findByUserId(UUID userId);
 
+    @Query("SELECT t FROM Transaction t JOIN FETCH t.account WHERE t.user.id = :userId AND t.id IN :ids")
+    List<Transaction> findAllForPaymentPlans(@Param("userId") UUID userId, @Param("ids") Collection<UUID> ids);
+
     Page<Transaction> findByUserId(UUID userId, Pageable pageable);
 
     Page<Transaction> findByUserIdAndType(UUID userId, TransactionType type, Pageable pageable);
@@ -69,6 +73,12 @@ public interface TransactionRepository extends JpaRepository<Transaction, UUID>,
 
     long countByCreatedAtAfter(OffsetDateTime date);
 
+    // Admin list: transaction counts for a page of users
+    boolean existsByRecurringTransactionIdAndRecurringOccurrenceDate(UUID recurringTransactionId, LocalDate occurrenceDate);
+
+    @Query("SELECT t.user.id, COUNT(t) FROM Transaction t WHERE t.user.id IN :userIds GROUP BY t.user.id")
+    List<Object[]> countByUserIds(@Param("userIds") Collection<UUID> userIds);
+
     // Family transactions
     List<Transaction> findByFamilyId(UUID familyId);
 
@@ -106,5 +116,38 @@ public interface TransactionRepository extends JpaRepository<Transaction, UUID>,
             @Param("startDate") LocalDate startDate,
             @Param("endDate") LocalDate endDate);
 
+    /**
+     * Family ledger rollup since :startDate: income and expense of family-tagged transactions plus
+     * those on accounts shared with the family (family accounts and members' FAMILY_VISIBLE accounts).
+     * Columns: month, user_id, category_id, type, currency, amount, count
+     */
+    @Query(value = """
+            WITH shared_accounts AS (
+                SELECT a.id FROM accounts a
+                WHERE a.family_id = :familyId
+                   OR (a.visibility = 'FAMILY_VISIBLE'
+                       AND a.user_id IN (SELECT m.user_id FROM family_members m WHERE m.family_id = :familyId))
+            ),
+            ledger AS (
+                SELECT t.transaction_date, t.user_id, t.category_id, t.type, t.currency, t.amount
+                FROM transactions t
+                WHERE t.family_id = :familyId
+                  AND t.type IN ('INCOME', 'EXPENSE')
+                  AND t.transaction_date >= :startDate
+                UNION ALL
+                SELECT t.transaction_date, t.user_id, t.category_id, t.type, t.currency, t.amount
+                FROM transactions t
+                JOIN shared_accounts s ON s.id = t.account_id
+                WHERE (t.family_id IS NULL OR t.family_id <> :familyId)
+                  AND t.type IN ('INCOME', 'EXPENSE')
+                  AND t.transaction_date >= :startDate
+            )
+            SELECT CAST(date_trunc('month', transaction_date) AS date), user_id, category_id, type, currency,
+                   SUM(amount), COUNT(*)
+            FROM ledger
+            GROUP BY 1, 2, 3, 4, 5
+            """, nativeQuery = true)
+    List<Object[]> sumFamilyLedgerByMonth(@Param("familyId") UUID familyId, @Param("startDate") LocalDate startDate);
+
     void deleteByUserId(UUID userId);
 }
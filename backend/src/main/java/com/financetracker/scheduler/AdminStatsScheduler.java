@@ -0,0 +1,36 @@
+package com.financetracker.scheduler;
+
+import com.financetracker.service.AdminStatsService;
+import com.financetracker.service.TokenUsageService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Rebuilds the admin dashboard statistics snapshots so the admin pages
+ * never run the aggregate queries on the request path.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class AdminStatsScheduler {
+
+    private final AdminStatsService adminStatsService;
+    private final TokenUsageService tokenUsageService;
+
+    @Scheduled(cron = "${admin-stats.refresh-cron:0 */5 * * * *}")
+    public void refreshSnapshots() {
+        try {
+            adminStatsService.refreshSnapshot();
+        } catch (Exception e) {
+            log.error("Failed to refresh admin stats snapshot: {}", e.getMessage(), e);
+        }
+
+        try {
+            tokenUsageService.refreshAdminStatsSnapshot();
+        } catch (Exception e) {
+            log.error("Failed to refresh token usage stats snapshot: {}", e.getMessage(), e);
+        }
+    }
+}
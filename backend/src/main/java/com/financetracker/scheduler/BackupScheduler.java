@@ -5,12 +5,15 @@ import com.financetracker.entity.UserBackup;
 import com.financetracker.repository.UserBackupRepository;
 import com.financetracker.repository.UserRepository;
 import com.financetracker.service.ExportService;
+import com.financetracker.service.SchedulerLeaseService;
+import com.financetracker.service.SchedulerLeaseService.Lease;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Duration;
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
 import java.util.List;
@@ -25,6 +28,7 @@ public class BackupScheduler {
     private final UserRepository userRepository;
     private final UserBackupRepository userBackupRepository;
     private final ExportService exportService;
+    private final SchedulerLeaseService schedulerLeaseService;
 
     /**
      * Auto backup all users' data daily at 02:00 AM
@@ -32,6 +36,11 @@ public class BackupScheduler {
     @Scheduled(cron = "0 0 2 * * *")
     @Transactional
     public void runDailyBackup() {
+        schedulerLeaseService.runExclusive("daily-backup",
+                Duration.ofHours(3), Duration.ofMinutes(10), this::backupActiveUsers);
+    }
+
+    private void backupActiveUsers(Lease lease) {
         log.info("Starting daily backup job...");
 
         List<User> activeUsers = userRepository.findAll().stream()
@@ -44,6 +53,7 @@ public class BackupScheduler {
         int failed = 0;
 
         for (User user : activeUsers) {
+            schedulerLeaseService.assertHeld(lease);
             try {
                 backupUser(user);
                 success++;
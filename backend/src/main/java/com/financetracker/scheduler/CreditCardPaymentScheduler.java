@@ -1,31 +1,54 @@
 package com.financetracker.scheduler;
 
-import com.financetracker.entity.*;
 import com.financetracker.repository.CreditCardPaymentRepository;
 import com.financetracker.service.NotificationService;
+import com.financetracker.service.NotificationService.PendingNotification;
+import com.financetracker.service.SchedulerLeaseService;
+import com.financetracker.service.SchedulerLeaseService.Lease;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
-import java.util.HashMap;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
 import java.util.List;
-import java.util.Map;
-
+import java.util.UUID;
+import java.util.function.Function;
+
+/**
+ * Credit card installment jobs. Reminders are streamed in user-id keyset chunks: each chunk is
+ * one candidate query (one row per user, already deduplicated against recent notifications)
+ * followed by one batched notification insert committed on its own, so memory and query count
+ * grow with the chunk size rather than with the total backlog.
+ */
 @Component
 @RequiredArgsConstructor
 @Slf4j
 public class CreditCardPaymentScheduler {
 
+    private static final int DUE_SOON_DAYS = 3;
+    private static final int DEDUP_HOURS = 24;
+    private static final String DEFAULT_DESCRIPTION = "Thanh toán thẻ tín dụng";
+
     private final CreditCardPaymentRepository paymentRepository;
     private final NotificationService notificationService;
+    private final SchedulerLeaseService schedulerLeaseService;
+
+    @Value("${credit-card-payment-reminders.chunk-size:500}")
+    private int chunkSize;
 
     // Run daily at 00:30 - mark overdue payments
     @Scheduled(cron = "0 30 0 * * *")
     @Transactional
     public void markOverduePayments() {
+        schedulerLeaseService.runExclusive("credit-card-mark-overdue", lease -> markOverdue());
+    }
+
+    private void markOverdue() {
         log.info("Marking overdue credit card payments...");
 
         LocalDate today = LocalDate.now();
@@ -36,91 +59,74 @@ public class CreditCardPaymentScheduler {
 
     // Run daily at 08:00 - send payment reminders
     @Scheduled(cron = "0 0 8 * * *")
-    @Transactional
     public void sendPaymentReminders() {
+        schedulerLeaseService.runExclusive("credit-card-payment-reminders", this::sendReminders);
+    }
+
+    private void sendReminders(Lease lease) {
         log.info("Sending credit card payment reminders...");
 
         LocalDate today = LocalDate.now();
-        LocalDate threeDaysLater = today.plusDays(3);
-
-        // Find payments due within 3 days
-        List<CreditCardPayment> dueSoon = paymentRepository.findOverduePayments(threeDaysLater)
-                .stream()
-                .filter(p -> p.getStatus() == PaymentStatus.PENDING)
-                .filter(p -> !p.getDueDate().isBefore(today))
-                .toList();
-
-        for (CreditCardPayment payment : dueSoon) {
-            User user = payment.getPlan().getUser();
-            if (!notificationService.hasRecentNotification(
-                    user.getId(),
-                    NotificationType.CREDIT_CARD_PAYMENT_DUE,
-                    24)) {
-
-                int daysUntil = (int) java.time.temporal.ChronoUnit.DAYS.between(today, payment.getDueDate());
-                String description = payment.getPlan().getTransaction().getDescription();
-                if (description == null || description.isBlank()) {
-                    description = "Thanh toán thẻ tín dụng";
-                }
-
-                Map<String, Object> data = new HashMap<>();
-                data.put("planId", payment.getPlan().getId().toString());
-                data.put("paymentId", payment.getId().toString());
-                data.put("paymentNumber", payment.getPaymentNumber());
-
-                notificationService.createNotification(
-                        user,
-                        NotificationType.CREDIT_CARD_PAYMENT_DUE,
-                        "Thanh toán thẻ tín dụng sắp đến hạn",
-                        String.format("Khoản thanh toán \"%s\" kỳ %d sẽ đến hạn trong %d ngày",
-                                description, payment.getPaymentNumber(), daysUntil),
-                        data
-                );
-            }
-        }
+        OffsetDateTime after = OffsetDateTime.now().minusHours(DEDUP_HOURS);
+        int created = streamCandidates(lease,
+                afterUserId -> paymentRepository.findDueSoonReminderCandidates(
+                        today, today.plusDays(DUE_SOON_DAYS), after, afterUserId, chunkSize),
+                row -> notificationService.creditCardPaymentDue(
+                        (UUID) row[0], (UUID) row[1], (UUID) row[2], ((Number) row[3]).intValue(),
+                        description(row[5]), ((Number) row[4]).intValue()));
+
+        log.info("Sent {} credit card payment reminders", created);
     }
 
     // Run daily at 09:00 - notify overdue payments
     @Scheduled(cron = "0 0 9 * * *")
-    @Transactional
     public void notifyOverduePayments() {
+        schedulerLeaseService.runExclusive("credit-card-overdue-notifications", this::notifyOverdue);
+    }
+
+    private void notifyOverdue(Lease lease) {
         log.info("Notifying overdue credit card payments...");
 
         LocalDate today = LocalDate.now();
-        List<CreditCardPayment> overduePayments = paymentRepository.findOverduePayments(today)
-                .stream()
-                .filter(p -> p.getStatus() == PaymentStatus.OVERDUE)
-                .toList();
-
-        for (CreditCardPayment payment : overduePayments) {
-            User user = payment.getPlan().getUser();
-            if (!notificationService.hasRecentNotification(
-                    user.getId(),
-                    NotificationType.CREDIT_CARD_PAYMENT_OVERDUE,
-                    24)) {
-
-                String description = payment.getPlan().getTransaction().getDescription();
-                if (description == null || description.isBlank()) {
-                    description = "Thanh toán thẻ tín dụng";
-                }
-
-                int daysOverdue = (int) java.time.temporal.ChronoUnit.DAYS.between(payment.getDueDate(), today);
-
-                Map<String, Object> data = new HashMap<>();
-                data.put("planId", payment.getPlan().getId().toString());
-                data.put("paymentId", payment.getId().toString());
-                data.put("paymentNumber", payment.getPaymentNumber());
-                data.put("daysOverdue", daysOverdue);
-
-                notificationService.createNotification(
-                        user,
-                        NotificationType.CREDIT_CARD_PAYMENT_OVERDUE,
-                        "Thanh toán thẻ tín dụng quá hạn",
-                        String.format("Khoản thanh toán \"%s\" kỳ %d đã quá hạn %d ngày",
-                                description, payment.getPaymentNumber(), daysOverdue),
-                        data
-                );
+        OffsetDateTime after = OffsetDateTime.now().minusHours(DEDUP_HOURS);
+        int created = streamCandidates(lease,
+                afterUserId -> paymentRepository.findOverdueReminderCandidates(today, after, afterUserId, chunkSize),
+                row -> notificationService.creditCardPaymentOverdue(
+                        (UUID) row[0], (UUID) row[1], (UUID) row[2], ((Number) row[3]).intValue(),
+                        description(row[5]), ((Number) row[4]).intValue()));
+
+        log.info("Sent {} overdue credit card payment notifications", created);
+    }
+
+    /**
+     * Walk candidate rows (user_id first, ordered by user id) chunk by chunk; each chunk's
+     * notifications are inserted in one batch, fenced by the lease, and committed before the next chunk is read.
+     */
+    private int streamCandidates(Lease lease, Function<UUID, List<Object[]>> fetchChunk,
+                                 Function<Object[], PendingNotification> toNotification) {
+        int created = 0;
+        UUID afterUserId = new UUID(0, 0);
+        while (true) {
+            schedulerLeaseService.assertHeld(lease);
+            List<Object[]> rows = fetchChunk.apply(afterUserId);
+            if (rows.isEmpty()) {
+                break;
             }
+            List<PendingNotification> notifications = new ArrayList<>(rows.size());
+            for (Object[] row : rows) {
+                notifications.add(toNotification.apply(row));
+            }
+            created += schedulerLeaseService.runFenced(lease,
+                    () -> notificationService.createNotifications(notifications));
+            if (rows.size() < chunkSize) {
+                break;
+            }
+            afterUserId = (UUID) rows.get(rows.size() - 1)[0];
         }
+        return created;
+    }
+
+    private static String description(Object description) {
+        return description == null || ((String) description).isBlank() ? DEFAULT_DESCRIPTION : (String) description;
     }
 }
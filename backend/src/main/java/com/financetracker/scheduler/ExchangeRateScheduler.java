@@ -1,6 +1,7 @@
 package com.financetracker.scheduler;
 
 import com.financetracker.service.ExchangeRateService;
+import com.financetracker.service.SchedulerLeaseService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.scheduling.annotation.Scheduled;
@@ -12,6 +13,7 @@ import org.springframework.stereotype.Component;
 public class ExchangeRateScheduler {
 
     private final ExchangeRateService exchangeRateService;
+    private final SchedulerLeaseService schedulerLeaseService;
 
     /**
      * Update exchange rates every hour at minute 0
@@ -19,6 +21,10 @@ public class ExchangeRateScheduler {
      */
     @Scheduled(cron = "${exchange-rate.update-cron:0 0 * * * *}")
     public void updateExchangeRates() {
+        schedulerLeaseService.runExclusive("exchange-rate-update", lease -> fetchRates());
+    }
+
+    private void fetchRates() {
         log.info("Starting scheduled exchange rate update...");
         try {
             exchangeRateService.fetchAndSaveRates();
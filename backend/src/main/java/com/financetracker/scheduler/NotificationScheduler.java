@@ -1,156 +1,168 @@
 package com.financetracker.scheduler;
 
-import com.financetracker.entity.*;
+import com.financetracker.entity.NotificationType;
 import com.financetracker.repository.*;
 import com.financetracker.service.NotificationService;
+import com.financetracker.service.NotificationService.PendingNotification;
+import com.financetracker.service.SchedulerLeaseService;
+import com.financetracker.service.SchedulerLeaseService.Lease;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
+import java.time.Duration;
 import java.time.LocalDate;
 import java.time.OffsetDateTime;
+import java.util.ArrayList;
 import java.util.List;
-
+import java.util.UUID;
+
+/**
+ * Periodic notification checks. Each check is a single set-based candidate query that
+ * already excludes users notified within the dedup window (anti-join on notifications)
+ * and returns one row per user; the resulting notifications are inserted in JDBC batches.
+ * Each check is split into notification-scheduler.shards user-id hash shards, each guarded by
+ * its own scheduler lease, so instances share the work instead of repeating it.
+ */
 @Component
 @RequiredArgsConstructor
 @Slf4j
 public class NotificationScheduler {
 
+    private static final int DUE_SOON_DAYS = 3;
+    private static final int DEDUP_HOURS = 24;
+    private static final int EXCHANGE_RATE_DEDUP_HOURS = 12;
+
+    // Interval jobs start at different offsets per instance; hold shards for most of the interval
+    private static final Duration MAX_HOLD = Duration.ofMinutes(20);
+    private static final Duration HOURLY_MIN_HOLD = Duration.ofMinutes(55);
+    private static final Duration HALF_HOURLY_MIN_HOLD = Duration.ofMinutes(25);
+    private static final Duration CRON_MIN_HOLD = Duration.ofMinutes(1);
+
     private final NotificationService notificationService;
     private final RecurringTransactionRepository recurringTransactionRepository;
     private final DebtRepository debtRepository;
     private final BudgetRepository budgetRepository;
     private final AccountRepository accountRepository;
     private final ExchangeRateRepository exchangeRateRepository;
+    private final SchedulerLeaseService schedulerLeaseService;
+
+    @Value("${notification-scheduler.shards:1}")
+    private int shards;
 
     // Run every hour - check recurring transactions due soon
     @Scheduled(fixedRate = 3600000)
-    @Transactional
     public void checkRecurringTransactionsDueSoon() {
-        log.info("Checking recurring transactions due soon...");
-
-        LocalDate today = LocalDate.now();
-        LocalDate threeDaysLater = today.plusDays(3);
-
-        List<RecurringTransaction> dueSoon = recurringTransactionRepository
-                .findByIsActiveTrueAndNextExecutionDateBetween(today, threeDaysLater);
+        schedulerLeaseService.runSharded("notification.recurring-due-soon", shards,
+                MAX_HOLD, HOURLY_MIN_HOLD, this::checkRecurringTransactionsDueSoon);
+    }
 
-        for (RecurringTransaction rt : dueSoon) {
-            if (!notificationService.hasRecentNotification(
-                    rt.getUser().getId(),
-                    NotificationType.RECURRING_DUE_SOON,
-                    24)) {
+    private void checkRecurringTransactionsDueSoon(int shard, Lease lease) {
+        log.info("Checking recurring transactions due soon (shard {}/{})...", shard, shards);
 
-                int daysUntil = (int) java.time.temporal.ChronoUnit.DAYS.between(today, rt.getNextExecutionDate());
-                String name = rt.getDescription() != null ? rt.getDescription() : "Giao dịch định kỳ";
-                notificationService.notifyRecurringDueSoon(rt.getUser(), name, daysUntil);
-            }
+        LocalDate today = LocalDate.now();
+        List<Object[]> rows = recurringTransactionRepository.findDueSoonNotificationCandidates(
+                today, today.plusDays(DUE_SOON_DAYS), dedupSince(DEDUP_HOURS), shard, shards);
+
+        List<PendingNotification> notifications = new ArrayList<>(rows.size());
+        for (Object[] row : rows) {
+            String name = row[1] != null ? (String) row[1] : "Giao dịch định kỳ";
+            notifications.add(notificationService.recurringDueSoon(
+                    (UUID) row[0], name, ((Number) row[2]).intValue()));
         }
+        insert(NotificationType.RECURRING_DUE_SOON, shard, notifications);
     }
 
     // Run every hour - check debts due soon
     @Scheduled(fixedRate = 3600000)
-    @Transactional
     public void checkDebtsDueSoon() {
-        log.info("Checking debts due soon...");
-
-        LocalDate today = LocalDate.now();
-        LocalDate threeDaysLater = today.plusDays(3);
-
-        List<Debt> dueSoon = debtRepository.findByDueDateBetweenAndStatus(today, threeDaysLater, DebtStatus.ACTIVE);
+        schedulerLeaseService.runSharded("notification.debt-due-soon", shards,
+                MAX_HOLD, HOURLY_MIN_HOLD, this::checkDebtsDueSoon);
+    }
 
-        for (Debt debt : dueSoon) {
-            if (!notificationService.hasRecentNotification(
-                    debt.getUser().getId(),
-                    NotificationType.DEBT_DUE_SOON,
-                    24)) {
+    private void checkDebtsDueSoon(int shard, Lease lease) {
+        log.info("Checking debts due soon (shard {}/{})...", shard, shards);
 
-                int daysUntil = (int) java.time.temporal.ChronoUnit.DAYS.between(today, debt.getDueDate());
-                String name = debt.getPersonName() != null ? debt.getPersonName() : "Khoản vay/nợ";
-                BigDecimal remainingAmount = debt.getAmount().subtract(debt.getPaidAmount());
-                notificationService.notifyDebtDueSoon(debt.getUser(), name, daysUntil, remainingAmount, debt.getCurrency());
-            }
+        LocalDate today = LocalDate.now();
+        List<Object[]> rows = debtRepository.findDueSoonNotificationCandidates(
+                today, today.plusDays(DUE_SOON_DAYS), dedupSince(DEDUP_HOURS), shard, shards);
+
+        List<PendingNotification> notifications = new ArrayList<>(rows.size());
+        for (Object[] row : rows) {
+            String name = row[1] != null ? (String) row[1] : "Khoản vay/nợ";
+            notifications.add(notificationService.debtDueSoon(
+                    (UUID) row[0], name, ((Number) row[2]).intValue(), (BigDecimal) row[3], (String) row[4]));
         }
+        insert(NotificationType.DEBT_DUE_SOON, shard, notifications);
     }
 
-    // Run every 2 hours - check budget warnings
-    @Scheduled(fixedRate = 7200000)
-    @Transactional
+    // Safety net only - threshold crossings are notified by BudgetAlertService when spending changes
+    @Scheduled(cron = "${notification-scheduler.budget-scan-cron:0 0 */6 * * *}")
     public void checkBudgetWarnings() {
-        log.info("Checking budget warnings...");
-
-        List<Budget> budgets = budgetRepository.findAll();
-
-        for (Budget budget : budgets) {
-            if (!budget.getIsActive()) continue;
-
-            BigDecimal spentAmount = budget.getSpentAmount();
-            BigDecimal limitAmount = budget.getAmount();
+        schedulerLeaseService.runSharded("notification.budget-warnings", shards,
+                MAX_HOLD, CRON_MIN_HOLD, this::checkBudgetWarnings);
+    }
 
-            if (limitAmount.compareTo(BigDecimal.ZERO) > 0) {
-                int percentage = spentAmount.multiply(BigDecimal.valueOf(100))
-                        .divide(limitAmount, 0, java.math.RoundingMode.HALF_UP)
-                        .intValue();
+    private void checkBudgetWarnings(int shard, Lease lease) {
+        log.info("Checking budget warnings (shard {}/{})...", shard, shards);
 
-                String categoryName = budget.getCategory() != null
-                        ? budget.getCategory().getName()
-                        : "Tổng";
+        OffsetDateTime after = dedupSince(DEDUP_HOURS);
 
-                // Notify at 80%
-                if (percentage >= 80 && percentage < 100) {
-                    if (!notificationService.hasRecentNotification(
-                            budget.getUser().getId(),
-                            NotificationType.BUDGET_WARNING,
-                            24)) {
-                        notificationService.notifyBudgetWarning(budget.getUser(), categoryName, percentage);
-                    }
-                }
-
-                // Notify at 100%+ (exceeded)
-                if (percentage >= 100) {
-                    if (!notificationService.hasRecentNotification(
-                            budget.getUser().getId(),
-                            NotificationType.BUDGET_EXCEEDED,
-                            24)) {
-                        notificationService.notifyBudgetExceeded(budget.getUser(), categoryName, percentage);
-                    }
-                }
-            }
+        // Notify at the budget's alert threshold
+        List<PendingNotification> warnings = new ArrayList<>();
+        for (Object[] row : budgetRepository.findThresholdNotificationCandidates(
+                false, NotificationType.BUDGET_WARNING.name(),
+                after, shard, shards)) {
+            warnings.add(notificationService.budgetWarning((UUID) row[0], budgetCategoryName(row[1]),
+                    ((Number) row[2]).intValue()));
+        }
+        insert(NotificationType.BUDGET_WARNING, shard, warnings);
+
+        // Notify at 100%+ (exceeded)
+        List<PendingNotification> exceeded = new ArrayList<>();
+        for (Object[] row : budgetRepository.findThresholdNotificationCandidates(
+                true, NotificationType.BUDGET_EXCEEDED.name(),
+                after, shard, shards)) {
+            exceeded.add(notificationService.budgetExceeded((UUID) row[0], budgetCategoryName(row[1]),
+                    ((Number) row[2]).intValue()));
         }
+        insert(NotificationType.BUDGET_EXCEEDED, shard, exceeded);
     }
 
     // Run every hour - check account balances
     @Scheduled(fixedRate = 3600000)
-    @Transactional
     public void checkAccountBalances() {
-        log.info("Checking account balances...");
-
-        List<Account> lowBalanceAccounts = accountRepository.findByCurrentBalanceLessThanEqual(BigDecimal.ZERO);
-
-        for (Account account : lowBalanceAccounts) {
-            if (!notificationService.hasRecentNotification(
-                    account.getUser().getId(),
-                    NotificationType.ACCOUNT_EMPTY,
-                    24)) {
-
-                notificationService.notifyAccountLowBalance(
-                        account.getUser(),
-                        account.getName(),
-                        account.getCurrentBalance(),
-                        account.getCurrency()
-                );
-            }
+        schedulerLeaseService.runSharded("notification.account-balances", shards,
+                MAX_HOLD, HOURLY_MIN_HOLD, this::checkAccountBalances);
+    }
+
+    private void checkAccountBalances(int shard, Lease lease) {
+        log.info("Checking account balances (shard {}/{})...", shard, shards);
+
+        List<Object[]> rows = accountRepository.findEmptyBalanceNotificationCandidates(
+                dedupSince(DEDUP_HOURS), shard, shards);
+
+        List<PendingNotification> notifications = new ArrayList<>(rows.size());
+        for (Object[] row : rows) {
+            notifications.add(notificationService.accountLowBalance(
+                    (UUID) row[0], (String) row[1], (BigDecimal) row[2], (String) row[3]));
         }
+        insert(NotificationType.ACCOUNT_EMPTY, shard, notifications);
     }
 
     // Run every 30 minutes - check exchange rates for JPY/VND
     @Scheduled(fixedRate = 1800000)
-    @Transactional
     public void checkExchangeRateAlerts() {
-        log.info("Checking exchange rate alerts for JPY/VND...");
+        schedulerLeaseService.runSharded("notification.exchange-rate-alerts", shards,
+                MAX_HOLD, HALF_HOURLY_MIN_HOLD, this::checkExchangeRateAlerts);
+    }
+
+    private void checkExchangeRateAlerts(int shard, Lease lease) {
+        log.info("Checking exchange rate alerts for JPY/VND (shard {}/{})...", shard, shards);
 
         // Get JPY to VND rate
         exchangeRateRepository.findLatestRate("JPY", "VND").ifPresent(rate -> {
@@ -170,22 +182,14 @@ public class NotificationScheduler {
 
                 if (jpyToVnd.compareTo(lowerBound) >= 0 && jpyToVnd.compareTo(upperBound) <= 0) {
                     // Notify users with JPY accounts
-                    List<Account> jpyAccounts = accountRepository.findByCurrency("JPY");
-
-                    for (Account account : jpyAccounts) {
-                        if (!notificationService.hasRecentNotification(
-                                account.getUser().getId(),
-                                NotificationType.EXCHANGE_RATE_ALERT,
-                                12)) {
-
-                            notificationService.notifyExchangeRateAlert(
-                                    account.getUser(),
-                                    "JPY",
-                                    "VND",
-                                    jpyToVnd
-                            );
-                        }
+                    List<UUID> userIds = accountRepository.findExchangeRateAlertCandidates(
+                            "JPY", dedupSince(EXCHANGE_RATE_DEDUP_HOURS), shard, shards);
+
+                    List<PendingNotification> notifications = new ArrayList<>(userIds.size());
+                    for (UUID userId : userIds) {
+                        notifications.add(notificationService.exchangeRateAlert(userId, "JPY", "VND", jpyToVnd));
                     }
+                    insert(NotificationType.EXCHANGE_RATE_ALERT, shard, notifications);
                     break;
                 }
             }
@@ -196,9 +200,28 @@ public class NotificationScheduler {
     @Scheduled(cron = "0 0 3 * * *")
     @Transactional
     public void cleanupOldNotifications() {
+        schedulerLeaseService.runExclusive("notification.cleanup", lease -> deleteOldReadNotifications());
+    }
+
+    private void deleteOldReadNotifications() {
         log.info("Cleaning up old read notifications...");
         OffsetDateTime thirtyDaysAgo = OffsetDateTime.now().minusDays(30);
         int deleted = notificationService.deleteOldNotifications(thirtyDaysAgo);
         log.info("Deleted {} old notifications", deleted);
     }
+
+    private static OffsetDateTime dedupSince(int hours) {
+        return OffsetDateTime.now().minusHours(hours);
+    }
+
+    private static String budgetCategoryName(Object name) {
+        return name != null ? (String) name : "Tổng";
+    }
+
+    private void insert(NotificationType type, int shard, List<PendingNotification> notifications) {
+        int created = notificationService.createNotifications(notifications);
+        if (created > 0) {
+            log.info("Created {} {} notifications (shard {}/{})", created, type, shard, shards);
+        }
+    }
 }
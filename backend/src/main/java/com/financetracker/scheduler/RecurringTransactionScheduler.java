@@ -1,59 +1,47 @@
 package com.financetracker.scheduler;
 
-import com.financetracker.entity.RecurringTransaction;
-import com.financetracker.repository.RecurringTransactionRepository;
-import com.financetracker.service.RecurringTransactionService;
+import com.financetracker.service.RecurringTransactionExecutor;
+import com.financetracker.service.SchedulerLeaseService;
+import com.financetracker.service.SchedulerLeaseService.Lease;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
-import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Duration;
 import java.time.LocalDate;
-import java.util.List;
 
 @Component
 @RequiredArgsConstructor
 @Slf4j
 public class RecurringTransactionScheduler {
 
-    private final RecurringTransactionRepository recurringRepository;
-    private final RecurringTransactionService recurringService;
+    private final RecurringTransactionExecutor recurringExecutor;
+    private final SchedulerLeaseService schedulerLeaseService;
 
     /**
      * Process recurring transactions daily at 00:05 AM
      */
     @Scheduled(cron = "0 5 0 * * *")
     public void processRecurringTransactions() {
-        log.info("Starting recurring transactions processing...");
-
-        LocalDate today = LocalDate.now();
-        List<RecurringTransaction> dueTransactions = recurringRepository.findDueForExecution(today);
-
-        log.info("Found {} recurring transactions due for execution", dueTransactions.size());
+        schedulerLeaseService.runExclusive("recurring-transactions",
+                Duration.ofHours(1), Duration.ofMinutes(10), this::executeDueTransactions);
+    }
 
-        int successCount = 0;
-        int failCount = 0;
+    private void executeDueTransactions(Lease lease) {
+        log.info("Starting recurring transactions processing...");
 
-        for (RecurringTransaction recurring : dueTransactions) {
-            try {
-                recurringService.executeRecurring(recurring);
-                successCount++;
-            } catch (Exception e) {
-                log.error("Failed to execute recurring transaction {}: {}",
-                        recurring.getId(), e.getMessage(), e);
-                failCount++;
-            }
-        }
+        long started = System.currentTimeMillis();
+        RecurringTransactionExecutor.Result result = recurringExecutor.executeDue(LocalDate.now(), lease);
 
-        log.info("Recurring transactions processing completed. Success: {}, Failed: {}",
-                successCount, failCount);
+        log.info("Recurring transactions processing completed in {} ms. Rules: {}, Posted: {}, Failed: {}, Deferred: {}",
+                System.currentTimeMillis() - started, result.rules(), result.posted(), result.failed(),
+                result.deferred());
     }
 
     /**
      * Manual trigger endpoint for testing - can be called via actuator or admin API
      */
-    @Transactional
     public void triggerManualExecution() {
         log.info("Manual trigger of recurring transactions processing...");
         processRecurringTransactions();
@@ -0,0 +1,49 @@
+package com.financetracker.scheduler;
+
+import com.financetracker.repository.SpendingPlanItemRepository;
+import com.financetracker.repository.SpendingPlanRepository;
+import com.financetracker.service.SchedulerLeaseService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Spending plan totals and item actuals are maintained incrementally by atomic delta updates.
+ * This job compares them against a full recomputation from expenses and items and corrects
+ * any drift, logging how many rows were off.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class SpendingPlanTotalsVerificationScheduler {
+
+    private final SpendingPlanItemRepository itemRepository;
+    private final SpendingPlanRepository spendingPlanRepository;
+    private final SchedulerLeaseService schedulerLeaseService;
+
+    @Scheduled(cron = "${spending-plan-totals.verify-cron:0 15 3 * * *}")
+    @Transactional
+    public void verifyTotals() {
+        schedulerLeaseService.runExclusive("spending-plan-totals-verification", lease -> verify());
+    }
+
+    private void verify() {
+        // Lock drifted rows before recomputing, so deltas committed meanwhile are not overwritten.
+        // Items first, so plan totals are recomputed from corrected actuals
+        List<UUID> itemIds = itemRepository.lockDriftedItems();
+        int items = itemIds.isEmpty() ? 0 : itemRepository.repairActualAmounts(itemIds);
+        List<UUID> planIds = spendingPlanRepository.lockDriftedPlans();
+        int plans = planIds.isEmpty() ? 0 : spendingPlanRepository.repairTotals(planIds);
+
+        if (items > 0 || plans > 0) {
+            log.warn("Spending plan totals drifted: corrected {} item actuals and {} plan totals", items, plans);
+        } else {
+            log.info("Spending plan totals verified, no drift");
+        }
+    }
+}
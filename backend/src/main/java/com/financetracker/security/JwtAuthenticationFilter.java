@@ -19,6 +19,8 @@ import java.io.IOException;
 @RequiredArgsConstructor
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
+    private static final String STREAM_PATH = "/api/notifications/stream";
+
     private final JwtService jwtService;
     private final CustomUserDetailsService userDetailsService;
 
@@ -33,6 +35,7 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         final String userEmail;
 
         if (authHeader == null || !authHeader.startsWith("Bearer ")) {
+            authenticateStreamTicket(request);
             filterChain.doFilter(request, response);
             return;
         }
@@ -62,4 +65,28 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
         filterChain.doFilter(request, response);
     }
+
+    // The notification stream is opened by EventSource, which can only pass a ticket in the URL
+    private void authenticateStreamTicket(HttpServletRequest request) {
+        final String ticket = request.getParameter("ticket");
+        if (ticket == null || !STREAM_PATH.equals(request.getServletPath())
+                || SecurityContextHolder.getContext().getAuthentication() != null) {
+            return;
+        }
+
+        try {
+            UserDetails userDetails = this.userDetailsService.loadUserByUsername(jwtService.extractUsername(ticket));
+            if (jwtService.isStreamTicketValid(ticket, userDetails)) {
+                UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
+                        userDetails,
+                        null,
+                        userDetails.getAuthorities()
+                );
+                authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
+                SecurityContextHolder.getContext().setAuthentication(authToken);
+            }
+        } catch (Exception e) {
+            logger.debug("Stream ticket validation failed: " + e.getMessage());
+        }
+    }
 }
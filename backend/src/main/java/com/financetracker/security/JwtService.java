@@ -27,6 +27,9 @@ public class JwtService {
     @Value("${jwt.refresh-expiration}")
     private long refreshExpiration;
 
+    @Value("${jwt.stream-ticket-expiration:60000}")
+    private long streamTicketExpiration;
+
     public String extractUsername(String token) {
         return extractClaim(token, Claims::getSubject);
     }
@@ -71,6 +74,25 @@ public class JwtService {
                 && !isTokenExpired(token);
     }
 
+    /**
+     * Short-lived ticket for opening the notification stream. EventSource cannot send an
+     * Authorization header, so the ticket travels in the query string instead of the access token.
+     */
+    public String generateStreamTicket(UserDetails userDetails, UUID userId) {
+        Map<String, Object> claims = new HashMap<>();
+        claims.put("userId", userId.toString());
+        claims.put("purpose", "notification_stream");
+        return buildToken(claims, userDetails, streamTicketExpiration);
+    }
+
+    public boolean isStreamTicketValid(String token, UserDetails userDetails) {
+        final String username = extractUsername(token);
+        final String purpose = extractClaim(token, claims -> claims.get("purpose", String.class));
+        return username.equals(userDetails.getUsername())
+                && "notification_stream".equals(purpose)
+                && !isTokenExpired(token);
+    }
+
     private String buildToken(Map<String, Object> extraClaims, UserDetails userDetails, long expiration) {
         return Jwts.builder()
                 .claims(extraClaims)
@@ -83,7 +105,9 @@ public class JwtService {
 
     public boolean isTokenValid(String token, UserDetails userDetails) {
         final String username = extractUsername(token);
-        return (username.equals(userDetails.getUsername())) && !isTokenExpired(token);
+        // Purpose-bound tokens (password reset, stream tickets) are not access tokens
+        final String purpose = extractClaim(token, claims -> claims.get("purpose", String.class));
+        return (username.equals(userDetails.getUsername())) && purpose == null && !isTokenExpired(token);
     }
 
     private boolean isTokenExpired(String token) {
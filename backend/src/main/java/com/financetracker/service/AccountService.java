@@ -23,6 +23,7 @@ public class AccountService {
     private final AccountRepository accountRepository;
     private final UserRepository userRepository;
 
+    @Transactional(readOnly = true)
     public List<AccountResponse> getAllAccounts(UUID userId) {
         return accountRepository.findByUserIdAndIsActiveTrue(userId)
                 .stream()
@@ -30,6 +31,7 @@ public class AccountService {
                 .collect(Collectors.toList());
     }
 
+    @Transactional(readOnly = true)
     public AccountResponse getAccount(UUID userId, UUID accountId) {
         Account account = accountRepository.findByIdAndUserId(accountId, userId)
                 .orElseThrow(() -> ApiException.notFound("Account"));
@@ -85,6 +87,8 @@ public class AccountService {
             !request.getInitialBalance().equals(account.getInitialBalance())) {
             java.math.BigDecimal difference = request.getInitialBalance().subtract(account.getInitialBalance());
             account.setInitialBalance(request.getInitialBalance());
+            // current_balance is not written through the entity; keep the loaded instance in step for the response
+            accountRepository.adjustBalance(account.getId(), difference);
             account.setCurrentBalance(account.getCurrentBalance().add(difference));
         }
 
@@ -18,7 +18,9 @@ import java.util.stream.Collectors;
 public class AdminCategoryService {
 
     private final CategoryRepository categoryRepository;
+    private final CategoryCache categoryCache;
 
+    @Transactional(readOnly = true)
     public List<CategoryResponse> getSystemCategories() {
         return categoryRepository.findByIsSystemTrue()
                 .stream()
@@ -50,6 +52,7 @@ public class AdminCategoryService {
                 .build();
 
         category = categoryRepository.save(category);
+        categoryCache.refreshSystemCategories();
         return toResponse(category);
     }
 
@@ -71,6 +74,7 @@ public class AdminCategoryService {
         category.setColor(request.getColor());
 
         category = categoryRepository.save(category);
+        categoryCache.refreshSystemCategories();
         return toResponse(category);
     }
 
@@ -84,6 +88,7 @@ public class AdminCategoryService {
         }
 
         categoryRepository.delete(category);
+        categoryCache.refreshSystemCategories();
     }
 
     private CategoryResponse toResponse(Category category) {
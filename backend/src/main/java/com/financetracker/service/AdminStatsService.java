@@ -9,6 +9,7 @@ import com.financetracker.repository.TransactionRepository;
 import com.financetracker.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.OffsetDateTime;
 
@@ -22,7 +23,18 @@ public class AdminStatsService {
     private final BudgetRepository budgetRepository;
     private final CategoryRepository categoryRepository;
 
+    // Last computed stats; rebuilt by AdminStatsScheduler so page loads don't scan the tables
+    private volatile AdminStatsResponse snapshot;
+
+    // The first build calls refreshSnapshot() on this, so the transaction is opened here
+    @Transactional(readOnly = true)
     public AdminStatsResponse getStats() {
+        AdminStatsResponse current = snapshot;
+        return current != null ? current : refreshSnapshot();
+    }
+
+    @Transactional(readOnly = true)
+    public AdminStatsResponse refreshSnapshot() {
         OffsetDateTime now = OffsetDateTime.now();
         OffsetDateTime sevenDaysAgo = now.minusDays(7);
         OffsetDateTime thirtyDaysAgo = now.minusDays(30);
@@ -42,7 +54,7 @@ public class AdminStatsService {
         long transactionsLast7Days = transactionRepository.countByCreatedAtAfter(sevenDaysAgo);
         long transactionsLast30Days = transactionRepository.countByCreatedAtAfter(thirtyDaysAgo);
 
-        return AdminStatsResponse.builder()
+        AdminStatsResponse stats = AdminStatsResponse.builder()
                 .totalUsers(totalUsers)
                 .activeUsers(activeUsers)
                 .disabledUsers(disabledUsers)
@@ -56,5 +68,8 @@ public class AdminStatsService {
                 .transactionsLast7Days(transactionsLast7Days)
                 .transactionsLast30Days(transactionsLast30Days)
                 .build();
+
+        snapshot = stats;
+        return stats;
     }
 }
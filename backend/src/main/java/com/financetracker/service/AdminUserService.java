@@ -15,6 +15,9 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.OffsetDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 
 @Service
@@ -27,6 +30,7 @@ public class AdminUserService {
     private final AccountRepository accountRepository;
     private final TransactionRepository transactionRepository;
 
+    @Transactional(readOnly = true)
     public Page<AdminUserResponse> getAllUsers(String search, Pageable pageable) {
         Page<User> users;
         if (search != null && !search.isBlank()) {
@@ -34,9 +38,11 @@ public class AdminUserService {
         } else {
             users = userRepository.findAll(pageable);
         }
-        return users.map(this::toResponse);
+        UserCounts counts = loadCounts(users.map(User::getId).getContent());
+        return users.map(user -> toResponse(user, counts));
     }
 
+    @Transactional(readOnly = true)
     public AdminUserResponse getUser(UUID id) {
         User user = userRepository.findById(id)
                 .orElseThrow(() -> ApiException.notFound("User"));
@@ -164,9 +170,36 @@ public class AdminUserService {
         return toResponse(user);
     }
 
+    private record UserCounts(Map<UUID, Long> accounts, Map<UUID, Long> transactions) {
+    }
+
+    /**
+     * One grouped COUNT per table for the whole page instead of loading every row per user
+     */
+    private UserCounts loadCounts(List<UUID> userIds) {
+        if (userIds.isEmpty()) {
+            return new UserCounts(Map.of(), Map.of());
+        }
+        return new UserCounts(
+                toCountMap(accountRepository.countByUserIds(userIds)),
+                toCountMap(transactionRepository.countByUserIds(userIds)));
+    }
+
+    private static Map<UUID, Long> toCountMap(List<Object[]> rows) {
+        Map<UUID, Long> counts = new HashMap<>();
+        for (Object[] row : rows) {
+            counts.put((UUID) row[0], ((Number) row[1]).longValue());
+        }
+        return counts;
+    }
+
     private AdminUserResponse toResponse(User user) {
-        int accountsCount = accountRepository.findByUserId(user.getId()).size();
-        int transactionsCount = (int) transactionRepository.findByUserId(user.getId(), Pageable.unpaged()).getTotalElements();
+        return toResponse(user, loadCounts(List.of(user.getId())));
+    }
+
+    private AdminUserResponse toResponse(User user, UserCounts counts) {
+        int accountsCount = counts.accounts().getOrDefault(user.getId(), 0L).intValue();
+        int transactionsCount = counts.transactions().getOrDefault(user.getId(), 0L).intValue();
 
         // Determine deletion status
         String deletionStatus = "ACTIVE";
@@ -0,0 +1,189 @@
+package com.financetracker.service;
+
+import com.financetracker.entity.PaymentType;
+import com.financetracker.exception.ApiException;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Generates credit card payment schedules without touching the database, so the same
+ * schedule backs plan creation, what-if simulations and early payoff quotes.
+ * Amounts use the column scale (4); per-installment rounding always goes down and the
+ * residual is reconciled into the last installment, so a schedule's principal sums to the
+ * original amount and its totals sum to the plan total exactly.
+ */
+@Component
+public class AmortizationEngine {
+
+    private static final int SCALE = 4;
+    private static final int RATE_SCALE = 8;
+    // Cap revolving schedules at 10 years; the last installment settles whatever is left
+    private static final int MAX_REVOLVING_PAYMENTS = 120;
+
+    public record Installment(int number, LocalDate dueDate, BigDecimal principal, BigDecimal fee,
+                              BigDecimal interest, BigDecimal total, BigDecimal remainingAfter) {
+    }
+
+    public record Schedule(PaymentType paymentType, BigDecimal originalAmount, BigDecimal installmentAmount,
+                           BigDecimal totalFee, BigDecimal totalInterest, BigDecimal totalAmount,
+                           List<Installment> installments) {
+
+        public LocalDate finalDueDate() {
+            return installments.get(installments.size() - 1).dueDate();
+        }
+    }
+
+    public record PayoffQuote(LocalDate payoffDate, BigDecimal outstandingPrincipal, BigDecimal accruedCharges,
+                              BigDecimal payoffAmount, BigDecimal scheduledRemaining, BigDecimal savings) {
+    }
+
+    /**
+     * Equal principal installments with a flat fee of originalAmount * feeRate per installment.
+     */
+    public Schedule installment(BigDecimal originalAmount, BigDecimal feeRate, Integer totalInstallments,
+                                LocalDate firstDueDate, int billingDay) {
+        if (totalInstallments == null || totalInstallments < 2) {
+            throw ApiException.badRequest("Total installments must be at least 2");
+        }
+        BigDecimal rate = feeRate != null ? feeRate : BigDecimal.ZERO;
+        int n = totalInstallments;
+
+        BigDecimal feePerInstallment = originalAmount.multiply(rate).setScale(SCALE, RoundingMode.HALF_UP);
+        BigDecimal principalPerInstallment = originalAmount.divide(BigDecimal.valueOf(n), SCALE, RoundingMode.DOWN);
+        BigDecimal totalFee = feePerInstallment.multiply(BigDecimal.valueOf(n));
+        BigDecimal totalAmount = originalAmount.add(totalFee);
+
+        List<Installment> installments = new ArrayList<>(n);
+        BigDecimal principalPaid = BigDecimal.ZERO;
+        BigDecimal remaining = totalAmount;
+        for (int i = 1; i <= n; i++) {
+            BigDecimal principal = i < n ? principalPerInstallment : originalAmount.subtract(principalPaid);
+            BigDecimal total = principal.add(feePerInstallment);
+            principalPaid = principalPaid.add(principal);
+            remaining = remaining.subtract(total);
+            installments.add(new Installment(i, dueDate(firstDueDate, billingDay, i), principal,
+                    feePerInstallment, zero(), total, remaining));
+        }
+
+        return new Schedule(PaymentType.INSTALLMENT, originalAmount, principalPerInstallment.add(feePerInstallment),
+                totalFee, zero(), totalAmount, installments);
+    }
+
+    /**
+     * Fixed monthly payments with interest on the remaining balance at annualRate / 12.
+     */
+    public Schedule revolving(BigDecimal originalAmount, BigDecimal annualRate, BigDecimal monthlyPayment,
+                              LocalDate firstDueDate, int billingDay) {
+        if (monthlyPayment == null || monthlyPayment.compareTo(BigDecimal.ZERO) <= 0) {
+            throw ApiException.badRequest("Monthly payment is required for revolving plan");
+        }
+        if (annualRate == null || annualRate.compareTo(BigDecimal.ZERO) < 0) {
+            throw ApiException.badRequest("Interest rate is required for revolving plan");
+        }
+        BigDecimal monthlyRate = monthlyRate(annualRate);
+        if (monthlyPayment.compareTo(originalAmount.multiply(monthlyRate)) <= 0) {
+            throw ApiException.badRequest("Monthly payment is too low to cover interest");
+        }
+
+        List<Installment> installments = new ArrayList<>();
+        BigDecimal remaining = originalAmount;
+        BigDecimal totalInterest = BigDecimal.ZERO;
+        BigDecimal totalAmount = BigDecimal.ZERO;
+        int number = 0;
+
+        while (remaining.compareTo(BigDecimal.ZERO) > 0) {
+            number++;
+            BigDecimal interest = remaining.multiply(monthlyRate).setScale(SCALE, RoundingMode.HALF_UP);
+            BigDecimal principal;
+            if (remaining.add(interest).compareTo(monthlyPayment) <= 0 || number == MAX_REVOLVING_PAYMENTS) {
+                principal = remaining;
+            } else {
+                principal = monthlyPayment.subtract(interest);
+            }
+            BigDecimal total = principal.add(interest);
+            remaining = remaining.subtract(principal);
+            totalInterest = totalInterest.add(interest);
+            totalAmount = totalAmount.add(total);
+            installments.add(new Installment(number, dueDate(firstDueDate, billingDay, number), principal,
+                    zero(), interest, total, remaining));
+        }
+
+        return new Schedule(PaymentType.REVOLVING, originalAmount, monthlyPayment, zero(), totalInterest,
+                totalAmount, installments);
+    }
+
+    /**
+     * Quote paying off the unpaid installments (in payment-number order) on payoffDate.
+     * Principal is due in full; fees and interest of installments already due are kept, future
+     * fees and interest are waived. Revolving plans also accrue interest pro rata for the days
+     * of the current period.
+     *
+     * @param periodStart due date of the last paid installment, or the plan start date
+     */
+    public PayoffQuote payoff(PaymentType paymentType, BigDecimal annualRate, List<Installment> unpaid,
+                              LocalDate periodStart, LocalDate payoffDate) {
+        BigDecimal principal = BigDecimal.ZERO;
+        BigDecimal charges = BigDecimal.ZERO;
+        BigDecimal scheduled = BigDecimal.ZERO;
+        LocalDate currentPeriodStart = periodStart;
+        Installment current = null;
+
+        for (Installment installment : unpaid) {
+            principal = principal.add(installment.principal());
+            scheduled = scheduled.add(installment.total());
+            if (!installment.dueDate().isAfter(payoffDate)) {
+                charges = charges.add(installment.fee()).add(installment.interest());
+                currentPeriodStart = installment.dueDate();
+            } else if (current == null) {
+                current = installment;
+            }
+        }
+
+        if (paymentType == PaymentType.REVOLVING && current != null && annualRate != null) {
+            long periodDays = ChronoUnit.DAYS.between(currentPeriodStart, current.dueDate());
+            long elapsedDays = Math.max(0, ChronoUnit.DAYS.between(currentPeriodStart, payoffDate));
+            if (periodDays > 0 && elapsedDays > 0) {
+                BigDecimal balance = current.remainingAfter().add(current.principal());
+                charges = charges.add(balance.multiply(monthlyRate(annualRate))
+                        .multiply(BigDecimal.valueOf(elapsedDays))
+                        .divide(BigDecimal.valueOf(periodDays), SCALE, RoundingMode.HALF_UP));
+            }
+        }
+
+        BigDecimal payoffAmount = principal.add(charges);
+        return new PayoffQuote(payoffDate, principal, charges, payoffAmount, scheduled,
+                scheduled.subtract(payoffAmount).max(BigDecimal.ZERO));
+    }
+
+    /**
+     * First billing day strictly after the start date.
+     */
+    public LocalDate firstDueDate(LocalDate startDate, int billingDay) {
+        LocalDate firstPayment = startDate.withDayOfMonth(Math.min(billingDay, startDate.lengthOfMonth()));
+        if (!firstPayment.isAfter(startDate)) {
+            firstPayment = firstPayment.plusMonths(1);
+            firstPayment = firstPayment.withDayOfMonth(Math.min(billingDay, firstPayment.lengthOfMonth()));
+        }
+        return firstPayment;
+    }
+
+    // Clamp to the billing day per month so a day-31 card is not stuck on the 28th after February
+    private static LocalDate dueDate(LocalDate firstDueDate, int billingDay, int number) {
+        LocalDate month = firstDueDate.plusMonths(number - 1L);
+        return month.withDayOfMonth(Math.min(billingDay, month.lengthOfMonth()));
+    }
+
+    private static BigDecimal monthlyRate(BigDecimal annualRate) {
+        return annualRate.divide(BigDecimal.valueOf(12), RATE_SCALE, RoundingMode.HALF_UP);
+    }
+
+    private static BigDecimal zero() {
+        return BigDecimal.ZERO.setScale(SCALE);
+    }
+}
@@ -0,0 +1,70 @@
+package com.financetracker.service;
+
+import com.financetracker.service.NotificationService.PendingNotification;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Evaluates budget thresholds when a budget's spent amount changes.
+ * A notification is created only when the percentage crosses the budget's
+ * alert threshold or 100%; NotificationScheduler keeps a low-frequency scan as a safety net.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class BudgetAlertService {
+
+    private static final int EXCEEDED_PERCENT = 100;
+    private static final int DEFAULT_ALERT_THRESHOLD = 80;
+
+    private final NotificationService notificationService;
+
+    /**
+     * Published by BudgetService inside the transaction that changed spentAmount
+     */
+    public record SpentAmountChanged(UUID budgetId, UUID userId, String categoryName, BigDecimal limitAmount,
+                                     BigDecimal oldSpent, BigDecimal newSpent, Integer alertThreshold) {
+    }
+
+    @Async
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onSpentAmountChanged(SpentAmountChanged event) {
+        if (event.limitAmount().compareTo(BigDecimal.ZERO) <= 0) {
+            return;
+        }
+
+        int oldPercentage = percentage(event.oldSpent(), event.limitAmount());
+        int newPercentage = percentage(event.newSpent(), event.limitAmount());
+        int threshold = event.alertThreshold() != null ? event.alertThreshold() : DEFAULT_ALERT_THRESHOLD;
+        String categoryName = event.categoryName() != null ? event.categoryName() : "Tổng";
+
+        PendingNotification notification = null;
+        if (oldPercentage < EXCEEDED_PERCENT && newPercentage >= EXCEEDED_PERCENT) {
+            notification = notificationService.budgetExceeded(event.userId(), categoryName, newPercentage);
+        } else if (oldPercentage < threshold && newPercentage >= threshold && newPercentage < EXCEEDED_PERCENT) {
+            notification = notificationService.budgetWarning(event.userId(), categoryName, newPercentage);
+        }
+
+        if (notification != null) {
+            notificationService.createNotifications(List.of(notification));
+            log.debug("Budget {} crossed {}% -> {}% ({})", event.budgetId(), oldPercentage, newPercentage,
+                    notification.type());
+        }
+    }
+
+    private static int percentage(BigDecimal spent, BigDecimal limit) {
+        BigDecimal amount = spent != null ? spent : BigDecimal.ZERO;
+        return amount.multiply(BigDecimal.valueOf(100))
+                .divide(limit, 0, RoundingMode.HALF_UP)
+                .intValue();
+    }
+}
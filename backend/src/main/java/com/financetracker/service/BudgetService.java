@@ -6,6 +6,7 @@ import com.financetracker.entity.*;
 import com.financetracker.exception.ApiException;
 import com.financetracker.repository.*;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -14,6 +15,7 @@ import java.math.BigDecimal;
 import java.math.RoundingMode;
 import java.time.LocalDate;
 import java.time.temporal.TemporalAdjusters;
+import java.util.Collection;
 import java.util.List;
 import java.util.UUID;
 import java.util.stream.Collectors;
@@ -23,17 +25,17 @@ import java.util.stream.Collectors;
 public class BudgetService {
 
     private final BudgetRepository budgetRepository;
-    private final CategoryRepository categoryRepository;
+    private final CategoryCache categoryCache;
     private final TransactionRepository transactionRepository;
     private final UserRepository userRepository;
     private final FamilyRepository familyRepository;
-    private final FamilyMemberRepository familyMemberRepository;
+    private final FamilyMembershipCache familyMembershipCache;
+    private final ApplicationEventPublisher eventPublisher;
 
+    @Transactional(readOnly = true)
     public List<BudgetResponse> getAllBudgets(UUID userId) {
         // Get user's family IDs
-        List<UUID> familyIds = familyMemberRepository.findByUserId(userId).stream()
-                .map(m -> m.getFamily().getId())
-                .collect(Collectors.toList());
+        List<UUID> familyIds = familyMembershipCache.getFamilyIds(userId);
 
         List<Budget> budgets;
         if (familyIds.isEmpty()) {
@@ -48,9 +50,10 @@ public class BudgetService {
     }
 
     // Get budgets for a specific family
+    @Transactional(readOnly = true)
     public List<BudgetResponse> getFamilyBudgets(UUID userId, UUID familyId) {
         // Verify user is member
-        if (!familyMemberRepository.existsByFamilyIdAndUserId(familyId, userId)) {
+        if (!familyMembershipCache.isMember(familyId, userId)) {
             throw new ApiException("Bạn không phải thành viên của nhóm", HttpStatus.FORBIDDEN);
         }
 
@@ -59,6 +62,7 @@ public class BudgetService {
                 .collect(Collectors.toList());
     }
 
+    @Transactional(readOnly = true)
     public BudgetResponse getBudget(UUID userId, UUID budgetId) {
         Budget budget = budgetRepository.findByIdAndUserId(budgetId, userId)
                 .orElseThrow(() -> ApiException.notFound("Budget"));
@@ -72,8 +76,7 @@ public class BudgetService {
 
         Category category = null;
         if (request.getCategoryId() != null) {
-            category = categoryRepository.findByIdAndUserIdOrSystem(request.getCategoryId(), userId)
-                    .orElseThrow(() -> ApiException.notFound("Category"));
+            category = categoryCache.getAccessibleReference(request.getCategoryId(), userId);
         }
 
         Family family = null;
@@ -82,10 +85,10 @@ public class BudgetService {
                     .orElseThrow(() -> new ApiException("Không tìm thấy nhóm", HttpStatus.NOT_FOUND));
 
             // Verify user is member with permission
-            FamilyMember member = familyMemberRepository.findByFamilyIdAndUserId(family.getId(), userId)
+            FamilyRole role = familyMembershipCache.getRole(family.getId(), userId)
                     .orElseThrow(() -> new ApiException("Bạn không phải thành viên của nhóm", HttpStatus.FORBIDDEN));
 
-            if (member.getRole() != FamilyRole.OWNER && member.getRole() != FamilyRole.ADMIN) {
+            if (role != FamilyRole.OWNER && role != FamilyRole.ADMIN) {
                 throw new ApiException("Chỉ Owner hoặc Admin mới có thể tạo ngân sách nhóm", HttpStatus.FORBIDDEN);
             }
         }
@@ -119,8 +122,7 @@ public class BudgetService {
 
         Category category = null;
         if (request.getCategoryId() != null) {
-            category = categoryRepository.findByIdAndUserIdOrSystem(request.getCategoryId(), userId)
-                    .orElseThrow(() -> ApiException.notFound("Category"));
+            category = categoryCache.getAccessibleReference(request.getCategoryId(), userId);
         }
 
         budget.setName(request.getName());
@@ -154,6 +156,23 @@ public class BudgetService {
         }
     }
 
+    /**
+     * Refresh the budgets of the category whose tracked period contains any of the dates, once each.
+     * Spent amounts are stored for the current period (or the custom range) only, so dates in
+     * earlier periods have no stored amount to refresh.
+     */
+    @Transactional
+    public void updateBudgetSpentAmounts(UUID userId, UUID categoryId, Collection<LocalDate> transactionDates) {
+        for (Budget budget : budgetRepository.findByCategoryIdAndActive(userId, categoryId)) {
+            LocalDate[] dateRange = getBudgetDateRange(budget);
+            boolean affected = transactionDates.stream().anyMatch(date ->
+                    (dateRange[0] == null || !date.isBefore(dateRange[0])) && !date.isAfter(dateRange[1]));
+            if (affected) {
+                calculateAndUpdateSpentAmount(budget);
+            }
+        }
+    }
+
     private void calculateAndUpdateSpentAmount(Budget budget) {
         LocalDate[] dateRange = getBudgetDateRange(budget);
         BigDecimal spentAmount = BigDecimal.ZERO;
@@ -168,8 +187,21 @@ public class BudgetService {
             spentAmount = sum != null ? sum : BigDecimal.ZERO;
         }
 
+        BigDecimal oldSpent = budget.getSpentAmount() != null ? budget.getSpentAmount() : BigDecimal.ZERO;
         budget.setSpentAmount(spentAmount);
         budgetRepository.save(budget);
+
+        // Threshold alerts are evaluated after commit (personal budgets only)
+        if (budget.getUser() != null && oldSpent.compareTo(spentAmount) != 0) {
+            eventPublisher.publishEvent(new BudgetAlertService.SpentAmountChanged(
+                    budget.getId(),
+                    budget.getUser().getId(),
+                    budget.getCategory() != null ? budget.getCategory().getName() : null,
+                    budget.getAmount(),
+                    oldSpent,
+                    spentAmount,
+                    budget.getAlertThreshold()));
+        }
     }
 
     private LocalDate[] getBudgetDateRange(Budget budget) {
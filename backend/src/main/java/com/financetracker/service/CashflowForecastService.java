@@ -0,0 +1,239 @@
+package com.financetracker.service;
+
+import com.financetracker.dto.dashboard.CashflowForecast;
+import com.financetracker.entity.*;
+import com.financetracker.exception.ApiException;
+import com.financetracker.repository.AccountRepository;
+import com.financetracker.repository.CreditCardPaymentRepository;
+import com.financetracker.repository.DebtRepository;
+import com.financetracker.repository.RecurringTransactionRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.*;
+
+/**
+ * Projects per-account daily balances from recurring rules, outstanding credit-card
+ * installments and debt due dates. Scheduled flows are expanded once per user and day
+ * into primitive per-day arrays (amounts in 1/10000 units) covering the maximum horizon;
+ * a request only adds the current balances with a single prefix-sum pass.
+ * Cached flows are evicted when a rule, payment plan or debt of the user changes.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class CashflowForecastService {
+
+    public static final int MAX_MONTHS = 24;
+
+    // Amount columns are DECIMAL(19, 4)
+    private static final int SCALE = 4;
+
+    private final AccountRepository accountRepository;
+    private final RecurringTransactionRepository recurringRepository;
+    private final CreditCardPaymentRepository creditCardPaymentRepository;
+    private final DebtRepository debtRepository;
+
+    @Value("${cashflow-forecast.max-users:5000}")
+    private int maxUsers;
+
+    private final VersionedCache<UUID, ScheduledFlows> cache = new VersionedCache<>(() -> maxUsers);
+
+    /**
+     * Net scheduled flow per day index (0 = startDate) for the maximum horizon. Never mutated once built.
+     */
+    private record ScheduledFlows(LocalDate startDate, int days, Map<UUID, long[]> byAccount,
+                                  Map<String, long[]> debtIncoming, Map<String, long[]> debtOutgoing) {
+    }
+
+    @Transactional(readOnly = true)
+    public CashflowForecast getForecast(UUID userId, int months) {
+        if (months < 1 || months > MAX_MONTHS) {
+            throw ApiException.badRequest("months must be between 1 and " + MAX_MONTHS);
+        }
+
+        LocalDate today = LocalDate.now();
+        ScheduledFlows flows = getScheduledFlows(userId, today);
+        LocalDate endDate = today.plusMonths(months);
+        int days = (int) ChronoUnit.DAYS.between(today, endDate) + 1;
+
+        List<CashflowForecast.AccountForecast> accounts = new ArrayList<>();
+        for (Account account : accountRepository.findByUserIdAndIsActiveTrue(userId)) {
+            accounts.add(projectAccount(account, flows.byAccount().get(account.getId()), today, days));
+        }
+
+        List<CashflowForecast.DebtForecast> debts = new ArrayList<>();
+        Set<String> currencies = new TreeSet<>(flows.debtIncoming().keySet());
+        currencies.addAll(flows.debtOutgoing().keySet());
+        for (String currency : currencies) {
+            debts.add(projectDebts(currency, flows.debtIncoming().get(currency),
+                    flows.debtOutgoing().get(currency), days));
+        }
+
+        return CashflowForecast.builder()
+                .startDate(today)
+                .endDate(endDate)
+                .accounts(accounts)
+                .debts(debts)
+                .build();
+    }
+
+    public void evictUser(UUID userId) {
+        cache.evictAfterCommit(userId);
+    }
+
+    private ScheduledFlows getScheduledFlows(UUID userId, LocalDate today) {
+        return cache.get(userId, flows -> flows.startDate().equals(today), () -> {
+            long started = System.nanoTime();
+            ScheduledFlows flows = buildScheduledFlows(userId, today);
+            log.debug("Built cashflow forecast flows for user {} in {} µs", userId,
+                    (System.nanoTime() - started) / 1000);
+            return flows;
+        });
+    }
+
+    private ScheduledFlows buildScheduledFlows(UUID userId, LocalDate today) {
+        LocalDate horizon = today.plusMonths(MAX_MONTHS);
+        int days = (int) ChronoUnit.DAYS.between(today, horizon) + 1;
+        Map<UUID, long[]> byAccount = new HashMap<>();
+
+        for (RecurringTransaction rule : recurringRepository
+                .findByUserIdAndStatusOrderByNextExecutionDateAsc(userId, RecurringStatus.ACTIVE)) {
+            expandRule(rule, today, horizon, days, byAccount);
+        }
+
+        // Outstanding installments are paid from the card's linked account when it has one
+        for (CreditCardPayment payment : creditCardPaymentRepository.findOutstandingForForecast(userId, horizon)) {
+            Account card = payment.getPlan().getAccount();
+            Account payer = card.getLinkedAccount() != null ? card.getLinkedAccount() : card;
+            add(byAccount, payer.getId(), days, dayIndex(today, payment.getDueDate()), -units(payment.getTotalAmount()));
+        }
+
+        Map<String, long[]> debtIncoming = new HashMap<>();
+        Map<String, long[]> debtOutgoing = new HashMap<>();
+        for (Debt debt : debtRepository.findByUserIdAndStatusIn(userId,
+                List.of(DebtStatus.ACTIVE, DebtStatus.PARTIALLY_PAID))) {
+            if (debt.getDueDate() == null || debt.getDueDate().isAfter(horizon)) {
+                continue;
+            }
+            long remaining = units(debt.getAmount().subtract(debt.getPaidAmount()));
+            if (remaining <= 0) {
+                continue;
+            }
+            Map<String, long[]> target = debt.getType() == DebtType.LEND ? debtIncoming : debtOutgoing;
+            add(target, debt.getCurrency(), days, dayIndex(today, debt.getDueDate()), remaining);
+        }
+
+        return new ScheduledFlows(today, days, byAccount, debtIncoming, debtOutgoing);
+    }
+
+    /**
+     * Expand a rule with the same schedule, end date and execution limit the executor applies.
+     */
+    private void expandRule(RecurringTransaction rule, LocalDate today, LocalDate horizon, int days,
+                            Map<UUID, long[]> byAccount) {
+        long amount = units(rule.getAmount());
+        long sourceDelta = rule.getType() == TransactionType.INCOME ? amount : -amount;
+        UUID toAccountId = rule.getType() == TransactionType.TRANSFER && rule.getToAccount() != null
+                ? rule.getToAccount().getId() : null;
+        long transferIn = toAccountId == null ? 0 : rule.getExchangeRate() != null
+                ? units(rule.getAmount().multiply(rule.getExchangeRate()))
+                : amount;
+
+        LocalDate date = rule.getNextExecutionDate();
+        int executions = rule.getExecutionCount() != null ? rule.getExecutionCount() : 0;
+        while (!date.isAfter(horizon)) {
+            if (rule.getEndDate() != null && date.isAfter(rule.getEndDate())) {
+                break;
+            }
+            if (rule.getMaxExecutions() != null && executions >= rule.getMaxExecutions()) {
+                break;
+            }
+            int day = dayIndex(today, date);
+            add(byAccount, rule.getAccount().getId(), days, day, sourceDelta);
+            if (toAccountId != null) {
+                add(byAccount, toAccountId, days, day, transferIn);
+            }
+            executions++;
+
+            LocalDate next = RecurringTransactionService.calculateNextDateFrom(date, rule);
+            if (!next.isAfter(date)) {
+                break;
+            }
+            date = next;
+        }
+    }
+
+    private static CashflowForecast.AccountForecast projectAccount(Account account, long[] flow,
+                                                                   LocalDate today, int days) {
+        long balance = units(account.getCurrentBalance());
+        long lowest = Long.MAX_VALUE;
+        int lowestDay = 0;
+        int firstNegativeDay = -1;
+        List<BigDecimal> daily = new ArrayList<>(days);
+
+        for (int d = 0; d < days; d++) {
+            if (flow != null) {
+                balance += flow[d];
+            }
+            if (balance < lowest) {
+                lowest = balance;
+                lowestDay = d;
+            }
+            if (balance < 0 && firstNegativeDay < 0) {
+                firstNegativeDay = d;
+            }
+            daily.add(BigDecimal.valueOf(balance, SCALE));
+        }
+
+        return CashflowForecast.AccountForecast.builder()
+                .accountId(account.getId())
+                .accountName(account.getName())
+                .currency(account.getCurrency())
+                .currentBalance(account.getCurrentBalance())
+                .endingBalance(BigDecimal.valueOf(balance, SCALE))
+                .lowestBalance(BigDecimal.valueOf(lowest, SCALE))
+                .lowestBalanceDate(today.plusDays(lowestDay))
+                .firstNegativeDate(firstNegativeDay >= 0 ? today.plusDays(firstNegativeDay) : null)
+                .dailyBalances(daily)
+                .build();
+    }
+
+    private static CashflowForecast.DebtForecast projectDebts(String currency, long[] incoming, long[] outgoing,
+                                                              int days) {
+        long totalIn = 0;
+        long totalOut = 0;
+        List<BigDecimal> cumulative = new ArrayList<>(days);
+        for (int d = 0; d < days; d++) {
+            totalIn += incoming != null ? incoming[d] : 0;
+            totalOut += outgoing != null ? outgoing[d] : 0;
+            cumulative.add(BigDecimal.valueOf(totalIn - totalOut, SCALE));
+        }
+        return CashflowForecast.DebtForecast.builder()
+                .currency(currency)
+                .totalIncoming(BigDecimal.valueOf(totalIn, SCALE))
+                .totalOutgoing(BigDecimal.valueOf(totalOut, SCALE))
+                .dailyCumulativeNet(cumulative)
+                .build();
+    }
+
+    private static <K> void add(Map<K, long[]> flows, K key, int days, int day, long delta) {
+        flows.computeIfAbsent(key, k -> new long[days])[day] += delta;
+    }
+
+    // Overdue items are projected on the first day
+    private static int dayIndex(LocalDate today, LocalDate date) {
+        return (int) Math.max(0, ChronoUnit.DAYS.between(today, date));
+    }
+
+    private static long units(BigDecimal amount) {
+        return amount == null ? 0 : amount.setScale(SCALE, RoundingMode.HALF_UP).unscaledValue().longValueExact();
+    }
+}
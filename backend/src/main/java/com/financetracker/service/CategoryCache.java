@@ -0,0 +1,175 @@
+package com.financetracker.service;
+
+import com.financetracker.entity.Category;
+import com.financetracker.entity.CategoryType;
+import com.financetracker.exception.ApiException;
+import com.financetracker.repository.CategoryRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.OffsetDateTime;
+import java.util.*;
+
+/**
+ * In-memory view of categories used on the transaction/budget hot path.
+ * System categories are held as an immutable snapshot that is replaced as a whole
+ * (copy-on-write) after admin edits and reloaded once its TTL passes, so admin edits made on
+ * another instance are picked up; user categories are cached per user with a TTL
+ * and evicted when the user changes them.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class CategoryCache {
+
+    private final CategoryRepository categoryRepository;
+
+    @Value("${category-cache.user-ttl-minutes:30}")
+    private int userTtlMinutes;
+
+    @Value("${category-cache.system-ttl-minutes:5}")
+    private int systemTtlMinutes;
+
+    @Value("${category-cache.max-users:10000}")
+    private int maxUsers;
+
+    private volatile SystemSnapshot systemSnapshot;
+
+    private final VersionedCache<UUID, UserCategories> userCache = new VersionedCache<>(() -> maxUsers);
+
+    public record CachedCategory(UUID id, UUID userId, UUID parentId, String name, String nameVi,
+                                 String nameEn, String nameJa, CategoryType type, String icon,
+                                 String color, boolean system) {
+        static CachedCategory from(Category category, UUID userId) {
+            return new CachedCategory(
+                    category.getId(),
+                    userId,
+                    category.getParent() != null ? category.getParent().getId() : null,
+                    category.getName(),
+                    category.getNameVi(),
+                    category.getNameEn(),
+                    category.getNameJa(),
+                    category.getType(),
+                    category.getIcon(),
+                    category.getColor(),
+                    Boolean.TRUE.equals(category.getIsSystem()));
+        }
+    }
+
+    private record SystemSnapshot(List<CachedCategory> categories, Map<UUID, CachedCategory> byId,
+                                  OffsetDateTime cachedAt) {
+        boolean isExpired(int ttlMinutes) {
+            return cachedAt.plusMinutes(ttlMinutes).isBefore(OffsetDateTime.now());
+        }
+    }
+
+    private record UserCategories(List<CachedCategory> categories, Map<UUID, CachedCategory> byId,
+                                  OffsetDateTime cachedAt) {
+        boolean isExpired(int ttlMinutes) {
+            return cachedAt.plusMinutes(ttlMinutes).isBefore(OffsetDateTime.now());
+        }
+    }
+
+    /**
+     * System categories followed by the user's own categories, in load order.
+     */
+    public List<CachedCategory> getVisibleCategories(UUID userId) {
+        List<CachedCategory> system = getSystemSnapshot().categories();
+        List<CachedCategory> own = getUserCategories(userId).categories();
+        List<CachedCategory> result = new ArrayList<>(system.size() + own.size());
+        result.addAll(system);
+        result.addAll(own);
+        return result;
+    }
+
+    /**
+     * Equivalent of {@code findByIdAndUserIdOrSystem} served from memory.
+     * A miss falls back to the database once so that a category created by a
+     * concurrent request is not rejected while the cache is being refreshed.
+     */
+    public Optional<CachedCategory> findAccessible(UUID categoryId, UUID userId) {
+        CachedCategory cached = getSystemSnapshot().byId().get(categoryId);
+        if (cached == null) {
+            cached = getUserCategories(userId).byId().get(categoryId);
+        }
+        if (cached != null) {
+            return Optional.of(cached);
+        }
+
+        Optional<Category> fromDb = categoryRepository.findByIdAndUserIdOrSystem(categoryId, userId);
+        if (fromDb.isPresent()) {
+            log.debug("Category cache miss for {} (user {}), evicting stale entry", categoryId, userId);
+            userCache.evict(userId);
+            return Optional.of(CachedCategory.from(fromDb.get(), fromDb.get().getIsSystem() ? null : userId));
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * Validate that the category is visible to the user and return an unloaded reference
+     * suitable for assigning to an entity association.
+     */
+    public Category getAccessibleReference(UUID categoryId, UUID userId) {
+        CachedCategory cached = findAccessible(categoryId, userId)
+                .orElseThrow(() -> ApiException.notFound("Category"));
+        return categoryRepository.getReferenceById(cached.id());
+    }
+
+    /**
+     * Build a new system snapshot once the current transaction commits and swap it in.
+     * Parents cascade to children, so cached user categories are dropped as well.
+     */
+    public void refreshSystemCategories() {
+        VersionedCache.afterCommit(() -> {
+            systemSnapshot = loadSystemSnapshot();
+            userCache.clear();
+            log.info("Replaced system category snapshot ({} categories)", systemSnapshot.categories().size());
+        });
+    }
+
+    public void evictUser(UUID userId) {
+        userCache.evictAfterCommit(userId);
+    }
+
+    private SystemSnapshot getSystemSnapshot() {
+        SystemSnapshot snapshot = systemSnapshot;
+        if (snapshot == null || snapshot.isExpired(systemTtlMinutes)) {
+            synchronized (this) {
+                snapshot = systemSnapshot;
+                if (snapshot == null || snapshot.isExpired(systemTtlMinutes)) {
+                    snapshot = loadSystemSnapshot();
+                    systemSnapshot = snapshot;
+                    log.debug("Loaded {} system categories into cache", snapshot.categories().size());
+                }
+            }
+        }
+        return snapshot;
+    }
+
+    private SystemSnapshot loadSystemSnapshot() {
+        List<CachedCategory> categories = categoryRepository.findByIsSystemTrue().stream()
+                .map(c -> CachedCategory.from(c, null))
+                .toList();
+        return new SystemSnapshot(categories, indexById(categories), OffsetDateTime.now());
+    }
+
+    private UserCategories getUserCategories(UUID userId) {
+        return userCache.get(userId, cached -> !cached.isExpired(userTtlMinutes), () -> {
+            List<CachedCategory> categories = categoryRepository.findByUserId(userId).stream()
+                    .filter(c -> !Boolean.TRUE.equals(c.getIsSystem()))
+                    .map(c -> CachedCategory.from(c, userId))
+                    .toList();
+            return new UserCategories(categories, indexById(categories), OffsetDateTime.now());
+        });
+    }
+
+    private static Map<UUID, CachedCategory> indexById(List<CachedCategory> categories) {
+        Map<UUID, CachedCategory> byId = new HashMap<>(categories.size() * 2);
+        for (CachedCategory category : categories) {
+            byId.put(category.id(), category);
+        }
+        return Collections.unmodifiableMap(byId);
+    }
+}
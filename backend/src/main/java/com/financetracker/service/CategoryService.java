@@ -8,12 +8,12 @@ import com.financetracker.entity.User;
 import com.financetracker.exception.ApiException;
 import com.financetracker.repository.CategoryRepository;
 import com.financetracker.repository.UserRepository;
+import com.financetracker.service.CategoryCache.CachedCategory;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.util.List;
-import java.util.UUID;
+import java.util.*;
 import java.util.stream.Collectors;
 
 @Service
@@ -22,45 +22,62 @@ public class CategoryService {
 
     private final CategoryRepository categoryRepository;
     private final UserRepository userRepository;
+    private final CategoryCache categoryCache;
 
+    @Transactional(readOnly = true)
     public List<CategoryResponse> getAllCategories(UUID userId) {
-        return deduplicateCategories(categoryRepository.findByUserIdOrSystemCategories(userId))
+        List<CachedCategory> visible = categoryCache.getVisibleCategories(userId);
+        Map<UUID, List<CachedCategory>> childrenByParent = groupByParent(visible);
+        return deduplicateCategories(visible.stream().filter(c -> c.parentId() == null).toList())
                 .stream()
-                .map(this::toResponse)
+                .map(c -> toResponse(c, childrenByParent))
                 .collect(Collectors.toList());
     }
 
+    @Transactional(readOnly = true)
     public List<CategoryResponse> getCategoriesByType(UUID userId, CategoryType type) {
-        return deduplicateCategories(categoryRepository.findByUserIdOrSystemAndType(userId, type))
+        List<CachedCategory> visible = categoryCache.getVisibleCategories(userId);
+        Map<UUID, List<CachedCategory>> childrenByParent = groupByParent(visible);
+        return deduplicateCategories(visible.stream().filter(c -> c.type() == type).toList())
                 .stream()
-                .map(this::toResponse)
+                .map(c -> toResponse(c, childrenByParent))
                 .collect(Collectors.toList());
     }
 
     /**
      * Remove duplicate categories, keeping system categories over user categories with same name
      */
-    private List<Category> deduplicateCategories(List<Category> categories) {
-        java.util.Map<String, Category> uniqueCategories = new java.util.LinkedHashMap<>();
+    private List<CachedCategory> deduplicateCategories(List<CachedCategory> categories) {
+        Map<String, CachedCategory> uniqueCategories = new LinkedHashMap<>();
 
         // First pass: add all system categories
-        for (Category cat : categories) {
-            if (cat.getIsSystem()) {
-                uniqueCategories.put(cat.getName() + "_" + cat.getType(), cat);
+        for (CachedCategory cat : categories) {
+            if (cat.system()) {
+                uniqueCategories.put(cat.name() + "_" + cat.type(), cat);
             }
         }
 
         // Second pass: add user categories only if no system category with same name exists
-        for (Category cat : categories) {
-            if (!cat.getIsSystem()) {
-                String key = cat.getName() + "_" + cat.getType();
+        for (CachedCategory cat : categories) {
+            if (!cat.system()) {
+                String key = cat.name() + "_" + cat.type();
                 if (!uniqueCategories.containsKey(key)) {
                     uniqueCategories.put(key, cat);
                 }
             }
         }
 
-        return new java.util.ArrayList<>(uniqueCategories.values());
+        return new ArrayList<>(uniqueCategories.values());
+    }
+
+    private Map<UUID, List<CachedCategory>> groupByParent(List<CachedCategory> categories) {
+        Map<UUID, List<CachedCategory>> childrenByParent = new HashMap<>();
+        for (CachedCategory cat : categories) {
+            if (cat.parentId() != null) {
+                childrenByParent.computeIfAbsent(cat.parentId(), k -> new ArrayList<>()).add(cat);
+            }
+        }
+        return childrenByParent;
     }
 
     @Transactional
@@ -70,7 +87,8 @@ public class CategoryService {
 
         Category parent = null;
         if (request.getParentId() != null) {
-            parent = categoryRepository.findByIdAndUserIdOrSystem(request.getParentId(), userId)
+            parent = categoryCache.findAccessible(request.getParentId(), userId)
+                    .map(c -> categoryRepository.getReferenceById(c.id()))
                     .orElseThrow(() -> ApiException.notFound("Parent category"));
         }
 
@@ -88,6 +106,7 @@ public class CategoryService {
                 .build();
 
         category = categoryRepository.save(category);
+        categoryCache.evictUser(userId);
         return toResponse(category);
     }
 
@@ -108,6 +127,7 @@ public class CategoryService {
         category.setColor(request.getColor());
 
         category = categoryRepository.save(category);
+        categoryCache.evictUser(userId);
         return toResponse(category);
     }
 
@@ -121,6 +141,7 @@ public class CategoryService {
         }
 
         categoryRepository.delete(category);
+        categoryCache.evictUser(userId);
     }
 
     private CategoryResponse toResponse(Category category) {
@@ -140,4 +161,22 @@ public class CategoryService {
                         .collect(Collectors.toList()))
                 .build();
     }
+
+    private CategoryResponse toResponse(CachedCategory category, Map<UUID, List<CachedCategory>> childrenByParent) {
+        return CategoryResponse.builder()
+                .id(category.id())
+                .name(category.name())
+                .nameVi(category.nameVi())
+                .nameEn(category.nameEn())
+                .nameJa(category.nameJa())
+                .type(category.type())
+                .icon(category.icon())
+                .color(category.color())
+                .parentId(category.parentId())
+                .isSystem(category.system())
+                .children(childrenByParent.getOrDefault(category.id(), List.of()).stream()
+                        .map(c -> toResponse(c, childrenByParent))
+                        .collect(Collectors.toList()))
+                .build();
+    }
 }
@@ -96,6 +96,7 @@ public class ChatService {
         return toResponse(assistantMessage);
     }
 
+    @Transactional(readOnly = true)
     public ChatHistoryResponse getHistory(UUID userId) {
         List<ChatMessage> messages = chatMessageRepository.findAllByUserIdOrderByCreatedAtAsc(userId);
         return ChatHistoryResponse.builder()
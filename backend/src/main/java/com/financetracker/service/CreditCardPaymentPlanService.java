@@ -9,15 +9,16 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
-import java.math.RoundingMode;
+import java.sql.Date;
 import java.time.LocalDate;
-import java.util.ArrayList;
-import java.util.List;
-import java.util.UUID;
+import java.time.OffsetDateTime;
+import java.util.*;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
@@ -30,34 +31,40 @@ public class CreditCardPaymentPlanService {
     private final TransactionRepository transactionRepository;
     private final AccountRepository accountRepository;
     private final UserRepository userRepository;
+    private final CashflowForecastService cashflowForecastService;
+    private final FamilyAnalyticsService familyAnalyticsService;
+    private final AmortizationEngine amortizationEngine;
+    private final JdbcTemplate jdbcTemplate;
+
+    private static final String INSERT_PLAN = """
+            INSERT INTO credit_card_payment_plans (id, user_id, transaction_id, account_id, payment_type,
+                                                   original_amount, total_amount_with_fee, remaining_amount,
+                                                   currency, start_date, next_payment_date, total_fee_amount,
+                                                   total_interest_amount, final_payment_date, total_installments,
+                                                   completed_installments, installment_amount, installment_fee_rate,
+                                                   monthly_payment, interest_rate, status, created_at, updated_at)
+            VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, 0, ?, ?, ?, ?, ?, now(), now())
+            """;
+
+    private static final String LINK_TRANSACTIONS = """
+            UPDATE transactions t
+            SET payment_type = ?, payment_plan_id = p.id, updated_at = now()
+            FROM credit_card_payment_plans p
+            WHERE p.transaction_id = t.id
+              AND p.id = ANY (?)
+              AND t.payment_plan_id IS NULL
+            """;
+
+    private static final String INSERT_PAYMENT = """
+            INSERT INTO credit_card_payments (id, plan_id, payment_number, principal_amount, fee_amount,
+                                              interest_amount, total_amount, remaining_after, due_date, status,
+                                              created_at, updated_at)
+            VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, 'PENDING', now(), now())
+            """;
 
     @Transactional(readOnly = true)
     public Page<CreditCardPaymentPlanResponse> getAll(UUID userId, UUID accountId, PaymentPlanStatus status, PaymentType paymentType, Pageable pageable) {
-        Page<CreditCardPaymentPlan> plans;
-
-        if (accountId != null) {
-            // Filter by account
-            if (status != null && paymentType != null) {
-                plans = planRepository.findByUserIdAndAccountIdAndStatusAndPaymentType(userId, accountId, status, paymentType, pageable);
-            } else if (status != null) {
-                plans = planRepository.findByUserIdAndAccountIdAndStatus(userId, accountId, status, pageable);
-            } else if (paymentType != null) {
-                plans = planRepository.findByUserIdAndAccountIdAndPaymentType(userId, accountId, paymentType, pageable);
-            } else {
-                plans = planRepository.findByUserIdAndAccountId(userId, accountId, pageable);
-            }
-        } else {
-            // No account filter
-            if (status != null && paymentType != null) {
-                plans = planRepository.findByUserIdAndStatusAndPaymentType(userId, status, paymentType, pageable);
-            } else if (status != null) {
-                plans = planRepository.findByUserIdAndStatus(userId, status, pageable);
-            } else if (paymentType != null) {
-                plans = planRepository.findByUserIdAndPaymentType(userId, paymentType, pageable);
-            } else {
-                plans = planRepository.findByUserId(userId, pageable);
-            }
-        }
+        Page<CreditCardPaymentPlan> plans = planRepository.findForListing(userId, accountId, status, paymentType, pageable);
 
         return plans.map(this::toResponse);
     }
@@ -68,13 +75,40 @@ public class CreditCardPaymentPlanService {
         return toResponseWithPayments(plan);
     }
 
+    /**
+     * Create the same plan terms for many transactions in one pass: one IN query loads the
+     * transactions, validation and schedules run in memory, plans and payments are inserted in
+     * JDBC batches and the transactions are linked with a single UPDATE. Invalid ids are
+     * reported per id and do not prevent the others from being created.
+     */
     @Transactional
     public BulkCreditCardPaymentPlanResponse createBulk(UUID userId, BulkCreditCardPaymentPlanRequest request) {
+        cashflowForecastService.evictUser(userId);
+        familyAnalyticsService.evictUser(userId);
         List<CreditCardPaymentPlanResponse> createdPlans = new ArrayList<>();
         List<BulkCreditCardPaymentPlanResponse.BulkCreateError> errors = new ArrayList<>();
 
+        Map<UUID, Transaction> transactions = transactionRepository
+                .findAllForPaymentPlans(userId, request.getTransactionIds())
+                .stream()
+                .collect(Collectors.toMap(Transaction::getId, Function.identity()));
+
+        List<CreditCardPaymentPlan> plans = new ArrayList<>();
+        List<AmortizationEngine.Schedule> schedules = new ArrayList<>();
+        Set<UUID> seen = new HashSet<>();
+        OffsetDateTime now = OffsetDateTime.now();
+
         for (UUID transactionId : request.getTransactionIds()) {
             try {
+                if (!seen.add(transactionId)) {
+                    throw new ApiException("Duplicate transaction ID", HttpStatus.BAD_REQUEST);
+                }
+                Transaction transaction = transactions.get(transactionId);
+                if (transaction == null) {
+                    throw new ApiException("Transaction not found", HttpStatus.NOT_FOUND);
+                }
+                validateForPlan(transaction);
+
                 CreditCardPaymentPlanRequest singleRequest = CreditCardPaymentPlanRequest.builder()
                         .transactionId(transactionId)
                         .paymentType(request.getPaymentType())
@@ -85,9 +119,22 @@ public class CreditCardPaymentPlanService {
                         .startDate(request.getStartDate())
                         .build();
 
-                CreditCardPaymentPlanResponse response = create(userId, singleRequest);
-                createdPlans.add(response);
-            } catch (Exception e) {
+                LocalDate startDate = request.getStartDate() != null
+                        ? request.getStartDate() : transaction.getTransactionDate();
+                AmortizationEngine.Schedule schedule = buildSchedule(request.getPaymentType(),
+                        transaction.getAmount(), request.getTotalInstallments(), request.getInstallmentFeeRate(),
+                        request.getMonthlyPayment(), request.getInterestRate(), startDate,
+                        billingDay(transaction.getAccount()));
+
+                CreditCardPaymentPlan plan = toPlan(transaction.getUser(), transaction, transaction.getAccount(),
+                        singleRequest, startDate, schedule);
+                // Never persisted through JPA; the id is assigned here for the JDBC batches
+                plan.setId(UUID.randomUUID());
+                plan.setCreatedAt(now);
+                plan.setUpdatedAt(now);
+                plans.add(plan);
+                schedules.add(schedule);
+            } catch (ApiException e) {
                 errors.add(BulkCreditCardPaymentPlanResponse.BulkCreateError.builder()
                         .transactionId(transactionId.toString())
                         .error(e.getMessage())
@@ -96,6 +143,18 @@ public class CreditCardPaymentPlanService {
             }
         }
 
+        if (!plans.isEmpty()) {
+            insertPlans(plans);
+            List<List<CreditCardPaymentResponse>> payments = insertPayments(plans, schedules);
+            linkTransactions(request.getPaymentType(), plans);
+
+            for (int i = 0; i < plans.size(); i++) {
+                CreditCardPaymentPlanResponse response = toResponse(plans.get(i));
+                response.setPayments(payments.get(i));
+                createdPlans.add(response);
+            }
+        }
+
         log.info("Bulk created {} plans for user {}, {} failed",
                 createdPlans.size(), userId, errors.size());
 
@@ -110,6 +169,8 @@ public class CreditCardPaymentPlanService {
 
     @Transactional
     public CreditCardPaymentPlanResponse create(UUID userId, CreditCardPaymentPlanRequest request) {
+        cashflowForecastService.evictUser(userId);
+        familyAnalyticsService.evictUser(userId);
         // Validate transaction
         Transaction transaction = transactionRepository.findById(request.getTransactionId())
                 .orElseThrow(() -> new ApiException("Transaction not found", HttpStatus.NOT_FOUND));
@@ -117,36 +178,18 @@ public class CreditCardPaymentPlanService {
         if (!transaction.getUser().getId().equals(userId)) {
             throw new ApiException("Transaction not found", HttpStatus.NOT_FOUND);
         }
-
-        // Check if transaction already has a payment plan
-        if (transaction.getPaymentPlan() != null) {
-            throw new ApiException("Transaction already has a payment plan", HttpStatus.BAD_REQUEST);
-        }
-
-        // Validate account is credit card
+        validateForPlan(transaction);
         Account account = transaction.getAccount();
-        if (account.getType() != AccountType.CREDIT_CARD) {
-            throw new ApiException("Payment plans are only available for credit card transactions", HttpStatus.BAD_REQUEST);
-        }
-
-        // Validate transaction is expense
-        if (transaction.getType() != TransactionType.EXPENSE) {
-            throw new ApiException("Payment plans are only available for expense transactions", HttpStatus.BAD_REQUEST);
-        }
 
         User user = transaction.getUser();
         LocalDate startDate = request.getStartDate() != null ? request.getStartDate() : transaction.getTransactionDate();
+        AmortizationEngine.Schedule schedule = buildSchedule(request.getPaymentType(), transaction.getAmount(),
+                request.getTotalInstallments(), request.getInstallmentFeeRate(), request.getMonthlyPayment(),
+                request.getInterestRate(), startDate, billingDay(account));
 
-        CreditCardPaymentPlan plan;
-        if (request.getPaymentType() == PaymentType.INSTALLMENT) {
-            plan = createInstallmentPlan(user, transaction, account, request, startDate);
-        } else if (request.getPaymentType() == PaymentType.REVOLVING) {
-            plan = createRevolvingPlan(user, transaction, account, request, startDate);
-        } else {
-            throw new ApiException("Invalid payment type", HttpStatus.BAD_REQUEST);
-        }
-
-        plan = planRepository.save(plan);
+        CreditCardPaymentPlan plan = planRepository.saveAndFlush(
+                toPlan(user, transaction, account, request, startDate, schedule));
+        List<CreditCardPaymentResponse> payments = insertPayments(plan, schedule);
 
         // Update transaction
         transaction.setPaymentType(request.getPaymentType());
@@ -156,189 +199,286 @@ public class CreditCardPaymentPlanService {
         log.info("Created {} plan {} for transaction {} of user {}",
                 request.getPaymentType(), plan.getId(), transaction.getId(), userId);
 
-        return toResponseWithPayments(plan);
+        CreditCardPaymentPlanResponse response = toResponse(plan);
+        response.setPayments(payments);
+        return response;
     }
 
-    private CreditCardPaymentPlan createInstallmentPlan(User user, Transaction transaction, Account account,
-                                                         CreditCardPaymentPlanRequest request, LocalDate startDate) {
-        if (request.getTotalInstallments() == null || request.getTotalInstallments() < 2) {
-            throw new ApiException("Total installments must be at least 2", HttpStatus.BAD_REQUEST);
+    /**
+     * What-if schedule for an amount and plan terms; nothing is persisted.
+     */
+    @Transactional(readOnly = true)
+    public PaymentPlanSimulationResponse simulate(UUID userId, PaymentPlanSimulationRequest request) {
+        int billingDay = request.getBillingDay() != null ? request.getBillingDay() : 1;
+        if (request.getAccountId() != null) {
+            Account account = accountRepository.findByIdAndUserId(request.getAccountId(), userId)
+                    .orElseThrow(() -> ApiException.notFound("Account"));
+            billingDay = billingDay(account);
         }
+        LocalDate startDate = request.getStartDate() != null ? request.getStartDate() : LocalDate.now();
+
+        AmortizationEngine.Schedule schedule = buildSchedule(request.getPaymentType(), request.getAmount(),
+                request.getTotalInstallments(), request.getInstallmentFeeRate(), request.getMonthlyPayment(),
+                request.getInterestRate(), startDate, billingDay);
+
+        return PaymentPlanSimulationResponse.builder()
+                .paymentType(schedule.paymentType())
+                .originalAmount(schedule.originalAmount())
+                .installmentAmount(schedule.installmentAmount())
+                .totalFeeAmount(schedule.totalFee())
+                .totalInterestAmount(schedule.totalInterest())
+                .totalAmount(schedule.totalAmount())
+                .totalInstallments(schedule.installments().size())
+                .firstPaymentDate(schedule.installments().get(0).dueDate())
+                .finalPaymentDate(schedule.finalDueDate())
+                .payments(schedule.installments().stream()
+                        .map(installment -> toPaymentResponse(null, installment))
+                        .collect(Collectors.toList()))
+                .build();
+    }
 
-        BigDecimal originalAmount = transaction.getAmount();
-        BigDecimal feeRate = request.getInstallmentFeeRate() != null ? request.getInstallmentFeeRate() : BigDecimal.ZERO;
-
-        // Calculate fee per installment and total
-        // feePerInstallment = originalAmount * feeRate
-        // totalFee = feePerInstallment * totalInstallments
-        BigDecimal feePerInstallment = originalAmount.multiply(feeRate).setScale(4, RoundingMode.HALF_UP);
-        BigDecimal totalFee = feePerInstallment.multiply(BigDecimal.valueOf(request.getTotalInstallments()));
-        BigDecimal totalAmountWithFee = originalAmount.add(totalFee);
-
-        // Calculate amount per installment
-        BigDecimal installmentAmount = totalAmountWithFee.divide(
-                BigDecimal.valueOf(request.getTotalInstallments()), 4, RoundingMode.HALF_UP);
-
-        // Get billing day from account (default to 1 if not set)
-        int billingDay = account.getBillingDay() != null ? account.getBillingDay() : 1;
-        LocalDate firstPaymentDate = calculateFirstPaymentDate(startDate, billingDay);
+    @Transactional(readOnly = true)
+    public PayoffQuoteResponse getPayoffQuote(UUID userId, UUID id, LocalDate payoffDate) {
+        CreditCardPaymentPlan plan = findActivePlan(id, userId);
+        LocalDate date = payoffDate != null ? payoffDate : LocalDate.now();
+        List<CreditCardPayment> payments = paymentRepository.findByPlanIdOrderByPaymentNumber(id);
+        AmortizationEngine.PayoffQuote quote = quotePayoff(plan, payments, date);
 
-        CreditCardPaymentPlan plan = CreditCardPaymentPlan.builder()
-                .user(user)
-                .transaction(transaction)
-                .account(account)
-                .paymentType(PaymentType.INSTALLMENT)
-                .originalAmount(originalAmount)
-                .totalAmountWithFee(totalAmountWithFee)
-                .remainingAmount(totalAmountWithFee)
-                .currency(transaction.getCurrency())
-                .startDate(startDate)
-                .nextPaymentDate(firstPaymentDate)
-                .totalInstallments(request.getTotalInstallments())
-                .completedInstallments(0)
-                .installmentAmount(installmentAmount)
-                .installmentFeeRate(feeRate)
-                .status(PaymentPlanStatus.ACTIVE)
-                .payments(new ArrayList<>())
+        return PayoffQuoteResponse.builder()
+                .planId(plan.getId())
+                .payoffDate(quote.payoffDate())
+                .currency(plan.getCurrency())
+                .unpaidInstallments((int) payments.stream().filter(p -> p.getStatus() != PaymentStatus.PAID).count())
+                .outstandingPrincipal(quote.outstandingPrincipal())
+                .accruedCharges(quote.accruedCharges())
+                .payoffAmount(quote.payoffAmount())
+                .scheduledRemaining(quote.scheduledRemaining())
+                .savings(quote.savings())
                 .build();
+    }
 
-        // Generate payment schedule
-        BigDecimal principalPerInstallment = originalAmount.divide(
-                BigDecimal.valueOf(request.getTotalInstallments()), 4, RoundingMode.HALF_UP);
-        BigDecimal remaining = totalAmountWithFee;
+    /**
+     * Pay off the plan today: the first unpaid installment becomes the payoff payment
+     * and the remaining unpaid installments are removed.
+     */
+    @Transactional
+    public CreditCardPaymentPlanResponse payOff(UUID userId, UUID id) {
+        cashflowForecastService.evictUser(userId);
+        familyAnalyticsService.evictUser(userId);
+        CreditCardPaymentPlan plan = findActivePlan(id, userId);
+        LocalDate today = LocalDate.now();
+        List<CreditCardPayment> payments = paymentRepository.findByPlanIdOrderByPaymentNumber(id);
+        AmortizationEngine.PayoffQuote quote = quotePayoff(plan, payments, today);
+
+        CreditCardPayment payoff = payments.stream()
+                .filter(p -> p.getStatus() != PaymentStatus.PAID)
+                .findFirst()
+                .orElseThrow(() -> ApiException.badRequest("Payment plan has no unpaid installments"));
+
+        BigDecimal paidTotal = BigDecimal.ZERO;
+        BigDecimal paidFees = BigDecimal.ZERO;
+        BigDecimal paidInterest = BigDecimal.ZERO;
+        for (CreditCardPayment payment : payments) {
+            if (payment.getStatus() == PaymentStatus.PAID) {
+                paidTotal = paidTotal.add(payment.getTotalAmount());
+                paidFees = paidFees.add(payment.getFeeAmount());
+                paidInterest = paidInterest.add(payment.getInterestAmount());
+            }
+        }
 
-        for (int i = 1; i <= request.getTotalInstallments(); i++) {
-            LocalDate dueDate = firstPaymentDate.plusMonths(i - 1);
-            remaining = remaining.subtract(installmentAmount);
+        boolean revolving = plan.getPaymentType() == PaymentType.REVOLVING;
+        payoff.setPrincipalAmount(quote.outstandingPrincipal());
+        payoff.setFeeAmount(revolving ? BigDecimal.ZERO : quote.accruedCharges());
+        payoff.setInterestAmount(revolving ? quote.accruedCharges() : BigDecimal.ZERO);
+        payoff.setTotalAmount(quote.payoffAmount());
+        payoff.setRemainingAfter(BigDecimal.ZERO);
+        payoff.setStatus(PaymentStatus.PAID);
+        payoff.setPaymentDate(today);
+        paymentRepository.save(payoff);
+        paymentRepository.deleteUnpaidAfter(id, payoff.getPaymentNumber());
+
+        plan.setStatus(PaymentPlanStatus.COMPLETED);
+        plan.setRemainingAmount(BigDecimal.ZERO);
+        plan.setNextPaymentDate(null);
+        plan.setTotalInstallments(payoff.getPaymentNumber());
+        plan.setCompletedInstallments(payoff.getPaymentNumber());
+        plan.setTotalAmountWithFee(paidTotal.add(quote.payoffAmount()));
+        plan.setTotalFeeAmount(paidFees.add(payoff.getFeeAmount()));
+        plan.setTotalInterestAmount(paidInterest.add(payoff.getInterestAmount()));
+        plan.setFinalPaymentDate(payoff.getDueDate());
+        planRepository.save(plan);
 
-            // Adjust last payment for rounding
-            BigDecimal actualInstallmentAmount = installmentAmount;
-            if (i == request.getTotalInstallments() && remaining.compareTo(BigDecimal.ZERO) != 0) {
-                actualInstallmentAmount = installmentAmount.add(remaining);
-                remaining = BigDecimal.ZERO;
-            }
+        Transaction transaction = plan.getTransaction();
+        transaction.setPaymentType(PaymentType.ONE_TIME);
+        transactionRepository.save(transaction);
 
-            CreditCardPayment payment = CreditCardPayment.builder()
-                    .plan(plan)
-                    .paymentNumber(i)
-                    .principalAmount(principalPerInstallment)
-                    .feeAmount(feePerInstallment)
-                    .interestAmount(BigDecimal.ZERO)
-                    .totalAmount(actualInstallmentAmount)
-                    .remainingAfter(remaining.max(BigDecimal.ZERO))
-                    .dueDate(dueDate)
-                    .status(PaymentStatus.PENDING)
-                    .build();
-
-            plan.getPayments().add(payment);
-        }
+        log.info("Paid off plan {} of user {} with {} (saved {})", id, userId, quote.payoffAmount(), quote.savings());
 
-        return plan;
+        return toResponseWithPayments(plan);
     }
 
-    private CreditCardPaymentPlan createRevolvingPlan(User user, Transaction transaction, Account account,
-                                                       CreditCardPaymentPlanRequest request, LocalDate startDate) {
-        if (request.getMonthlyPayment() == null || request.getMonthlyPayment().compareTo(BigDecimal.ZERO) <= 0) {
-            throw new ApiException("Monthly payment is required for revolving plan", HttpStatus.BAD_REQUEST);
+    private void validateForPlan(Transaction transaction) {
+        // Check if transaction already has a payment plan
+        if (transaction.getPaymentPlan() != null) {
+            throw new ApiException("Transaction already has a payment plan", HttpStatus.BAD_REQUEST);
         }
 
-        if (request.getInterestRate() == null || request.getInterestRate().compareTo(BigDecimal.ZERO) < 0) {
-            throw new ApiException("Interest rate is required for revolving plan", HttpStatus.BAD_REQUEST);
+        // Validate account is credit card
+        if (transaction.getAccount().getType() != AccountType.CREDIT_CARD) {
+            throw new ApiException("Payment plans are only available for credit card transactions", HttpStatus.BAD_REQUEST);
         }
 
-        BigDecimal originalAmount = transaction.getAmount();
-        BigDecimal monthlyPayment = request.getMonthlyPayment();
-        BigDecimal annualRate = request.getInterestRate();
-        BigDecimal monthlyRate = annualRate.divide(BigDecimal.valueOf(12), 8, RoundingMode.HALF_UP);
-
-        if (monthlyPayment.compareTo(originalAmount.multiply(monthlyRate)) <= 0) {
-            throw new ApiException("Monthly payment is too low to cover interest", HttpStatus.BAD_REQUEST);
+        // Validate transaction is expense
+        if (transaction.getType() != TransactionType.EXPENSE) {
+            throw new ApiException("Payment plans are only available for expense transactions", HttpStatus.BAD_REQUEST);
         }
+    }
 
-        // Get billing day from account (default to 1 if not set)
-        int billingDay = account.getBillingDay() != null ? account.getBillingDay() : 1;
-        LocalDate firstPaymentDate = calculateFirstPaymentDate(startDate, billingDay);
+    private AmortizationEngine.Schedule buildSchedule(PaymentType paymentType, BigDecimal amount,
+                                                      Integer totalInstallments, BigDecimal feeRate,
+                                                      BigDecimal monthlyPayment, BigDecimal interestRate,
+                                                      LocalDate startDate, int billingDay) {
+        LocalDate firstPaymentDate = amortizationEngine.firstDueDate(startDate, billingDay);
+        if (paymentType == PaymentType.INSTALLMENT) {
+            return amortizationEngine.installment(amount, feeRate, totalInstallments, firstPaymentDate, billingDay);
+        } else if (paymentType == PaymentType.REVOLVING) {
+            return amortizationEngine.revolving(amount, interestRate, monthlyPayment, firstPaymentDate, billingDay);
+        }
+        throw new ApiException("Invalid payment type", HttpStatus.BAD_REQUEST);
+    }
 
-        CreditCardPaymentPlan plan = CreditCardPaymentPlan.builder()
+    private CreditCardPaymentPlan toPlan(User user, Transaction transaction, Account account,
+                                         CreditCardPaymentPlanRequest request, LocalDate startDate,
+                                         AmortizationEngine.Schedule schedule) {
+        boolean installment = schedule.paymentType() == PaymentType.INSTALLMENT;
+        return CreditCardPaymentPlan.builder()
                 .user(user)
                 .transaction(transaction)
                 .account(account)
-                .paymentType(PaymentType.REVOLVING)
-                .originalAmount(originalAmount)
-                .totalAmountWithFee(originalAmount) // Will be updated as interest accrues
-                .remainingAmount(originalAmount)
+                .paymentType(schedule.paymentType())
+                .originalAmount(schedule.originalAmount())
+                .totalAmountWithFee(schedule.totalAmount())
+                // Matches the installments' remainingAfter: plan total for installments, principal for revolving
+                .remainingAmount(installment ? schedule.totalAmount() : schedule.originalAmount())
                 .currency(transaction.getCurrency())
                 .startDate(startDate)
-                .nextPaymentDate(firstPaymentDate)
-                .monthlyPayment(monthlyPayment)
-                .interestRate(annualRate)
+                .nextPaymentDate(schedule.installments().get(0).dueDate())
+                .totalFeeAmount(schedule.totalFee())
+                .totalInterestAmount(schedule.totalInterest())
+                .finalPaymentDate(schedule.finalDueDate())
+                .totalInstallments(schedule.installments().size())
+                .completedInstallments(0)
+                .installmentAmount(installment ? schedule.installmentAmount() : null)
+                .installmentFeeRate(installment
+                        ? (request.getInstallmentFeeRate() != null ? request.getInstallmentFeeRate() : BigDecimal.ZERO)
+                        : null)
+                .monthlyPayment(installment ? null : request.getMonthlyPayment())
+                .interestRate(installment ? null : request.getInterestRate())
                 .status(PaymentPlanStatus.ACTIVE)
-                .payments(new ArrayList<>())
                 .build();
+    }
 
-        // Generate estimated payment schedule
-        BigDecimal remaining = originalAmount;
-        BigDecimal totalWithInterest = BigDecimal.ZERO;
-        int paymentNumber = 0;
-        int maxPayments = 120; // Cap at 10 years to prevent infinite loops
+    // One JDBC batch for the whole schedule; the plan row must already be flushed
+    private List<CreditCardPaymentResponse> insertPayments(CreditCardPaymentPlan plan,
+                                                           AmortizationEngine.Schedule schedule) {
+        return insertPayments(List.of(plan), List.of(schedule)).get(0);
+    }
 
-        while (remaining.compareTo(BigDecimal.ZERO) > 0 && paymentNumber < maxPayments) {
-            paymentNumber++;
-            LocalDate dueDate = firstPaymentDate.plusMonths(paymentNumber - 1);
+    // Payments of all plans in one JDBC batch; returns the payments per plan, in plan order
+    private List<List<CreditCardPaymentResponse>> insertPayments(List<CreditCardPaymentPlan> plans,
+                                                                 List<AmortizationEngine.Schedule> schedules) {
+        List<List<CreditCardPaymentResponse>> paymentsByPlan = new ArrayList<>(plans.size());
+        List<Map.Entry<UUID, CreditCardPaymentResponse>> rows = new ArrayList<>();
+        for (int i = 0; i < plans.size(); i++) {
+            UUID planId = plans.get(i).getId();
+            List<CreditCardPaymentResponse> payments = schedules.get(i).installments().stream()
+                    .map(installment -> toPaymentResponse(UUID.randomUUID(), installment))
+                    .collect(Collectors.toList());
+            payments.forEach(payment -> rows.add(Map.entry(planId, payment)));
+            paymentsByPlan.add(payments);
+        }
 
-            // Calculate interest for this month
-            BigDecimal interest = remaining.multiply(monthlyRate).setScale(4, RoundingMode.HALF_UP);
+        jdbcTemplate.batchUpdate(INSERT_PAYMENT, rows, rows.size(), (ps, row) -> {
+            CreditCardPaymentResponse payment = row.getValue();
+            ps.setObject(1, payment.getId());
+            ps.setObject(2, row.getKey());
+            ps.setInt(3, payment.getPaymentNumber());
+            ps.setBigDecimal(4, payment.getPrincipalAmount());
+            ps.setBigDecimal(5, payment.getFeeAmount());
+            ps.setBigDecimal(6, payment.getInterestAmount());
+            ps.setBigDecimal(7, payment.getTotalAmount());
+            ps.setBigDecimal(8, payment.getRemainingAfter());
+            ps.setDate(9, Date.valueOf(payment.getDueDate()));
+        });
+        return paymentsByPlan;
+    }
 
-            // Determine actual payment
-            BigDecimal actualPayment;
-            BigDecimal principal;
+    private void insertPlans(List<CreditCardPaymentPlan> plans) {
+        jdbcTemplate.batchUpdate(INSERT_PLAN, plans, plans.size(), (ps, plan) -> {
+            ps.setObject(1, plan.getId());
+            ps.setObject(2, plan.getUser().getId());
+            ps.setObject(3, plan.getTransaction().getId());
+            ps.setObject(4, plan.getAccount().getId());
+            ps.setString(5, plan.getPaymentType().name());
+            ps.setBigDecimal(6, plan.getOriginalAmount());
+            ps.setBigDecimal(7, plan.getTotalAmountWithFee());
+            ps.setBigDecimal(8, plan.getRemainingAmount());
+            ps.setString(9, plan.getCurrency());
+            ps.setDate(10, Date.valueOf(plan.getStartDate()));
+            ps.setDate(11, Date.valueOf(plan.getNextPaymentDate()));
+            ps.setBigDecimal(12, plan.getTotalFeeAmount());
+            ps.setBigDecimal(13, plan.getTotalInterestAmount());
+            ps.setDate(14, Date.valueOf(plan.getFinalPaymentDate()));
+            ps.setInt(15, plan.getTotalInstallments());
+            ps.setBigDecimal(16, plan.getInstallmentAmount());
+            ps.setBigDecimal(17, plan.getInstallmentFeeRate());
+            ps.setBigDecimal(18, plan.getMonthlyPayment());
+            ps.setBigDecimal(19, plan.getInterestRate());
+            ps.setString(20, plan.getStatus().name());
+        });
+    }
 
-            if (remaining.add(interest).compareTo(monthlyPayment) <= 0) {
-                // Final payment
-                actualPayment = remaining.add(interest);
-                principal = remaining;
-                remaining = BigDecimal.ZERO;
+    // Link every transaction to its new plan in one statement; a transaction that gained a plan
+    // concurrently is not overwritten and rolls the whole bulk back
+    private void linkTransactions(PaymentType paymentType, List<CreditCardPaymentPlan> plans) {
+        int linked = jdbcTemplate.update(LINK_TRANSACTIONS, ps -> {
+            ps.setString(1, paymentType.name());
+            ps.setArray(2, ps.getConnection().createArrayOf("uuid",
+                    plans.stream().map(CreditCardPaymentPlan::getId).toArray()));
+        });
+        if (linked != plans.size()) {
+            throw ApiException.conflict("Some transactions were given a payment plan concurrently, please retry");
+        }
+    }
+
+    private AmortizationEngine.PayoffQuote quotePayoff(CreditCardPaymentPlan plan, List<CreditCardPayment> payments,
+                                                       LocalDate payoffDate) {
+        if (payoffDate.isBefore(plan.getStartDate())) {
+            throw ApiException.badRequest("Payoff date cannot be before the plan start date");
+        }
+        LocalDate periodStart = plan.getStartDate();
+        List<AmortizationEngine.Installment> unpaid = new ArrayList<>();
+        for (CreditCardPayment payment : payments) {
+            if (payment.getStatus() == PaymentStatus.PAID) {
+                periodStart = payment.getDueDate();
             } else {
-                actualPayment = monthlyPayment;
-                principal = monthlyPayment.subtract(interest);
-                remaining = remaining.subtract(principal);
+                unpaid.add(new AmortizationEngine.Installment(payment.getPaymentNumber(), payment.getDueDate(),
+                        payment.getPrincipalAmount(), payment.getFeeAmount(), payment.getInterestAmount(),
+                        payment.getTotalAmount(), payment.getRemainingAfter()));
             }
-
-            totalWithInterest = totalWithInterest.add(actualPayment);
-
-            CreditCardPayment payment = CreditCardPayment.builder()
-                    .plan(plan)
-                    .paymentNumber(paymentNumber)
-                    .principalAmount(principal)
-                    .feeAmount(BigDecimal.ZERO)
-                    .interestAmount(interest)
-                    .totalAmount(actualPayment)
-                    .remainingAfter(remaining.max(BigDecimal.ZERO))
-                    .dueDate(dueDate)
-                    .status(PaymentStatus.PENDING)
-                    .build();
-
-            plan.getPayments().add(payment);
         }
-
-        plan.setTotalAmountWithFee(totalWithInterest);
-        plan.setTotalInstallments(paymentNumber);
-        plan.setCompletedInstallments(0);
-
-        return plan;
+        return amortizationEngine.payoff(plan.getPaymentType(), plan.getInterestRate(), unpaid, periodStart, payoffDate);
     }
 
-    private LocalDate calculateFirstPaymentDate(LocalDate startDate, int billingDay) {
-        LocalDate firstPayment = startDate.withDayOfMonth(Math.min(billingDay, startDate.lengthOfMonth()));
-        if (!firstPayment.isAfter(startDate)) {
-            firstPayment = firstPayment.plusMonths(1);
-            firstPayment = firstPayment.withDayOfMonth(Math.min(billingDay, firstPayment.lengthOfMonth()));
-        }
-        return firstPayment;
+    // Billing day from account (default to 1 if not set)
+    private static int billingDay(Account account) {
+        return account.getBillingDay() != null ? account.getBillingDay() : 1;
     }
 
     @Transactional
     public CreditCardPaymentResponse markPaymentAsPaid(UUID userId, UUID planId, UUID paymentId) {
+        cashflowForecastService.evictUser(userId);
+        familyAnalyticsService.evictUser(userId);
         CreditCardPaymentPlan plan = findByIdAndUserId(planId, userId);
 
         CreditCardPayment payment = paymentRepository.findByIdAndPlanId(paymentId, planId)
@@ -384,6 +524,8 @@ public class CreditCardPaymentPlanService {
 
     @Transactional
     public void cancel(UUID userId, UUID id) {
+        cashflowForecastService.evictUser(userId);
+        familyAnalyticsService.evictUser(userId);
         CreditCardPaymentPlan plan = findByIdAndUserId(id, userId);
 
         if (plan.getStatus() == PaymentPlanStatus.COMPLETED) {
@@ -419,6 +561,14 @@ public class CreditCardPaymentPlanService {
                 .orElseThrow(() -> new ApiException("Payment plan not found", HttpStatus.NOT_FOUND));
     }
 
+    private CreditCardPaymentPlan findActivePlan(UUID id, UUID userId) {
+        CreditCardPaymentPlan plan = findByIdAndUserId(id, userId);
+        if (plan.getStatus() != PaymentPlanStatus.ACTIVE) {
+            throw new ApiException("Only active plans can be paid off", HttpStatus.BAD_REQUEST);
+        }
+        return plan;
+    }
+
     private CreditCardPaymentPlanResponse toResponse(CreditCardPaymentPlan plan) {
         return CreditCardPaymentPlanResponse.builder()
                 .id(plan.getId())
@@ -434,6 +584,9 @@ public class CreditCardPaymentPlanService {
                 .currency(plan.getCurrency())
                 .startDate(plan.getStartDate())
                 .nextPaymentDate(plan.getNextPaymentDate())
+                .totalFeeAmount(plan.getTotalFeeAmount())
+                .totalInterestAmount(plan.getTotalInterestAmount())
+                .finalPaymentDate(plan.getFinalPaymentDate())
                 .totalInstallments(plan.getTotalInstallments())
                 .completedInstallments(plan.getCompletedInstallments())
                 .installmentAmount(plan.getInstallmentAmount())
@@ -472,6 +625,20 @@ public class CreditCardPaymentPlanService {
                 .build();
     }
 
+    private CreditCardPaymentResponse toPaymentResponse(UUID id, AmortizationEngine.Installment installment) {
+        return CreditCardPaymentResponse.builder()
+                .id(id)
+                .paymentNumber(installment.number())
+                .principalAmount(installment.principal())
+                .feeAmount(installment.fee())
+                .interestAmount(installment.interest())
+                .totalAmount(installment.total())
+                .remainingAfter(installment.remainingAfter())
+                .dueDate(installment.dueDate())
+                .status(PaymentStatus.PENDING)
+                .build();
+    }
+
     private UpcomingPaymentResponse toUpcomingPaymentResponse(CreditCardPayment payment) {
         CreditCardPaymentPlan plan = payment.getPlan();
         return UpcomingPaymentResponse.builder()
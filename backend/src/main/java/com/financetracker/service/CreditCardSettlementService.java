@@ -0,0 +1,243 @@
+package com.financetracker.service;
+
+import com.financetracker.service.SchedulerLeaseService.Lease;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.*;
+
+/**
+ * Settles credit cards on their billing day with set-based statements.
+ * Cards are walked in id order in chunks; each chunk locks its cards and linked accounts,
+ * computes the outstanding amounts in SQL, inserts the auto-payment transfers in one JDBC batch
+ * and applies the balance deltas with atomic UPDATEs, then commits on its own. A failing chunk is
+ * retried one card per transaction, so only the bad card misses its billing day.
+ */
+@Service
+@Slf4j
+public class CreditCardSettlementService {
+
+    // Outstanding = credit limit - available balance, computed per card while locking card and linked account
+    private static final String CLAIM_CHUNK = """
+            SELECT c.id, c.user_id, c.name, c.currency, c.credit_limit,
+                   c.credit_limit - c.current_balance AS outstanding,
+                   l.id AS linked_id, l.name AS linked_name, l.current_balance AS linked_balance
+            FROM accounts c
+            JOIN accounts l ON l.id = c.linked_account_id
+            WHERE c.type = 'CREDIT_CARD'
+              AND c.is_active = true
+              AND c.billing_day = ?
+              AND c.id > ?
+            ORDER BY c.id
+            LIMIT ?
+            FOR UPDATE OF c, l
+            """;
+
+    private static final String CLAIM_ONE = """
+            SELECT c.id, c.user_id, c.name, c.currency, c.credit_limit,
+                   c.credit_limit - c.current_balance AS outstanding,
+                   l.id AS linked_id, l.name AS linked_name, l.current_balance AS linked_balance
+            FROM accounts c
+            JOIN accounts l ON l.id = c.linked_account_id
+            WHERE c.type = 'CREDIT_CARD'
+              AND c.is_active = true
+              AND c.billing_day = ?
+              AND c.id = ?
+            FOR UPDATE OF c, l
+            """;
+
+    private static final String INSERT_PAYMENT = """
+            INSERT INTO transactions (id, user_id, account_id, to_account_id, type, amount, currency,
+                                      description, transaction_date, payment_type, created_at, updated_at)
+            VALUES (?, ?, ?, ?, 'TRANSFER', ?, ?, ?, ?, 'ONE_TIME', now(), now())
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final SchedulerLeaseService schedulerLeaseService;
+
+    @Value("${credit-card-settlement.chunk-size:200}")
+    private int chunkSize;
+
+    public CreditCardSettlementService(JdbcTemplate jdbcTemplate,
+                                       PlatformTransactionManager transactionManager,
+                                       SchedulerLeaseService schedulerLeaseService) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.schedulerLeaseService = schedulerLeaseService;
+    }
+
+    public record Result(int settled, int skipped, int failed) {
+    }
+
+    private record CardRow(UUID id, UUID userId, String name, String currency, BigDecimal creditLimit,
+                           BigDecimal outstanding, UUID linkedId, String linkedName, BigDecimal linkedBalance) {
+    }
+
+    private record ChunkResult(int settled, int skipped, UUID lastId) {
+    }
+
+    private record CardResult(int settled, int skipped) {
+    }
+
+    public Result settle(LocalDate today, Lease lease) {
+        int settled = 0;
+        int skipped = 0;
+        int failed = 0;
+        UUID lastId = new UUID(0, 0);
+
+        while (true) {
+            schedulerLeaseService.assertHeld(lease);
+            UUID after = lastId;
+            List<CardRow> claimed = new ArrayList<>();
+            try {
+                ChunkResult chunk = transactionTemplate.execute(status -> {
+                    schedulerLeaseService.fence(lease);
+                    return settleChunk(today, after, claimed);
+                });
+                if (chunk == null || chunk.lastId() == null) {
+                    break;
+                }
+                settled += chunk.settled();
+                skipped += chunk.skipped();
+                lastId = chunk.lastId();
+            } catch (RuntimeException e) {
+                // The chunk rolled back; cards are only due today, so retry them one by one
+                if (claimed.isEmpty()) {
+                    throw e;
+                }
+                lastId = claimed.get(claimed.size() - 1).id();
+                log.warn("Failed to settle {} credit cards ({}..{}), retrying individually: {}", claimed.size(),
+                        claimed.get(0).id(), lastId, e.getMessage());
+                Result retried = retryIndividually(today, claimed, lease);
+                settled += retried.settled();
+                skipped += retried.skipped();
+                failed += retried.failed();
+            }
+            if (claimed.size() < chunkSize) {
+                break;
+            }
+        }
+        return new Result(settled, skipped, failed);
+    }
+
+    private Result retryIndividually(LocalDate today, List<CardRow> cards, Lease lease) {
+        int settled = 0;
+        int skipped = 0;
+        int failed = 0;
+        for (CardRow card : cards) {
+            schedulerLeaseService.assertHeld(lease);
+            try {
+                CardResult result = transactionTemplate.execute(status -> {
+                    schedulerLeaseService.fence(lease);
+                    return settleOne(today, card.id());
+                });
+                if (result != null) {
+                    settled += result.settled();
+                    skipped += result.skipped();
+                }
+            } catch (RuntimeException e) {
+                failed++;
+                log.error("Failed to settle credit card {}: {}", card.id(), e.getMessage(), e);
+            }
+        }
+        return new Result(settled, skipped, failed);
+    }
+
+    private ChunkResult settleChunk(LocalDate today, UUID after, List<CardRow> claimed) {
+        claimed.addAll(jdbcTemplate.query(CLAIM_CHUNK, this::mapCard, today.getDayOfMonth(), after, chunkSize));
+        if (claimed.isEmpty()) {
+            return new ChunkResult(0, 0, null);
+        }
+        CardResult result = settleCards(today, claimed);
+        return new ChunkResult(result.settled(), result.skipped(), claimed.get(claimed.size() - 1).id());
+    }
+
+    // Re-reads the card under lock: the failed chunk rolled back, and it may have changed since
+    private CardResult settleOne(LocalDate today, UUID cardId) {
+        List<CardRow> card = jdbcTemplate.query(CLAIM_ONE, this::mapCard, today.getDayOfMonth(), cardId);
+        return card.isEmpty() ? null : settleCards(today, card);
+    }
+
+    private CardResult settleCards(LocalDate today, List<CardRow> claimed) {
+        List<CardRow> payable = new ArrayList<>();
+        List<UUID> resetCards = new ArrayList<>();
+        // Several cards may draw on the same linked account
+        Map<UUID, BigDecimal> linkedBalances = new HashMap<>();
+        Map<UUID, BigDecimal> linkedDebits = new LinkedHashMap<>();
+        int skipped = 0;
+
+        for (CardRow card : claimed) {
+            if (card.creditLimit() == null || card.creditLimit().compareTo(BigDecimal.ZERO) <= 0) {
+                log.warn("Credit card {} has no credit limit set", card.name());
+                skipped++;
+                continue;
+            }
+            if (card.outstanding().compareTo(BigDecimal.ZERO) <= 0) {
+                // No outstanding balance, still reset to credit limit
+                resetCards.add(card.id());
+                continue;
+            }
+            BigDecimal available = linkedBalances.getOrDefault(card.linkedId(), card.linkedBalance());
+            if (available.compareTo(card.outstanding()) < 0) {
+                log.warn("Linked account {} has insufficient balance ({}) for credit card payment ({})",
+                        card.linkedName(), available, card.outstanding());
+                skipped++;
+                continue;
+            }
+            linkedBalances.put(card.linkedId(), available.subtract(card.outstanding()));
+            linkedDebits.merge(card.linkedId(), card.outstanding(), BigDecimal::add);
+            payable.add(card);
+            resetCards.add(card.id());
+        }
+
+        Date transactionDate = Date.valueOf(today);
+        jdbcTemplate.batchUpdate(INSERT_PAYMENT, payable, payable.size(), (ps, card) -> {
+            ps.setObject(1, UUID.randomUUID());
+            ps.setObject(2, card.userId());
+            ps.setObject(3, card.linkedId());
+            ps.setObject(4, card.id());
+            ps.setBigDecimal(5, card.outstanding());
+            ps.setString(6, card.currency());
+            ps.setString(7, "Auto-payment for " + card.name());
+            ps.setDate(8, transactionDate);
+        });
+
+        List<Map.Entry<UUID, BigDecimal>> debits = new ArrayList<>(linkedDebits.entrySet());
+        jdbcTemplate.batchUpdate(
+                "UPDATE accounts SET current_balance = current_balance - ?, updated_at = now() WHERE id = ?",
+                debits, debits.size(), (ps, debit) -> {
+                    ps.setBigDecimal(1, debit.getValue());
+                    ps.setObject(2, debit.getKey());
+                });
+        jdbcTemplate.batchUpdate(
+                "UPDATE accounts SET current_balance = credit_limit, updated_at = now() WHERE id = ?",
+                resetCards, resetCards.size(), (ps, cardId) -> ps.setObject(1, cardId));
+
+        log.debug("Settled {} credit cards ending at {} ({} payments, {} skipped)",
+                resetCards.size(), claimed.get(claimed.size() - 1).id(), payable.size(), skipped);
+        return new CardResult(resetCards.size(), skipped);
+    }
+
+    private CardRow mapCard(ResultSet rs, int rowNum) throws SQLException {
+        return new CardRow(
+                rs.getObject("id", UUID.class),
+                rs.getObject("user_id", UUID.class),
+                rs.getString("name"),
+                rs.getString("currency"),
+                rs.getBigDecimal("credit_limit"),
+                rs.getBigDecimal("outstanding"),
+                rs.getObject("linked_id", UUID.class),
+                rs.getString("linked_name"),
+                rs.getBigDecimal("linked_balance"));
+    }
+}
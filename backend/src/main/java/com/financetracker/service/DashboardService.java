@@ -12,6 +12,7 @@ import com.financetracker.repository.CategoryRepository;
 import com.financetracker.repository.TransactionRepository;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
 import java.math.RoundingMode;
@@ -27,6 +28,7 @@ public class DashboardService {
     private final TransactionRepository transactionRepository;
     private final CategoryRepository categoryRepository;
 
+    @Transactional(readOnly = true)
     public DashboardSummary getSummary(UUID userId, String primaryCurrency) {
         List<Account> accounts = accountRepository.findByUserIdAndIsActiveTrue(userId);
 
@@ -94,6 +96,7 @@ public class DashboardService {
                 .build();
     }
 
+    @Transactional(readOnly = true)
     public CashflowReport getCashflowReport(UUID userId, LocalDate startDate, LocalDate endDate) {
         List<Transaction> transactions = transactionRepository.findByUserIdAndDateRange(userId, startDate, endDate);
 
@@ -138,6 +141,7 @@ public class DashboardService {
                 .build();
     }
 
+    @Transactional(readOnly = true)
     public CategoryReport getCategoryReport(UUID userId, TransactionType type, LocalDate startDate, LocalDate endDate) {
         List<Object[]> results = transactionRepository.sumByCategoryAndDateRange(userId, type, startDate, endDate);
 
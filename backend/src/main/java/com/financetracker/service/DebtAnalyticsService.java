@@ -0,0 +1,220 @@
+package com.financetracker.service;
+
+import com.financetracker.dto.debt.DebtAnalyticsResponse;
+import com.financetracker.entity.Debt;
+import com.financetracker.entity.DebtStatus;
+import com.financetracker.entity.DebtType;
+import com.financetracker.entity.User;
+import com.financetracker.exception.ApiException;
+import com.financetracker.repository.DebtRepository;
+import com.financetracker.repository.UserRepository;
+import com.financetracker.service.DebtPayoffSimulator.Strategy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.util.*;
+
+/**
+ * Debt portfolio analytics: outstanding lend and borrow totals grouped by currency and status
+ * in SQL and converted into the user's currency, plus avalanche and snowball payoff simulations
+ * of the open borrowed debts for a monthly budget. Results are cached per user, currency and
+ * budget for the day, and evicted when a debt of the user changes.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class DebtAnalyticsService {
+
+    // Amount columns are DECIMAL(19, 4)
+    private static final int SCALE = 4;
+    private static final int MAX_MONTHS = 360;
+    // Caps the budget and the simulated balances so their 1/10000 units, and their sum, fit a long
+    private static final BigDecimal MAX_AMOUNT = new BigDecimal("100000000000000");
+    private static final List<DebtStatus> OPEN_STATUSES = List.of(DebtStatus.ACTIVE, DebtStatus.PARTIALLY_PAID);
+
+    private final DebtRepository debtRepository;
+    private final UserRepository userRepository;
+    private final ExchangeRateService exchangeRateService;
+    private final DebtPayoffSimulator debtPayoffSimulator;
+
+    @Value("${debt-analytics.max-entries:5000}")
+    private int maxEntries;
+
+    private record Key(UUID userId, String currency, BigDecimal monthlyPayment) {
+    }
+
+    private record Entry(LocalDate date, DebtAnalyticsResponse response) {
+    }
+
+    private final VersionedCache<Key, Entry> cache = new VersionedCache<>(() -> maxEntries);
+
+    @Transactional(readOnly = true)
+    public DebtAnalyticsResponse getAnalytics(UUID userId, BigDecimal monthlyPayment) {
+        if (monthlyPayment != null && monthlyPayment.signum() <= 0) {
+            throw ApiException.badRequest("Monthly payment must be positive");
+        }
+        if (monthlyPayment != null && monthlyPayment.compareTo(MAX_AMOUNT) > 0) {
+            throw ApiException.badRequest("Monthly payment must not exceed " + MAX_AMOUNT.toPlainString());
+        }
+        User user = userRepository.findById(userId)
+                .orElseThrow(() -> ApiException.notFound("User"));
+        String currency = user.getDefaultCurrency() != null && !user.getDefaultCurrency().isBlank()
+                ? user.getDefaultCurrency() : "VND";
+
+        LocalDate today = LocalDate.now();
+        Key key = new Key(userId, currency, monthlyPayment != null ? monthlyPayment.stripTrailingZeros() : null);
+        return cache.get(key, entry -> entry.date().equals(today), () -> {
+            long started = System.nanoTime();
+            DebtAnalyticsResponse response = build(userId, currency, monthlyPayment, today);
+            log.debug("Built debt analytics for user {} in {} µs", userId, (System.nanoTime() - started) / 1000);
+            return new Entry(today, response);
+        }).response();
+    }
+
+    public void evictUser(UUID userId) {
+        cache.evictIfAfterCommit((key, entry) -> key.userId().equals(userId));
+    }
+
+    private DebtAnalyticsResponse build(UUID userId, String currency, BigDecimal monthlyPayment, LocalDate today) {
+        Map<String, BigDecimal> rates = new HashMap<>();
+        Set<String> unconverted = new TreeSet<>();
+
+        List<DebtAnalyticsResponse.Breakdown> breakdown = new ArrayList<>();
+        BigDecimal totalLent = BigDecimal.ZERO;
+        BigDecimal totalBorrowed = BigDecimal.ZERO;
+        for (Object[] row : debtRepository.sumOutstandingByTypeCurrencyAndStatus(userId)) {
+            DebtType type = (DebtType) row[0];
+            String debtCurrency = (String) row[1];
+            DebtStatus status = (DebtStatus) row[2];
+            BigDecimal outstanding = row[4] != null ? (BigDecimal) row[4] : BigDecimal.ZERO;
+            BigDecimal converted = convert(outstanding, debtCurrency, currency, rates, unconverted);
+
+            breakdown.add(DebtAnalyticsResponse.Breakdown.builder()
+                    .type(type)
+                    .currency(debtCurrency)
+                    .status(status)
+                    .count(((Number) row[3]).longValue())
+                    .outstanding(outstanding)
+                    .convertedOutstanding(converted)
+                    .build());
+
+            if (converted != null && OPEN_STATUSES.contains(status)) {
+                if (type == DebtType.LEND) {
+                    totalLent = totalLent.add(converted);
+                } else {
+                    totalBorrowed = totalBorrowed.add(converted);
+                }
+            }
+        }
+
+        List<DebtAnalyticsResponse.PayoffStrategy> strategies = monthlyPayment != null
+                ? simulate(userId, currency, monthlyPayment, today, rates, unconverted)
+                : List.of();
+
+        return DebtAnalyticsResponse.builder()
+                .currency(currency)
+                .totalLent(totalLent)
+                .totalBorrowed(totalBorrowed)
+                .netBalance(totalLent.subtract(totalBorrowed))
+                .breakdown(breakdown)
+                .unconvertedCurrencies(new ArrayList<>(unconverted))
+                .monthlyPayment(monthlyPayment)
+                .strategies(strategies)
+                .build();
+    }
+
+    /**
+     * Only money the user owes is paid down; lent debts are repaid by other people.
+     */
+    private List<DebtAnalyticsResponse.PayoffStrategy> simulate(UUID userId, String currency, BigDecimal monthlyPayment,
+                                                               LocalDate today, Map<String, BigDecimal> rates,
+                                                               Set<String> unconverted) {
+        List<Debt> debts = new ArrayList<>();
+        List<BigDecimal> converted = new ArrayList<>();
+        BigDecimal total = BigDecimal.ZERO;
+        for (Debt debt : debtRepository.findByUserIdAndTypeAndStatusIn(userId, DebtType.BORROW, OPEN_STATUSES)) {
+            BigDecimal balance = convert(debt.getAmount().subtract(debt.getPaidAmount()), debt.getCurrency(),
+                    currency, rates, unconverted);
+            if (balance != null && balance.signum() > 0) {
+                debts.add(debt);
+                converted.add(balance);
+                total = total.add(balance);
+            }
+        }
+        if (total.compareTo(MAX_AMOUNT) > 0) {
+            throw ApiException.badRequest("Outstanding borrowed debts are too large to simulate");
+        }
+
+        long[] balances = new long[debts.size()];
+        double[] monthlyRates = new double[debts.size()];
+        for (int i = 0; i < balances.length; i++) {
+            balances[i] = units(converted.get(i));
+            BigDecimal annualRate = debts.get(i).getInterestRate();
+            monthlyRates[i] = annualRate != null ? annualRate.doubleValue() / 12 : 0;
+        }
+
+        List<DebtAnalyticsResponse.PayoffStrategy> strategies = new ArrayList<>();
+        for (Strategy strategy : Strategy.values()) {
+            DebtPayoffSimulator.Result result = debtPayoffSimulator.simulate(strategy, balances, monthlyRates,
+                    units(monthlyPayment), MAX_MONTHS);
+
+            List<DebtAnalyticsResponse.DebtPayoff> payoffs = new ArrayList<>(balances.length);
+            for (int i = 0; i < balances.length; i++) {
+                int month = result.payoffMonths()[i];
+                payoffs.add(DebtAnalyticsResponse.DebtPayoff.builder()
+                        .debtId(debts.get(i).getId())
+                        .personName(debts.get(i).getPersonName())
+                        .interestRate(debts.get(i).getInterestRate())
+                        .balance(converted.get(i))
+                        .payoffDate(month > 0 ? today.plusMonths(month) : null)
+                        .build());
+            }
+
+            strategies.add(DebtAnalyticsResponse.PayoffStrategy.builder()
+                    .strategy(strategy.name())
+                    .paidOff(result.paidOff())
+                    .months(result.months())
+                    .payoffDate(result.paidOff() ? today.plusMonths(result.months()) : null)
+                    .totalInterest(BigDecimal.valueOf(result.totalInterest(), SCALE))
+                    .totalPaid(BigDecimal.valueOf(result.totalPaid(), SCALE))
+                    .debts(payoffs)
+                    .build());
+        }
+        return strategies;
+    }
+
+    /**
+     * @return the converted amount, or null when no rate is available for the currency
+     */
+    private BigDecimal convert(BigDecimal amount, String from, String to, Map<String, BigDecimal> rates,
+                               Set<String> unconverted) {
+        if (from.equalsIgnoreCase(to)) {
+            return amount;
+        }
+        if (!rates.containsKey(from)) {
+            BigDecimal rate = null;
+            try {
+                rate = exchangeRateService.getLatestRate(from, to).getRate();
+            } catch (ApiException e) {
+                log.warn("No exchange rate from {} to {} for debt analytics: {}", from, to, e.getMessage());
+            }
+            rates.put(from, rate);
+        }
+        BigDecimal rate = rates.get(from);
+        if (rate == null) {
+            unconverted.add(from);
+            return null;
+        }
+        return amount.multiply(rate).setScale(SCALE, RoundingMode.HALF_UP);
+    }
+
+    private static long units(BigDecimal amount) {
+        return amount.setScale(SCALE, RoundingMode.HALF_UP).unscaledValue().longValueExact();
+    }
+}
@@ -0,0 +1,113 @@
+package com.financetracker.service;
+
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.stream.IntStream;
+
+/**
+ * Month-by-month payoff of a set of debts from a fixed monthly budget. Balances are in
+ * 1/10000 units; each month every open debt accrues interest, then the whole budget is paid
+ * down the debts in strategy order, overflowing to the next one as each is cleared.
+ * The month loop only touches primitive arrays allocated once per run. A budget that does not
+ * beat the first month's interest, or balances or totals that outgrow a long while compounding,
+ * end the run as "never pays off" (paidOff false, zero months and totals).
+ */
+@Component
+public class DebtPayoffSimulator {
+
+    public enum Strategy {
+        // Highest interest rate first
+        AVALANCHE,
+        // Smallest balance first
+        SNOWBALL
+    }
+
+    /**
+     * @param payoffMonths per debt, the 1-based month it was cleared in, or 0 if still open at the end
+     */
+    public record Result(Strategy strategy, boolean paidOff, int months, long totalInterest, long totalPaid,
+                         int[] payoffMonths) {
+    }
+
+    public Result simulate(Strategy strategy, long[] balances, double[] monthlyRates, long budget, int maxMonths) {
+        int n = balances.length;
+        int[] order = order(strategy, balances, monthlyRates);
+        long[] remaining = Arrays.copyOf(balances, n);
+        int[] payoffMonths = new int[n];
+        long totalInterest = 0;
+        long totalPaid = 0;
+        int open = 0;
+        for (long balance : remaining) {
+            if (balance > 0) {
+                open++;
+            }
+        }
+
+        long firstInterest = 0;
+        for (int i = 0; i < n; i++) {
+            if (remaining[i] > 0 && monthlyRates[i] > 0) {
+                firstInterest = saturatedAdd(firstInterest, Math.round(remaining[i] * monthlyRates[i]));
+            }
+        }
+        if (open > 0 && budget <= firstInterest) {
+            // Interest alone takes the whole budget, so the balances never go down
+            return neverPaysOff(strategy, n);
+        }
+
+        int month = 0;
+        while (open > 0 && month < maxMonths) {
+            month++;
+            for (int i = 0; i < n; i++) {
+                if (remaining[i] > 0 && monthlyRates[i] > 0) {
+                    long interest = Math.round(remaining[i] * monthlyRates[i]);
+                    if (interest == Long.MAX_VALUE || remaining[i] > Long.MAX_VALUE - interest
+                            || totalInterest > Long.MAX_VALUE - interest) {
+                        // A debt left unpaid (e.g. behind a snowball target) compounded past the range
+                        return neverPaysOff(strategy, n);
+                    }
+                    remaining[i] += interest;
+                    totalInterest += interest;
+                }
+            }
+            long cash = budget;
+            for (int k = 0; k < n && cash > 0; k++) {
+                int i = order[k];
+                if (remaining[i] <= 0) {
+                    continue;
+                }
+                long payment = Math.min(cash, remaining[i]);
+                if (totalPaid > Long.MAX_VALUE - payment) {
+                    return neverPaysOff(strategy, n);
+                }
+                remaining[i] -= payment;
+                cash -= payment;
+                totalPaid += payment;
+                if (remaining[i] == 0) {
+                    payoffMonths[i] = month;
+                    open--;
+                }
+            }
+        }
+        return new Result(strategy, open == 0, month, totalInterest, totalPaid, payoffMonths);
+    }
+
+    private static Result neverPaysOff(Strategy strategy, int debts) {
+        return new Result(strategy, false, 0, 0, 0, new int[debts]);
+    }
+
+    private static long saturatedAdd(long a, long b) {
+        long sum = a + b;
+        return ((a ^ sum) & (b ^ sum)) < 0 ? Long.MAX_VALUE : sum;
+    }
+
+    private static int[] order(Strategy strategy, long[] balances, double[] monthlyRates) {
+        Comparator<Integer> byRate = Comparator.comparingDouble(i -> -monthlyRates[i]);
+        Comparator<Integer> byBalance = Comparator.comparingLong(i -> balances[i]);
+        Comparator<Integer> comparator = strategy == Strategy.AVALANCHE
+                ? byRate.thenComparing(byBalance)
+                : byBalance.thenComparing(byRate);
+        return IntStream.range(0, balances.length).boxed().sorted(comparator).mapToInt(Integer::intValue).toArray();
+    }
+}
@@ -3,16 +3,19 @@ package com.financetracker.service;
 import com.financetracker.dto.debt.*;
 import com.financetracker.entity.Account;
 import com.financetracker.entity.Debt;
+import com.financetracker.entity.DebtPayment;
 import com.financetracker.entity.DebtStatus;
 import com.financetracker.entity.DebtType;
 import com.financetracker.entity.User;
 import com.financetracker.exception.ApiException;
 import com.financetracker.repository.AccountRepository;
+import com.financetracker.repository.DebtPaymentRepository;
 import com.financetracker.repository.DebtRepository;
 import com.financetracker.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
@@ -20,7 +23,6 @@ import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
-import java.time.format.DateTimeFormatter;
 import java.util.List;
 import java.util.UUID;
 
@@ -29,9 +31,14 @@ import java.util.UUID;
 @Slf4j
 public class DebtService {
 
+    private static final int MAX_HISTORY_PAGE_SIZE = 100;
+
     private final DebtRepository debtRepository;
+    private final DebtPaymentRepository debtPaymentRepository;
     private final UserRepository userRepository;
     private final AccountRepository accountRepository;
+    private final CashflowForecastService cashflowForecastService;
+    private final DebtAnalyticsService debtAnalyticsService;
 
     @Transactional(readOnly = true)
     public Page<DebtResponse> getAll(UUID userId, DebtType type, DebtStatus status, Pageable pageable) {
@@ -58,6 +65,8 @@ public class DebtService {
 
     @Transactional
     public DebtResponse create(UUID userId, DebtRequest request) {
+        cashflowForecastService.evictUser(userId);
+        debtAnalyticsService.evictUser(userId);
         User user = userRepository.findById(userId)
                 .orElseThrow(() -> new ApiException("User not found", HttpStatus.NOT_FOUND));
 
@@ -81,6 +90,7 @@ public class DebtService {
                 .status(DebtStatus.ACTIVE)
                 .paidAmount(BigDecimal.ZERO)
                 .note(request.getNote())
+                .interestRate(request.getInterestRate())
                 .build();
 
         debt = debtRepository.save(debt);
@@ -91,6 +101,8 @@ public class DebtService {
 
     @Transactional
     public DebtResponse update(UUID userId, UUID id, DebtRequest request) {
+        cashflowForecastService.evictUser(userId);
+        debtAnalyticsService.evictUser(userId);
         Debt debt = findByIdAndUserId(id, userId);
 
         debt.setType(request.getType());
@@ -101,91 +113,113 @@ public class DebtService {
         debt.setStartDate(request.getStartDate());
         debt.setDueDate(request.getDueDate());
         debt.setNote(request.getNote());
+        // The debt form does not send the rate; an absent rate keeps the stored one
+        if (request.getInterestRate() != null) {
+            debt.setInterestRate(request.getInterestRate());
+        }
 
-        // Update status based on paid amount
-        updateStatus(debt);
+        debtRepository.save(debt);
+        // Status follows the new amount and the current paid amount, which a payment may have moved
+        debtRepository.refreshStatus(id);
+        log.info("Updated debt {} for user {}", id, userId);
 
-        debt = debtRepository.save(debt);
-        log.info("Updated debt {} for user {}", debt.getId(), userId);
-
-        return toResponse(debt);
+        return toResponse(findByIdAndUserId(id, userId));
     }
 
     @Transactional
     public DebtResponse recordPayment(UUID userId, UUID id, DebtPaymentRequest request) {
+        cashflowForecastService.evictUser(userId);
+        debtAnalyticsService.evictUser(userId);
         Debt debt = findByIdAndUserId(id, userId);
 
         if (debt.getStatus() == DebtStatus.PAID || debt.getStatus() == DebtStatus.CANCELLED) {
             throw new ApiException("Cannot record payment for " + debt.getStatus().name().toLowerCase() + " debt", HttpStatus.BAD_REQUEST);
         }
 
-        BigDecimal newPaidAmount = debt.getPaidAmount().add(request.getAmount());
-        BigDecimal remaining = debt.getAmount().subtract(newPaidAmount);
-
-        if (remaining.compareTo(BigDecimal.ZERO) < 0) {
-            throw new ApiException("Payment amount exceeds remaining debt", HttpStatus.BAD_REQUEST);
+        Account account = null;
+        if (request.getAccountId() != null) {
+            account = accountRepository.findByIdAndUserId(request.getAccountId(), userId)
+                    .orElseThrow(() -> new ApiException("Account not found", HttpStatus.NOT_FOUND));
         }
 
-        debt.setPaidAmount(newPaidAmount);
-
-        // Build payment note with date and account info
         LocalDate paymentDate = request.getPaymentDate() != null ? request.getPaymentDate() : LocalDate.now();
-        StringBuilder paymentNote = new StringBuilder();
-        paymentNote.append("[").append(paymentDate.format(DateTimeFormatter.ofPattern("dd/MM/yyyy"))).append("] ");
-        paymentNote.append("Thanh toán: ").append(request.getAmount());
+        String note = request.getNote() != null && !request.getNote().isBlank() ? request.getNote() : null;
+        debtPaymentRepository.save(DebtPayment.builder()
+                .debt(debt)
+                .account(account)
+                .amount(request.getAmount())
+                .paymentDate(paymentDate)
+                .note(note)
+                .build());
 
-        if (request.getAccountId() != null) {
-            accountRepository.findById(request.getAccountId()).ifPresent(account -> {
-                paymentNote.append(" từ ").append(account.getName());
-            });
+        // Checked in the UPDATE itself so two concurrent payments cannot overpay
+        if (debtRepository.addPayment(id, request.getAmount()) == 0) {
+            throw new ApiException("Payment amount exceeds remaining debt", HttpStatus.BAD_REQUEST);
         }
+        log.info("Recorded payment {} for debt {} of user {}", request.getAmount(), id, userId);
 
-        if (request.getNote() != null && !request.getNote().isBlank()) {
-            paymentNote.append(" - ").append(request.getNote());
-        }
+        return toResponse(findByIdAndUserId(id, userId));
+    }
 
-        String existingNote = debt.getNote() != null ? debt.getNote() + "\n" : "";
-        debt.setNote(existingNote + paymentNote);
+    @Transactional(readOnly = true)
+    public DebtPaymentHistoryResponse getPayments(UUID userId, UUID id, LocalDate beforeDate, UUID beforeId,
+                                                  int size) {
+        findByIdAndUserId(id, userId);
+        if ((beforeDate == null) != (beforeId == null)) {
+            throw new ApiException("beforeDate and beforeId must be given together", HttpStatus.BAD_REQUEST);
+        }
+        int limit = Math.max(1, Math.min(size, MAX_HISTORY_PAGE_SIZE));
 
-        updateStatus(debt);
+        // One extra row tells whether another page follows
+        PageRequest page = PageRequest.of(0, limit + 1);
+        List<DebtPayment> payments = beforeDate == null
+                ? debtPaymentRepository.findHistory(id, page)
+                : debtPaymentRepository.findHistoryBefore(id, beforeDate, beforeId, page);
 
-        debt = debtRepository.save(debt);
-        log.info("Recorded payment {} for debt {} of user {}", request.getAmount(), id, userId);
+        boolean hasMore = payments.size() > limit;
+        if (hasMore) {
+            payments = payments.subList(0, limit);
+        }
+        DebtPayment last = hasMore ? payments.get(limit - 1) : null;
 
-        return toResponse(debt);
+        return DebtPaymentHistoryResponse.builder()
+                .payments(payments.stream().map(this::toPaymentResponse).toList())
+                .nextBeforeDate(last != null ? last.getPaymentDate() : null)
+                .nextBeforeId(last != null ? last.getId() : null)
+                .build();
     }
 
     @Transactional
     public DebtResponse markAsPaid(UUID userId, UUID id) {
+        cashflowForecastService.evictUser(userId);
+        debtAnalyticsService.evictUser(userId);
         Debt debt = findByIdAndUserId(id, userId);
 
-        debt.setPaidAmount(debt.getAmount());
-        debt.setStatus(DebtStatus.PAID);
-
-        debt = debtRepository.save(debt);
+        debtRepository.markPaid(debt.getId());
         log.info("Marked debt {} as paid for user {}", id, userId);
 
-        return toResponse(debt);
+        return toResponse(findByIdAndUserId(id, userId));
     }
 
     @Transactional
     public DebtResponse cancel(UUID userId, UUID id) {
-        Debt debt = findByIdAndUserId(id, userId);
+        cashflowForecastService.evictUser(userId);
+        debtAnalyticsService.evictUser(userId);
+        findByIdAndUserId(id, userId);
 
-        if (debt.getStatus() == DebtStatus.PAID) {
+        // Checked in the UPDATE itself so a concurrent payoff is not cancelled
+        if (debtRepository.cancel(id) == 0) {
             throw new ApiException("Cannot cancel a paid debt", HttpStatus.BAD_REQUEST);
         }
-
-        debt.setStatus(DebtStatus.CANCELLED);
-
-        debt = debtRepository.save(debt);
         log.info("Cancelled debt {} for user {}", id, userId);
 
-        return toResponse(debt);
+        return toResponse(findByIdAndUserId(id, userId));
     }
 
     @Transactional
     public void delete(UUID userId, UUID id) {
+        cashflowForecastService.evictUser(userId);
+        debtAnalyticsService.evictUser(userId);
         Debt debt = findByIdAndUserId(id, userId);
         debtRepository.delete(debt);
         log.info("Deleted debt {} for user {}", id, userId);
@@ -216,23 +250,24 @@ public class DebtService {
         return overdueDebts.stream().map(this::toResponse).toList();
     }
 
-    private void updateStatus(Debt debt) {
-        BigDecimal remaining = debt.getAmount().subtract(debt.getPaidAmount());
-
-        if (remaining.compareTo(BigDecimal.ZERO) <= 0) {
-            debt.setStatus(DebtStatus.PAID);
-        } else if (debt.getPaidAmount().compareTo(BigDecimal.ZERO) > 0) {
-            debt.setStatus(DebtStatus.PARTIALLY_PAID);
-        } else {
-            debt.setStatus(DebtStatus.ACTIVE);
-        }
-    }
-
     private Debt findByIdAndUserId(UUID id, UUID userId) {
         return debtRepository.findByIdAndUserId(id, userId)
                 .orElseThrow(() -> new ApiException("Debt not found", HttpStatus.NOT_FOUND));
     }
 
+    private DebtPaymentResponse toPaymentResponse(DebtPayment payment) {
+        Account account = payment.getAccount();
+        return DebtPaymentResponse.builder()
+                .id(payment.getId())
+                .amount(payment.getAmount())
+                .paymentDate(payment.getPaymentDate())
+                .accountId(account != null ? account.getId() : null)
+                .accountName(account != null ? account.getName() : null)
+                .note(payment.getNote())
+                .createdAt(payment.getCreatedAt())
+                .build();
+    }
+
     private DebtResponse toResponse(Debt debt) {
         BigDecimal remaining = debt.getAmount().subtract(debt.getPaidAmount());
         boolean overdue = debt.getDueDate() != null
@@ -252,6 +287,7 @@ public class DebtService {
                 .paidAmount(debt.getPaidAmount())
                 .remainingAmount(remaining)
                 .note(debt.getNote())
+                .interestRate(debt.getInterestRate())
                 .overdue(overdue)
                 .createdAt(debt.getCreatedAt())
                 .updatedAt(debt.getUpdatedAt())
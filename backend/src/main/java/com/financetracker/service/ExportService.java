@@ -6,6 +6,7 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.io.ByteArrayOutputStream;
 import java.io.OutputStreamWriter;
@@ -28,6 +29,7 @@ public class ExportService {
     private final RecurringTransactionRepository recurringTransactionRepository;
     private final SavingsGoalRepository savingsGoalRepository;
 
+    @Transactional(readOnly = true)
     public byte[] exportTransactionsCsv(UUID userId, LocalDate startDate, LocalDate endDate,
                                          UUID accountId, String type) {
         List<Transaction> transactions;
@@ -90,6 +92,7 @@ public class ExportService {
         }
     }
 
+    @Transactional(readOnly = true)
     public byte[] exportFullBackup(UUID userId) {
         try {
             ObjectMapper mapper = new ObjectMapper();
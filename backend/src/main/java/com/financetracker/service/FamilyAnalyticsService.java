@@ -0,0 +1,260 @@
+package com.financetracker.service;
+
+import com.financetracker.dto.family.FamilyAnalyticsResponse;
+import com.financetracker.entity.Family;
+import com.financetracker.entity.TransactionType;
+import com.financetracker.exception.ApiException;
+import com.financetracker.repository.FamilyMemberRepository;
+import com.financetracker.repository.FamilyRepository;
+import com.financetracker.repository.TransactionRepository;
+import com.financetracker.service.CategoryCache.CachedCategory;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.util.*;
+
+/**
+ * Consolidated family ledger: income and expense per month, member and category over
+ * family-tagged transactions and transactions on accounts shared with the family.
+ * One grouped SQL rollup (month × member × category × type × currency) covering the maximum
+ * horizon is converted into the family currency and cached per family; every view and
+ * shorter range is folded from the cached rows. Entries are evicted after commit when a
+ * member's transactions or the membership change, and expire after a TTL.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class FamilyAnalyticsService {
+
+    public static final int MAX_MONTHS = 24;
+
+    // Amount columns are DECIMAL(19, 4)
+    private static final int SCALE = 4;
+
+    private final TransactionRepository transactionRepository;
+    private final FamilyRepository familyRepository;
+    private final FamilyMemberRepository familyMemberRepository;
+    private final FamilyMembershipCache familyMembershipCache;
+    private final CategoryCache categoryCache;
+    private final ExchangeRateService exchangeRateService;
+
+    @Value("${family-analytics.ttl-minutes:15}")
+    private int ttlMinutes;
+
+    @Value("${family-analytics.max-families:2000}")
+    private int maxFamilies;
+
+    private record Row(LocalDate month, UUID userId, UUID categoryId, TransactionType type,
+                       BigDecimal amount, long count) {
+    }
+
+    private record CategoryKey(UUID categoryId, TransactionType type) {
+    }
+
+    private record Ledger(LocalDate date, String currency, Map<UUID, String> members, List<Row> rows,
+                          Map<UUID, CachedCategory> categories, List<String> unconverted,
+                          OffsetDateTime cachedAt) {
+        boolean isExpired(LocalDate today, int ttlMinutes) {
+            return !date.equals(today) || cachedAt.plusMinutes(ttlMinutes).isBefore(OffsetDateTime.now());
+        }
+    }
+
+    private final VersionedCache<UUID, Ledger> cache = new VersionedCache<>(() -> maxFamilies);
+
+    @Transactional(readOnly = true)
+    public FamilyAnalyticsResponse getAnalytics(UUID userId, UUID familyId, int months) {
+        if (months < 1 || months > MAX_MONTHS) {
+            throw ApiException.badRequest("months must be between 1 and " + MAX_MONTHS);
+        }
+        if (!familyMembershipCache.isMember(familyId, userId)) {
+            throw new ApiException("Bạn không phải thành viên của gia đình này", HttpStatus.FORBIDDEN);
+        }
+
+        LocalDate today = LocalDate.now();
+        Ledger ledger = getLedger(familyId, today);
+        LocalDate startDate = today.withDayOfMonth(1).minusMonths(months - 1L);
+
+        Map<LocalDate, BigDecimal[]> byMonth = new TreeMap<>();
+        Map<LocalDate, long[]> monthCounts = new HashMap<>();
+        for (LocalDate month = startDate; !month.isAfter(today); month = month.plusMonths(1)) {
+            byMonth.put(month, new BigDecimal[]{BigDecimal.ZERO, BigDecimal.ZERO});
+            monthCounts.put(month, new long[1]);
+        }
+        Map<UUID, BigDecimal[]> byMember = new LinkedHashMap<>();
+        Map<UUID, long[]> memberCounts = new HashMap<>();
+        for (UUID memberId : ledger.members().keySet()) {
+            byMember.put(memberId, new BigDecimal[]{BigDecimal.ZERO, BigDecimal.ZERO});
+            memberCounts.put(memberId, new long[1]);
+        }
+        Map<CategoryKey, BigDecimal> byCategory = new HashMap<>();
+        Map<CategoryKey, long[]> categoryCounts = new HashMap<>();
+
+        BigDecimal totalIncome = BigDecimal.ZERO;
+        BigDecimal totalExpense = BigDecimal.ZERO;
+        for (Row row : ledger.rows()) {
+            if (row.month().isBefore(startDate) || !byMonth.containsKey(row.month())) {
+                continue;
+            }
+            int slot = row.type() == TransactionType.INCOME ? 0 : 1;
+            if (slot == 0) {
+                totalIncome = totalIncome.add(row.amount());
+            } else {
+                totalExpense = totalExpense.add(row.amount());
+            }
+
+            BigDecimal[] month = byMonth.get(row.month());
+            month[slot] = month[slot].add(row.amount());
+            monthCounts.get(row.month())[0] += row.count();
+
+            BigDecimal[] member = byMember.computeIfAbsent(row.userId(),
+                    id -> new BigDecimal[]{BigDecimal.ZERO, BigDecimal.ZERO});
+            member[slot] = member[slot].add(row.amount());
+            memberCounts.computeIfAbsent(row.userId(), id -> new long[1])[0] += row.count();
+
+            CategoryKey key = new CategoryKey(row.categoryId(), row.type());
+            byCategory.merge(key, row.amount(), BigDecimal::add);
+            categoryCounts.computeIfAbsent(key, k -> new long[1])[0] += row.count();
+        }
+
+        List<FamilyAnalyticsResponse.MonthTotal> monthTotals = new ArrayList<>(byMonth.size());
+        byMonth.forEach((month, amounts) -> monthTotals.add(FamilyAnalyticsResponse.MonthTotal.builder()
+                .month(month)
+                .income(amounts[0])
+                .expense(amounts[1])
+                .net(amounts[0].subtract(amounts[1]))
+                .transactions(monthCounts.get(month)[0])
+                .build()));
+
+        List<FamilyAnalyticsResponse.MemberTotal> memberTotals = new ArrayList<>(byMember.size());
+        byMember.forEach((memberId, amounts) -> memberTotals.add(FamilyAnalyticsResponse.MemberTotal.builder()
+                .userId(memberId)
+                .fullName(ledger.members().get(memberId))
+                .income(amounts[0])
+                .expense(amounts[1])
+                .transactions(memberCounts.get(memberId)[0])
+                .build()));
+
+        List<FamilyAnalyticsResponse.CategoryTotal> categoryTotals = new ArrayList<>(byCategory.size());
+        byCategory.forEach((key, amount) -> {
+            CachedCategory category = key.categoryId() != null ? ledger.categories().get(key.categoryId()) : null;
+            categoryTotals.add(FamilyAnalyticsResponse.CategoryTotal.builder()
+                    .categoryId(key.categoryId())
+                    .name(category != null ? category.name() : null)
+                    .icon(category != null ? category.icon() : null)
+                    .color(category != null ? category.color() : null)
+                    .type(key.type())
+                    .amount(amount)
+                    .transactions(categoryCounts.get(key)[0])
+                    .build());
+        });
+        categoryTotals.sort(Comparator.comparing(FamilyAnalyticsResponse.CategoryTotal::getAmount).reversed());
+
+        return FamilyAnalyticsResponse.builder()
+                .familyId(familyId)
+                .currency(ledger.currency())
+                .startDate(startDate)
+                .endDate(today)
+                .totalIncome(totalIncome)
+                .totalExpense(totalExpense)
+                .net(totalIncome.subtract(totalExpense))
+                .months(monthTotals)
+                .members(memberTotals)
+                .categories(categoryTotals)
+                .unconvertedCurrencies(ledger.unconverted())
+                .build();
+    }
+
+    public void evictFamily(UUID familyId) {
+        cache.evictAfterCommit(familyId);
+    }
+
+    /**
+     * Drop the ledgers of every family the user belongs to, e.g. after one of their transactions changed.
+     */
+    public void evictUser(UUID userId) {
+        cache.evictIfAfterCommit((familyId, ledger) -> ledger.members().containsKey(userId));
+    }
+
+    private Ledger getLedger(UUID familyId, LocalDate today) {
+        return cache.get(familyId, cached -> !cached.isExpired(today, ttlMinutes), () -> {
+            long started = System.nanoTime();
+            Ledger ledger = buildLedger(familyId, today);
+            log.debug("Built family ledger for {} ({} rows) in {} µs", familyId, ledger.rows().size(),
+                    (System.nanoTime() - started) / 1000);
+            return ledger;
+        });
+    }
+
+    private Ledger buildLedger(UUID familyId, LocalDate today) {
+        Family family = familyRepository.findById(familyId)
+                .orElseThrow(() -> new ApiException("Không tìm thấy gia đình", HttpStatus.NOT_FOUND));
+        String currency = family.getCurrency();
+
+        Map<UUID, String> members = new LinkedHashMap<>();
+        for (Object[] member : familyMemberRepository.findMemberSummariesByFamilyId(familyId)) {
+            members.put((UUID) member[1], (String) member[3]);
+        }
+
+        Map<String, BigDecimal> rates = new HashMap<>();
+        Set<String> unconverted = new TreeSet<>();
+        Map<UUID, CachedCategory> categories = new HashMap<>();
+        List<Row> rows = new ArrayList<>();
+        LocalDate startDate = today.withDayOfMonth(1).minusMonths(MAX_MONTHS - 1L);
+
+        for (Object[] row : transactionRepository.sumFamilyLedgerByMonth(familyId, startDate)) {
+            String rowCurrency = (String) row[4];
+            BigDecimal rate = rate(rowCurrency, currency, rates);
+            if (rate == null) {
+                unconverted.add(rowCurrency);
+                continue;
+            }
+            UUID userId = (UUID) row[1];
+            UUID categoryId = (UUID) row[2];
+            if (categoryId != null && !categories.containsKey(categoryId)) {
+                categoryCache.findAccessible(categoryId, userId)
+                        .ifPresent(category -> categories.put(categoryId, category));
+            }
+            rows.add(new Row(
+                    toLocalDate(row[0]),
+                    userId,
+                    categoryId,
+                    TransactionType.valueOf((String) row[3]),
+                    ((BigDecimal) row[5]).multiply(rate).setScale(SCALE, RoundingMode.HALF_UP),
+                    ((Number) row[6]).longValue()));
+        }
+
+        return new Ledger(today, currency, Collections.unmodifiableMap(members), List.copyOf(rows),
+                Map.copyOf(categories), List.copyOf(unconverted), OffsetDateTime.now());
+    }
+
+    /**
+     * @return the rate from one currency to the other, or null when none is available
+     */
+    private BigDecimal rate(String from, String to, Map<String, BigDecimal> rates) {
+        if (from.equalsIgnoreCase(to)) {
+            return BigDecimal.ONE;
+        }
+        if (!rates.containsKey(from)) {
+            BigDecimal rate = null;
+            try {
+                rate = exchangeRateService.getLatestRate(from, to).getRate();
+            } catch (ApiException e) {
+                log.warn("No exchange rate from {} to {} for family analytics: {}", from, to, e.getMessage());
+            }
+            rates.put(from, rate);
+        }
+        return rates.get(from);
+    }
+
+    private static LocalDate toLocalDate(Object value) {
+        return value instanceof LocalDate date ? date : ((java.sql.Date) value).toLocalDate();
+    }
+}
@@ -0,0 +1,87 @@
+package com.financetracker.service;
+
+import com.financetracker.entity.FamilyRole;
+import com.financetracker.repository.FamilyMemberRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.OffsetDateTime;
+import java.util.*;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+/**
+ * Per-user view of family memberships (familyId → role) used by every family-scoped
+ * authorization check. A user's memberships are loaded with one query and kept until
+ * FamilyService, InvitationService or account deletion change them, or the TTL expires
+ * (bounding staleness across instances). Evictions only reach this instance, so checks made
+ * inside a read-write transaction always reload from the primary: a removed member or demoted
+ * admin can at most keep reading through another instance until the TTL expires.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class FamilyMembershipCache {
+
+    private final FamilyMemberRepository familyMemberRepository;
+
+    @Value("${family-membership-cache.ttl-minutes:5}")
+    private int ttlMinutes;
+
+    @Value("${family-membership-cache.max-users:10000}")
+    private int maxUsers;
+
+    private record Memberships(Map<UUID, FamilyRole> roles, OffsetDateTime cachedAt) {
+        boolean isExpired(int ttlMinutes) {
+            return cachedAt.plusMinutes(ttlMinutes).isBefore(OffsetDateTime.now());
+        }
+    }
+
+    private final VersionedCache<UUID, Memberships> cache = new VersionedCache<>(() -> maxUsers);
+
+    public Optional<FamilyRole> getRole(UUID familyId, UUID userId) {
+        return Optional.ofNullable(getMemberships(userId).get(familyId));
+    }
+
+    public boolean isMember(UUID familyId, UUID userId) {
+        return getMemberships(userId).containsKey(familyId);
+    }
+
+    public List<UUID> getFamilyIds(UUID userId) {
+        return new ArrayList<>(getMemberships(userId).keySet());
+    }
+
+    public void evictUser(UUID userId) {
+        cache.evictAfterCommit(userId);
+    }
+
+    /**
+     * Drop every cached user that belongs to the family, e.g. when the family is deleted.
+     */
+    public void evictFamily(UUID familyId) {
+        cache.evictIfAfterCommit((userId, memberships) -> memberships.roles().containsKey(familyId));
+    }
+
+    private Map<UUID, FamilyRole> getMemberships(UUID userId) {
+        Predicate<Memberships> fresh = cached -> !cached.isExpired(ttlMinutes);
+        Supplier<Memberships> loader = () -> {
+            Map<UUID, FamilyRole> roles = new HashMap<>();
+            for (Object[] row : familyMemberRepository.findRolesByUserId(userId)) {
+                roles.put((UUID) row[0], (FamilyRole) row[1]);
+            }
+            return new Memberships(Collections.unmodifiableMap(roles), OffsetDateTime.now());
+        };
+        Memberships memberships = isWriteTransaction()
+                ? cache.load(userId, fresh, loader)
+                : cache.get(userId, fresh, loader);
+        return memberships.roles();
+    }
+
+    private static boolean isWriteTransaction() {
+        return TransactionSynchronizationManager.isActualTransactionActive()
+                && !TransactionSynchronizationManager.isCurrentTransactionReadOnly();
+    }
+}
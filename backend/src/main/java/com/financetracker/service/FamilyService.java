@@ -20,6 +20,8 @@ public class FamilyService {
 
     private final FamilyRepository familyRepository;
     private final FamilyMemberRepository familyMemberRepository;
+    private final FamilyMembershipCache familyMembershipCache;
+    private final FamilyAnalyticsService familyAnalyticsService;
     private final UserRepository userRepository;
     private final NotificationService notificationService;
 
@@ -47,31 +49,24 @@ public class FamilyService {
                 .build();
 
         familyMemberRepository.save(ownerMember);
+        familyMembershipCache.evictUser(userId);
 
-        return toFamilyResponse(family, FamilyRole.OWNER);
+        return toFamilyResponse(family, user, FamilyRole.OWNER, 1, 0);
     }
 
+    @Transactional(readOnly = true)
     public List<FamilyResponse> getMyFamilies(UUID userId) {
-        List<Family> families = familyRepository.findByMemberUserId(userId);
-        return families.stream()
-                .map(family -> {
-                    FamilyRole myRole = familyMemberRepository.findByFamilyIdAndUserId(family.getId(), userId)
-                            .map(FamilyMember::getRole)
-                            .orElse(null);
-                    return toFamilyResponse(family, myRole);
-                })
+        return familyRepository.findSummariesByMemberUserId(userId).stream()
+                .map(this::toFamilyResponse)
                 .collect(Collectors.toList());
     }
 
+    @Transactional(readOnly = true)
     public FamilyResponse getFamily(UUID userId, UUID familyId) {
-        Family family = familyRepository.findByIdAndMemberUserId(familyId, userId)
+        return familyRepository.findSummaryByIdAndMemberUserId(familyId, userId).stream()
+                .findFirst()
+                .map(this::toFamilyResponse)
                 .orElseThrow(() -> new ApiException("Không tìm thấy gia đình hoặc bạn không phải thành viên", HttpStatus.NOT_FOUND));
-
-        FamilyRole myRole = familyMemberRepository.findByFamilyIdAndUserId(familyId, userId)
-                .map(FamilyMember::getRole)
-                .orElse(null);
-
-        return toFamilyResponse(family, myRole);
     }
 
     @Transactional
@@ -79,10 +74,10 @@ public class FamilyService {
         Family family = familyRepository.findByIdAndMemberUserId(familyId, userId)
                 .orElseThrow(() -> new ApiException("Không tìm thấy gia đình", HttpStatus.NOT_FOUND));
 
-        FamilyMember member = familyMemberRepository.findByFamilyIdAndUserId(familyId, userId)
+        FamilyRole role = familyMembershipCache.getRole(familyId, userId)
                 .orElseThrow(() -> new ApiException("Bạn không phải thành viên", HttpStatus.FORBIDDEN));
 
-        if (member.getRole() != FamilyRole.OWNER && member.getRole() != FamilyRole.ADMIN) {
+        if (role != FamilyRole.OWNER && role != FamilyRole.ADMIN) {
             throw new ApiException("Chỉ Owner hoặc Admin mới có thể cập nhật", HttpStatus.FORBIDDEN);
         }
 
@@ -95,8 +90,10 @@ public class FamilyService {
             family.setCurrency(request.getCurrency());
         }
 
-        family = familyRepository.save(family);
-        return toFamilyResponse(family, member.getRole());
+        familyRepository.save(family);
+        // The ledger is converted into the family currency
+        familyAnalyticsService.evictFamily(familyId);
+        return toFamilyResponse(familyRepository.findSummaryByIdAndMemberUserId(familyId, userId).get(0));
     }
 
     @Transactional
@@ -104,25 +101,34 @@ public class FamilyService {
         Family family = familyRepository.findById(familyId)
                 .orElseThrow(() -> new ApiException("Không tìm thấy gia đình", HttpStatus.NOT_FOUND));
 
-        FamilyMember member = familyMemberRepository.findByFamilyIdAndUserId(familyId, userId)
+        FamilyRole role = familyMembershipCache.getRole(familyId, userId)
                 .orElseThrow(() -> new ApiException("Bạn không phải thành viên", HttpStatus.FORBIDDEN));
 
-        if (member.getRole() != FamilyRole.OWNER) {
+        if (role != FamilyRole.OWNER) {
             throw new ApiException("Chỉ Owner mới có thể xóa gia đình", HttpStatus.FORBIDDEN);
         }
 
         familyRepository.delete(family);
+        familyMembershipCache.evictFamily(familyId);
+        familyAnalyticsService.evictFamily(familyId);
     }
 
+    @Transactional(readOnly = true)
     public List<FamilyMemberResponse> getMembers(UUID userId, UUID familyId) {
         // Verify user is member
-        if (!familyMemberRepository.existsByFamilyIdAndUserId(familyId, userId)) {
+        if (!familyMembershipCache.isMember(familyId, userId)) {
             throw new ApiException("Bạn không phải thành viên của gia đình này", HttpStatus.FORBIDDEN);
         }
 
-        List<FamilyMember> members = familyMemberRepository.findByFamilyId(familyId);
-        return members.stream()
-                .map(this::toFamilyMemberResponse)
+        return familyMemberRepository.findMemberSummariesByFamilyId(familyId).stream()
+                .map(row -> FamilyMemberResponse.builder()
+                        .id((UUID) row[0])
+                        .userId((UUID) row[1])
+                        .email((String) row[2])
+                        .fullName((String) row[3])
+                        .role((FamilyRole) row[4])
+                        .joinedAt((OffsetDateTime) row[5])
+                        .build())
                 .collect(Collectors.toList());
     }
 
@@ -160,16 +166,18 @@ public class FamilyService {
 
         targetMember.setRole(request.getRole());
         targetMember = familyMemberRepository.save(targetMember);
+        familyMembershipCache.evictUser(userId);
+        familyMembershipCache.evictUser(targetMember.getUser().getId());
 
         return toFamilyMemberResponse(targetMember);
     }
 
     @Transactional
     public void removeMember(UUID userId, UUID familyId, UUID memberId) {
-        FamilyMember currentMember = familyMemberRepository.findByFamilyIdAndUserId(familyId, userId)
+        FamilyRole currentRole = familyMembershipCache.getRole(familyId, userId)
                 .orElseThrow(() -> new ApiException("Bạn không phải thành viên", HttpStatus.FORBIDDEN));
 
-        if (currentMember.getRole() != FamilyRole.OWNER && currentMember.getRole() != FamilyRole.ADMIN) {
+        if (currentRole != FamilyRole.OWNER && currentRole != FamilyRole.ADMIN) {
             throw new ApiException("Chỉ Owner hoặc Admin mới có thể xóa thành viên", HttpStatus.FORBIDDEN);
         }
 
@@ -185,7 +193,7 @@ public class FamilyService {
         }
 
         // ADMIN cannot remove another ADMIN
-        if (currentMember.getRole() == FamilyRole.ADMIN && targetMember.getRole() == FamilyRole.ADMIN) {
+        if (currentRole == FamilyRole.ADMIN && targetMember.getRole() == FamilyRole.ADMIN) {
             throw new ApiException("Admin không thể xóa Admin khác", HttpStatus.FORBIDDEN);
         }
 
@@ -195,6 +203,8 @@ public class FamilyService {
         UUID familyIdForNotify = targetMember.getFamily().getId();
 
         familyMemberRepository.delete(targetMember);
+        familyMembershipCache.evictUser(targetMember.getUser().getId());
+        familyAnalyticsService.evictFamily(familyId);
 
         // Notify remaining members
         List<FamilyMember> remainingMembers = familyMemberRepository.findByFamilyId(familyIdForNotify);
@@ -217,6 +227,8 @@ public class FamilyService {
         String familyName = member.getFamily().getName();
 
         familyMemberRepository.delete(member);
+        familyMembershipCache.evictUser(userId);
+        familyAnalyticsService.evictFamily(familyId);
 
         // Notify remaining members
         List<FamilyMember> remainingMembers = familyMemberRepository.findByFamilyId(familyId);
@@ -225,16 +237,24 @@ public class FamilyService {
         }
     }
 
-    private FamilyResponse toFamilyResponse(Family family, FamilyRole myRole) {
+    // Row of FamilyRepository.findSummariesByMemberUserId
+    private FamilyResponse toFamilyResponse(Object[] row) {
+        return toFamilyResponse((Family) row[0], (User) row[1], (FamilyRole) row[2],
+                ((Number) row[3]).intValue(), ((Number) row[4]).intValue());
+    }
+
+    private FamilyResponse toFamilyResponse(Family family, User createdBy, FamilyRole myRole,
+                                            int memberCount, int accountCount) {
         return FamilyResponse.builder()
                 .id(family.getId())
                 .name(family.getName())
                 .type(family.getType())
                 .description(family.getDescription())
                 .currency(family.getCurrency())
-                .createdById(family.getCreatedBy().getId())
-                .createdByName(family.getCreatedBy().getFullName())
-                .memberCount(family.getMembers().size())
+                .createdById(createdBy.getId())
+                .createdByName(createdBy.getFullName())
+                .memberCount(memberCount)
+                .accountCount(accountCount)
                 .myRole(myRole)
                 .createdAt(family.getCreatedAt())
                 .build();
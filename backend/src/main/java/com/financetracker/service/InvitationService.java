@@ -23,6 +23,8 @@ public class InvitationService {
     private final InvitationRepository invitationRepository;
     private final FamilyRepository familyRepository;
     private final FamilyMemberRepository familyMemberRepository;
+    private final FamilyMembershipCache familyMembershipCache;
+    private final FamilyAnalyticsService familyAnalyticsService;
     private final UserRepository userRepository;
     private final NotificationService notificationService;
 
@@ -37,10 +39,10 @@ public class InvitationService {
                 .orElseThrow(() -> new ApiException("Không tìm thấy gia đình", HttpStatus.NOT_FOUND));
 
         // Check if inviter is OWNER or ADMIN
-        FamilyMember inviterMember = familyMemberRepository.findByFamilyIdAndUserId(family.getId(), userId)
+        FamilyRole inviterRole = familyMembershipCache.getRole(family.getId(), userId)
                 .orElseThrow(() -> new ApiException("Bạn không phải thành viên của gia đình", HttpStatus.FORBIDDEN));
 
-        if (inviterMember.getRole() != FamilyRole.OWNER && inviterMember.getRole() != FamilyRole.ADMIN) {
+        if (inviterRole != FamilyRole.OWNER && inviterRole != FamilyRole.ADMIN) {
             throw new ApiException("Chỉ Owner hoặc Admin mới có thể mời thành viên", HttpStatus.FORBIDDEN);
         }
 
@@ -54,7 +56,7 @@ public class InvitationService {
         }
 
         // Check if already a member
-        if (familyMemberRepository.existsByFamilyIdAndUserId(family.getId(), invitee.getId())) {
+        if (familyMembershipCache.isMember(family.getId(), invitee.getId())) {
             throw new ApiException("Người dùng đã là thành viên của nhóm", HttpStatus.BAD_REQUEST);
         }
 
@@ -83,6 +85,7 @@ public class InvitationService {
         return toInvitationResponse(invitation);
     }
 
+    @Transactional(readOnly = true)
     public List<InvitationResponse> getReceivedInvitations(UUID userId, String email) {
         List<Invitation> invitations = invitationRepository.findPendingByEmailOrUserId(email, userId);
         return invitations.stream()
@@ -91,15 +94,17 @@ public class InvitationService {
                 .collect(Collectors.toList());
     }
 
+    @Transactional(readOnly = true)
     public long countPendingInvitations(UUID userId, String email) {
         return invitationRepository.countPendingByEmailOrUserId(email, userId);
     }
 
+    @Transactional(readOnly = true)
     public List<InvitationResponse> getFamilyInvitations(UUID userId, UUID familyId) {
-        FamilyMember member = familyMemberRepository.findByFamilyIdAndUserId(familyId, userId)
+        FamilyRole role = familyMembershipCache.getRole(familyId, userId)
                 .orElseThrow(() -> new ApiException("Bạn không phải thành viên", HttpStatus.FORBIDDEN));
 
-        if (member.getRole() != FamilyRole.OWNER && member.getRole() != FamilyRole.ADMIN) {
+        if (role != FamilyRole.OWNER && role != FamilyRole.ADMIN) {
             throw new ApiException("Chỉ Owner hoặc Admin mới có thể xem lời mời", HttpStatus.FORBIDDEN);
         }
 
@@ -137,6 +142,8 @@ public class InvitationService {
                 .build();
 
         familyMemberRepository.save(newMember);
+        familyMembershipCache.evictUser(userId);
+        familyAnalyticsService.evictFamily(invitation.getFamily().getId());
 
         // Update invitation status
         invitation.setStatus(InvitationStatus.ACCEPTED);
@@ -190,10 +197,10 @@ public class InvitationService {
         Invitation invitation = invitationRepository.findById(invitationId)
                 .orElseThrow(() -> new ApiException("Không tìm thấy lời mời", HttpStatus.NOT_FOUND));
 
-        FamilyMember member = familyMemberRepository.findByFamilyIdAndUserId(invitation.getFamily().getId(), userId)
+        FamilyRole role = familyMembershipCache.getRole(invitation.getFamily().getId(), userId)
                 .orElseThrow(() -> new ApiException("Bạn không phải thành viên", HttpStatus.FORBIDDEN));
 
-        if (member.getRole() != FamilyRole.OWNER && member.getRole() != FamilyRole.ADMIN) {
+        if (role != FamilyRole.OWNER && role != FamilyRole.ADMIN) {
             throw new ApiException("Chỉ Owner hoặc Admin mới có thể hủy lời mời", HttpStatus.FORBIDDEN);
         }
 
@@ -210,10 +217,10 @@ public class InvitationService {
         Invitation oldInvitation = invitationRepository.findById(invitationId)
                 .orElseThrow(() -> new ApiException("Không tìm thấy lời mời", HttpStatus.NOT_FOUND));
 
-        FamilyMember member = familyMemberRepository.findByFamilyIdAndUserId(oldInvitation.getFamily().getId(), userId)
+        FamilyRole role = familyMembershipCache.getRole(oldInvitation.getFamily().getId(), userId)
                 .orElseThrow(() -> new ApiException("Bạn không phải thành viên", HttpStatus.FORBIDDEN));
 
-        if (member.getRole() != FamilyRole.OWNER && member.getRole() != FamilyRole.ADMIN) {
+        if (role != FamilyRole.OWNER && role != FamilyRole.ADMIN) {
             throw new ApiException("Chỉ Owner hoặc Admin mới có thể gửi lại lời mời", HttpStatus.FORBIDDEN);
         }
 
@@ -224,7 +231,7 @@ public class InvitationService {
         // Create new invitation
         Invitation newInvitation = Invitation.builder()
                 .family(oldInvitation.getFamily())
-                .inviter(member.getUser())
+                .inviter(userRepository.getReferenceById(userId))
                 .inviteeEmail(oldInvitation.getInviteeEmail())
                 .invitee(oldInvitation.getInvitee())
                 .role(oldInvitation.getRole())
@@ -0,0 +1,115 @@
+package com.financetracker.service;
+
+import com.financetracker.repository.NotificationRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.stereotype.Component;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Properties;
+
+/**
+ * Listens on the notification push channel over a dedicated connection to the primary (not one
+ * from the pool, which it would hold forever) and hands each event to NotificationPushService.
+ * Reconnects with backoff; after a reconnect the local unread counters are resynchronized,
+ * since NOTIFY does not replay events sent while nobody was listening.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class NotificationPushListener {
+
+    private static final long MAX_RETRY_DELAY_MS = 60_000;
+
+    private final DataSourceProperties dataSourceProperties;
+    private final NotificationPushService notificationPushService;
+    private final NotificationRepository notificationRepository;
+
+    @Value("${notification-push.listen-poll-ms:10000}")
+    private int pollMillis;
+
+    private volatile boolean running;
+    private Thread thread;
+
+    @PostConstruct
+    public void start() {
+        running = true;
+        thread = new Thread(this::run, "notification-push-listener");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    @PreDestroy
+    public void stop() {
+        running = false;
+        thread.interrupt();
+    }
+
+    private void run() {
+        long retryDelay = 1000;
+        boolean connectedBefore = false;
+        while (running) {
+            try (Connection connection = connect()) {
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute("LISTEN " + NotificationPushService.CHANNEL);
+                }
+                if (connectedBefore) {
+                    notificationPushService.resync(notificationRepository::countByUserIdAndIsReadFalse);
+                }
+                connectedBefore = true;
+                retryDelay = 1000;
+                listen(connection);
+            } catch (SQLException | RuntimeException e) {
+                if (!running) {
+                    return;
+                }
+                log.warn("Notification push listener disconnected, retrying in {} ms: {}", retryDelay, e.getMessage());
+                try {
+                    Thread.sleep(retryDelay);
+                } catch (InterruptedException ie) {
+                    return;
+                }
+                retryDelay = Math.min(retryDelay * 2, MAX_RETRY_DELAY_MS);
+            }
+        }
+    }
+
+    private Connection connect() throws SQLException {
+        Properties properties = new Properties();
+        properties.setProperty("user", dataSourceProperties.determineUsername());
+        properties.setProperty("password", dataSourceProperties.determinePassword());
+        // Tells this connection apart from the pooled ones in pg_stat_activity
+        properties.setProperty("ApplicationName", "notification-push-listener");
+        return DriverManager.getConnection(dataSourceProperties.determineUrl(), properties);
+    }
+
+    private void listen(Connection connection) throws SQLException {
+        PGConnection pgConnection = connection.unwrap(PGConnection.class);
+        while (running) {
+            PGNotification[] notifications = pgConnection.getNotifications(pollMillis);
+            if (notifications == null || notifications.length == 0) {
+                // getNotifications does not notice a dead socket while it is idle
+                if (!connection.isValid(5)) {
+                    throw new SQLException("connection is no longer valid");
+                }
+                continue;
+            }
+            for (PGNotification notification : notifications) {
+                try {
+                    notificationPushService.dispatch(notification.getParameter());
+                } catch (RuntimeException e) {
+                    log.warn("Failed to dispatch notification push event: {}", e.getMessage(), e);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,256 @@
+package com.financetracker.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.financetracker.dto.notification.NotificationResponse;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.sql.Array;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+import java.util.function.ToLongFunction;
+
+/**
+ * Fan-out of notifications to the user's open SSE streams, plus a cached unread counter per user.
+ * Emitters and counters live on each instance. Changes are published with pg_notify inside the
+ * writing transaction, so PostgreSQL delivers them on commit (and drops them on rollback), and
+ * every instance applies them through NotificationPushListener, including the one that wrote them.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class NotificationPushService {
+
+    public static final String CHANNEL = "notification_push";
+
+    private static final String EVENT_NOTIFICATION = "notification";
+    private static final String EVENT_UNREAD_COUNT = "unread-count";
+
+    // pg_notify rejects payloads of 8000 bytes or more
+    private static final int MAX_PAYLOAD_BYTES = 7900;
+
+    private static final String PUBLISH = "SELECT pg_notify('" + CHANNEL + "', payload) FROM unnest(?) AS payload";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+
+    @Value("${notification-push.emitter-timeout-minutes:30}")
+    private long emitterTimeoutMinutes;
+
+    @Value("${notification-push.unread-count-ttl-seconds:300}")
+    private long unreadCountTtlSeconds;
+
+    private final Map<UUID, List<SseEmitter>> emitters = new ConcurrentHashMap<>();
+
+    private final Map<UUID, UnreadCount> unreadCounts = new ConcurrentHashMap<>();
+
+    private record UnreadCount(AtomicLong value, Instant loadedAt) {
+    }
+
+    public enum Kind {
+        CREATED,
+        READ,
+        ALL_READ,
+        EVICT
+    }
+
+    /**
+     * One change as published on the channel; notification is only set for CREATED, readCount only for READ.
+     */
+    public record PushEvent(Kind kind, UUID userId, NotificationResponse notification, int readCount) {
+    }
+
+    public SseEmitter subscribe(UUID userId, long unreadCount) {
+        SseEmitter emitter = new SseEmitter(TimeUnit.MINUTES.toMillis(emitterTimeoutMinutes));
+        emitters.computeIfAbsent(userId, id -> new CopyOnWriteArrayList<>()).add(emitter);
+
+        emitter.onCompletion(() -> remove(userId, emitter));
+        emitter.onTimeout(() -> remove(userId, emitter));
+        emitter.onError(e -> remove(userId, emitter));
+
+        send(userId, emitter, SseEmitter.event().name(EVENT_UNREAD_COUNT).data(Map.of("count", unreadCount)));
+        return emitter;
+    }
+
+    /**
+     * Cached unread count; loads from the database on a miss or after the TTL.
+     */
+    public long getUnreadCount(UUID userId, LongSupplier loader) {
+        UnreadCount cached = unreadCounts.get(userId);
+        if (cached != null && cached.loadedAt().plusSeconds(unreadCountTtlSeconds).isAfter(Instant.now())) {
+            return cached.value().get();
+        }
+        long count = loader.getAsLong();
+        unreadCounts.put(userId, new UnreadCount(new AtomicLong(count), Instant.now()));
+        return count;
+    }
+
+    /**
+     * Push a new notification and the updated unread count once the current transaction commits.
+     */
+    public void notificationCreated(UUID userId, NotificationResponse notification) {
+        publish(List.of(new PushEvent(Kind.CREATED, userId, notification, 0)));
+    }
+
+    public void notificationsCreated(List<NotificationResponse> notifications, List<UUID> userIds) {
+        List<PushEvent> events = new ArrayList<>(notifications.size());
+        for (int i = 0; i < notifications.size(); i++) {
+            events.add(new PushEvent(Kind.CREATED, userIds.get(i), notifications.get(i), 0));
+        }
+        publish(events);
+    }
+
+    public void notificationsRead(UUID userId, int readCount) {
+        if (readCount <= 0) {
+            return;
+        }
+        publish(List.of(new PushEvent(Kind.READ, userId, null, readCount)));
+    }
+
+    public void allNotificationsRead(UUID userId) {
+        publish(List.of(new PushEvent(Kind.ALL_READ, userId, null, 0)));
+    }
+
+    public void evictUnreadCount(UUID userId) {
+        publish(List.of(new PushEvent(Kind.EVICT, userId, null, 0)));
+    }
+
+    /**
+     * Apply an event received on the channel to this instance's counters and streams.
+     */
+    public void dispatch(String payload) {
+        PushEvent event;
+        try {
+            event = objectMapper.readValue(payload, PushEvent.class);
+        } catch (JsonProcessingException e) {
+            log.warn("Ignoring malformed notification push payload: {}", e.getMessage());
+            return;
+        }
+        UUID userId = event.userId();
+        switch (event.kind()) {
+            case CREATED -> {
+                Long count = adjust(userId, 1);
+                broadcast(userId, EVENT_NOTIFICATION, event.notification());
+                if (count != null) {
+                    broadcast(userId, EVENT_UNREAD_COUNT, Map.of("count", count));
+                }
+            }
+            case READ -> {
+                Long count = adjust(userId, -event.readCount());
+                if (count != null) {
+                    broadcast(userId, EVENT_UNREAD_COUNT, Map.of("count", count));
+                }
+            }
+            case ALL_READ -> {
+                unreadCounts.put(userId, new UnreadCount(new AtomicLong(0), Instant.now()));
+                broadcast(userId, EVENT_UNREAD_COUNT, Map.of("count", 0L));
+            }
+            case EVICT -> unreadCounts.remove(userId);
+        }
+    }
+
+    /**
+     * Events published while the listener was disconnected are lost: drop all cached counters and
+     * send every local subscriber its current count.
+     */
+    public void resync(ToLongFunction<UUID> loader) {
+        unreadCounts.clear();
+        for (UUID userId : emitters.keySet()) {
+            long count = getUnreadCount(userId, () -> loader.applyAsLong(userId));
+            broadcast(userId, EVENT_UNREAD_COUNT, Map.of("count", count));
+        }
+    }
+
+    // Keeps idle connections open through proxies and drops clients that went away
+    @Scheduled(fixedDelayString = "${notification-push.heartbeat-ms:25000}")
+    public void heartbeat() {
+        emitters.forEach((userId, userEmitters) -> {
+            for (SseEmitter emitter : userEmitters) {
+                send(userId, emitter, SseEmitter.event().comment("heartbeat"));
+            }
+        });
+    }
+
+    /**
+     * @return the new cached count, or null when the count is not cached (next read reloads it)
+     */
+    private Long adjust(UUID userId, long delta) {
+        UnreadCount cached = unreadCounts.get(userId);
+        if (cached == null) {
+            return null;
+        }
+        return cached.value().updateAndGet(v -> Math.max(0, v + delta));
+    }
+
+    private void broadcast(UUID userId, String eventName, Object data) {
+        List<SseEmitter> userEmitters = emitters.get(userId);
+        if (userEmitters == null) {
+            return;
+        }
+        for (SseEmitter emitter : userEmitters) {
+            send(userId, emitter, SseEmitter.event().name(eventName).data(data));
+        }
+    }
+
+    private void send(UUID userId, SseEmitter emitter, SseEmitter.SseEventBuilder event) {
+        try {
+            emitter.send(event);
+        } catch (IOException | IllegalStateException e) {
+            log.debug("Dropping SSE stream of user {}: {}", userId, e.getMessage());
+            remove(userId, emitter);
+        }
+    }
+
+    private void remove(UUID userId, SseEmitter emitter) {
+        emitters.computeIfPresent(userId, (id, userEmitters) -> {
+            userEmitters.remove(emitter);
+            return userEmitters.isEmpty() ? null : userEmitters;
+        });
+    }
+
+    // One round trip for the whole batch; inside a transaction the notifications are sent on commit
+    private void publish(List<PushEvent> events) {
+        String[] payloads = events.stream().map(this::toPayload).toArray(String[]::new);
+        jdbcTemplate.query(PUBLISH, ps -> {
+            Array array = ps.getConnection().createArrayOf("text", payloads);
+            ps.setArray(1, array);
+        }, rs -> {
+        });
+    }
+
+    private String toPayload(PushEvent event) {
+        try {
+            String payload = objectMapper.writeValueAsString(event);
+            if (payload.getBytes(StandardCharsets.UTF_8).length <= MAX_PAYLOAD_BYTES) {
+                return payload;
+            }
+            // Clients only need the id and type to refresh their lists; they reload the rest
+            NotificationResponse full = event.notification();
+            NotificationResponse trimmed = NotificationResponse.builder()
+                    .id(full.getId())
+                    .type(full.getType())
+                    .isRead(full.getIsRead())
+                    .createdAt(full.getCreatedAt())
+                    .build();
+            return objectMapper.writeValueAsString(new PushEvent(event.kind(), event.userId(), trimmed, 0));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Cannot serialize notification push event", e);
+        }
+    }
+}
@@ -1,5 +1,7 @@
 package com.financetracker.service;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.financetracker.dto.notification.NotificationResponse;
 import com.financetracker.entity.*;
 import com.financetracker.repository.*;
@@ -7,11 +9,15 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.math.BigDecimal;
+import java.sql.Timestamp;
 import java.time.OffsetDateTime;
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -25,14 +31,28 @@ public class NotificationService {
 
     private final NotificationRepository notificationRepository;
     private final UserRepository userRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+    private final NotificationPushService notificationPushService;
+
+    private static final int INSERT_BATCH_SIZE = 500;
+
+    /**
+     * Notification content built without loading the recipient entity, used by the scheduler's batched inserts
+     */
+    public record PendingNotification(UUID userId, NotificationType type, String title, String message,
+                                      Map<String, Object> data) {
+    }
 
     // Get all notifications for user (paginated)
+    @Transactional(readOnly = true)
     public Page<NotificationResponse> getNotifications(UUID userId, int page, int size) {
         return notificationRepository.findByUserIdOrderByCreatedAtDesc(userId, PageRequest.of(page, size))
                 .map(this::toResponse);
     }
 
     // Get unread notifications
+    @Transactional(readOnly = true)
     public List<NotificationResponse> getUnreadNotifications(UUID userId) {
         return notificationRepository.findByUserIdAndIsReadFalseOrderByCreatedAtDesc(userId)
                 .stream()
@@ -40,21 +60,31 @@ public class NotificationService {
                 .collect(Collectors.toList());
     }
 
-    // Count unread notifications
+    // Count unread notifications (cached counter, loaded on miss)
+    @Transactional(readOnly = true)
     public long countUnread(UUID userId) {
-        return notificationRepository.countByUserIdAndIsReadFalse(userId);
+        return notificationPushService.getUnreadCount(userId,
+                () -> notificationRepository.countByUserIdAndIsReadFalse(userId));
+    }
+
+    // Open an SSE stream; the current unread count is sent as the first event. It is loaded before the
+    // emitter opens, and the stream request holds no EntityManager (see OpenEntityManagerInViewConfig)
+    public SseEmitter subscribe(UUID userId) {
+        return notificationPushService.subscribe(userId, countUnread(userId));
     }
 
     // Mark single notification as read
     @Transactional
     public void markAsRead(UUID userId, UUID notificationId) {
-        notificationRepository.markAsRead(notificationId, userId);
+        int updated = notificationRepository.markAsRead(notificationId, userId);
+        notificationPushService.notificationsRead(userId, updated);
     }
 
     // Mark all as read
     @Transactional
     public void markAllAsRead(UUID userId) {
         notificationRepository.markAllAsRead(userId);
+        notificationPushService.allNotificationsRead(userId);
     }
 
     // Create notification
@@ -67,13 +97,52 @@ public class NotificationService {
                 .message(message)
                 .data(data)
                 .build();
-        return notificationRepository.save(notification);
+        notification = notificationRepository.save(notification);
+        notificationPushService.notificationCreated(user.getId(), toResponse(notification));
+        return notification;
     }
 
-    // Check if similar notification exists recently (avoid spam)
-    public boolean hasRecentNotification(UUID userId, NotificationType type, int hours) {
-        OffsetDateTime after = OffsetDateTime.now().minusHours(hours);
-        return notificationRepository.existsByUserIdAndTypeAndCreatedAtAfter(userId, type, after);
+    // Create notifications in JDBC batches (scheduler fan-out)
+    @Transactional
+    public int createNotifications(List<PendingNotification> notifications) {
+        if (notifications.isEmpty()) {
+            return 0;
+        }
+        OffsetDateTime createdAt = OffsetDateTime.now();
+        Timestamp now = Timestamp.from(createdAt.toInstant());
+        List<UUID> ids = notifications.stream().map(n -> UUID.randomUUID()).toList();
+        jdbcTemplate.batchUpdate(
+                "INSERT INTO notifications (id, user_id, type, title, message, data, is_read, created_at) " +
+                        "VALUES (?, ?, ?, ?, ?, CAST(? AS jsonb), false, ?)",
+                indexes(notifications.size()),
+                INSERT_BATCH_SIZE,
+                (ps, i) -> {
+                    PendingNotification n = notifications.get(i);
+                    ps.setObject(1, ids.get(i));
+                    ps.setObject(2, n.userId());
+                    ps.setString(3, n.type().name());
+                    ps.setString(4, n.title());
+                    ps.setString(5, n.message());
+                    ps.setString(6, toJson(n.data()));
+                    ps.setTimestamp(7, now);
+                });
+
+        List<NotificationResponse> pushed = new ArrayList<>(notifications.size());
+        for (int i = 0; i < notifications.size(); i++) {
+            PendingNotification n = notifications.get(i);
+            pushed.add(NotificationResponse.builder()
+                    .id(ids.get(i))
+                    .type(n.type())
+                    .title(n.title())
+                    .message(n.message())
+                    .data(n.data())
+                    .isRead(false)
+                    .createdAt(createdAt)
+                    .build());
+        }
+        notificationPushService.notificationsCreated(pushed,
+                notifications.stream().map(PendingNotification::userId).toList());
+        return notifications.size();
     }
 
     // === Specific notification creators ===
@@ -109,13 +178,13 @@ public class NotificationService {
     }
 
     // Recurring transaction due soon
-    public void notifyRecurringDueSoon(User user, String transactionName, int daysUntilDue) {
+    public PendingNotification recurringDueSoon(UUID userId, String transactionName, int daysUntilDue) {
         Map<String, Object> data = new HashMap<>();
         data.put("transactionName", transactionName);
         data.put("daysUntilDue", daysUntilDue);
 
-        createNotification(
-                user,
+        return new PendingNotification(
+                userId,
                 NotificationType.RECURRING_DUE_SOON,
                 "Giao dịch định kỳ sắp đến hạn",
                 String.format("Giao dịch \"%s\" sẽ đến hạn trong %d ngày", transactionName, daysUntilDue),
@@ -124,15 +193,15 @@ public class NotificationService {
     }
 
     // Debt due soon
-    public void notifyDebtDueSoon(User user, String debtName, int daysUntilDue, BigDecimal amount, String currency) {
+    public PendingNotification debtDueSoon(UUID userId, String debtName, int daysUntilDue, BigDecimal amount, String currency) {
         Map<String, Object> data = new HashMap<>();
         data.put("debtName", debtName);
         data.put("daysUntilDue", daysUntilDue);
         data.put("amount", amount);
         data.put("currency", currency);
 
-        createNotification(
-                user,
+        return new PendingNotification(
+                userId,
                 NotificationType.DEBT_DUE_SOON,
                 "Khoản vay/nợ sắp đến hạn",
                 String.format("Khoản \"%s\" (%s %s) sẽ đến hạn trong %d ngày", debtName, amount, currency, daysUntilDue),
@@ -141,13 +210,13 @@ public class NotificationService {
     }
 
     // Budget warning (80%)
-    public void notifyBudgetWarning(User user, String categoryName, int percentage) {
+    public PendingNotification budgetWarning(UUID userId, String categoryName, int percentage) {
         Map<String, Object> data = new HashMap<>();
         data.put("categoryName", categoryName);
         data.put("percentage", percentage);
 
-        createNotification(
-                user,
+        return new PendingNotification(
+                userId,
                 NotificationType.BUDGET_WARNING,
                 "Cảnh báo ngân sách",
                 String.format("Ngân sách cho \"%s\" đã đạt %d%%", categoryName, percentage),
@@ -156,13 +225,13 @@ public class NotificationService {
     }
 
     // Budget exceeded (100%+)
-    public void notifyBudgetExceeded(User user, String categoryName, int percentage) {
+    public PendingNotification budgetExceeded(UUID userId, String categoryName, int percentage) {
         Map<String, Object> data = new HashMap<>();
         data.put("categoryName", categoryName);
         data.put("percentage", percentage);
 
-        createNotification(
-                user,
+        return new PendingNotification(
+                userId,
                 NotificationType.BUDGET_EXCEEDED,
                 "Vượt ngân sách",
                 String.format("Ngân sách cho \"%s\" đã vượt %d%%!", categoryName, percentage),
@@ -171,7 +240,7 @@ public class NotificationService {
     }
 
     // Account empty or low balance
-    public void notifyAccountLowBalance(User user, String accountName, BigDecimal balance, String currency) {
+    public PendingNotification accountLowBalance(UUID userId, String accountName, BigDecimal balance, String currency) {
         Map<String, Object> data = new HashMap<>();
         data.put("accountName", accountName);
         data.put("balance", balance);
@@ -185,8 +254,8 @@ public class NotificationService {
                 ? "Tài khoản hết tiền"
                 : "Tài khoản sắp hết tiền";
 
-        createNotification(
-                user,
+        return new PendingNotification(
+                userId,
                 type,
                 title,
                 String.format("Tài khoản \"%s\" còn %s %s", accountName, balance, currency),
@@ -195,14 +264,14 @@ public class NotificationService {
     }
 
     // Exchange rate alert
-    public void notifyExchangeRateAlert(User user, String fromCurrency, String toCurrency, BigDecimal rate) {
+    public PendingNotification exchangeRateAlert(UUID userId, String fromCurrency, String toCurrency, BigDecimal rate) {
         Map<String, Object> data = new HashMap<>();
         data.put("fromCurrency", fromCurrency);
         data.put("toCurrency", toCurrency);
         data.put("rate", rate);
 
-        createNotification(
-                user,
+        return new PendingNotification(
+                userId,
                 NotificationType.EXCHANGE_RATE_ALERT,
                 "Cảnh báo tỷ giá",
                 String.format("Tỷ giá %s/%s đã đạt 1:%s", fromCurrency, toCurrency, rate.setScale(0)),
@@ -210,6 +279,43 @@ public class NotificationService {
         );
     }
 
+    // Credit card installment due soon
+    public PendingNotification creditCardPaymentDue(UUID userId, UUID planId, UUID paymentId, int paymentNumber,
+                                                    String description, int daysUntilDue) {
+        Map<String, Object> data = new HashMap<>();
+        data.put("planId", planId.toString());
+        data.put("paymentId", paymentId.toString());
+        data.put("paymentNumber", paymentNumber);
+
+        return new PendingNotification(
+                userId,
+                NotificationType.CREDIT_CARD_PAYMENT_DUE,
+                "Thanh toán thẻ tín dụng sắp đến hạn",
+                String.format("Khoản thanh toán \"%s\" kỳ %d sẽ đến hạn trong %d ngày",
+                        description, paymentNumber, daysUntilDue),
+                data
+        );
+    }
+
+    // Credit card installment overdue
+    public PendingNotification creditCardPaymentOverdue(UUID userId, UUID planId, UUID paymentId, int paymentNumber,
+                                                        String description, int daysOverdue) {
+        Map<String, Object> data = new HashMap<>();
+        data.put("planId", planId.toString());
+        data.put("paymentId", paymentId.toString());
+        data.put("paymentNumber", paymentNumber);
+        data.put("daysOverdue", daysOverdue);
+
+        return new PendingNotification(
+                userId,
+                NotificationType.CREDIT_CARD_PAYMENT_OVERDUE,
+                "Thanh toán thẻ tín dụng quá hạn",
+                String.format("Khoản thanh toán \"%s\" kỳ %d đã quá hạn %d ngày",
+                        description, paymentNumber, daysOverdue),
+                data
+        );
+    }
+
     // Savings goal contribution
     public void notifySavingsContribution(User user, String goalName, String contributorName, BigDecimal amount, String currency) {
         Map<String, Object> data = new HashMap<>();
@@ -305,6 +411,25 @@ public class NotificationService {
         return notificationRepository.deleteOldReadNotifications(before);
     }
 
+    private static List<Integer> indexes(int size) {
+        List<Integer> indexes = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            indexes.add(i);
+        }
+        return indexes;
+    }
+
+    private String toJson(Map<String, Object> data) {
+        if (data == null) {
+            return null;
+        }
+        try {
+            return objectMapper.writeValueAsString(data);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Cannot serialize notification data", e);
+        }
+    }
+
     private NotificationResponse toResponse(Notification notification) {
         return NotificationResponse.builder()
                 .id(notification.getId())
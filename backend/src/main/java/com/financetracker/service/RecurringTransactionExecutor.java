@@ -0,0 +1,185 @@
+package com.financetracker.service;
+
+import com.financetracker.entity.RecurringStatus;
+import com.financetracker.entity.RecurringTransaction;
+import com.financetracker.repository.RecurringTransactionRepository;
+import com.financetracker.service.SchedulerLeaseService.Lease;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Array;
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Executes due recurring transactions on a worker pool. Each worker claims a chunk of due
+ * rules with FOR UPDATE SKIP LOCKED and posts their missed occurrences in one transaction,
+ * so concurrent workers (or instances) never process the same rule. A rule that stops at the
+ * per-run catch-up cap is not claimed again until the next run. A failing chunk is retried
+ * one rule per transaction to isolate the bad row; the occurrence unique key makes retries safe.
+ */
+@Service
+@Slf4j
+public class RecurringTransactionExecutor {
+
+    private static final String CLAIM_DUE = """
+            SELECT id FROM recurring_transactions
+            WHERE status = 'ACTIVE'
+              AND next_execution_date <= ?
+              AND NOT (id = ANY (?))
+            ORDER BY next_execution_date, id
+            LIMIT ?
+            FOR UPDATE SKIP LOCKED
+            """;
+
+    private static final String CLAIM_ONE = """
+            SELECT id FROM recurring_transactions
+            WHERE id = ? AND status = 'ACTIVE' AND next_execution_date <= ?
+            FOR UPDATE SKIP LOCKED
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final RecurringTransactionRepository recurringRepository;
+    private final RecurringTransactionService recurringService;
+    private final SchedulerLeaseService schedulerLeaseService;
+
+    @Value("${recurring-executor.workers:4}")
+    private int workers;
+
+    @Value("${recurring-executor.chunk-size:50}")
+    private int chunkSize;
+
+    public RecurringTransactionExecutor(JdbcTemplate jdbcTemplate,
+                                        PlatformTransactionManager transactionManager,
+                                        RecurringTransactionRepository recurringRepository,
+                                        RecurringTransactionService recurringService,
+                                        SchedulerLeaseService schedulerLeaseService) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.recurringRepository = recurringRepository;
+        this.recurringService = recurringService;
+        this.schedulerLeaseService = schedulerLeaseService;
+    }
+
+    public record Result(int rules, int posted, int failed, int deferred) {
+    }
+
+    private static final class Progress {
+        final AtomicInteger rules = new AtomicInteger();
+        final AtomicInteger posted = new AtomicInteger();
+        // Rules that failed on their own are skipped for the rest of the run
+        final Set<UUID> failed = ConcurrentHashMap.newKeySet();
+        // Rules that hit the per-run catch-up cap; the rest of their backlog waits for the next run
+        final Set<UUID> deferred = ConcurrentHashMap.newKeySet();
+
+        Set<UUID> skipped() {
+            Set<UUID> skipped = new HashSet<>(failed);
+            skipped.addAll(deferred);
+            return skipped;
+        }
+    }
+
+    public Result executeDue(LocalDate today, Lease lease) {
+        Progress progress = new Progress();
+        ExecutorService pool = Executors.newFixedThreadPool(workers);
+        try {
+            List<Future<?>> futures = new ArrayList<>(workers);
+            for (int i = 0; i < workers; i++) {
+                futures.add(pool.submit(() -> runWorker(today, lease, progress)));
+            }
+            for (Future<?> future : futures) {
+                try {
+                    future.get();
+                } catch (ExecutionException e) {
+                    log.error("Recurring executor worker stopped: {}", e.getCause().getMessage(), e.getCause());
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            log.warn("Recurring executor interrupted");
+        } finally {
+            pool.shutdownNow();
+        }
+        return new Result(progress.rules.get(), progress.posted.get(), progress.failed.size(), progress.deferred.size());
+    }
+
+    private void runWorker(LocalDate today, Lease lease, Progress progress) {
+        while (!Thread.currentThread().isInterrupted()) {
+            // Stop posting once another instance has taken over the lease
+            schedulerLeaseService.assertHeld(lease);
+
+            List<UUID> claimed = new ArrayList<>();
+            try {
+                Integer count = transactionTemplate.execute(status -> {
+                    schedulerLeaseService.fence(lease);
+                    claimed.addAll(claimDue(today, progress.skipped()));
+                    if (!claimed.isEmpty()) {
+                        executeRules(claimed, today, progress);
+                    }
+                    return claimed.size();
+                });
+                if (count == null || count == 0) {
+                    return;
+                }
+                progress.rules.addAndGet(count);
+            } catch (RuntimeException e) {
+                log.warn("Recurring chunk of {} rules failed ({}), retrying one by one", claimed.size(), e.getMessage());
+                retryIndividually(claimed, today, lease, progress);
+            }
+        }
+    }
+
+    private void retryIndividually(List<UUID> ids, LocalDate today, Lease lease, Progress progress) {
+        for (UUID id : ids) {
+            try {
+                Boolean executed = transactionTemplate.execute(status -> {
+                    schedulerLeaseService.fence(lease);
+                    List<UUID> claimed = jdbcTemplate.queryForList(CLAIM_ONE, UUID.class, id, Date.valueOf(today));
+                    if (claimed.isEmpty()) {
+                        return false;
+                    }
+                    executeRules(claimed, today, progress);
+                    return true;
+                });
+                if (Boolean.TRUE.equals(executed)) {
+                    progress.rules.incrementAndGet();
+                }
+            } catch (RuntimeException e) {
+                progress.failed.add(id);
+                log.error("Failed to execute recurring transaction {}: {}", id, e.getMessage(), e);
+            }
+        }
+    }
+
+    private List<UUID> claimDue(LocalDate today, Set<UUID> excluded) {
+        return jdbcTemplate.query(CLAIM_DUE, ps -> {
+            Array excludedIds = ps.getConnection().createArrayOf("uuid", excluded.toArray());
+            ps.setDate(1, Date.valueOf(today));
+            ps.setArray(2, excludedIds);
+            ps.setInt(3, chunkSize);
+        }, (rs, rowNum) -> rs.getObject(1, UUID.class));
+    }
+
+    // Runs inside the claiming transaction, so the row locks are held until commit
+    private void executeRules(List<UUID> ids, LocalDate today, Progress progress) {
+        for (RecurringTransaction recurring : recurringRepository.findAllForExecution(ids)) {
+            progress.posted.addAndGet(recurringService.executeDueOccurrences(recurring, today));
+            // Still due after executeDueOccurrences returned: it stopped at the catch-up cap
+            if (recurring.getStatus() == RecurringStatus.ACTIVE && !recurring.getNextExecutionDate().isAfter(today)) {
+                progress.deferred.add(recurring.getId());
+            }
+        }
+    }
+}
@@ -3,12 +3,12 @@ package com.financetracker.service;
 import com.financetracker.dto.recurring.RecurringTransactionRequest;
 import com.financetracker.dto.recurring.RecurringTransactionResponse;
 import com.financetracker.dto.recurring.UpcomingTransactionResponse;
-import com.financetracker.dto.transaction.TransactionRequest;
 import com.financetracker.entity.*;
 import com.financetracker.exception.ApiException;
 import com.financetracker.repository.AccountRepository;
 import com.financetracker.repository.CategoryRepository;
 import com.financetracker.repository.RecurringTransactionRepository;
+import com.financetracker.repository.TransactionRepository;
 import com.financetracker.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -21,6 +21,8 @@ import org.springframework.transaction.annotation.Transactional;
 import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
 import java.util.UUID;
 
 @Service
@@ -33,6 +35,13 @@ public class RecurringTransactionService {
     private final AccountRepository accountRepository;
     private final CategoryRepository categoryRepository;
     private final UserRepository userRepository;
+    private final TransactionRepository transactionRepository;
+    private final BudgetService budgetService;
+    private final CashflowForecastService cashflowForecastService;
+
+    // Upper bound per rule and run so a long-dormant daily rule cannot monopolise a worker;
+    // RecurringTransactionExecutor does not claim a capped rule again in the same run
+    private static final int MAX_CATCH_UP_OCCURRENCES = 400;
 
     @Transactional(readOnly = true)
     public Page<RecurringTransactionResponse> getAll(UUID userId, Pageable pageable) {
@@ -54,6 +63,7 @@ public class RecurringTransactionService {
 
     @Transactional
     public RecurringTransactionResponse create(UUID userId, RecurringTransactionRequest request) {
+        cashflowForecastService.evictUser(userId);
         User user = userRepository.findById(userId)
                 .orElseThrow(() -> new ApiException("User not found", HttpStatus.NOT_FOUND));
 
@@ -104,6 +114,7 @@ public class RecurringTransactionService {
 
     @Transactional
     public RecurringTransactionResponse update(UUID userId, UUID id, RecurringTransactionRequest request) {
+        cashflowForecastService.evictUser(userId);
         RecurringTransaction recurring = findByIdAndUserId(id, userId);
 
         Account account = accountRepository.findByIdAndUserId(request.getAccountId(), userId)
@@ -160,6 +171,7 @@ public class RecurringTransactionService {
 
     @Transactional
     public void delete(UUID userId, UUID id) {
+        cashflowForecastService.evictUser(userId);
         RecurringTransaction recurring = findByIdAndUserId(id, userId);
         recurringRepository.delete(recurring);
         log.info("Deleted recurring transaction {} for user {}", id, userId);
@@ -167,6 +179,7 @@ public class RecurringTransactionService {
 
     @Transactional
     public RecurringTransactionResponse pause(UUID userId, UUID id) {
+        cashflowForecastService.evictUser(userId);
         RecurringTransaction recurring = findByIdAndUserId(id, userId);
 
         if (recurring.getStatus() != RecurringStatus.ACTIVE) {
@@ -182,6 +195,7 @@ public class RecurringTransactionService {
 
     @Transactional
     public RecurringTransactionResponse resume(UUID userId, UUID id) {
+        cashflowForecastService.evictUser(userId);
         RecurringTransaction recurring = findByIdAndUserId(id, userId);
 
         if (recurring.getStatus() != RecurringStatus.PAUSED) {
@@ -203,6 +217,7 @@ public class RecurringTransactionService {
 
     @Transactional
     public RecurringTransactionResponse cancel(UUID userId, UUID id) {
+        cashflowForecastService.evictUser(userId);
         RecurringTransaction recurring = findByIdAndUserId(id, userId);
 
         if (recurring.getStatus() == RecurringStatus.CANCELLED || recurring.getStatus() == RecurringStatus.COMPLETED) {
@@ -236,49 +251,72 @@ public class RecurringTransactionService {
                 .toList();
     }
 
+    /**
+     * Post every occurrence that is due up to today, catching up runs that were missed.
+     * Occurrences that already have a transaction (recurring id + occurrence date) are not posted again.
+     *
+     * @return number of transactions posted
+     */
     @Transactional
-    public void executeRecurring(RecurringTransaction recurring) {
-        log.info("Executing recurring transaction {}", recurring.getId());
+    public int executeDueOccurrences(RecurringTransaction recurring, LocalDate today) {
+        cashflowForecastService.evictUser(recurring.getUser().getId());
+        int posted = 0;
+        int occurrences = 0;
+        Set<LocalDate> postedDates = new TreeSet<>();
+
+        while (recurring.getStatus() == RecurringStatus.ACTIVE
+                && !recurring.getNextExecutionDate().isAfter(today)) {
+            if (isCompleted(recurring)) {
+                markCompleted(recurring);
+                break;
+            }
+            if (++occurrences > MAX_CATCH_UP_OCCURRENCES) {
+                log.warn("Recurring transaction {} has more than {} missed occurrences, continuing next run",
+                        recurring.getId(), MAX_CATCH_UP_OCCURRENCES);
+                break;
+            }
 
-        // Create actual transaction
-        TransactionRequest txRequest = TransactionRequest.builder()
-                .accountId(recurring.getAccount().getId())
-                .categoryId(recurring.getCategory() != null ? recurring.getCategory().getId() : null)
-                .type(recurring.getType())
-                .amount(recurring.getAmount())
-                .currency(recurring.getCurrency())
-                .description(recurring.getDescription())
-                .transactionDate(recurring.getNextExecutionDate())
-                .toAccountId(recurring.getToAccount() != null ? recurring.getToAccount().getId() : null)
-                .exchangeRate(recurring.getExchangeRate())
-                .build();
+            LocalDate occurrence = recurring.getNextExecutionDate();
+            if (transactionRepository.existsByRecurringTransactionIdAndRecurringOccurrenceDate(
+                    recurring.getId(), occurrence)) {
+                log.info("Recurring transaction {} already posted for {}", recurring.getId(), occurrence);
+            } else {
+                transactionService.postRecurringOccurrence(recurring, occurrence);
+                postedDates.add(occurrence);
+                posted++;
+            }
 
-        transactionService.createTransactionFromRecurring(
-                recurring.getUser().getId(),
-                txRequest,
-                recurring.getId()
-        );
-
-        // Update recurring transaction
-        recurring.setLastExecutionDate(recurring.getNextExecutionDate());
-        recurring.setExecutionCount(recurring.getExecutionCount() + 1);
-        recurring.setNextExecutionDate(calculateNextDate(recurring));
-
-        // Check if completed
-        if (isCompleted(recurring)) {
-            recurring.setStatus(RecurringStatus.COMPLETED);
-            log.info("Recurring transaction {} completed after {} executions",
-                    recurring.getId(), recurring.getExecutionCount());
+            recurring.setLastExecutionDate(occurrence);
+            recurring.setExecutionCount(recurring.getExecutionCount() + 1);
+            recurring.setNextExecutionDate(calculateNextDate(recurring));
+
+            if (isCompleted(recurring)) {
+                markCompleted(recurring);
+            }
         }
 
         recurringRepository.save(recurring);
+
+        if (posted > 0 && recurring.getType() == TransactionType.EXPENSE && recurring.getCategory() != null) {
+            // Catch-up occurrences may fall before the current period (e.g. into a custom range)
+            budgetService.updateBudgetSpentAmounts(recurring.getUser().getId(), recurring.getCategory().getId(),
+                    postedDates);
+        }
+        return posted;
+    }
+
+    private void markCompleted(RecurringTransaction recurring) {
+        recurring.setStatus(RecurringStatus.COMPLETED);
+        log.info("Recurring transaction {} completed after {} executions",
+                recurring.getId(), recurring.getExecutionCount());
     }
 
     private LocalDate calculateNextDate(RecurringTransaction recurring) {
         return calculateNextDateFrom(recurring.getNextExecutionDate(), recurring);
     }
 
-    private LocalDate calculateNextDateFrom(LocalDate current, RecurringTransaction recurring) {
+    // Shared with CashflowForecastService so projections follow the executor's schedule exactly
+    static LocalDate calculateNextDateFrom(LocalDate current, RecurringTransaction recurring) {
         int interval = recurring.getIntervalValue();
 
         return switch (recurring.getFrequency()) {
@@ -15,10 +15,15 @@ import java.time.OffsetDateTime;
 public class RefreshTokenCleanupService {
 
     private final RefreshTokenRepository refreshTokenRepository;
+    private final SchedulerLeaseService schedulerLeaseService;
 
     @Scheduled(cron = "0 0 3 * * *") // Run daily at 3 AM
     @Transactional
     public void cleanupExpiredTokens() {
+        schedulerLeaseService.runExclusive("refresh-token-cleanup", lease -> deleteExpiredTokens());
+    }
+
+    private void deleteExpiredTokens() {
         int deleted = refreshTokenRepository.deleteExpiredOrRevoked(OffsetDateTime.now());
         if (deleted > 0) {
             log.info("Cleaned up {} expired/revoked refresh tokens", deleted);
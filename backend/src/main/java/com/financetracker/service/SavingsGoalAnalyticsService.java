@@ -0,0 +1,254 @@
+package com.financetracker.service;
+
+import com.financetracker.dto.savings.SavingsGoalProgressResponse;
+import com.financetracker.entity.SavingsGoal;
+import com.financetracker.repository.SavingsContributionRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.*;
+
+/**
+ * Savings goal progress series and completion projection. Contributions are summed per week or
+ * month in SQL once per goal and period; the cached buckets are then kept current by applying
+ * each contribution, deletion or date change after its transaction commits, so a request
+ * only walks the buckets. Entries expire after a TTL: loads may come from a lagging replica, and
+ * changes made through another instance are not applied here.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class SavingsGoalAnalyticsService {
+
+    private static final int SCALE = 4;
+    // Recent complete periods used to fit the contribution-rate trend
+    private static final int TREND_WINDOW = 12;
+    private static final BigDecimal DAYS_PER_MONTH = new BigDecimal("30.436875");
+    // A completion further out than this is reported as no projected date
+    private static final int MAX_PROJECTION_YEARS = 100;
+
+    private final SavingsContributionRepository savingsContributionRepository;
+
+    @Value("${savings-analytics.max-entries:10000}")
+    private int maxEntries;
+
+    @Value("${savings-analytics.ttl-minutes:15}")
+    private int ttlMinutes;
+
+    public enum Period {
+        WEEK, MONTH;
+
+        LocalDate start(LocalDate date) {
+            return this == WEEK ? date.with(DayOfWeek.MONDAY) : date.withDayOfMonth(1);
+        }
+
+        LocalDate plus(LocalDate periodStart, long periods) {
+            return this == WEEK ? periodStart.plusWeeks(periods) : periodStart.plusMonths(periods);
+        }
+
+        BigDecimal days() {
+            return this == WEEK ? BigDecimal.valueOf(7) : DAYS_PER_MONTH;
+        }
+    }
+
+    private record Key(UUID goalId, Period period) {
+    }
+
+    private record Bucket(BigDecimal amount, long contributions) {
+
+        Bucket plus(BigDecimal delta, long count) {
+            return new Bucket(amount.add(delta), contributions + count);
+        }
+    }
+
+    private record CachedBuckets(NavigableMap<LocalDate, Bucket> buckets, OffsetDateTime cachedAt) {
+
+        boolean isExpired(int ttlMinutes) {
+            return cachedAt.plusMinutes(ttlMinutes).isBefore(OffsetDateTime.now());
+        }
+    }
+
+    private final VersionedCache<Key, CachedBuckets> cache = new VersionedCache<>(() -> maxEntries);
+
+    public SavingsGoalProgressResponse getProgress(SavingsGoal goal, Period period) {
+        NavigableMap<LocalDate, Bucket> buckets = getBuckets(goal.getId(), period);
+        LocalDate today = LocalDate.now();
+        LocalDate currentPeriod = period.start(today);
+
+        List<SavingsGoalProgressResponse.PeriodPoint> series = new ArrayList<>();
+        List<BigDecimal> completeAmounts = new ArrayList<>();
+        BigDecimal cumulative = BigDecimal.ZERO;
+        if (!buckets.isEmpty()) {
+            LocalDate end = buckets.lastKey().isAfter(currentPeriod) ? buckets.lastKey() : currentPeriod;
+            for (LocalDate start = buckets.firstKey(); !start.isAfter(end); start = period.plus(start, 1)) {
+                Bucket bucket = buckets.getOrDefault(start, new Bucket(BigDecimal.ZERO, 0));
+                cumulative = cumulative.add(bucket.amount());
+                series.add(SavingsGoalProgressResponse.PeriodPoint.builder()
+                        .periodStart(start)
+                        .amount(bucket.amount())
+                        .cumulativeAmount(cumulative)
+                        .contributions(bucket.contributions())
+                        .build());
+                if (start.isBefore(currentPeriod)) {
+                    completeAmounts.add(bucket.amount());
+                }
+            }
+        }
+
+        // Fit on complete periods only; before the first period ends, the current one is all there is
+        List<BigDecimal> window = completeAmounts.isEmpty()
+                ? series.stream().map(SavingsGoalProgressResponse.PeriodPoint::getAmount).toList()
+                : completeAmounts.subList(Math.max(0, completeAmounts.size() - TREND_WINDOW), completeAmounts.size());
+        BigDecimal average = average(window);
+        BigDecimal[] fit = fitLine(window);
+        BigDecimal projected = fit == null ? average
+                : fit[0].add(fit[1].multiply(BigDecimal.valueOf(window.size()))).setScale(SCALE, RoundingMode.HALF_UP);
+        if (projected.signum() <= 0) {
+            // A declining trend would never finish the goal; fall back to the average rate
+            projected = average;
+        }
+
+        BigDecimal remaining = goal.getTargetAmount().subtract(goal.getCurrentAmount()).max(BigDecimal.ZERO);
+        LocalDate projectedCompletion = null;
+        if (remaining.signum() > 0 && projected.signum() > 0) {
+            // A near-zero rate (e.g. 0.0001 fitted on a declining trend) puts the date past any LocalDate
+            BigDecimal days = remaining.multiply(period.days()).divide(projected, 0, RoundingMode.CEILING);
+            long horizon = ChronoUnit.DAYS.between(today, today.plusYears(MAX_PROJECTION_YEARS));
+            if (days.compareTo(BigDecimal.valueOf(horizon)) <= 0) {
+                projectedCompletion = today.plusDays(days.longValue());
+            }
+        }
+
+        BigDecimal requiredMonthly = null;
+        Boolean onTrack = null;
+        if (goal.getTargetDate() != null) {
+            requiredMonthly = requiredMonthlyAmount(remaining, today, goal.getTargetDate());
+            onTrack = remaining.signum() == 0
+                    || (projectedCompletion != null && !projectedCompletion.isAfter(goal.getTargetDate()));
+        }
+
+        return SavingsGoalProgressResponse.builder()
+                .goalId(goal.getId())
+                .currency(goal.getCurrency())
+                .period(period.name())
+                .targetAmount(goal.getTargetAmount())
+                .currentAmount(goal.getCurrentAmount())
+                .remainingAmount(remaining)
+                .targetDate(goal.getTargetDate())
+                .series(series)
+                .averagePerPeriod(average)
+                .trendPerPeriod(fit == null ? BigDecimal.ZERO.setScale(SCALE) : fit[1].setScale(SCALE, RoundingMode.HALF_UP))
+                .projectedPerPeriod(projected)
+                .projectedCompletionDate(projectedCompletion)
+                .requiredMonthlyAmount(requiredMonthly)
+                .onTrack(onTrack)
+                .build();
+    }
+
+    public void contributionAdded(UUID goalId, LocalDate date, BigDecimal amountInGoalCurrency) {
+        VersionedCache.afterCommit(() -> apply(goalId, date, amountInGoalCurrency, 1));
+    }
+
+    public void contributionRemoved(UUID goalId, LocalDate date, BigDecimal amountInGoalCurrency) {
+        VersionedCache.afterCommit(() -> apply(goalId, date, amountInGoalCurrency.negate(), -1));
+    }
+
+    public void contributionMoved(UUID goalId, LocalDate from, LocalDate to, BigDecimal amountInGoalCurrency) {
+        VersionedCache.afterCommit(() -> {
+            apply(goalId, from, amountInGoalCurrency.negate(), -1);
+            apply(goalId, to, amountInGoalCurrency, 1);
+        });
+    }
+
+    public void evictGoal(UUID goalId) {
+        cache.evictIfAfterCommit((key, cached) -> key.goalId().equals(goalId));
+    }
+
+    private NavigableMap<LocalDate, Bucket> getBuckets(UUID goalId, Period period) {
+        return cache.get(new Key(goalId, period), cached -> !cached.isExpired(ttlMinutes), () -> {
+            NavigableMap<LocalDate, Bucket> buckets = new TreeMap<>();
+            for (Object[] row : savingsContributionRepository.sumAmountInGoalCurrencyByPeriod(
+                    goalId, period.name().toLowerCase())) {
+                buckets.put(toLocalDate(row[0]), new Bucket((BigDecimal) row[1], ((Number) row[2]).longValue()));
+            }
+            return new CachedBuckets(Collections.unmodifiableNavigableMap(buckets), OffsetDateTime.now());
+        }).buckets();
+    }
+
+    // Copy-on-write so readers always see a consistent snapshot
+    private void apply(UUID goalId, LocalDate date, BigDecimal delta, long count) {
+        for (Period period : Period.values()) {
+            cache.update(new Key(goalId, period), cached -> {
+                NavigableMap<LocalDate, Bucket> updated = new TreeMap<>(cached.buckets());
+                LocalDate start = period.start(date);
+                Bucket bucket = updated.getOrDefault(start, new Bucket(BigDecimal.ZERO, 0)).plus(delta, count);
+                if (bucket.contributions() <= 0) {
+                    updated.remove(start);
+                } else {
+                    updated.put(start, bucket);
+                }
+                return new CachedBuckets(Collections.unmodifiableNavigableMap(updated), cached.cachedAt());
+            });
+        }
+    }
+
+    private static BigDecimal requiredMonthlyAmount(BigDecimal remaining, LocalDate today, LocalDate targetDate) {
+        if (remaining.signum() == 0) {
+            return BigDecimal.ZERO.setScale(SCALE);
+        }
+        long days = ChronoUnit.DAYS.between(today, targetDate);
+        if (days <= 0) {
+            return remaining.setScale(SCALE, RoundingMode.HALF_UP);
+        }
+        BigDecimal months = BigDecimal.valueOf(days).divide(DAYS_PER_MONTH, 8, RoundingMode.HALF_UP)
+                .max(BigDecimal.ONE);
+        return remaining.divide(months, SCALE, RoundingMode.CEILING);
+    }
+
+    private static BigDecimal average(List<BigDecimal> values) {
+        if (values.isEmpty()) {
+            return BigDecimal.ZERO.setScale(SCALE);
+        }
+        BigDecimal sum = values.stream().reduce(BigDecimal.ZERO, BigDecimal::add);
+        return sum.divide(BigDecimal.valueOf(values.size()), SCALE, RoundingMode.HALF_UP);
+    }
+
+    /**
+     * Least-squares line y = a + b·x over x = 0..n-1.
+     *
+     * @return {a, b}, or null with fewer than 3 points
+     */
+    private static BigDecimal[] fitLine(List<BigDecimal> values) {
+        int n = values.size();
+        if (n < 3) {
+            return null;
+        }
+        BigDecimal count = BigDecimal.valueOf(n);
+        BigDecimal sumX = BigDecimal.valueOf((long) n * (n - 1) / 2);
+        BigDecimal sumXX = BigDecimal.valueOf((long) (n - 1) * n * (2L * n - 1) / 6);
+        BigDecimal sumY = BigDecimal.ZERO;
+        BigDecimal sumXY = BigDecimal.ZERO;
+        for (int x = 0; x < n; x++) {
+            sumY = sumY.add(values.get(x));
+            sumXY = sumXY.add(values.get(x).multiply(BigDecimal.valueOf(x)));
+        }
+        BigDecimal denominator = count.multiply(sumXX).subtract(sumX.multiply(sumX));
+        BigDecimal slope = count.multiply(sumXY).subtract(sumX.multiply(sumY))
+                .divide(denominator, 8, RoundingMode.HALF_UP);
+        BigDecimal intercept = sumY.subtract(slope.multiply(sumX))
+                .divide(count, 8, RoundingMode.HALF_UP);
+        return new BigDecimal[]{intercept, slope};
+    }
+
+    private static LocalDate toLocalDate(Object value) {
+        return value instanceof LocalDate date ? date : ((java.sql.Date) value).toLocalDate();
+    }
+}
@@ -25,12 +25,15 @@ public class SavingsGoalService {
     private final SavingsContributionRepository savingsContributionRepository;
     private final FamilyRepository familyRepository;
     private final FamilyMemberRepository familyMemberRepository;
+    private final FamilyMembershipCache familyMembershipCache;
+    private final FamilyAnalyticsService familyAnalyticsService;
     private final UserRepository userRepository;
     private final AccountRepository accountRepository;
     private final TransactionRepository transactionRepository;
     private final CategoryRepository categoryRepository;
     private final NotificationService notificationService;
     private final ExchangeRateService exchangeRateService;
+    private final SavingsGoalAnalyticsService savingsGoalAnalyticsService;
 
     @Transactional
     public SavingsGoalResponse createGoal(UUID userId, SavingsGoalRequest request) {
@@ -53,7 +56,7 @@ public class SavingsGoalService {
                     .orElseThrow(() -> new ApiException("Không tìm thấy gia đình", HttpStatus.NOT_FOUND));
 
             // Verify user is member
-            if (!familyMemberRepository.existsByFamilyIdAndUserId(family.getId(), userId)) {
+            if (!familyMembershipCache.isMember(family.getId(), userId)) {
                 throw new ApiException("Bạn không phải thành viên của gia đình", HttpStatus.FORBIDDEN);
             }
 
@@ -69,24 +72,15 @@ public class SavingsGoalService {
         return toSavingsGoalResponse(goal);
     }
 
+    @Transactional(readOnly = true)
     public List<SavingsGoalResponse> getMyGoals(UUID userId) {
-        // Get user's family IDs
-        List<UUID> familyIds = familyMemberRepository.findByUserId(userId).stream()
-                .map(m -> m.getFamily().getId())
-                .collect(Collectors.toList());
-
-        List<SavingsGoal> goals;
-        if (familyIds.isEmpty()) {
-            goals = savingsGoalRepository.findByUserId(userId);
-        } else {
-            goals = savingsGoalRepository.findAccessibleGoals(userId, familyIds);
-        }
-
-        return goals.stream()
-                .map(this::toSavingsGoalResponse)
+        // Personal and family goals with contributor counts in one query
+        return savingsGoalRepository.findAccessibleGoalsWithContributorCounts(userId).stream()
+                .map(row -> toSavingsGoalResponse((SavingsGoal) row[0], ((Number) row[1]).intValue()))
                 .collect(Collectors.toList());
     }
 
+    @Transactional(readOnly = true)
     public SavingsGoalResponse getGoal(UUID userId, UUID goalId) {
         SavingsGoal goal = savingsGoalRepository.findById(goalId)
                 .orElseThrow(() -> new ApiException("Không tìm thấy mục tiêu", HttpStatus.NOT_FOUND));
@@ -122,7 +116,7 @@ public class SavingsGoalService {
                     .orElseThrow(() -> new ApiException("Không tìm thấy gia đình", HttpStatus.NOT_FOUND));
 
             // Verify user is member of the new family
-            if (!familyMemberRepository.existsByFamilyIdAndUserId(family.getId(), userId)) {
+            if (!familyMembershipCache.isMember(family.getId(), userId)) {
                 throw new ApiException("Bạn không phải thành viên của gia đình", HttpStatus.FORBIDDEN);
             }
 
@@ -145,6 +139,7 @@ public class SavingsGoalService {
 
         validateGoalOwnership(goal, userId);
         savingsGoalRepository.delete(goal);
+        savingsGoalAnalyticsService.evictGoal(goalId);
     }
 
     @Transactional
@@ -180,10 +175,10 @@ public class SavingsGoalService {
                 .build();
 
         transaction = transactionRepository.save(transaction);
+        familyAnalyticsService.evictUser(userId);
 
-        // Update account balance
-        account.setCurrentBalance(account.getCurrentBalance().subtract(request.getAmount()));
-        accountRepository.save(account);
+        // Update account balance (atomic delta, not written through the entity)
+        accountRepository.adjustBalance(account.getId(), request.getAmount().negate());
 
         // Calculate amount in goal currency (convert if different currency)
         BigDecimal amountInGoalCurrency = request.getAmount();
@@ -205,6 +200,7 @@ public class SavingsGoalService {
                 .build();
 
         contribution = savingsContributionRepository.save(contribution);
+        savingsGoalAnalyticsService.contributionAdded(goalId, contribution.getContributionDate(), amountInGoalCurrency);
 
         boolean wasNotCompleted = goal.getStatus() != SavingsGoalStatus.COMPLETED;
         goal.setCurrentAmount(goal.getCurrentAmount().add(amountInGoalCurrency));
@@ -255,6 +251,7 @@ public class SavingsGoalService {
         return toSavingsContributionResponse(contribution);
     }
 
+    @Transactional(readOnly = true)
     public List<SavingsContributionResponse> getContributions(UUID userId, UUID goalId) {
         SavingsGoal goal = savingsGoalRepository.findById(goalId)
                 .orElseThrow(() -> new ApiException("Không tìm thấy mục tiêu", HttpStatus.NOT_FOUND));
@@ -266,6 +263,7 @@ public class SavingsGoalService {
                 .collect(Collectors.toList());
     }
 
+    @Transactional(readOnly = true)
     public List<ContributorSummary> getContributorsSummary(UUID userId, UUID goalId) {
         SavingsGoal goal = savingsGoalRepository.findById(goalId)
                 .orElseThrow(() -> new ApiException("Không tìm thấy mục tiêu", HttpStatus.NOT_FOUND));
@@ -310,6 +308,15 @@ public class SavingsGoalService {
         return summaries;
     }
 
+    @Transactional(readOnly = true)
+    public SavingsGoalProgressResponse getProgress(UUID userId, UUID goalId, SavingsGoalAnalyticsService.Period period) {
+        SavingsGoal goal = savingsGoalRepository.findById(goalId)
+                .orElseThrow(() -> new ApiException("Không tìm thấy mục tiêu", HttpStatus.NOT_FOUND));
+
+        validateGoalAccess(goal, userId);
+        return savingsGoalAnalyticsService.getProgress(goal, period);
+    }
+
     @Transactional
     public SavingsContributionResponse updateContribution(UUID userId, UUID goalId, UUID contributionId, SavingsContributionUpdateRequest request) {
         SavingsGoal goal = savingsGoalRepository.findById(goalId)
@@ -334,11 +341,14 @@ public class SavingsGoalService {
             contribution.setNote(request.getNote());
         }
         if (request.getContributionDate() != null) {
+            savingsGoalAnalyticsService.contributionMoved(goalId, contribution.getContributionDate(),
+                    request.getContributionDate(), contribution.getAmountInGoalCurrency());
             contribution.setContributionDate(request.getContributionDate());
             // Also update the linked transaction date
             if (contribution.getTransaction() != null) {
                 contribution.getTransaction().setTransactionDate(request.getContributionDate());
                 transactionRepository.save(contribution.getTransaction());
+                familyAnalyticsService.evictUser(contribution.getTransaction().getUser().getId());
             }
         }
 
@@ -366,13 +376,12 @@ public class SavingsGoalService {
         }
 
         // Refund the account
-        Account account = contribution.getAccount();
-        account.setCurrentBalance(account.getCurrentBalance().add(contribution.getAmount()));
-        accountRepository.save(account);
+        accountRepository.adjustBalance(contribution.getAccount().getId(), contribution.getAmount());
 
         // Delete the linked transaction
         if (contribution.getTransaction() != null) {
             transactionRepository.delete(contribution.getTransaction());
+            familyAnalyticsService.evictUser(userId);
         }
 
         // Update goal current amount using stored converted amount
@@ -384,6 +393,8 @@ public class SavingsGoalService {
 
         // Delete contribution
         savingsContributionRepository.delete(contribution);
+        savingsGoalAnalyticsService.contributionRemoved(goalId, contribution.getContributionDate(),
+                contribution.getAmountInGoalCurrency());
     }
 
     private void validateGoalAccess(SavingsGoal goal, UUID userId) {
@@ -392,7 +403,7 @@ public class SavingsGoalService {
         }
 
         if (goal.getFamily() != null) {
-            if (familyMemberRepository.existsByFamilyIdAndUserId(goal.getFamily().getId(), userId)) {
+            if (familyMembershipCache.isMember(goal.getFamily().getId(), userId)) {
                 return; // Family goal, user is member
             }
         }
@@ -406,10 +417,10 @@ public class SavingsGoalService {
         }
 
         if (goal.getFamily() != null) {
-            FamilyMember member = familyMemberRepository.findByFamilyIdAndUserId(goal.getFamily().getId(), userId)
+            FamilyRole role = familyMembershipCache.getRole(goal.getFamily().getId(), userId)
                     .orElseThrow(() -> new ApiException("Bạn không phải thành viên", HttpStatus.FORBIDDEN));
 
-            if (member.getRole() == FamilyRole.OWNER || member.getRole() == FamilyRole.ADMIN) {
+            if (role == FamilyRole.OWNER || role == FamilyRole.ADMIN) {
                 return; // Family goal, user is owner/admin
             }
         }
@@ -418,8 +429,10 @@ public class SavingsGoalService {
     }
 
     private SavingsGoalResponse toSavingsGoalResponse(SavingsGoal goal) {
-        int contributorsCount = (int) savingsContributionRepository.countDistinctUsersByGoalId(goal.getId());
+        return toSavingsGoalResponse(goal, (int) savingsContributionRepository.countDistinctUsersByGoalId(goal.getId()));
+    }
 
+    private SavingsGoalResponse toSavingsGoalResponse(SavingsGoal goal, int contributorsCount) {
         return SavingsGoalResponse.builder()
                 .id(goal.getId())
                 .name(goal.getName())
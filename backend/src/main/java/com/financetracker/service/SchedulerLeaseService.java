@@ -0,0 +1,195 @@
+package com.financetracker.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.lang.management.ManagementFactory;
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * Database-backed leases for scheduled jobs so a job (or a shard of it) runs on one
+ * instance at a time. Every acquisition bumps the lease's fencing token; long-running
+ * jobs call {@link #assertHeld(Lease)} between units of work and stop once another
+ * instance has taken over an expired lease. That check alone races with a takeover, so
+ * each unit of work also calls {@link #fence(Lease)} inside its own transaction: its writes
+ * then commit only while the token is current.
+ * Lease statements run in their own transactions so they never wait for the job's.
+ */
+@Service
+@Slf4j
+public class SchedulerLeaseService {
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate requiresNew;
+    private final String owner;
+
+    @Value("${scheduler-lease.default-max-hold-minutes:30}")
+    private long defaultMaxHoldMinutes;
+
+    @Value("${scheduler-lease.default-min-hold-seconds:60}")
+    private long defaultMinHoldSeconds;
+
+    public SchedulerLeaseService(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.requiresNew = new TransactionTemplate(transactionManager);
+        this.requiresNew.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.owner = ManagementFactory.getRuntimeMXBean().getName() + "/" + UUID.randomUUID();
+    }
+
+    public record Lease(String name, long fencingToken) {
+    }
+
+    /**
+     * Run the job if its lease is free, with the default hold times.
+     *
+     * @return true if this instance ran the job
+     */
+    public boolean runExclusive(String name, Consumer<Lease> job) {
+        return runExclusive(name, Duration.ofMinutes(defaultMaxHoldMinutes),
+                Duration.ofSeconds(defaultMinHoldSeconds), job);
+    }
+
+    /**
+     * Run the job if its lease is free.
+     *
+     * @param maxHold lease expiry if the holder dies or overruns; should exceed the job's run time
+     * @param minHold the lease stays taken at least this long, so instances whose trigger fires
+     *                slightly later (clock skew, different start times) skip the same run
+     * @return true if this instance ran the job
+     */
+    public boolean runExclusive(String name, Duration maxHold, Duration minHold, Consumer<Lease> job) {
+        Optional<Lease> acquired = tryAcquire(name, maxHold);
+        if (acquired.isEmpty()) {
+            log.debug("Skipping {}: lease held by another instance", name);
+            return false;
+        }
+        Lease lease = acquired.get();
+        try {
+            job.accept(lease);
+        } finally {
+            releaseAfterCompletion(lease, minHold);
+        }
+        return true;
+    }
+
+    /**
+     * Split a job into shards with one lease each. Every instance runs the shards it can claim,
+     * so adding instances spreads the shards instead of repeating them.
+     *
+     * @return number of shards run by this instance
+     */
+    public int runSharded(String name, int shards, Duration maxHold, Duration minHold,
+                          BiConsumer<Integer, Lease> job) {
+        int ran = 0;
+        for (int shard = 0; shard < shards; shard++) {
+            int current = shard;
+            if (runExclusive(name + "#" + shard, maxHold, minHold, lease -> job.accept(current, lease))) {
+                ran++;
+            }
+        }
+        return ran;
+    }
+
+    public Optional<Lease> tryAcquire(String name, Duration maxHold) {
+        List<Long> tokens = requiresNew.execute(status -> jdbcTemplate.queryForList("""
+                INSERT INTO scheduler_leases (name, owner, fencing_token, locked_until, acquired_at)
+                VALUES (?, ?, 1, now() + ? * interval '1 second', now())
+                ON CONFLICT (name) DO UPDATE
+                    SET owner = EXCLUDED.owner,
+                        fencing_token = scheduler_leases.fencing_token + 1,
+                        locked_until = EXCLUDED.locked_until,
+                        acquired_at = EXCLUDED.acquired_at
+                    WHERE scheduler_leases.locked_until <= now()
+                RETURNING fencing_token
+                """, Long.class, name, owner, maxHold.toSeconds()));
+        if (tokens == null || tokens.isEmpty()) {
+            return Optional.empty();
+        }
+        return Optional.of(new Lease(name, tokens.get(0)));
+    }
+
+    /**
+     * Whether the lease is still current: not expired and not taken over by another instance.
+     */
+    public boolean isHeld(Lease lease) {
+        Boolean held = requiresNew.execute(status -> jdbcTemplate.queryForObject("""
+                SELECT EXISTS (SELECT 1 FROM scheduler_leases
+                               WHERE name = ? AND fencing_token = ? AND locked_until > now())
+                """, Boolean.class, lease.name(), lease.fencingToken()));
+        return Boolean.TRUE.equals(held);
+    }
+
+    public void assertHeld(Lease lease) {
+        if (!isHeld(lease)) {
+            throw lost(lease);
+        }
+    }
+
+    /**
+     * Fence the current transaction's writes with the lease: fails unless the lease is still held,
+     * and share-locks its row so a takeover waits until this transaction ends. The lock is shared,
+     * so the parallel workers of one job do not wait for each other.
+     */
+    public void fence(Lease lease) {
+        if (!TransactionSynchronizationManager.isActualTransactionActive()) {
+            throw new IllegalStateException("Lease " + lease.name() + " can only fence a transaction");
+        }
+        List<Long> held = jdbcTemplate.queryForList("""
+                SELECT fencing_token FROM scheduler_leases
+                WHERE name = ? AND fencing_token = ? AND locked_until > now()
+                FOR SHARE
+                """, Long.class, lease.name(), lease.fencingToken());
+        if (held.isEmpty()) {
+            throw lost(lease);
+        }
+    }
+
+    /**
+     * Run a unit of work in a new transaction fenced by the lease.
+     */
+    public <T> T runFenced(Lease lease, Supplier<T> work) {
+        return requiresNew.execute(status -> {
+            fence(lease);
+            return work.get();
+        });
+    }
+
+    public void release(Lease lease, Duration minHold) {
+        requiresNew.executeWithoutResult(status -> jdbcTemplate.update("""
+                UPDATE scheduler_leases
+                SET locked_until = GREATEST(now(), acquired_at + ? * interval '1 second')
+                WHERE name = ? AND fencing_token = ?
+                """, minHold.toSeconds(), lease.name(), lease.fencingToken()));
+    }
+
+    private static IllegalStateException lost(Lease lease) {
+        return new IllegalStateException("Lease " + lease.name() + " (token " + lease.fencingToken() + ") was lost");
+    }
+
+    // A @Transactional job commits after runExclusive returns; keep the lease until then
+    private void releaseAfterCompletion(Lease lease, Duration minHold) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    release(lease, minHold);
+                }
+            });
+        } else {
+            release(lease, minHold);
+        }
+    }
+}
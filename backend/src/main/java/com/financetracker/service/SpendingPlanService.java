@@ -23,7 +23,8 @@ public class SpendingPlanService {
     private final SpendingPlanItemRepository itemRepository;
     private final SpendingPlanExpenseRepository expenseRepository;
     private final FamilyRepository familyRepository;
-    private final FamilyMemberRepository familyMemberRepository;
+    private final FamilyMembershipCache familyMembershipCache;
+    private final FamilyAnalyticsService familyAnalyticsService;
     private final UserRepository userRepository;
     private final AccountRepository accountRepository;
     private final CategoryRepository categoryRepository;
@@ -51,7 +52,7 @@ public class SpendingPlanService {
         if (request.getFamilyId() != null) {
             Family family = familyRepository.findById(request.getFamilyId())
                     .orElseThrow(() -> new ApiException("Không tìm thấy nhóm", HttpStatus.NOT_FOUND));
-            if (!familyMemberRepository.existsByFamilyIdAndUserId(family.getId(), userId)) {
+            if (!familyMembershipCache.isMember(family.getId(), userId)) {
                 throw new ApiException("Bạn không phải thành viên của nhóm", HttpStatus.FORBIDDEN);
             }
             plan.setFamily(family);
@@ -65,10 +66,9 @@ public class SpendingPlanService {
         return toSpendingPlanResponse(plan);
     }
 
+    @Transactional(readOnly = true)
     public List<SpendingPlanResponse> getMyPlans(UUID userId) {
-        List<UUID> familyIds = familyMemberRepository.findByUserId(userId).stream()
-                .map(m -> m.getFamily().getId())
-                .collect(Collectors.toList());
+        List<UUID> familyIds = familyMembershipCache.getFamilyIds(userId);
 
         List<SpendingPlan> plans;
         if (familyIds.isEmpty()) {
@@ -82,6 +82,7 @@ public class SpendingPlanService {
                 .collect(Collectors.toList());
     }
 
+    @Transactional(readOnly = true)
     public SpendingPlanDetailResponse getPlan(UUID userId, UUID planId) {
         SpendingPlan plan = spendingPlanRepository.findById(planId)
                 .orElseThrow(() -> new ApiException("Không tìm thấy kế hoạch", HttpStatus.NOT_FOUND));
@@ -126,20 +127,12 @@ public class SpendingPlanService {
                 .orElseThrow(() -> new ApiException("Không tìm thấy kế hoạch", HttpStatus.NOT_FOUND));
         validatePlanOwnership(plan, userId);
 
-        // Refund all expenses before deleting
-        for (SpendingPlanItem item : plan.getItems()) {
-            for (SpendingPlanExpense expense : item.getExpenses()) {
-                Account account = expense.getAccount();
-                account.setCurrentBalance(account.getCurrentBalance().add(expense.getAmount()));
-                accountRepository.save(account);
+        // Refund all expenses before deleting: one balance delta per account, one bulk transaction delete
+        expenseRepository.refundAccountsByPlanId(planId);
+        expenseRepository.deleteTransactionsByPlanId(planId);
+        familyAnalyticsService.evictUser(userId);
 
-                if (expense.getTransaction() != null) {
-                    transactionRepository.delete(expense.getTransaction());
-                }
-            }
-        }
-
-        spendingPlanRepository.delete(plan);
+        spendingPlanRepository.deletePlanById(planId);
     }
 
     // === ITEM CRUD ===
@@ -177,12 +170,10 @@ public class SpendingPlanService {
 
         item = itemRepository.save(item);
 
-        // Recalculate plan totals
-        plan.getItems().add(item);
-        plan.recalculateTotals();
-        spendingPlanRepository.save(plan);
+        // Adjust plan totals by the new row only
+        addToPlanTotals(plan, item.getEstimatedAmount(), BigDecimal.ZERO);
 
-        return toSpendingPlanItemResponse(item);
+        return toSpendingPlanItemResponse(item, 0);
     }
 
     @Transactional
@@ -198,6 +189,7 @@ public class SpendingPlanService {
             throw new ApiException("Hạng mục không thuộc kế hoạch này", HttpStatus.BAD_REQUEST);
         }
 
+        BigDecimal estimatedDelta = request.getEstimatedAmount().subtract(item.getEstimatedAmount());
         item.setName(request.getName());
         item.setEstimatedAmount(request.getEstimatedAmount());
         item.setIcon(request.getIcon());
@@ -225,11 +217,10 @@ public class SpendingPlanService {
 
         item = itemRepository.save(item);
 
-        // Recalculate plan totals
-        plan.recalculateTotals();
-        spendingPlanRepository.save(plan);
+        // Adjust plan totals by the estimate change of this row only
+        addToPlanTotals(plan, estimatedDelta, BigDecimal.ZERO);
 
-        return toSpendingPlanItemResponse(item);
+        return toSpendingPlanItemResponse(item, expenseRepository.countByItemId(itemId));
     }
 
     @Transactional
@@ -245,24 +236,21 @@ public class SpendingPlanService {
             throw new ApiException("Hạng mục không thuộc kế hoạch này", HttpStatus.BAD_REQUEST);
         }
 
-        // Refund all expenses for this item
-        for (SpendingPlanExpense expense : item.getExpenses()) {
-            Account account = expense.getAccount();
-            account.setCurrentBalance(account.getCurrentBalance().add(expense.getAmount()));
-            accountRepository.save(account);
-
-            if (expense.getTransaction() != null) {
-                transactionRepository.delete(expense.getTransaction());
-            }
+        // Refund all expenses for this item: one balance delta per account, one bulk transaction delete
+        expenseRepository.refundAccountsByItemId(itemId);
+        expenseRepository.deleteTransactionsByItemId(itemId);
+        familyAnalyticsService.evictUser(userId);
+
+        // Subtract the amounts stored at delete time; item.getActualAmount() misses concurrent expense deltas
+        List<Object[]> deleted = itemRepository.deleteItemByIdReturningAmounts(itemId);
+        if (!deleted.isEmpty()) {
+            BigDecimal estimated = (BigDecimal) deleted.get(0)[0];
+            BigDecimal actual = (BigDecimal) deleted.get(0)[1];
+            addToPlanTotals(plan, estimated.negate(), actual.negate());
         }
-
-        plan.getItems().remove(item);
-        itemRepository.delete(item);
-
-        plan.recalculateTotals();
-        spendingPlanRepository.save(plan);
     }
 
+    @Transactional(readOnly = true)
     public List<SpendingPlanItemResponse> getItems(UUID userId, UUID planId) {
         SpendingPlan plan = spendingPlanRepository.findById(planId)
                 .orElseThrow(() -> new ApiException("Không tìm thấy kế hoạch", HttpStatus.NOT_FOUND));
@@ -321,10 +309,10 @@ public class SpendingPlanService {
         }
 
         transaction = transactionRepository.save(transaction);
+        familyAnalyticsService.evictUser(userId);
 
-        // Update account balance
-        account.setCurrentBalance(account.getCurrentBalance().subtract(request.getAmount()));
-        accountRepository.save(account);
+        // Update account balance (atomic delta, not written through the entity)
+        accountRepository.adjustBalance(account.getId(), request.getAmount().negate());
 
         // Calculate amount in plan currency
         BigDecimal amountInPlanCurrency = request.getAmount();
@@ -347,18 +335,15 @@ public class SpendingPlanService {
 
         expense = expenseRepository.save(expense);
 
-        // Update item actual amount
-        item.setActualAmount(item.getActualAmount().add(amountInPlanCurrency));
-        itemRepository.save(item);
-
-        // Recalculate plan totals
-        plan.recalculateTotals();
+        // Update item actual amount and plan totals by the expense only
+        addToItemActual(item, amountInPlanCurrency);
+        addToPlanTotals(plan, BigDecimal.ZERO, amountInPlanCurrency);
 
         // Auto-activate plan if in PLANNING status
         if (plan.getStatus() == SpendingPlanStatus.PLANNING) {
             plan.setStatus(SpendingPlanStatus.ACTIVE);
+            spendingPlanRepository.save(plan);
         }
-        spendingPlanRepository.save(plan);
 
         return toSpendingPlanExpenseResponse(expense, plan.getCurrency());
     }
@@ -385,26 +370,22 @@ public class SpendingPlanService {
         }
 
         // Refund the account
-        Account account = expense.getAccount();
-        account.setCurrentBalance(account.getCurrentBalance().add(expense.getAmount()));
-        accountRepository.save(account);
+        accountRepository.adjustBalance(expense.getAccount().getId(), expense.getAmount());
 
         // Delete the linked transaction
         if (expense.getTransaction() != null) {
             transactionRepository.delete(expense.getTransaction());
+            familyAnalyticsService.evictUser(userId);
         }
 
-        // Update item actual amount
-        item.setActualAmount(item.getActualAmount().subtract(expense.getAmountInPlanCurrency()));
-        itemRepository.save(item);
-
         expenseRepository.delete(expense);
 
-        // Recalculate plan totals
-        plan.recalculateTotals();
-        spendingPlanRepository.save(plan);
+        // Update item actual amount and plan totals by the expense only
+        addToItemActual(item, expense.getAmountInPlanCurrency().negate());
+        addToPlanTotals(plan, BigDecimal.ZERO, expense.getAmountInPlanCurrency().negate());
     }
 
+    @Transactional(readOnly = true)
     public List<SpendingPlanExpenseResponse> getExpenses(UUID userId, UUID planId, UUID itemId) {
         SpendingPlan plan = spendingPlanRepository.findById(planId)
                 .orElseThrow(() -> new ApiException("Không tìm thấy kế hoạch", HttpStatus.NOT_FOUND));
@@ -415,6 +396,7 @@ public class SpendingPlanService {
                 .collect(Collectors.toList());
     }
 
+    @Transactional(readOnly = true)
     public List<SpendingPlanExpenseResponse> getAllExpenses(UUID userId, UUID planId) {
         SpendingPlan plan = spendingPlanRepository.findById(planId)
                 .orElseThrow(() -> new ApiException("Không tìm thấy kế hoạch", HttpStatus.NOT_FOUND));
@@ -425,6 +407,23 @@ public class SpendingPlanService {
                 .collect(Collectors.toList());
     }
 
+    // === RUNNING TOTALS ===
+
+    // Totals are not written through the entities; keep the loaded instances in step for the response
+    private void addToPlanTotals(SpendingPlan plan, BigDecimal estimatedDelta, BigDecimal actualDelta) {
+        if (estimatedDelta.signum() == 0 && actualDelta.signum() == 0) {
+            return;
+        }
+        spendingPlanRepository.addToTotals(plan.getId(), estimatedDelta, actualDelta);
+        plan.setTotalEstimated(plan.getTotalEstimated().add(estimatedDelta));
+        plan.setTotalActual(plan.getTotalActual().add(actualDelta));
+    }
+
+    private void addToItemActual(SpendingPlanItem item, BigDecimal delta) {
+        itemRepository.addToActualAmount(item.getId(), delta);
+        item.setActualAmount(item.getActualAmount().add(delta));
+    }
+
     // === VALIDATION HELPERS ===
 
     private void validatePlanAccess(SpendingPlan plan, UUID userId) {
@@ -432,7 +431,7 @@ public class SpendingPlanService {
             return;
         }
         if (plan.getFamily() != null) {
-            if (familyMemberRepository.existsByFamilyIdAndUserId(plan.getFamily().getId(), userId)) {
+            if (familyMembershipCache.isMember(plan.getFamily().getId(), userId)) {
                 return;
             }
         }
@@ -444,9 +443,9 @@ public class SpendingPlanService {
             return;
         }
         if (plan.getFamily() != null) {
-            FamilyMember member = familyMemberRepository.findByFamilyIdAndUserId(plan.getFamily().getId(), userId)
+            FamilyRole role = familyMembershipCache.getRole(plan.getFamily().getId(), userId)
                     .orElseThrow(() -> new ApiException("Bạn không phải thành viên", HttpStatus.FORBIDDEN));
-            if (member.getRole() == FamilyRole.OWNER || member.getRole() == FamilyRole.ADMIN) {
+            if (role == FamilyRole.OWNER || role == FamilyRole.ADMIN) {
                 return;
             }
         }
@@ -508,6 +507,10 @@ public class SpendingPlanService {
     }
 
     private SpendingPlanItemResponse toSpendingPlanItemResponse(SpendingPlanItem item) {
+        return toSpendingPlanItemResponse(item, item.getExpenses().size());
+    }
+
+    private SpendingPlanItemResponse toSpendingPlanItemResponse(SpendingPlanItem item, long expensesCount) {
         return SpendingPlanItemResponse.builder()
                 .id(item.getId())
                 .planId(item.getPlan().getId())
@@ -526,7 +529,7 @@ public class SpendingPlanService {
                 .plannedAccountId(item.getPlannedAccount() != null ? item.getPlannedAccount().getId() : null)
                 .plannedAccountName(item.getPlannedAccount() != null ? item.getPlannedAccount().getName() : null)
                 .sortOrder(item.getSortOrder())
-                .expensesCount(item.getExpenses().size())
+                .expensesCount((int) expensesCount)
                 .createdAt(item.getCreatedAt())
                 .build();
     }
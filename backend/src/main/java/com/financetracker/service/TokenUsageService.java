@@ -14,8 +14,7 @@ import org.springframework.transaction.annotation.Transactional;
 import java.time.LocalDate;
 import java.time.OffsetDateTime;
 import java.time.ZoneOffset;
-import java.util.List;
-import java.util.UUID;
+import java.util.*;
 import java.util.stream.Collectors;
 
 @Service
@@ -32,6 +31,11 @@ public class TokenUsageService {
     @Value("${ai.limits.requests-per-minute:30}")
     private Long requestsPerMinuteLimit;
 
+    private final Object snapshotLock = new Object();
+
+    // Guarded by snapshotLock
+    private AdminStatsSnapshot adminStatsSnapshot;
+
     @Transactional
     public TokenUsage trackUsage(User user, Integer inputTokens, Integer outputTokens,
                                   String model, String feature, String sessionId) {
@@ -46,11 +50,14 @@ public class TokenUsageService {
                 .build();
 
         TokenUsage saved = tokenUsageRepository.save(usage);
+        // Applied before commit; a rollback is corrected by the next snapshot refresh
+        applyToSnapshot(saved);
         log.info("Tracked token usage for user {}: {} tokens (model: {})",
                 user.getEmail(), saved.getTotalTokens(), model);
         return saved;
     }
 
+    @Transactional(readOnly = true)
     public Long getUserTotalTokens(UUID userId) {
         Long total = tokenUsageRepository.sumTotalTokensByUserId(userId);
         return total != null ? total : 0L;
@@ -69,41 +76,102 @@ public class TokenUsageService {
     }
 
     public Long getRequestsToday() {
-        OffsetDateTime startOfDay = LocalDate.now().atStartOfDay().atOffset(ZoneOffset.UTC);
+        OffsetDateTime startOfDay = LocalDate.now(ZoneOffset.UTC).atStartOfDay().atOffset(ZoneOffset.UTC);
         return tokenUsageRepository.countByCreatedAtAfter(startOfDay);
     }
 
     public Long getTokensToday() {
-        OffsetDateTime startOfDay = LocalDate.now().atStartOfDay().atOffset(ZoneOffset.UTC);
+        OffsetDateTime startOfDay = LocalDate.now(ZoneOffset.UTC).atStartOfDay().atOffset(ZoneOffset.UTC);
         Long tokens = tokenUsageRepository.sumAllTotalTokensSince(startOfDay);
         return tokens != null ? tokens : 0L;
     }
 
+    /**
+     * Admin statistics served from the in-memory snapshot.
+     * The snapshot is built on first use and rebuilt by AdminStatsScheduler; the first build
+     * is a self-invocation, so this method opens the read-only transaction.
+     */
+    @Transactional(readOnly = true)
     public TokenUsageStatsResponse getAdminStats() {
+        boolean missing;
+        synchronized (snapshotLock) {
+            missing = adminStatsSnapshot == null;
+        }
+        if (missing) {
+            refreshAdminStatsSnapshot();
+        }
+
+        synchronized (snapshotLock) {
+            AdminStatsSnapshot snapshot = adminStatsSnapshot;
+            snapshot.rollOverDay(LocalDate.now(ZoneOffset.UTC));
+
+            return TokenUsageStatsResponse.builder()
+                    .totalTokens(snapshot.totalTokens)
+                    .totalInputTokens(snapshot.totalInputTokens)
+                    .totalOutputTokens(snapshot.totalOutputTokens)
+                    .tokensLast7Days(snapshot.tokensLast7Days)
+                    .tokensLast30Days(snapshot.tokensLast30Days)
+                    .totalRequests(snapshot.totalRequests)
+                    .requestsLast7Days(snapshot.requestsLast7Days)
+                    .requestsLast30Days(snapshot.requestsLast30Days)
+                    .uniqueUsers(snapshot.uniqueUsers)
+                    .uniqueUsersLast7Days(snapshot.uniqueUsersLast7Days)
+                    .uniqueUsersLast30Days(snapshot.uniqueUsersLast30Days)
+                    .topUsers(List.copyOf(snapshot.topUsers))
+                    .dailyUsage(snapshot.dailyUsage.entrySet().stream()
+                            .map(e -> TokenUsageStatsResponse.DailyUsage.builder()
+                                    .date(e.getKey())
+                                    .tokens(e.getValue())
+                                    .build())
+                            .collect(Collectors.toList()))
+                    .modelUsage(snapshot.modelUsage.entrySet().stream()
+                            .map(e -> TokenUsageStatsResponse.ModelUsage.builder()
+                                    .model(e.getKey())
+                                    .tokens(e.getValue()[0])
+                                    .requests(e.getValue()[1])
+                                    .build())
+                            .collect(Collectors.toList()))
+                    // Groq Free Tier: 14,400 requests/day
+                    .dailyRequestLimit(requestsPerDayLimit)
+                    .requestsToday(snapshot.requestsToday)
+                    .remainingRequestsToday(Math.max(0, requestsPerDayLimit - snapshot.requestsToday))
+                    .tokensToday(snapshot.tokensToday)
+                    .build();
+        }
+    }
+
+    /**
+     * Recompute the admin statistics snapshot from token_usages.
+     * Reconciles drift from incremental updates and ages rows out of the 7/30 day windows.
+     */
+    @Transactional(readOnly = true)
+    public void refreshAdminStatsSnapshot() {
         OffsetDateTime now = OffsetDateTime.now();
         OffsetDateTime sevenDaysAgo = now.minusDays(7);
         OffsetDateTime thirtyDaysAgo = now.minusDays(30);
 
+        AdminStatsSnapshot snapshot = new AdminStatsSnapshot();
+
         // Total tokens
-        Long totalTokens = tokenUsageRepository.sumAllTotalTokens();
-        Long totalInputTokens = tokenUsageRepository.sumAllInputTokens();
-        Long totalOutputTokens = tokenUsageRepository.sumAllOutputTokens();
-        Long tokensLast7Days = tokenUsageRepository.sumAllTotalTokensSince(sevenDaysAgo);
-        Long tokensLast30Days = tokenUsageRepository.sumAllTotalTokensSince(thirtyDaysAgo);
+        snapshot.totalTokens = orZero(tokenUsageRepository.sumAllTotalTokens());
+        snapshot.totalInputTokens = orZero(tokenUsageRepository.sumAllInputTokens());
+        snapshot.totalOutputTokens = orZero(tokenUsageRepository.sumAllOutputTokens());
+        snapshot.tokensLast7Days = orZero(tokenUsageRepository.sumAllTotalTokensSince(sevenDaysAgo));
+        snapshot.tokensLast30Days = orZero(tokenUsageRepository.sumAllTotalTokensSince(thirtyDaysAgo));
 
         // Request counts
-        Long totalRequests = tokenUsageRepository.count();
-        Long requestsLast7Days = tokenUsageRepository.countByCreatedAtAfter(sevenDaysAgo);
-        Long requestsLast30Days = tokenUsageRepository.countByCreatedAtAfter(thirtyDaysAgo);
+        snapshot.totalRequests = tokenUsageRepository.count();
+        snapshot.requestsLast7Days = tokenUsageRepository.countByCreatedAtAfter(sevenDaysAgo);
+        snapshot.requestsLast30Days = tokenUsageRepository.countByCreatedAtAfter(thirtyDaysAgo);
 
         // Unique users
-        Long uniqueUsers = tokenUsageRepository.countDistinctUsers();
-        Long uniqueUsersLast7Days = tokenUsageRepository.countDistinctUsersSince(sevenDaysAgo);
-        Long uniqueUsersLast30Days = tokenUsageRepository.countDistinctUsersSince(thirtyDaysAgo);
+        snapshot.uniqueUsers = orZero(tokenUsageRepository.countDistinctUsers());
+        snapshot.uniqueUsersLast7Days = orZero(tokenUsageRepository.countDistinctUsersSince(sevenDaysAgo));
+        snapshot.uniqueUsersLast30Days = orZero(tokenUsageRepository.countDistinctUsersSince(thirtyDaysAgo));
 
         // Top users
         List<Object[]> topUsersRaw = tokenUsageRepository.findTopUsersByTokenUsage(PageRequest.of(0, 10));
-        List<TokenUsageStatsResponse.TopUserUsage> topUsers = topUsersRaw.stream()
+        snapshot.topUsers = topUsersRaw.stream()
                 .map(row -> TokenUsageStatsResponse.TopUserUsage.builder()
                         .id(row[0].toString())
                         .email((String) row[1])
@@ -112,49 +180,89 @@ public class TokenUsageService {
                         .build())
                 .collect(Collectors.toList());
 
-        // Daily usage (last 30 days)
-        List<Object[]> dailyUsageRaw = tokenUsageRepository.findDailyUsageSince(thirtyDaysAgo);
-        List<TokenUsageStatsResponse.DailyUsage> dailyUsage = dailyUsageRaw.stream()
-                .map(row -> TokenUsageStatsResponse.DailyUsage.builder()
-                        .date(row[0].toString())
-                        .tokens(((Number) row[1]).longValue())
-                        .build())
-                .collect(Collectors.toList());
+        // Daily usage (last 30 days), keyed by UTC date like requestsToday
+        for (Object[] row : tokenUsageRepository.findDailyUsageSince(thirtyDaysAgo)) {
+            snapshot.dailyUsage.put(row[0].toString(), ((Number) row[1]).longValue());
+        }
 
         // Model usage
-        List<Object[]> modelUsageRaw = tokenUsageRepository.findUsageByModel();
-        List<TokenUsageStatsResponse.ModelUsage> modelUsage = modelUsageRaw.stream()
-                .map(row -> TokenUsageStatsResponse.ModelUsage.builder()
-                        .model((String) row[0])
-                        .tokens(row[1] != null ? ((Number) row[1]).longValue() : 0L)
-                        .requests(row[2] != null ? ((Number) row[2]).longValue() : 0L)
-                        .build())
-                .collect(Collectors.toList());
+        for (Object[] row : tokenUsageRepository.findUsageByModel()) {
+            snapshot.modelUsage.put((String) row[0], new long[]{
+                    row[1] != null ? ((Number) row[1]).longValue() : 0L,
+                    row[2] != null ? ((Number) row[2]).longValue() : 0L});
+        }
 
         // Current usage
-        Long requestsToday = getRequestsToday();
-        Long tokensToday = getTokensToday();
-
-        return TokenUsageStatsResponse.builder()
-                .totalTokens(totalTokens != null ? totalTokens : 0L)
-                .totalInputTokens(totalInputTokens != null ? totalInputTokens : 0L)
-                .totalOutputTokens(totalOutputTokens != null ? totalOutputTokens : 0L)
-                .tokensLast7Days(tokensLast7Days != null ? tokensLast7Days : 0L)
-                .tokensLast30Days(tokensLast30Days != null ? tokensLast30Days : 0L)
-                .totalRequests(totalRequests)
-                .requestsLast7Days(requestsLast7Days)
-                .requestsLast30Days(requestsLast30Days)
-                .uniqueUsers(uniqueUsers != null ? uniqueUsers : 0L)
-                .uniqueUsersLast7Days(uniqueUsersLast7Days != null ? uniqueUsersLast7Days : 0L)
-                .uniqueUsersLast30Days(uniqueUsersLast30Days != null ? uniqueUsersLast30Days : 0L)
-                .topUsers(topUsers)
-                .dailyUsage(dailyUsage)
-                .modelUsage(modelUsage)
-                // Groq Free Tier: 14,400 requests/day
-                .dailyRequestLimit(requestsPerDayLimit)
-                .requestsToday(requestsToday)
-                .remainingRequestsToday(Math.max(0, requestsPerDayLimit - requestsToday))
-                .tokensToday(tokensToday)
-                .build();
+        snapshot.day = LocalDate.now(ZoneOffset.UTC);
+        snapshot.requestsToday = getRequestsToday();
+        snapshot.tokensToday = getTokensToday();
+
+        synchronized (snapshotLock) {
+            adminStatsSnapshot = snapshot;
+        }
+        log.debug("Refreshed token usage admin stats snapshot ({} requests)", snapshot.totalRequests);
+    }
+
+    private void applyToSnapshot(TokenUsage usage) {
+        synchronized (snapshotLock) {
+            AdminStatsSnapshot snapshot = adminStatsSnapshot;
+            if (snapshot == null) {
+                return;
+            }
+            long tokens = usage.getTotalTokens();
+            snapshot.rollOverDay(LocalDate.now(ZoneOffset.UTC));
+
+            snapshot.totalTokens += tokens;
+            snapshot.totalInputTokens += usage.getInputTokens();
+            snapshot.totalOutputTokens += usage.getOutputTokens();
+            snapshot.tokensLast7Days += tokens;
+            snapshot.tokensLast30Days += tokens;
+            snapshot.totalRequests++;
+            snapshot.requestsLast7Days++;
+            snapshot.requestsLast30Days++;
+            snapshot.requestsToday++;
+            snapshot.tokensToday += tokens;
+            snapshot.dailyUsage.merge(snapshot.day.toString(), tokens, Long::sum);
+
+            long[] model = snapshot.modelUsage.computeIfAbsent(usage.getModel(), k -> new long[2]);
+            model[0] += tokens;
+            model[1]++;
+        }
+    }
+
+    private static long orZero(Long value) {
+        return value != null ? value : 0L;
+    }
+
+    /**
+     * Mutable aggregate state; only accessed while holding snapshotLock.
+     * Unique user counts and top users are only recomputed on refresh.
+     */
+    private static final class AdminStatsSnapshot {
+        long totalTokens;
+        long totalInputTokens;
+        long totalOutputTokens;
+        long tokensLast7Days;
+        long tokensLast30Days;
+        long totalRequests;
+        long requestsLast7Days;
+        long requestsLast30Days;
+        long uniqueUsers;
+        long uniqueUsersLast7Days;
+        long uniqueUsersLast30Days;
+        List<TokenUsageStatsResponse.TopUserUsage> topUsers = List.of();
+        final Map<String, Long> dailyUsage = new TreeMap<>();
+        final Map<String, long[]> modelUsage = new LinkedHashMap<>();
+        LocalDate day;
+        long requestsToday;
+        long tokensToday;
+
+        void rollOverDay(LocalDate today) {
+            if (!today.equals(day)) {
+                day = today;
+                requestsToday = 0;
+                tokensToday = 0;
+            }
+        }
     }
 }
@@ -23,19 +23,21 @@ public class TransactionService {
 
     private final TransactionRepository transactionRepository;
     private final AccountRepository accountRepository;
-    private final CategoryRepository categoryRepository;
+    private final CategoryCache categoryCache;
     private final UserRepository userRepository;
     private final BudgetService budgetService;
-    private final RecurringTransactionRepository recurringTransactionRepository;
     private final FamilyRepository familyRepository;
-    private final FamilyMemberRepository familyMemberRepository;
+    private final FamilyMembershipCache familyMembershipCache;
+    private final FamilyAnalyticsService familyAnalyticsService;
     private final SavingsContributionRepository savingsContributionRepository;
 
+    @Transactional(readOnly = true)
     public Page<TransactionResponse> getTransactions(UUID userId, Pageable pageable) {
         return transactionRepository.findByUserId(userId, pageable)
                 .map(this::toResponse);
     }
 
+    @Transactional(readOnly = true)
     public Page<TransactionResponse> getTransactionsWithFilters(UUID userId, UUID accountId,
             String type, LocalDate startDate, LocalDate endDate, Pageable pageable) {
         var spec = TransactionSpecification.withFilters(userId, accountId, type, startDate, endDate);
@@ -43,6 +45,7 @@ public class TransactionService {
                 .map(this::toResponse);
     }
 
+    @Transactional(readOnly = true)
     public List<TransactionResponse> getTransactionsByDateRange(UUID userId, LocalDate startDate, LocalDate endDate) {
         return transactionRepository.findByUserIdAndDateRange(userId, startDate, endDate)
                 .stream()
@@ -50,6 +53,7 @@ public class TransactionService {
                 .collect(Collectors.toList());
     }
 
+    @Transactional(readOnly = true)
     public TransactionResponse getTransaction(UUID userId, UUID transactionId) {
         Transaction transaction = transactionRepository.findByIdAndUserId(transactionId, userId)
                 .orElseThrow(() -> ApiException.notFound("Transaction"));
@@ -66,8 +70,7 @@ public class TransactionService {
 
         Category category = null;
         if (request.getCategoryId() != null) {
-            category = categoryRepository.findByIdAndUserIdOrSystem(request.getCategoryId(), userId)
-                    .orElseThrow(() -> ApiException.notFound("Category"));
+            category = categoryCache.getAccessibleReference(request.getCategoryId(), userId);
         }
 
         Account toAccount = null;
@@ -86,7 +89,7 @@ public class TransactionService {
                     .orElseThrow(() -> ApiException.notFound("Family"));
 
             // Verify user is member
-            if (!familyMemberRepository.existsByFamilyIdAndUserId(family.getId(), userId)) {
+            if (!familyMembershipCache.isMember(family.getId(), userId)) {
                 throw ApiException.forbidden("Bạn không phải thành viên của nhóm");
             }
         }
@@ -118,6 +121,7 @@ public class TransactionService {
         if (category != null && request.getType() == TransactionType.EXPENSE) {
             budgetService.updateBudgetSpentAmount(userId, category.getId(), request.getTransactionDate());
         }
+        familyAnalyticsService.evictUser(userId);
 
         return toResponse(transaction);
     }
@@ -146,8 +150,7 @@ public class TransactionService {
 
         Category category = null;
         if (request.getCategoryId() != null) {
-            category = categoryRepository.findByIdAndUserIdOrSystem(request.getCategoryId(), userId)
-                    .orElseThrow(() -> ApiException.notFound("Category"));
+            category = categoryCache.getAccessibleReference(request.getCategoryId(), userId);
         }
 
         Account toAccount = null;
@@ -175,6 +178,7 @@ public class TransactionService {
                     : request.getAmount();
             updateAccountBalance(toAccount, TransactionType.INCOME, transferAmount, true);
         }
+        familyAnalyticsService.evictUser(userId);
 
         return toResponse(transaction);
     }
@@ -198,82 +202,57 @@ public class TransactionService {
         }
 
         transactionRepository.delete(transaction);
+        familyAnalyticsService.evictUser(userId);
     }
 
+    /**
+     * Post one occurrence of a recurring rule. The rule and its associations are already loaded
+     * (and row-locked) by the recurring executor; budgets are refreshed by the caller once per rule.
+     */
     @Transactional
-    public TransactionResponse createTransactionFromRecurring(UUID userId, TransactionRequest request, UUID recurringTransactionId) {
-        User user = userRepository.findById(userId)
-                .orElseThrow(() -> ApiException.notFound("User"));
-
-        Account account = accountRepository.findByIdAndUserId(request.getAccountId(), userId)
-                .orElseThrow(() -> ApiException.notFound("Account"));
-
-        Category category = null;
-        if (request.getCategoryId() != null) {
-            category = categoryRepository.findByIdAndUserIdOrSystem(request.getCategoryId(), userId)
-                    .orElseThrow(() -> ApiException.notFound("Category"));
-        }
-
-        Account toAccount = null;
-        if (request.getType() == TransactionType.TRANSFER && request.getToAccountId() != null) {
-            toAccount = accountRepository.findByIdAndUserId(request.getToAccountId(), userId)
-                    .orElseThrow(() -> ApiException.notFound("To account"));
-        }
-
-        RecurringTransaction recurring = recurringTransactionRepository.findById(recurringTransactionId)
-                .orElse(null);
+    public Transaction postRecurringOccurrence(RecurringTransaction recurring, LocalDate occurrenceDate) {
+        Account account = recurring.getAccount();
+        Account toAccount = recurring.getType() == TransactionType.TRANSFER ? recurring.getToAccount() : null;
 
         Transaction transaction = Transaction.builder()
-                .user(user)
+                .user(recurring.getUser())
                 .account(account)
-                .category(category)
-                .type(request.getType())
-                .amount(request.getAmount())
-                .currency(request.getCurrency() != null ? request.getCurrency() : account.getCurrency())
-                .description(request.getDescription())
-                .transactionDate(request.getTransactionDate())
+                .category(recurring.getCategory())
+                .type(recurring.getType())
+                .amount(recurring.getAmount())
+                .currency(recurring.getCurrency() != null ? recurring.getCurrency() : account.getCurrency())
+                .description(recurring.getDescription())
+                .transactionDate(occurrenceDate)
                 .toAccount(toAccount)
-                .exchangeRate(request.getExchangeRate())
+                .exchangeRate(recurring.getExchangeRate())
                 .recurringTransaction(recurring)
+                .recurringOccurrenceDate(occurrenceDate)
                 .build();
 
         transaction = transactionRepository.save(transaction);
 
-        updateAccountBalance(account, request.getType(), request.getAmount(), true);
+        updateAccountBalance(account, recurring.getType(), recurring.getAmount(), true);
         if (toAccount != null) {
-            BigDecimal transferAmount = request.getExchangeRate() != null
-                    ? request.getAmount().multiply(request.getExchangeRate())
-                    : request.getAmount();
+            BigDecimal transferAmount = recurring.getExchangeRate() != null
+                    ? recurring.getAmount().multiply(recurring.getExchangeRate())
+                    : recurring.getAmount();
             updateAccountBalance(toAccount, TransactionType.INCOME, transferAmount, true);
         }
+        familyAnalyticsService.evictUser(recurring.getUser().getId());
 
-        if (category != null && request.getType() == TransactionType.EXPENSE) {
-            budgetService.updateBudgetSpentAmount(userId, category.getId(), request.getTransactionDate());
-        }
-
-        return toResponse(transaction);
+        return transaction;
     }
 
+    /**
+     * Apply the balance change as an atomic delta in SQL. The loaded Account is left untouched,
+     * so a later flush cannot write its stale balance back over concurrent postings.
+     */
     private void updateAccountBalance(Account account, TransactionType type, BigDecimal amount, boolean isAdd) {
-        BigDecimal currentBalance = account.getCurrentBalance();
-        BigDecimal change = amount;
-
-        if (!isAdd) {
+        BigDecimal change = isAdd ? amount : amount.negate();
+        if (type == TransactionType.EXPENSE || type == TransactionType.TRANSFER) {
             change = change.negate();
         }
-
-        switch (type) {
-            case INCOME:
-                currentBalance = currentBalance.add(change);
-                break;
-            case EXPENSE:
-            case TRANSFER:
-                currentBalance = currentBalance.subtract(change);
-                break;
-        }
-
-        account.setCurrentBalance(currentBalance);
-        accountRepository.save(account);
+        accountRepository.adjustBalance(account.getId(), change);
     }
 
     private TransactionResponse toResponse(Transaction transaction) {
@@ -303,8 +282,9 @@ public class TransactionService {
     }
 
     // Get family transactions
+    @Transactional(readOnly = true)
     public Page<TransactionResponse> getFamilyTransactions(UUID userId, UUID familyId, Pageable pageable) {
-        if (!familyMemberRepository.existsByFamilyIdAndUserId(familyId, userId)) {
+        if (!familyMembershipCache.isMember(familyId, userId)) {
             throw ApiException.forbidden("Bạn không phải thành viên của nhóm");
         }
 
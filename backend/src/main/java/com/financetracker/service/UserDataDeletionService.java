@@ -0,0 +1,258 @@
+package com.financetracker.service;
+
+import com.financetracker.entity.Family;
+import com.financetracker.entity.FamilyMember;
+import com.financetracker.entity.FamilyRole;
+import com.financetracker.entity.User;
+import com.financetracker.exception.ApiException;
+import com.financetracker.repository.*;
+import com.financetracker.service.SchedulerLeaseService.Lease;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Permanently deletes a user's data with set-based DELETE statements.
+ * High-volume tables are emptied first in chunks that commit one by one, so a heavy user
+ * never holds one long transaction; the rest runs in foreign-key dependency order in a
+ * final transaction that also clears the user's deletion schedule. Until that commits the
+ * user stays scheduled, so a run that fails or loses its lease part-way is resumed by the
+ * next run, which starts from whatever rows are left.
+ */
+@Service
+@Slf4j
+public class UserDataDeletionService {
+
+    // Subquery for the user's own accounts, reused by statements that reference accounts
+    private static final String USER_ACCOUNTS = "SELECT id FROM accounts WHERE user_id = ?";
+
+    // Emptied chunk by chunk before the final transaction, in this order
+    private static final List<String> CHUNKED_TABLES =
+            List.of("notifications", "chat_messages", "token_usages", "transactions");
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final SchedulerLeaseService schedulerLeaseService;
+    private final UserRepository userRepository;
+    private final FamilyMemberRepository familyMemberRepository;
+    private final FamilyMembershipCache familyMembershipCache;
+    private final FamilyAnalyticsService familyAnalyticsService;
+    private final FamilyRepository familyRepository;
+    private final SavingsGoalRepository savingsGoalRepository;
+    private final InvitationRepository invitationRepository;
+    private final CategoryCache categoryCache;
+    private final NotificationPushService notificationPushService;
+    private final CashflowForecastService cashflowForecastService;
+
+    @Value("${account-deletion.chunk-size:5000}")
+    private int chunkSize;
+
+    public UserDataDeletionService(JdbcTemplate jdbcTemplate,
+                                   PlatformTransactionManager transactionManager,
+                                   SchedulerLeaseService schedulerLeaseService,
+                                   UserRepository userRepository,
+                                   FamilyMemberRepository familyMemberRepository,
+                                   FamilyMembershipCache familyMembershipCache,
+                                   FamilyAnalyticsService familyAnalyticsService,
+                                   FamilyRepository familyRepository,
+                                   SavingsGoalRepository savingsGoalRepository,
+                                   InvitationRepository invitationRepository,
+                                   CategoryCache categoryCache,
+                                   NotificationPushService notificationPushService,
+                                   CashflowForecastService cashflowForecastService) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.schedulerLeaseService = schedulerLeaseService;
+        this.userRepository = userRepository;
+        this.familyMemberRepository = familyMemberRepository;
+        this.familyMembershipCache = familyMembershipCache;
+        this.familyAnalyticsService = familyAnalyticsService;
+        this.familyRepository = familyRepository;
+        this.savingsGoalRepository = savingsGoalRepository;
+        this.invitationRepository = invitationRepository;
+        this.categoryCache = categoryCache;
+        this.notificationPushService = notificationPushService;
+        this.cashflowForecastService = cashflowForecastService;
+    }
+
+    /**
+     * Delete all data of the user except the basic user row, which is kept for admin reference.
+     * Every transaction is fenced by the deletion job's lease, so nothing commits once it is lost.
+     *
+     * @return deleted row count per table, in execution order
+     */
+    public Map<String, Integer> deleteUserData(UUID userId, Lease lease) {
+        User user = userRepository.findById(userId)
+                .orElseThrow(() -> ApiException.notFound("User"));
+        log.info("Deleting data for user: {} ({})", user.getEmail(), userId);
+
+        Map<String, Integer> deleted = new LinkedHashMap<>();
+
+        // Contributions reference transactions without cascade
+        transactionTemplate.executeWithoutResult(status -> {
+            schedulerLeaseService.fence(lease);
+            delete(deleted, "savings_contributions", "DELETE FROM savings_contributions WHERE user_id = ?", userId);
+        });
+        for (String table : CHUNKED_TABLES) {
+            deleteInChunks(deleted, table, userId, lease);
+        }
+
+        transactionTemplate.executeWithoutResult(status -> {
+            schedulerLeaseService.fence(lease);
+            deleteRemaining(deleted, userId);
+        });
+
+        int total = deleted.values().stream().mapToInt(Integer::intValue).sum();
+        log.info("All data deleted for user: {} ({} rows)", user.getEmail(), total);
+        return deleted;
+    }
+
+    private void deleteRemaining(Map<String, Integer> deleted, UUID userId) {
+        User user = userRepository.findById(userId)
+                .orElseThrow(() -> ApiException.notFound("User"));
+
+        // Credit card payment plans (payments first)
+        delete(deleted, "credit_card_payments",
+                "DELETE FROM credit_card_payments WHERE plan_id IN " +
+                        "(SELECT id FROM credit_card_payment_plans WHERE user_id = ?)", userId);
+        delete(deleted, "credit_card_payment_plans",
+                "DELETE FROM credit_card_payment_plans WHERE user_id = ?", userId);
+
+        delete(deleted, "savings_goals",
+                "DELETE FROM savings_goals WHERE user_id = ? AND family_id IS NULL", userId);
+
+        // Family memberships need ownership hand-over, so they stay entity based
+        handleFamilyMemberships(user);
+        familyMemberRepository.flush();
+
+        delete(deleted, "invitations",
+                "DELETE FROM invitations WHERE inviter_id = ?", userId);
+        delete(deleted, "debts",
+                "DELETE FROM debts WHERE user_id = ?", userId);
+
+        // Spending plan expenses reference accounts without cascade
+        delete(deleted, "spending_plan_expenses",
+                "DELETE FROM spending_plan_expenses WHERE user_id = ? OR account_id IN (" + USER_ACCOUNTS + ")",
+                userId, userId);
+        delete(deleted, "spending_plans",
+                "DELETE FROM spending_plans WHERE user_id = ? AND family_id IS NULL", userId);
+
+        delete(deleted, "recurring_transactions",
+                "DELETE FROM recurring_transactions WHERE user_id = ?", userId);
+        delete(deleted, "refresh_tokens",
+                "DELETE FROM refresh_tokens WHERE user_id = ?", userId);
+        delete(deleted, "email_verification_tokens",
+                "DELETE FROM email_verification_tokens WHERE user_id = ?", userId);
+        delete(deleted, "account_permissions",
+                "DELETE FROM account_permissions WHERE user_id = ? OR account_id IN (" + USER_ACCOUNTS + ")",
+                userId, userId);
+
+        delete(deleted, "budgets",
+                "DELETE FROM budgets WHERE user_id = ?", userId);
+        delete(deleted, "categories",
+                "DELETE FROM categories WHERE user_id = ? AND is_system = false", userId);
+
+        // linked_account_id has no ON DELETE action
+        jdbcTemplate.update("UPDATE accounts SET linked_account_id = NULL WHERE linked_account_id IN (" +
+                USER_ACCOUNTS + ")", userId);
+        delete(deleted, "accounts",
+                "DELETE FROM accounts WHERE user_id = ?", userId);
+
+        // Clear deletion scheduled date (data is now deleted, keep user record for admin)
+        user.setDeletionScheduledAt(null);
+        // Keep deletedAt to mark that user was deleted
+        userRepository.save(user);
+        categoryCache.evictUser(userId);
+        notificationPushService.evictUnreadCount(userId);
+        cashflowForecastService.evictUser(userId);
+    }
+
+    private void delete(Map<String, Integer> deleted, String table, String sql, Object... args) {
+        int rows = jdbcTemplate.update(sql, args);
+        deleted.merge(table, rows, Integer::sum);
+        log.debug("Deleted {} rows from {}", rows, table);
+    }
+
+    /**
+     * Delete by user_id in batches of chunkSize, one fenced transaction per batch. Batches are picked
+     * through the user_id index in no particular order; the table is done once a batch comes up short.
+     */
+    private void deleteInChunks(Map<String, Integer> deleted, String table, UUID userId, Lease lease) {
+        String sql = "DELETE FROM " + table + " WHERE id IN " +
+                "(SELECT id FROM " + table + " WHERE user_id = ? LIMIT ?)";
+        int total = 0;
+        int rows;
+        do {
+            rows = transactionTemplate.execute(status -> {
+                schedulerLeaseService.fence(lease);
+                return jdbcTemplate.update(sql, userId, chunkSize);
+            });
+            total += rows;
+            if (rows > 0) {
+                log.debug("Deleted {} rows from {} ({} so far)", rows, table, total);
+            }
+        } while (rows == chunkSize);
+        deleted.merge(table, total, Integer::sum);
+    }
+
+    /**
+     * Handle family membership cleanup when user is deleted
+     */
+    private void handleFamilyMemberships(User user) {
+        List<FamilyMember> memberships = familyMemberRepository.findByUserId(user.getId());
+
+        for (FamilyMember membership : memberships) {
+            Family family = membership.getFamily();
+            // Ownership may move to another member, or the family may go away
+            familyMembershipCache.evictFamily(family.getId());
+            familyAnalyticsService.evictFamily(family.getId());
+
+            if (membership.getRole() == FamilyRole.OWNER) {
+                // Try to transfer ownership to another admin
+                List<FamilyMember> admins = familyMemberRepository
+                        .findByFamilyIdAndRoleAndUserIdNot(family.getId(), FamilyRole.ADMIN, user.getId());
+
+                if (!admins.isEmpty()) {
+                    // Promote first admin to owner
+                    FamilyMember newOwner = admins.get(0);
+                    newOwner.setRole(FamilyRole.OWNER);
+                    familyMemberRepository.save(newOwner);
+                    log.info("Transferred ownership of family {} to {}", family.getName(), newOwner.getUser().getEmail());
+                } else {
+                    // Check if there are other members
+                    List<FamilyMember> members = familyMemberRepository
+                            .findByFamilyIdAndUserIdNot(family.getId(), user.getId());
+
+                    if (!members.isEmpty()) {
+                        // Promote first member to owner
+                        FamilyMember newOwner = members.get(0);
+                        newOwner.setRole(FamilyRole.OWNER);
+                        familyMemberRepository.save(newOwner);
+                        log.info("Transferred ownership of family {} to {}", family.getName(), newOwner.getUser().getEmail());
+                    } else {
+                        // Delete the family if no other members
+                        // First delete group savings goals
+                        savingsGoalRepository.deleteByFamilyId(family.getId());
+                        // Delete invitations for this family
+                        invitationRepository.deleteByFamilyId(family.getId());
+                        // Delete family
+                        familyRepository.delete(family);
+                        log.info("Deleted family {} (no remaining members)", family.getName());
+                        continue; // Skip deleting membership since family is deleted
+                    }
+                }
+            }
+
+            // Delete the membership
+            familyMemberRepository.delete(membership);
+        }
+    }
+}
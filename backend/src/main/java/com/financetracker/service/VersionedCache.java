@@ -0,0 +1,143 @@
+package com.financetracker.service;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BiPredicate;
+import java.util.function.IntSupplier;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+import java.util.function.UnaryOperator;
+
+/**
+ * Bounded per-key cache shared by the analytics and lookup services. Values are loaded outside
+ * any lock and are never mutated once cached; freshness (TTL, business date) is decided by the
+ * caller on every read.
+ * <p>
+ * Every eviction or update bumps a version, and a load that overlapped one is returned but not
+ * kept, so a load that read the database before a change committed cannot overwrite the
+ * eviction that change triggered. When full, stale entries are dropped first and then the
+ * oldest loads, down to 90% of the capacity, so the O(n) sweep runs at most once per tenth of
+ * the capacity in new entries.
+ */
+final class VersionedCache<K, V> {
+
+    private record Entry<V>(V value, long loadedAt) {
+    }
+
+    private final Map<K, Entry<V>> entries = new ConcurrentHashMap<>();
+    private final AtomicLong version = new AtomicLong();
+    private final AtomicLong loads = new AtomicLong();
+    // Read on every use so the owner's @Value field can be injected after construction
+    private final IntSupplier maxEntries;
+
+    VersionedCache(IntSupplier maxEntries) {
+        this.maxEntries = maxEntries;
+    }
+
+    /**
+     * The cached value if it is still fresh, otherwise a newly loaded one.
+     */
+    V get(K key, Predicate<? super V> fresh, Supplier<? extends V> loader) {
+        Entry<V> cached = entries.get(key);
+        if (cached != null && fresh.test(cached.value())) {
+            return cached.value();
+        }
+        return load(key, fresh, loader);
+    }
+
+    /**
+     * Load the value and cache it unless an eviction or update ran meanwhile.
+     *
+     * @param fresh decides which entries are stale when the cache is full
+     */
+    V load(K key, Predicate<? super V> fresh, Supplier<? extends V> loader) {
+        long loadedAt = version.get();
+        V value = loader.get();
+        if (version.get() != loadedAt) {
+            return value;
+        }
+        if (entries.size() >= maxEntries.getAsInt()) {
+            evictForCapacity(fresh);
+        }
+        Entry<V> entry = new Entry<>(value, loads.incrementAndGet());
+        entries.put(key, entry);
+        // An eviction between the check above and the put bumped the version first
+        if (version.get() != loadedAt) {
+            entries.remove(key, entry);
+        }
+        return value;
+    }
+
+    void evict(K key) {
+        version.incrementAndGet();
+        entries.remove(key);
+    }
+
+    void evictIf(BiPredicate<? super K, ? super V> matches) {
+        version.incrementAndGet();
+        entries.entrySet().removeIf(e -> matches.test(e.getKey(), e.getValue().value()));
+    }
+
+    void clear() {
+        version.incrementAndGet();
+        entries.clear();
+    }
+
+    /**
+     * Replace a cached value in place; absent keys are left to the next load.
+     */
+    void update(K key, UnaryOperator<V> change) {
+        version.incrementAndGet();
+        entries.computeIfPresent(key, (k, cached) -> new Entry<>(change.apply(cached.value()), cached.loadedAt()));
+    }
+
+    void evictAfterCommit(K key) {
+        afterCommit(() -> evict(key));
+    }
+
+    void evictIfAfterCommit(BiPredicate<? super K, ? super V> matches) {
+        afterCommit(() -> evictIf(matches));
+    }
+
+    int size() {
+        return entries.size();
+    }
+
+    /**
+     * Run the action once the current transaction commits, or now when there is none.
+     */
+    static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    private void evictForCapacity(Predicate<? super V> fresh) {
+        entries.values().removeIf(entry -> !fresh.test(entry.value()));
+        int max = maxEntries.getAsInt();
+        int excess = entries.size() - (max - Math.max(1, max / 10));
+        if (excess <= 0) {
+            return;
+        }
+        List<Map.Entry<K, Entry<V>>> oldest = entries.entrySet().stream()
+                .sorted(Comparator.comparingLong(e -> e.getValue().loadedAt()))
+                .limit(excess)
+                .toList();
+        for (Map.Entry<K, Entry<V>> e : oldest) {
+            entries.remove(e.getKey(), e.getValue());
+        }
+    }
+}
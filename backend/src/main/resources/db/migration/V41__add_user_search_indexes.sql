@@ -0,0 +1,7 @@
+-- V41: Trigram indexes for admin user search
+-- searchUsers filters with LOWER(col) LIKE '%keyword%', which a btree index cannot serve
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+CREATE INDEX idx_users_email_trgm ON users USING gin (LOWER(email) gin_trgm_ops);
+CREATE INDEX idx_users_username_trgm ON users USING gin (LOWER(username) gin_trgm_ops);
+CREATE INDEX idx_users_full_name_trgm ON users USING gin (LOWER(full_name) gin_trgm_ops);
@@ -0,0 +1,3 @@
+-- Supports the scheduler's anti-join "no notification of this type for this user since X"
+CREATE INDEX IF NOT EXISTS idx_notifications_user_type_created
+    ON notifications(user_id, type, created_at DESC);
@@ -0,0 +1,9 @@
+-- Named leases so each scheduled job (or job shard) runs on one instance at a time.
+-- fencing_token increases on every acquisition; a holder whose token is no longer current has lost the lease.
+CREATE TABLE scheduler_leases (
+    name VARCHAR(150) PRIMARY KEY,
+    owner VARCHAR(255) NOT NULL,
+    fencing_token BIGINT NOT NULL DEFAULT 0,
+    locked_until TIMESTAMP WITH TIME ZONE NOT NULL,
+    acquired_at TIMESTAMP WITH TIME ZONE NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
@@ -0,0 +1,24 @@
+-- Idempotency key for transactions posted by the recurring executor:
+-- one transaction per (recurring transaction, occurrence date)
+ALTER TABLE transactions ADD COLUMN recurring_occurrence_date DATE;
+
+-- Backfill from existing postings; only the first row per occurrence gets the key so the
+-- unique index can be built even where a run was double-posted in the past
+UPDATE transactions t
+SET recurring_occurrence_date = t.transaction_date
+FROM (
+    SELECT DISTINCT ON (recurring_transaction_id, transaction_date) id
+    FROM transactions
+    WHERE recurring_transaction_id IS NOT NULL
+    ORDER BY recurring_transaction_id, transaction_date, created_at, id
+) first_posting
+WHERE t.id = first_posting.id;
+
+CREATE UNIQUE INDEX uq_transactions_recurring_occurrence
+    ON transactions(recurring_transaction_id, recurring_occurrence_date)
+    WHERE recurring_transaction_id IS NOT NULL AND recurring_occurrence_date IS NOT NULL;
+
+-- Due-row claim query of the recurring executor
+CREATE INDEX idx_recurring_txn_active_next_exec
+    ON recurring_transactions(next_execution_date)
+    WHERE status = 'ACTIVE';
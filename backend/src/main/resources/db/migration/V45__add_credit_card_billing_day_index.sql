@@ -0,0 +1,4 @@
+-- Billing-day lookup of the credit card settlement job
+CREATE INDEX IF NOT EXISTS idx_accounts_credit_card_billing_day
+    ON accounts(billing_day, id)
+    WHERE type = 'CREDIT_CARD' AND is_active = true AND linked_account_id IS NOT NULL;
@@ -0,0 +1,3 @@
+-- Due-date range scans of the credit card reminder and overdue notification jobs
+CREATE INDEX IF NOT EXISTS idx_cc_payments_status_due_date
+    ON credit_card_payments(status, due_date, plan_id);
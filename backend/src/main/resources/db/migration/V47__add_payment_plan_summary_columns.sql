@@ -0,0 +1,19 @@
+-- Schedule summary on the plan so plan listings never load the payments
+ALTER TABLE credit_card_payment_plans
+    ADD COLUMN total_fee_amount DECIMAL(19, 4) NOT NULL DEFAULT 0,
+    ADD COLUMN total_interest_amount DECIMAL(19, 4) NOT NULL DEFAULT 0,
+    ADD COLUMN final_payment_date DATE;
+
+UPDATE credit_card_payment_plans pl
+SET total_fee_amount = s.total_fee,
+    total_interest_amount = s.total_interest,
+    final_payment_date = s.final_due_date
+FROM (
+    SELECT plan_id,
+           COALESCE(SUM(fee_amount), 0) AS total_fee,
+           COALESCE(SUM(interest_amount), 0) AS total_interest,
+           MAX(due_date) AS final_due_date
+    FROM credit_card_payments
+    GROUP BY plan_id
+) s
+WHERE s.plan_id = pl.id;
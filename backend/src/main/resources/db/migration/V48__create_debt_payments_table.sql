@@ -0,0 +1,72 @@
+-- Debt payment ledger, replacing the payment lines appended to debts.note
+CREATE TABLE debt_payments (
+    id UUID PRIMARY KEY DEFAULT gen_random_uuid(),
+    debt_id UUID NOT NULL REFERENCES debts(id) ON DELETE CASCADE,
+    account_id UUID REFERENCES accounts(id) ON DELETE SET NULL,
+    amount DECIMAL(19, 4) NOT NULL,
+    payment_date DATE NOT NULL,
+    note TEXT,
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    updated_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
+
+-- Payment history is read newest first with (payment_date, id) as the keyset
+CREATE INDEX idx_debt_payments_debt_date ON debt_payments(debt_id, payment_date, id);
+
+-- Parse the note lines written by DebtService.recordPayment:
+--   [dd/MM/yyyy] Thanh toán: <amount>[ từ <account name>][ - <note>]
+-- Lines that do not match stay in the note.
+CREATE TEMP TABLE debt_note_lines ON COMMIT DROP AS
+SELECT d.id AS debt_id, d.user_id, l.ord, l.line,
+       regexp_match(l.line, '^\[(\d{2})/(\d{2})/(\d{4})\] Thanh toán: (\d+(?:\.\d+)?)(.*)$') AS m
+FROM debts d
+CROSS JOIN LATERAL regexp_split_to_table(d.note, E'\n') WITH ORDINALITY AS l(line, ord)
+WHERE d.note LIKE '%Thanh toán: %';
+
+-- The note is user-editable: a line with an impossible date (31/02) or an amount that does not
+-- fit numeric(19, 4) also stays in the note. CASE keeps make_date and the cast from seeing them.
+CREATE TEMP TABLE debt_note_payments ON COMMIT DROP AS
+SELECT *
+FROM (SELECT debt_id, user_id, ord,
+             CASE WHEN m[3]::int >= 1 AND m[2]::int BETWEEN 1 AND 12 AND m[1]::int >= 1
+                  THEN CASE WHEN m[1]::int <= extract(DAY FROM make_date(m[3]::int, m[2]::int, 1)
+                                                               + INTERVAL '1 month - 1 day')
+                            THEN make_date(m[3]::int, m[2]::int, m[1]::int) END
+             END AS payment_date,
+             CASE WHEN length(m[4]) <= 40
+                  THEN CASE WHEN round(m[4]::numeric, 4) < 1e15 THEN m[4]::numeric(19, 4) END
+             END AS amount,
+             CASE WHEN m[5] LIKE ' từ %' THEN substr(m[5], 5) END AS account_part,
+             CASE WHEN m[5] LIKE ' - %' THEN substr(m[5], 4) END AS plain_note
+      FROM debt_note_lines
+      WHERE m IS NOT NULL) parsed
+WHERE payment_date IS NOT NULL
+  AND amount IS NOT NULL;
+
+-- An account name and a note are separated by the first ' - '
+INSERT INTO debt_payments (debt_id, account_id, amount, payment_date, note, created_at, updated_at)
+SELECT p.debt_id,
+       (SELECT a.id FROM accounts a
+        WHERE a.user_id = p.user_id
+          AND a.name = CASE WHEN position(' - ' IN p.account_part) > 0
+                            THEN left(p.account_part, position(' - ' IN p.account_part) - 1)
+                            ELSE p.account_part END
+        ORDER BY a.created_at
+        LIMIT 1),
+       p.amount,
+       p.payment_date,
+       CASE WHEN position(' - ' IN p.account_part) > 0
+            THEN substr(p.account_part, position(' - ' IN p.account_part) + 3)
+            ELSE p.plain_note END,
+       p.payment_date + (p.ord * INTERVAL '1 microsecond'),
+       p.payment_date + (p.ord * INTERVAL '1 microsecond')
+FROM debt_note_payments p;
+
+-- Only the lines moved to the ledger leave the note
+UPDATE debts d
+SET note = (SELECT NULLIF(string_agg(l.line, E'\n' ORDER BY l.ord), '')
+            FROM debt_note_lines l
+            WHERE l.debt_id = d.id
+              AND NOT EXISTS (SELECT 1 FROM debt_note_payments p
+                              WHERE p.debt_id = l.debt_id AND p.ord = l.ord))
+WHERE d.id IN (SELECT debt_id FROM debt_note_payments);
@@ -0,0 +1,2 @@
+-- Optional annual rate (0.15 = 15%) used to rank debts for the avalanche payoff strategy
+ALTER TABLE debts ADD COLUMN interest_rate DECIMAL(8, 4);
@@ -0,0 +1,57 @@
+-- Composite indexes for the hot transaction access paths, built without blocking writes.
+-- amount and type are included so the SUM ... GROUP BY type reports run as index-only scans.
+-- Runs outside a transaction (see the .sql.conf next to this file). A failed build leaves the
+-- migration marked failed; run `flyway repair` and migrate again, the script is safe to re-run.
+
+-- A failed or cancelled concurrent build leaves an INVALID index behind that IF NOT EXISTS would
+-- keep; drop those first. A plain DROP (DO blocks cannot run CONCURRENTLY) of an index that is
+-- never used only holds the table lock for a moment.
+DO $$
+DECLARE
+    invalid_index text;
+BEGIN
+    FOR invalid_index IN
+        SELECT c.relname
+        FROM pg_index i
+        JOIN pg_class c ON c.oid = i.indexrelid
+        WHERE i.indrelid = 'transactions'::regclass
+          AND NOT i.indisvalid
+          AND c.relname IN ('idx_transactions_user_date_cover', 'idx_transactions_family_date_cover',
+                            'idx_transactions_user_category_date_cover', 'idx_transactions_account_date_cover',
+                            'idx_transactions_recurring', 'idx_transactions_created_at')
+    LOOP
+        EXECUTE format('DROP INDEX %I', invalid_index);
+    END LOOP;
+END $$;
+
+-- Dashboard and report sums, date-range listings: user_id + transaction_date
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_transactions_user_date_cover
+    ON transactions(user_id, transaction_date) INCLUDE (amount, type);
+
+-- Family reports and the family ledger; most transactions have no family
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_transactions_family_date_cover
+    ON transactions(family_id, transaction_date) INCLUDE (amount, type)
+    WHERE family_id IS NOT NULL;
+
+-- Budget spent amounts: user_id + category_id + transaction_date
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_transactions_user_category_date_cover
+    ON transactions(user_id, category_id, transaction_date) INCLUDE (amount, type);
+
+-- Account listings and shared-account ledger rows
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_transactions_account_date_cover
+    ON transactions(account_id, transaction_date) INCLUDE (amount, type);
+
+-- Postings of a recurring rule, and ON DELETE SET NULL when a rule is deleted
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_transactions_recurring
+    ON transactions(recurring_transaction_id)
+    WHERE recurring_transaction_id IS NOT NULL;
+
+-- Admin activity counts (countByCreatedAtAfter)
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_transactions_created_at
+    ON transactions(created_at);
+
+-- Superseded by the composite indexes above (same leading columns)
+DROP INDEX CONCURRENTLY IF EXISTS idx_transactions_user_id;
+DROP INDEX CONCURRENTLY IF EXISTS idx_transactions_user_date;
+DROP INDEX CONCURRENTLY IF EXISTS idx_transactions_family_id;
+DROP INDEX CONCURRENTLY IF EXISTS idx_transactions_account_id;
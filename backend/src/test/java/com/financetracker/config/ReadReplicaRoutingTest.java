@@ -0,0 +1,108 @@
+package com.financetracker.config;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.server.ServletServerHttpRequest;
+import org.springframework.http.server.ServletServerHttpResponse;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Routing through the data source built by ReadReplicaDataSourceConfig, with one H2 database
+ * standing in for the primary and another for the replica. Each guard plays a separate
+ * instance: the read-your-writes marker must work without state shared between them.
+ */
+class ReadReplicaRoutingTest {
+
+    private final ReplicaLagGuard writingInstance = new ReplicaLagGuard(Duration.ofSeconds(5));
+    private final ReplicaLagGuard readingInstance = new ReplicaLagGuard(Duration.ofSeconds(5));
+
+    private final DataSource dataSource = new ReadReplicaDataSourceConfig().dataSource(
+            new DriverManagerDataSource("jdbc:h2:mem:primary"),
+            new DriverManagerDataSource("jdbc:h2:mem:replica"),
+            readingInstance);
+    private final JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+    private final TransactionTemplate transactionTemplate =
+            new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+
+    @AfterEach
+    void tearDown() {
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    @Test
+    void readOnlyTransactionsUseTheReplica() {
+        assertThat(database(true)).isEqualTo("REPLICA");
+        assertThat(database(false)).isEqualTo("PRIMARY");
+    }
+
+    @Test
+    void readsInsideAMutatingRequestUseThePrimary() {
+        bind(new MockHttpServletRequest("POST", "/api/transactions"));
+
+        assertThat(database(true)).isEqualTo("PRIMARY");
+    }
+
+    @Test
+    void markerFromAnotherInstanceKeepsReadsOnThePrimary() {
+        MockHttpServletResponse written = new MockHttpServletResponse();
+        writingInstance.preHandle(new MockHttpServletRequest("POST", "/api/transactions"), written, new Object());
+        String marker = written.getHeader(ReplicaLagGuard.PRIMARY_UNTIL_HEADER);
+        assertThat(marker).isNotNull();
+
+        bind(get(marker));
+        assertThat(database(true)).isEqualTo("PRIMARY");
+    }
+
+    @Test
+    void expiredOrForgedMarkersAreIgnored() {
+        long now = System.currentTimeMillis();
+
+        bind(get(String.valueOf(now - 1_000)));
+        assertThat(database(true)).isEqualTo("REPLICA");
+
+        bind(get(String.valueOf(now + Duration.ofHours(1).toMillis())));
+        assertThat(database(true)).isEqualTo("REPLICA");
+
+        bind(get("soon"));
+        assertThat(database(true)).isEqualTo("REPLICA");
+    }
+
+    @Test
+    void adviceReplacesTheMarkerStampedBeforeTheHandler() {
+        MockHttpServletRequest request = new MockHttpServletRequest("PUT", "/api/accounts/1");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        writingInstance.preHandle(request, response, new Object());
+
+        new ReplicaLagHeaderAdvice(writingInstance).beforeBodyWrite(null, null, null, null,
+                new ServletServerHttpRequest(request), new ServletServerHttpResponse(response));
+
+        assertThat(response.getHeaders(ReplicaLagGuard.PRIMARY_UNTIL_HEADER)).hasSize(1);
+    }
+
+    private String database(boolean readOnly) {
+        transactionTemplate.setReadOnly(readOnly);
+        return transactionTemplate.execute(status -> jdbcTemplate.queryForObject("SELECT DATABASE()", String.class));
+    }
+
+    private static MockHttpServletRequest get(String marker) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/transactions");
+        request.addHeader(ReplicaLagGuard.PRIMARY_UNTIL_HEADER, marker);
+        return request;
+    }
+
+    private static void bind(MockHttpServletRequest request) {
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+    }
+}
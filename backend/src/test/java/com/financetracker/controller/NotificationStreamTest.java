@@ -0,0 +1,123 @@
+package com.financetracker.controller;
+
+import com.financetracker.entity.User;
+import com.financetracker.repository.UserRepository;
+import com.financetracker.security.CustomUserDetails;
+import com.financetracker.security.JwtService;
+import com.financetracker.service.NotificationPushListener;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.boot.test.web.server.LocalServerPort;
+
+import java.io.BufferedReader;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Open notification streams must not hold database connections: with more streams open than the
+ * pool has connections, an ordinary request still gets one. Runs on H2 in PostgreSQL mode with the
+ * schema generated from the entities (the Flyway scripts are PostgreSQL-only).
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "spring.datasource.url=jdbc:h2:mem:stream;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.datasource.hikari.maximum-pool-size=" + NotificationStreamTest.POOL_SIZE,
+        "spring.datasource.hikari.connection-timeout=2000",
+        "spring.flyway.enabled=false",
+        "spring.jpa.hibernate.ddl-auto=create-drop"
+})
+class NotificationStreamTest {
+
+    static final int POOL_SIZE = 3;
+
+    // The listener needs a PostgreSQL connection for LISTEN
+    @MockBean
+    private NotificationPushListener notificationPushListener;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JwtService jwtService;
+
+    @LocalServerPort
+    private int port;
+
+    private final HttpClient client = HttpClient.newHttpClient();
+    private final List<InputStream> streams = new ArrayList<>();
+
+    @AfterEach
+    void closeStreams() throws Exception {
+        for (InputStream stream : streams) {
+            stream.close();
+        }
+    }
+
+    @Test
+    void openStreamsDoNotHoldPoolConnections() throws Exception {
+        // One user per stream, so every stream loads its unread count from the database
+        List<CustomUserDetails> streamUsers = new ArrayList<>();
+        for (int i = 0; i < POOL_SIZE + 2; i++) {
+            streamUsers.add(persistUser("stream" + i));
+        }
+        CustomUserDetails reader = persistUser("reader");
+
+        for (CustomUserDetails userDetails : streamUsers) {
+            String ticket = jwtService.generateStreamTicket(userDetails, userDetails.getId());
+            HttpResponse<InputStream> response = client.send(
+                    HttpRequest.newBuilder(uri("/api/notifications/stream?ticket=" + ticket)).GET().build(),
+                    HttpResponse.BodyHandlers.ofInputStream());
+            assertThat(response.statusCode()).isEqualTo(200);
+            streams.add(response.body());
+            awaitUnreadCountEvent(response.body());
+        }
+
+        HttpResponse<String> notifications = client.send(
+                HttpRequest.newBuilder(uri("/api/notifications"))
+                        .header("Authorization", "Bearer " + jwtService.generateToken(reader, reader.getId()))
+                        .timeout(Duration.ofSeconds(10))
+                        .GET().build(),
+                HttpResponse.BodyHandlers.ofString());
+        assertThat(notifications.statusCode()).isEqualTo(200);
+    }
+
+    private CustomUserDetails persistUser(String username) {
+        return new CustomUserDetails(userRepository.save(User.builder()
+                .email(username + "@example.com")
+                .username(username)
+                .passwordHash("hash")
+                .fullName(username)
+                .enabled(true)
+                .emailVerified(true)
+                .build()));
+    }
+
+    // The first event is sent once the handler has loaded the count, i.e. after its database access
+    private static void awaitUnreadCountEvent(InputStream body) throws Exception {
+        BufferedReader reader = new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8));
+        String line;
+        while ((line = reader.readLine()) != null) {
+            if (line.startsWith("event:unread-count")) {
+                return;
+            }
+        }
+        throw new AssertionError("stream closed before the unread-count event");
+    }
+
+    private URI uri(String path) {
+        return URI.create("http://localhost:" + port + path);
+    }
+}
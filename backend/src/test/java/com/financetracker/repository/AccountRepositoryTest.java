@@ -0,0 +1,64 @@
+package com.financetracker.repository;
+
+import com.financetracker.entity.Account;
+import com.financetracker.entity.AccountType;
+import com.financetracker.entity.User;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+
+import java.math.BigDecimal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * current_balance only moves through adjustBalance: saving an Account loaded before a delta
+ * must not write its stale balance back. Runs on H2 in PostgreSQL mode with the schema
+ * generated from the entities (the Flyway scripts are PostgreSQL-only).
+ */
+@DataJpaTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:accounts;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.flyway.enabled=false",
+        "spring.jpa.hibernate.ddl-auto=create-drop"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+class AccountRepositoryTest {
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Test
+    void entitySaveDoesNotOverwriteBalanceDelta() {
+        User user = entityManager.persist(User.builder()
+                .email("owner@example.com")
+                .username("owner")
+                .passwordHash("hash")
+                .fullName("Owner")
+                .build());
+        Account account = entityManager.persist(Account.builder()
+                .user(user)
+                .name("Cash")
+                .type(AccountType.CASH)
+                .initialBalance(BigDecimal.valueOf(100))
+                .currentBalance(BigDecimal.valueOf(100))
+                .build());
+        entityManager.flush();
+
+        // Another transaction's delta lands after this one loaded the account
+        accountRepository.adjustBalance(account.getId(), BigDecimal.valueOf(50));
+        account.setName("Wallet");
+        account.setCurrentBalance(BigDecimal.valueOf(999));
+        accountRepository.saveAndFlush(account);
+        entityManager.clear();
+
+        Account reloaded = accountRepository.findById(account.getId()).orElseThrow();
+        assertThat(reloaded.getName()).isEqualTo("Wallet");
+        assertThat(reloaded.getCurrentBalance()).isEqualByComparingTo("150");
+    }
+}
@@ -0,0 +1,100 @@
+package com.financetracker.repository;
+
+import com.financetracker.entity.Debt;
+import com.financetracker.entity.DebtStatus;
+import com.financetracker.entity.DebtType;
+import com.financetracker.entity.User;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * status and paid_amount only move through the repository statements: saving a Debt loaded
+ * before a payment must not write its stale status back. Runs on H2 in PostgreSQL mode with the
+ * schema generated from the entities (the Flyway scripts are PostgreSQL-only).
+ */
+@DataJpaTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:debts;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.flyway.enabled=false",
+        "spring.jpa.hibernate.ddl-auto=create-drop"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+class DebtRepositoryTest {
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private DebtRepository debtRepository;
+
+    private Debt debt;
+
+    @BeforeEach
+    void setUp() {
+        User user = entityManager.persist(User.builder()
+                .email("owner@example.com")
+                .username("owner")
+                .passwordHash("hash")
+                .fullName("Owner")
+                .build());
+        debt = entityManager.persist(Debt.builder()
+                .user(user)
+                .type(DebtType.BORROW)
+                .personName("Lender")
+                .amount(BigDecimal.valueOf(100))
+                .currency("VND")
+                .startDate(LocalDate.now())
+                .build());
+        entityManager.flush();
+    }
+
+    @Test
+    void entitySaveDoesNotOverwritePaymentStatus() {
+        // Another transaction pays the debt off after this one loaded it
+        debtRepository.addPayment(debt.getId(), BigDecimal.valueOf(100));
+        debt.setPersonName("Bank");
+        debt.setStatus(DebtStatus.ACTIVE);
+        debtRepository.saveAndFlush(debt);
+        entityManager.clear();
+
+        Debt reloaded = debtRepository.findById(debt.getId()).orElseThrow();
+        assertThat(reloaded.getPersonName()).isEqualTo("Bank");
+        assertThat(reloaded.getStatus()).isEqualTo(DebtStatus.PAID);
+        assertThat(reloaded.getPaidAmount()).isEqualByComparingTo("100");
+    }
+
+    @Test
+    void refreshStatusFollowsEditedAmount() {
+        debtRepository.addPayment(debt.getId(), BigDecimal.valueOf(40));
+
+        Debt edited = debtRepository.findById(debt.getId()).orElseThrow();
+        edited.setAmount(BigDecimal.valueOf(40));
+        debtRepository.save(edited);
+        debtRepository.refreshStatus(debt.getId());
+        assertThat(debtRepository.findById(debt.getId()).orElseThrow().getStatus()).isEqualTo(DebtStatus.PAID);
+
+        edited = debtRepository.findById(debt.getId()).orElseThrow();
+        edited.setAmount(BigDecimal.valueOf(200));
+        debtRepository.save(edited);
+        debtRepository.refreshStatus(debt.getId());
+        assertThat(debtRepository.findById(debt.getId()).orElseThrow().getStatus())
+                .isEqualTo(DebtStatus.PARTIALLY_PAID);
+    }
+
+    @Test
+    void cancelSkipsPaidDebts() {
+        debtRepository.markPaid(debt.getId());
+
+        assertThat(debtRepository.cancel(debt.getId())).isZero();
+        assertThat(debtRepository.findById(debt.getId()).orElseThrow().getStatus()).isEqualTo(DebtStatus.PAID);
+    }
+}
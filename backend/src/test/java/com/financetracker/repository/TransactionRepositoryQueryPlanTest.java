@@ -0,0 +1,268 @@
+package com.financetracker.repository;
+
+import com.financetracker.config.FlywayConfig;
+import com.financetracker.entity.TransactionType;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * EXPLAINs each hot TransactionRepository query against a Flyway-migrated, seeded PostgreSQL and
+ * fails if any of them plans a sequential scan of transactions. The DataSource is wrapped to
+ * record every prepared statement with its bound parameters, which are then explained with the
+ * same values. Skipped when Docker is not available.
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({FlywayConfig.class, TransactionRepositoryQueryPlanTest.StatementCapture.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Testcontainers(disabledWithoutDocker = true)
+class TransactionRepositoryQueryPlanTest {
+
+    private static final int USERS = 200;
+    private static final int TRANSACTIONS = 40_000;
+    private static final LocalDate MONTH_START = LocalDate.of(2024, 6, 1);
+    private static final LocalDate MONTH_END = LocalDate.of(2024, 6, 30);
+
+    @Container
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    @DynamicPropertySource
+    static void datasource(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", postgres::getJdbcUrl);
+        registry.add("spring.datasource.username", postgres::getUsername);
+        registry.add("spring.datasource.password", postgres::getPassword);
+    }
+
+    private record Executed(String sql, Object[] parameters) {
+    }
+
+    private static final List<Executed> executed = new ArrayList<>();
+    private static boolean seeded;
+
+    @TestConfiguration
+    static class StatementCapture {
+
+        @Bean
+        static BeanPostProcessor capturingDataSource() {
+            return new BeanPostProcessor() {
+                @Override
+                public Object postProcessAfterInitialization(Object bean, String beanName) {
+                    return bean instanceof DataSource dataSource ? capturing(dataSource) : bean;
+                }
+            };
+        }
+
+        private static DataSource capturing(DataSource dataSource) {
+            return proxy(DataSource.class, dataSource, (method, args, result) ->
+                    result instanceof Connection connection ? capturing(connection) : result);
+        }
+
+        private static Connection capturing(Connection connection) {
+            return proxy(Connection.class, connection, (method, args, result) ->
+                    result instanceof PreparedStatement statement && method.getName().equals("prepareStatement")
+                            ? capturing(statement, (String) args[0]) : result);
+        }
+
+        private static PreparedStatement capturing(PreparedStatement statement, String sql) {
+            Map<Integer, Object> parameters = new TreeMap<>();
+            return proxy(PreparedStatement.class, statement, (method, args, result) -> {
+                String name = method.getName();
+                if (name.startsWith("set") && args != null && args.length >= 2 && args[0] instanceof Integer index) {
+                    parameters.put(index, name.equals("setNull") ? null : args[1]);
+                } else if (name.startsWith("execute")) {
+                    executed.add(new Executed(sql, parameters.values().toArray()));
+                }
+                return result;
+            });
+        }
+
+        private interface Wrap {
+            Object apply(Method method, Object[] args, Object result) throws Exception;
+        }
+
+        @SuppressWarnings("unchecked")
+        private static <T> T proxy(Class<T> type, T target, Wrap wrap) {
+            return (T) Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, (proxy, method, args) -> {
+                try {
+                    return wrap.apply(method, args, method.invoke(target, args));
+                } catch (InvocationTargetException e) {
+                    throw e.getCause();
+                }
+            });
+        }
+    }
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private UUID userId;
+    private UUID accountId;
+    private UUID categoryId;
+    private UUID familyId;
+    private UUID recurringId;
+
+    /**
+     * 200 users with an account each, 20 categories, 50 families and 50 recurring rules;
+     * 40k transactions over two years, 10% of them in a family and 2% posted by a rule.
+     * Committed once for the class; the container is thrown away afterwards.
+     */
+    @BeforeEach
+    void seed() {
+        if (!seeded) {
+            insertSeedData();
+            seeded = true;
+        }
+        userId = jdbcTemplate.queryForObject("SELECT id FROM users WHERE username = 'user1'", UUID.class);
+        accountId = jdbcTemplate.queryForObject("SELECT id FROM accounts WHERE user_id = ?", UUID.class, userId);
+        categoryId = jdbcTemplate.queryForObject("SELECT id FROM categories WHERE name = 'Category 1'", UUID.class);
+        familyId = jdbcTemplate.queryForObject("SELECT id FROM families WHERE created_by = ?", UUID.class, userId);
+        recurringId = jdbcTemplate.queryForObject(
+                "SELECT id FROM recurring_transactions WHERE user_id = ?", UUID.class, userId);
+    }
+
+    private void insertSeedData() {
+        jdbcTemplate.execute("""
+                INSERT INTO users (email, username, password_hash)
+                SELECT 'user' || g || '@example.com', 'user' || g, 'hash' FROM generate_series(1, %d) g;
+                INSERT INTO accounts (user_id, name, type) SELECT id, 'Cash', 'CASH' FROM users;
+                INSERT INTO categories (name, type) SELECT 'Category ' || g, 'EXPENSE' FROM generate_series(1, 20) g;
+                INSERT INTO families (name, created_by)
+                SELECT 'Family ' || username, id FROM users WHERE username IN
+                    (SELECT 'user' || g FROM generate_series(1, 50) g);
+                INSERT INTO family_members (family_id, user_id, role) SELECT id, created_by, 'OWNER' FROM families;
+                INSERT INTO recurring_transactions (user_id, account_id, type, amount, currency, frequency,
+                                                    start_date, next_execution_date)
+                SELECT a.user_id, a.id, 'EXPENSE', 10, 'VND', 'MONTHLY', DATE '2024-01-01', DATE '2026-01-01'
+                FROM accounts a JOIN families f ON f.created_by = a.user_id;
+                """.formatted(USERS));
+        jdbcTemplate.execute("""
+                WITH u AS (SELECT row_number() OVER (ORDER BY u.id) - 1 AS n, u.id AS user_id, a.id AS account_id
+                           FROM users u JOIN accounts a ON a.user_id = u.id),
+                     c AS (SELECT row_number() OVER (ORDER BY id) - 1 AS n, id FROM categories),
+                     f AS (SELECT row_number() OVER (ORDER BY id) - 1 AS n, id FROM families),
+                     r AS (SELECT row_number() OVER (ORDER BY id) - 1 AS n, id FROM recurring_transactions)
+                INSERT INTO transactions (user_id, account_id, category_id, type, amount, currency,
+                                          transaction_date, created_at, family_id,
+                                          recurring_transaction_id, recurring_occurrence_date)
+                SELECT u.user_id, u.account_id, c.id,
+                       CASE WHEN g %% 4 = 0 THEN 'INCOME' ELSE 'EXPENSE' END, g %% 1000 + 1, 'VND',
+                       DATE '2023-01-01' + g %% 730, now() - (g %% 730) * INTERVAL '1 day',
+                       CASE WHEN g %% 10 = 0 THEN f.id END,
+                       CASE WHEN g %% 50 = 1 THEN r.id END,
+                       CASE WHEN g %% 50 = 1 THEN DATE '2000-01-01' + g / 50 END
+                FROM generate_series(1, %d) g
+                JOIN u ON u.n = g %% %d
+                JOIN c ON c.n = g %% 20
+                JOIN f ON f.n = g / 10 %% 50
+                JOIN r ON r.n = g / 50 %% 50
+                """.formatted(TRANSACTIONS, USERS));
+        jdbcTemplate.execute("ANALYZE");
+    }
+
+    @Test
+    void userPages() {
+        assertNoSequentialScan(() -> transactionRepository.findByUserId(userId,
+                PageRequest.of(0, 20, Sort.by(Sort.Direction.DESC, "transactionDate"))));
+    }
+
+    @Test
+    void userAccountPages() {
+        assertNoSequentialScan(() -> transactionRepository.findByUserIdAndAccountId(userId, accountId,
+                PageRequest.of(0, 20, Sort.by(Sort.Direction.DESC, "transactionDate"))));
+    }
+
+    @Test
+    void userDateRange() {
+        assertNoSequentialScan(() -> transactionRepository.findByUserIdAndDateRange(userId, MONTH_START, MONTH_END));
+    }
+
+    @Test
+    void userSums() {
+        assertNoSequentialScan(() -> transactionRepository.sumByTypeAndDateRange(userId, MONTH_START, MONTH_END));
+        assertNoSequentialScan(() -> transactionRepository.sumByCategoryAndDateRange(userId, TransactionType.EXPENSE,
+                MONTH_START, MONTH_END));
+    }
+
+    @Test
+    void budgetSpent() {
+        assertNoSequentialScan(() -> transactionRepository.sumByCategoryIdAndDateRange(userId, categoryId,
+                MONTH_START, MONTH_END));
+    }
+
+    @Test
+    void familyPages() {
+        assertNoSequentialScan(() -> transactionRepository.findByFamilyId(familyId,
+                PageRequest.of(0, 20, Sort.by(Sort.Direction.DESC, "transactionDate"))));
+        assertNoSequentialScan(() -> transactionRepository.findByFamilyIdAndDateRange(familyId, MONTH_START,
+                MONTH_END));
+    }
+
+    @Test
+    void familySums() {
+        assertNoSequentialScan(() -> transactionRepository.sumByTypeAndDateRangeForFamily(familyId, MONTH_START,
+                MONTH_END));
+        assertNoSequentialScan(() -> transactionRepository.sumByCategoryAndDateRangeForFamily(familyId,
+                TransactionType.EXPENSE, MONTH_START, MONTH_END));
+        assertNoSequentialScan(() -> transactionRepository.sumFamilyLedgerByMonth(familyId, MONTH_START));
+    }
+
+    @Test
+    void recurringOccurrence() {
+        assertNoSequentialScan(() -> transactionRepository.existsByRecurringTransactionIdAndRecurringOccurrenceDate(
+                recurringId, MONTH_START));
+    }
+
+    @Test
+    void adminCounts() {
+        assertNoSequentialScan(() -> transactionRepository.countByCreatedAtAfter(OffsetDateTime.now().minusDays(1)));
+        assertNoSequentialScan(() -> transactionRepository.countByUserIds(List.of(userId)));
+    }
+
+    private void assertNoSequentialScan(Runnable query) {
+        executed.clear();
+        query.run();
+        List<Executed> statements = List.copyOf(executed);
+        assertThat(statements).isNotEmpty();
+        for (Executed statement : statements) {
+            String plan = String.join("\n", jdbcTemplate.queryForList(
+                    "EXPLAIN " + statement.sql(), String.class, statement.parameters()));
+            assertThat(plan).as("plan of %s", statement.sql()).doesNotContain("Seq Scan on transactions");
+        }
+    }
+}
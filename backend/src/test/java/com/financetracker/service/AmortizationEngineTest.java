@@ -0,0 +1,147 @@
+package com.financetracker.service;
+
+import com.financetracker.entity.PaymentType;
+import com.financetracker.exception.ApiException;
+import com.financetracker.service.AmortizationEngine.Installment;
+import com.financetracker.service.AmortizationEngine.PayoffQuote;
+import com.financetracker.service.AmortizationEngine.Schedule;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.function.Function;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class AmortizationEngineTest {
+
+    private final AmortizationEngine engine = new AmortizationEngine();
+
+    @ParameterizedTest
+    @CsvSource({"100, 0.015, 3", "1000000, 0.0199, 7", "0.0005, 0.5, 6", "12345.6789, 0, 12"})
+    void installmentScheduleReconcilesRounding(String amount, String feeRate, int installments) {
+        BigDecimal original = new BigDecimal(amount);
+
+        Schedule schedule = engine.installment(original, new BigDecimal(feeRate), installments,
+                LocalDate.of(2024, 1, 15), 15);
+
+        assertThat(schedule.installments()).hasSize(installments);
+        assertThat(sum(schedule, Installment::principal)).isEqualByComparingTo(original);
+        assertThat(sum(schedule, Installment::total)).isEqualByComparingTo(schedule.totalAmount());
+        assertThat(last(schedule).remainingAfter()).isEqualByComparingTo("0");
+    }
+
+    @Test
+    void installmentResidualGoesToLastInstallment() {
+        Schedule schedule = engine.installment(new BigDecimal("100"), new BigDecimal("0.015"), 3,
+                LocalDate.of(2024, 1, 15), 15);
+
+        assertThat(schedule.installments()).extracting(Installment::principal)
+                .containsExactly(new BigDecimal("33.3333"), new BigDecimal("33.3333"), new BigDecimal("33.3334"));
+        assertThat(schedule.totalFee()).isEqualByComparingTo("4.5");
+        assertThat(schedule.totalAmount()).isEqualByComparingTo("104.5");
+    }
+
+    @Test
+    void installmentNeedsTwoPayments() {
+        assertThatThrownBy(() -> engine.installment(BigDecimal.TEN, BigDecimal.ZERO, 1, LocalDate.of(2024, 1, 15), 15))
+                .isInstanceOf(ApiException.class);
+    }
+
+    @ParameterizedTest
+    @CsvSource({"1000, 0.12, 200", "5000000, 0.299, 234567.8901", "999.9999, 0, 333"})
+    void revolvingScheduleReconcilesRounding(String amount, String annualRate, String payment) {
+        BigDecimal original = new BigDecimal(amount);
+
+        Schedule schedule = engine.revolving(original, new BigDecimal(annualRate), new BigDecimal(payment),
+                LocalDate.of(2024, 1, 15), 15);
+
+        assertThat(sum(schedule, Installment::principal)).isEqualByComparingTo(original);
+        assertThat(sum(schedule, Installment::total)).isEqualByComparingTo(schedule.totalAmount());
+        assertThat(sum(schedule, Installment::interest)).isEqualByComparingTo(schedule.totalInterest());
+        assertThat(last(schedule).remainingAfter()).isEqualByComparingTo("0");
+    }
+
+    @Test
+    void revolvingSettlesTheRestAtTheCap() {
+        // 2% a month on 1,000,000 is 20,000; one unit more barely moves the balance
+        Schedule schedule = engine.revolving(new BigDecimal("1000000"), new BigDecimal("0.24"),
+                new BigDecimal("20001"), LocalDate.of(2024, 1, 15), 15);
+
+        assertThat(schedule.installments()).hasSize(120);
+        Installment last = last(schedule);
+        assertThat(last.total()).isGreaterThan(new BigDecimal("20001"));
+        assertThat(last.remainingAfter()).isEqualByComparingTo("0");
+        assertThat(sum(schedule, Installment::principal)).isEqualByComparingTo("1000000");
+    }
+
+    @Test
+    void revolvingPaymentMustBeatInterest() {
+        assertThatThrownBy(() -> engine.revolving(new BigDecimal("1000000"), new BigDecimal("0.24"),
+                new BigDecimal("20000"), LocalDate.of(2024, 1, 15), 15))
+                .isInstanceOf(ApiException.class);
+    }
+
+    @Test
+    void dueDatesClampToShortMonthsAndReturnToBillingDay() {
+        Schedule schedule = engine.installment(new BigDecimal("400"), BigDecimal.ZERO, 4,
+                LocalDate.of(2024, 1, 31), 31);
+
+        assertThat(schedule.installments()).extracting(Installment::dueDate).containsExactly(
+                LocalDate.of(2024, 1, 31), LocalDate.of(2024, 2, 29),
+                LocalDate.of(2024, 3, 31), LocalDate.of(2024, 4, 30));
+    }
+
+    @Test
+    void firstDueDateIsStrictlyAfterStart() {
+        assertThat(engine.firstDueDate(LocalDate.of(2024, 1, 10), 15)).isEqualTo(LocalDate.of(2024, 1, 15));
+        assertThat(engine.firstDueDate(LocalDate.of(2024, 1, 15), 15)).isEqualTo(LocalDate.of(2024, 2, 15));
+        assertThat(engine.firstDueDate(LocalDate.of(2024, 1, 31), 31)).isEqualTo(LocalDate.of(2024, 2, 29));
+        assertThat(engine.firstDueDate(LocalDate.of(2023, 2, 28), 30)).isEqualTo(LocalDate.of(2023, 3, 30));
+    }
+
+    @Test
+    void installmentPayoffKeepsDueFeesAndWaivesFutureOnes() {
+        // 100 principal and 12 fee per installment; the first two are paid, the third is due
+        Schedule schedule = engine.installment(new BigDecimal("1200"), new BigDecimal("0.01"), 12,
+                LocalDate.of(2024, 2, 15), 15);
+        List<Installment> unpaid = schedule.installments().subList(2, 12);
+
+        PayoffQuote quote = engine.payoff(PaymentType.INSTALLMENT, null, unpaid,
+                LocalDate.of(2024, 3, 15), LocalDate.of(2024, 4, 20));
+
+        assertThat(quote.outstandingPrincipal()).isEqualByComparingTo("1000");
+        assertThat(quote.accruedCharges()).isEqualByComparingTo("12");
+        assertThat(quote.payoffAmount()).isEqualByComparingTo("1012");
+        assertThat(quote.scheduledRemaining()).isEqualByComparingTo("1120");
+        assertThat(quote.savings()).isEqualByComparingTo("108");
+    }
+
+    @Test
+    void revolvingPayoffAccruesInterestProRata() {
+        Schedule schedule = engine.revolving(new BigDecimal("1000"), new BigDecimal("0.12"), new BigDecimal("200"),
+                LocalDate.of(2024, 2, 1), 1);
+
+        // 15 of the 31 days to the first due date at 1% a month on 1000
+        PayoffQuote quote = engine.payoff(PaymentType.REVOLVING, new BigDecimal("0.12"), schedule.installments(),
+                LocalDate.of(2024, 1, 1), LocalDate.of(2024, 1, 16));
+
+        assertThat(quote.outstandingPrincipal()).isEqualByComparingTo("1000");
+        assertThat(quote.accruedCharges()).isEqualByComparingTo("4.8387");
+        assertThat(quote.payoffAmount()).isEqualByComparingTo("1004.8387");
+        assertThat(quote.scheduledRemaining()).isEqualByComparingTo(schedule.totalAmount());
+        assertThat(quote.savings()).isEqualByComparingTo(schedule.totalAmount().subtract(quote.payoffAmount()));
+    }
+
+    private static BigDecimal sum(Schedule schedule, Function<Installment, BigDecimal> field) {
+        return schedule.installments().stream().map(field).reduce(BigDecimal.ZERO, BigDecimal::add);
+    }
+
+    private static Installment last(Schedule schedule) {
+        return schedule.installments().get(schedule.installments().size() - 1);
+    }
+}
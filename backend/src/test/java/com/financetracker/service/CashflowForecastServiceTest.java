@@ -0,0 +1,151 @@
+package com.financetracker.service;
+
+import com.financetracker.dto.dashboard.CashflowForecast;
+import com.financetracker.entity.Account;
+import com.financetracker.entity.RecurrenceFrequency;
+import com.financetracker.entity.RecurringStatus;
+import com.financetracker.entity.RecurringTransaction;
+import com.financetracker.entity.TransactionType;
+import com.financetracker.repository.AccountRepository;
+import com.financetracker.repository.CreditCardPaymentRepository;
+import com.financetracker.repository.DebtRepository;
+import com.financetracker.repository.RecurringTransactionRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class CashflowForecastServiceTest {
+
+    private final AccountRepository accountRepository = mock(AccountRepository.class);
+    private final RecurringTransactionRepository recurringRepository = mock(RecurringTransactionRepository.class);
+    private final CashflowForecastService service = new CashflowForecastService(accountRepository,
+            recurringRepository, mock(CreditCardPaymentRepository.class), mock(DebtRepository.class));
+
+    private final UUID userId = UUID.randomUUID();
+    private final LocalDate today = LocalDate.now();
+    private Account account;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(service, "maxUsers", 10);
+        account = Account.builder().name("Cash").currentBalance(new BigDecimal("1000")).build();
+        account.setId(UUID.randomUUID());
+        when(accountRepository.findByUserIdAndIsActiveTrue(userId)).thenReturn(List.of(account));
+    }
+
+    @Test
+    void stopsAtEndDate() {
+        RecurringTransaction rule = weekly(today.plusDays(1));
+        rule.setEndDate(today.plusDays(15));
+        rules(rule);
+
+        assertThat(flows(12)).containsExactly(
+                Map.entry(1, -10L), Map.entry(8, -10L), Map.entry(15, -10L));
+    }
+
+    @Test
+    void stopsAtMaxExecutionsCountingPastOnes() {
+        RecurringTransaction rule = weekly(today.plusDays(1));
+        rule.setExecutionCount(3);
+        rule.setMaxExecutions(5);
+        rules(rule);
+
+        assertThat(flows(12)).containsExactly(Map.entry(1, -10L), Map.entry(8, -10L));
+    }
+
+    @Test
+    void clampsDayOfMonthAndReturnsToIt() {
+        LocalDate january31 = LocalDate.of(today.getYear() + 1, 1, 31);
+        RecurringTransaction rule = rule(RecurrenceFrequency.MONTHLY, january31);
+        rule.setDayOfMonth(31);
+        rule.setEndDate(january31.plusMonths(2).withDayOfMonth(31));
+        rules(rule);
+
+        LocalDate endOfFebruary = january31.plusMonths(1);
+        assertThat(flows(24)).containsExactly(
+                Map.entry(day(january31), -10L),
+                Map.entry(day(endOfFebruary), -10L),
+                Map.entry(day(LocalDate.of(january31.getYear(), 3, 31)), -10L));
+    }
+
+    @Test
+    void projectsOverdueOccurrencesOnFirstDay() {
+        RecurringTransaction rule = weekly(today.minusDays(14));
+        rule.setEndDate(today.plusDays(1));
+        rules(rule);
+
+        // Due two weeks ago, one week ago and today
+        assertThat(flows(1)).containsExactly(Map.entry(0, -30L));
+    }
+
+    @Test
+    void doesNotCacheFlowsBuiltBeforeAnEviction() {
+        when(recurringRepository.findByUserIdAndStatusOrderByNextExecutionDateAsc(userId, RecurringStatus.ACTIVE))
+                .thenAnswer(invocation -> {
+                    service.evictUser(userId);
+                    return List.of();
+                })
+                .thenReturn(List.of());
+
+        service.getForecast(userId, 1);
+        service.getForecast(userId, 1);
+        service.getForecast(userId, 1);
+
+        verify(recurringRepository, times(2))
+                .findByUserIdAndStatusOrderByNextExecutionDateAsc(userId, RecurringStatus.ACTIVE);
+    }
+
+    private void rules(RecurringTransaction... rules) {
+        when(recurringRepository.findByUserIdAndStatusOrderByNextExecutionDateAsc(userId, RecurringStatus.ACTIVE))
+                .thenReturn(List.of(rules));
+    }
+
+    private RecurringTransaction weekly(LocalDate next) {
+        return rule(RecurrenceFrequency.WEEKLY, next);
+    }
+
+    private RecurringTransaction rule(RecurrenceFrequency frequency, LocalDate next) {
+        return RecurringTransaction.builder()
+                .account(account)
+                .type(TransactionType.EXPENSE)
+                .amount(BigDecimal.TEN)
+                .frequency(frequency)
+                .startDate(next)
+                .nextExecutionDate(next)
+                .build();
+    }
+
+    private int day(LocalDate date) {
+        return (int) ChronoUnit.DAYS.between(today, date);
+    }
+
+    // Non-zero daily changes of the account balance, by day index
+    private Map<Integer, Long> flows(int months) {
+        CashflowForecast.AccountForecast forecast = service.getForecast(userId, months).getAccounts().get(0);
+        Map<Integer, Long> flows = new TreeMap<>();
+        BigDecimal previous = forecast.getCurrentBalance();
+        List<BigDecimal> balances = forecast.getDailyBalances();
+        for (int d = 0; d < balances.size(); d++) {
+            BigDecimal change = balances.get(d).subtract(previous);
+            if (change.signum() != 0) {
+                flows.put(d, change.longValueExact());
+            }
+            previous = balances.get(d);
+        }
+        return flows;
+    }
+}
@@ -0,0 +1,69 @@
+package com.financetracker.service;
+
+import com.financetracker.service.DebtPayoffSimulator.Result;
+import com.financetracker.service.DebtPayoffSimulator.Strategy;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class DebtPayoffSimulatorTest {
+
+    private final DebtPayoffSimulator simulator = new DebtPayoffSimulator();
+
+    @Test
+    void paysDownWithMonthlyInterest() {
+        // 10000 -> 10100 - 5000 -> 5151 - 5000 -> 153 (1.51 rounds up) - 153
+        Result result = simulator.simulate(Strategy.AVALANCHE, new long[]{10_000}, new double[]{0.01}, 5_000, 600);
+
+        assertThat(result.paidOff()).isTrue();
+        assertThat(result.months()).isEqualTo(3);
+        assertThat(result.totalInterest()).isEqualTo(153);
+        assertThat(result.totalPaid()).isEqualTo(10_153);
+        assertThat(result.payoffMonths()).containsExactly(3);
+    }
+
+    @Test
+    void strategiesPickTheirFirstTarget() {
+        long[] balances = {1_000, 3_000};
+        double[] rates = {0.0, 0.02};
+
+        // The budget left after a cleared debt goes to the next one in the same month
+        assertThat(simulator.simulate(Strategy.SNOWBALL, balances, rates, 1_500, 600).payoffMonths())
+                .containsExactly(1, 3);
+        assertThat(simulator.simulate(Strategy.AVALANCHE, balances, rates, 1_500, 600).payoffMonths())
+                .containsExactly(3, 3);
+    }
+
+    @Test
+    void budgetNotAboveFirstInterestNeverPaysOff() {
+        Result result = simulator.simulate(Strategy.AVALANCHE, new long[]{100_000}, new double[]{0.01}, 1_000, 600);
+
+        assertThat(result.paidOff()).isFalse();
+        assertThat(result.months()).isZero();
+        assertThat(result.totalPaid()).isZero();
+        assertThat(result.payoffMonths()).containsExactly(0);
+    }
+
+    @Test
+    void balanceCompoundingPastLongNeverPaysOff() {
+        // Snowball clears the small interest-free debt while the large one doubles every month
+        long large = 1_000_000_000_000_000L;
+        Result result = simulator.simulate(Strategy.SNOWBALL, new long[]{large - 1, large},
+                new double[]{0.0, 1.0}, large + 1, 600);
+
+        assertThat(result.paidOff()).isFalse();
+        assertThat(result.months()).isZero();
+        assertThat(result.totalInterest()).isZero();
+        assertThat(result.payoffMonths()).containsExactly(0, 0);
+    }
+
+    @Test
+    void stopsAtMaxMonths() {
+        Result result = simulator.simulate(Strategy.AVALANCHE, new long[]{1_000}, new double[]{0.0}, 100, 6);
+
+        assertThat(result.paidOff()).isFalse();
+        assertThat(result.months()).isEqualTo(6);
+        assertThat(result.totalPaid()).isEqualTo(600);
+        assertThat(result.payoffMonths()).containsExactly(0);
+    }
+}
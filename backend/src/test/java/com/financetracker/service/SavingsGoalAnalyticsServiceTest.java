@@ -0,0 +1,72 @@
+package com.financetracker.service;
+
+import com.financetracker.dto.savings.SavingsGoalProgressResponse;
+import com.financetracker.entity.SavingsGoal;
+import com.financetracker.repository.SavingsContributionRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class SavingsGoalAnalyticsServiceTest {
+
+    private final SavingsContributionRepository repository = mock(SavingsContributionRepository.class);
+    private final SavingsGoalAnalyticsService service = new SavingsGoalAnalyticsService(repository);
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(service, "maxEntries", 10);
+        ReflectionTestUtils.setField(service, "ttlMinutes", 15);
+    }
+
+    @Test
+    void steadyRateProjectsCompletion() {
+        monthlyContributions("100", "100", "100");
+
+        SavingsGoalProgressResponse progress = service.getProgress(goal("300"), SavingsGoalAnalyticsService.Period.MONTH);
+
+        // ceil(300 * 30.436875 / 100) days
+        assertThat(progress.getProjectedCompletionDate()).isEqualTo(LocalDate.now().plusDays(92));
+    }
+
+    // The fitted rate for the next month is 0.0001; the days until completion overflow LocalDate or a long
+    @ParameterizedTest
+    @ValueSource(strings = {"1000000", "1000000000000", "1000000000000000"})
+    void nearZeroTrendHasNoProjectedDate(String target) {
+        monthlyContributions("3.0001", "2.0001", "1.0001");
+
+        SavingsGoalProgressResponse progress = service.getProgress(goal(target), SavingsGoalAnalyticsService.Period.MONTH);
+
+        assertThat(progress.getProjectedPerPeriod()).isEqualByComparingTo("0.0001");
+        assertThat(progress.getProjectedCompletionDate()).isNull();
+    }
+
+    // One bucket per complete month, oldest first, ending with last month
+    private void monthlyContributions(String... amounts) {
+        LocalDate currentMonth = LocalDate.now().withDayOfMonth(1);
+        List<Object[]> rows = new ArrayList<>();
+        for (int i = 0; i < amounts.length; i++) {
+            rows.add(new Object[]{currentMonth.minusMonths(amounts.length - i), new BigDecimal(amounts[i]), 1L});
+        }
+        when(repository.sumAmountInGoalCurrencyByPeriod(any(), eq("month"))).thenReturn(rows);
+    }
+
+    private static SavingsGoal goal(String target) {
+        return SavingsGoal.builder()
+                .name("Goal")
+                .targetAmount(new BigDecimal(target))
+                .build();
+    }
+}
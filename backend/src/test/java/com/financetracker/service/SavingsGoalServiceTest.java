@@ -0,0 +1,153 @@
+package com.financetracker.service;
+
+import com.financetracker.dto.savings.SavingsGoalResponse;
+import com.financetracker.entity.*;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * getMyGoals must load goals, their family and owner, and contributor counts in one statement,
+ * however many goals, families and contributors the user has. Runs on H2 in PostgreSQL mode with
+ * the schema generated from the entities (the Flyway scripts are PostgreSQL-only).
+ */
+@DataJpaTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:savings;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.flyway.enabled=false",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import(SavingsGoalService.class)
+class SavingsGoalServiceTest {
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private SavingsGoalService savingsGoalService;
+
+    @MockBean
+    private FamilyMembershipCache familyMembershipCache;
+
+    @MockBean
+    private FamilyAnalyticsService familyAnalyticsService;
+
+    @MockBean
+    private NotificationService notificationService;
+
+    @MockBean
+    private ExchangeRateService exchangeRateService;
+
+    @MockBean
+    private SavingsGoalAnalyticsService savingsGoalAnalyticsService;
+
+    private Statistics statistics;
+    private int userCount;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManager.getEntityManager().getEntityManagerFactory()
+                .unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @ParameterizedTest(name = "{0} personal goals, {1} families x {2} goals, {3} contributors per goal")
+    @CsvSource({
+            "1, 0, 0, 0",
+            "0, 1, 1, 1",
+            "5, 3, 4, 3"
+    })
+    void getMyGoalsIssuesOneStatement(int personalGoals, int families, int goalsPerFamily, int contributorsPerGoal) {
+        User user = persistUser();
+        List<SavingsGoal> goals = new ArrayList<>();
+        for (int i = 0; i < personalGoals; i++) {
+            goals.add(persistGoal(user, null));
+        }
+        for (int f = 0; f < families; f++) {
+            Family family = entityManager.persist(Family.builder()
+                    .name("Family " + f)
+                    .createdBy(user)
+                    .build());
+            entityManager.persist(FamilyMember.builder().family(family).user(user).role(FamilyRole.OWNER).build());
+            for (int g = 0; g < goalsPerFamily; g++) {
+                goals.add(persistGoal(null, family));
+            }
+        }
+        for (SavingsGoal goal : goals) {
+            for (int c = 0; c < contributorsPerGoal; c++) {
+                persistContribution(goal, persistUser());
+            }
+        }
+        // A goal of another user's family must not be returned
+        User stranger = persistUser();
+        Family otherFamily = entityManager.persist(Family.builder().name("Other").createdBy(stranger).build());
+        persistGoal(null, otherFamily);
+
+        entityManager.flush();
+        entityManager.clear();
+        statistics.clear();
+
+        List<SavingsGoalResponse> result = savingsGoalService.getMyGoals(user.getId());
+
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+        assertThat(result).hasSize(goals.size());
+        assertThat(result).allSatisfy(goal -> {
+            assertThat(goal.getContributorsCount()).isEqualTo(contributorsPerGoal);
+            assertThat(goal.getFamilyId() != null ? goal.getFamilyName() : goal.getUserName()).isNotNull();
+        });
+    }
+
+    private User persistUser() {
+        int n = ++userCount;
+        return entityManager.persist(User.builder()
+                .email("user" + n + "@example.com")
+                .username("user" + n)
+                .passwordHash("hash")
+                .fullName("User " + n)
+                .build());
+    }
+
+    private SavingsGoal persistGoal(User user, Family family) {
+        return entityManager.persist(SavingsGoal.builder()
+                .user(user)
+                .family(family)
+                .name("Goal")
+                .targetAmount(BigDecimal.valueOf(1000))
+                .build());
+    }
+
+    private void persistContribution(SavingsGoal goal, User contributor) {
+        Account account = entityManager.persist(Account.builder()
+                .user(contributor)
+                .name("Cash")
+                .type(AccountType.CASH)
+                .build());
+        // Two contributions from the same user count once
+        for (int i = 0; i < 2; i++) {
+            entityManager.persist(SavingsContribution.builder()
+                    .goal(goal)
+                    .user(contributor)
+                    .account(account)
+                    .amount(BigDecimal.TEN)
+                    .amountInGoalCurrency(BigDecimal.TEN)
+                    .contributionDate(LocalDate.now())
+                    .build());
+        }
+    }
+}
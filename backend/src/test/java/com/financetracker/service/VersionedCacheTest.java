@@ -0,0 +1,117 @@
+package com.financetracker.service;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Predicate;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class VersionedCacheTest {
+
+    // Negative values stand for expired entries
+    private static final Predicate<Integer> FRESH = value -> value >= 0;
+
+    private final VersionedCache<Integer, Integer> cache = new VersionedCache<>(() -> 100);
+    private final AtomicInteger loads = new AtomicInteger();
+
+    @Test
+    void servesFreshEntriesAndReloadsStaleOnes() {
+        assertThat(get(1, 10)).isEqualTo(10);
+        assertThat(get(1, 11)).isEqualTo(10);
+        assertThat(loads).hasValue(1);
+
+        cache.update(1, value -> -1);
+        assertThat(get(1, 12)).isEqualTo(12);
+        assertThat(loads).hasValue(2);
+    }
+
+    @Test
+    void loadOverlappingAnEvictionIsNotCached() {
+        Integer loaded = cache.get(1, FRESH, () -> {
+            cache.evict(2);
+            return 10;
+        });
+
+        assertThat(loaded).isEqualTo(10);
+        assertThat(cache.size()).isZero();
+    }
+
+    @Test
+    void loadOverlappingAnUpdateIsNotCached() {
+        get(1, 10);
+
+        cache.get(2, FRESH, () -> {
+            cache.update(1, value -> value + 1);
+            return 20;
+        });
+
+        assertThat(get(1, 99)).isEqualTo(11);
+        assertThat(get(2, 21)).isEqualTo(21);
+    }
+
+    @Test
+    void evictIfMatchesKeysAndValues() {
+        IntStream.range(0, 6).forEach(key -> get(key, key * 10));
+
+        cache.evictIf((key, value) -> key % 2 == 0 || value == 30);
+
+        assertThat(cache.size()).isEqualTo(2);
+        assertThat(get(1, 99)).isEqualTo(10);
+        assertThat(get(5, 99)).isEqualTo(50);
+    }
+
+    @Test
+    void evictAfterCommitWaitsForTheCommit() {
+        get(1, 10);
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            cache.evictAfterCommit(1);
+            assertThat(get(1, 11)).isEqualTo(10);
+
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        assertThat(get(1, 12)).isEqualTo(12);
+    }
+
+    @Test
+    void fullCacheDropsStaleEntriesFirst() {
+        IntStream.range(0, 100).forEach(key -> get(key, key % 2 == 0 ? -1 : key));
+
+        get(100, 100);
+
+        // Only the stale half was dropped, so no fresh entry was evicted
+        assertThat(cache.size()).isEqualTo(51);
+        assertThat(get(1, 99)).isEqualTo(1);
+        assertThat(get(99, 0)).isEqualTo(99);
+    }
+
+    @Test
+    void fullCacheDropsOldestLoadsInOneBatch() {
+        IntStream.range(0, 100).forEach(key -> get(key, key));
+
+        get(100, 100);
+        assertThat(cache.size()).isEqualTo(91);
+
+        // The next inserts fit without another sweep
+        IntStream.range(101, 110).forEach(key -> get(key, key));
+        assertThat(cache.size()).isEqualTo(100);
+
+        int loadsBefore = loads.get();
+        IntStream.range(10, 110).forEach(key -> get(key, -2));
+        assertThat(loads).hasValue(loadsBefore);
+        assertThat(get(9, -3)).isEqualTo(-3);
+    }
+
+    private Integer get(int key, int value) {
+        return cache.get(key, FRESH, () -> {
+            loads.incrementAndGet();
+            return value;
+        });
+    }
+}
@@ -10,6 +10,11 @@ export const apiClient = axios.create({
   },
 })
 
+// Read-your-writes with a read replica: echo the marker of the last write so the following
+// reads stay on the primary, whichever backend instance serves them
+const PRIMARY_UNTIL_HEADER = "X-Read-Primary-Until"
+let readPrimaryUntil: string | null = null
+
 // Flag to prevent multiple refresh requests
 let isRefreshing = false
 // Queue of failed requests to retry after refresh
@@ -36,14 +41,23 @@ apiClient.interceptors.request.use(
     if (token) {
       config.headers.Authorization = `Bearer ${token}`
     }
+    if (readPrimaryUntil) {
+      config.headers[PRIMARY_UNTIL_HEADER] = readPrimaryUntil
+    }
     return config
   },
   (error) => Promise.reject(error)
 )
 
-// Response interceptor - handle token refresh
+// Response interceptor - keep the replica marker, handle token refresh
 apiClient.interceptors.response.use(
-  (response) => response,
+  (response) => {
+    const marker = response.headers[PRIMARY_UNTIL_HEADER.toLowerCase()]
+    if (typeof marker === "string") {
+      readPrimaryUntil = marker
+    }
+    return response
+  },
   async (error: AxiosError<ApiError>) => {
     const originalRequest = error.config as InternalAxiosRequestConfig & { _retry?: boolean }
 
@@ -3,6 +3,7 @@ import type {
   Debt,
   DebtRequest,
   DebtPaymentRequest,
+  DebtPaymentHistory,
   DebtSummary,
   DebtType,
   DebtStatus,
@@ -46,6 +47,22 @@ export const debtsApi = {
     return data
   },
 
+  getPayments: async (
+    id: string,
+    before?: { date: string; id: string },
+    size = 20
+  ): Promise<DebtPaymentHistory> => {
+    const params = new URLSearchParams()
+    params.set("size", size.toString())
+    if (before) {
+      params.set("beforeDate", before.date)
+      params.set("beforeId", before.id)
+    }
+
+    const { data } = await apiClient.get(`/debts/${id}/payments?${params.toString()}`)
+    return data
+  },
+
   markAsPaid: async (id: string): Promise<Debt> => {
     const { data } = await apiClient.post(`/debts/${id}/mark-paid`)
     return data
@@ -43,4 +43,10 @@ export const notificationsApi = {
   markAllAsRead: async (): Promise<void> => {
     await apiClient.post("/notifications/read-all")
   },
+
+  // EventSource cannot send the Authorization header, so the stream is opened with a short-lived ticket
+  getStreamUrl: async (): Promise<string> => {
+    const response = await apiClient.post<{ ticket: string }>("/notifications/stream-ticket")
+    return `${apiClient.defaults.baseURL}/notifications/stream?ticket=${encodeURIComponent(response.data.ticket)}`
+  },
 }
@@ -11,13 +11,11 @@ export function NotificationBell({ onClick }: NotificationBellProps) {
   const { data: invitationsCount = 0 } = useQuery({
     queryKey: ["pending-invitations-count"],
     queryFn: invitationsApi.countPending,
-    refetchInterval: 30000,
   })
 
   const { data: notificationsCount = 0 } = useQuery({
     queryKey: ["notifications-count"],
     queryFn: notificationsApi.countUnread,
-    refetchInterval: 30000,
   })
 
   const totalCount = invitationsCount + notificationsCount
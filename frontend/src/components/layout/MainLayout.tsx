@@ -5,11 +5,14 @@ import { useAuth } from "@/context/AuthContext"
 import { Sidebar } from "./Sidebar"
 import { ChatWidget } from "@/components/chat/ChatWidget"
 import { NotificationBell } from "@/components/NotificationBell"
+import { useNotificationStream } from "@/hooks/useNotificationStream"
 
 export function MainLayout() {
   const { isAuthenticated, isLoading } = useAuth()
   const [sidebarOpen, setSidebarOpen] = useState(false)
   const [chatOpen, setChatOpen] = useState(false)
+  // Pushes notification and invitation updates; replaces polling in the bell, sidebar and notifications page
+  useNotificationStream(isAuthenticated)
 
   if (isLoading) {
     return (
@@ -41,13 +41,11 @@ export function Sidebar({ isOpen = true, onClose, onOpenChat }: SidebarProps) {
   const { data: invitationsCount = 0 } = useQuery({
     queryKey: ["pending-invitations-count"],
     queryFn: invitationsApi.countPending,
-    refetchInterval: 30000,
   })
 
   const { data: notificationsCount = 0 } = useQuery({
     queryKey: ["notifications-count"],
     queryFn: notificationsApi.countUnread,
-    refetchInterval: 30000,
   })
 
   const totalNotificationCount = invitationsCount + notificationsCount
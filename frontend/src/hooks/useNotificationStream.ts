@@ -0,0 +1,80 @@
+import { useEffect } from "react"
+import { useQueryClient } from "@tanstack/react-query"
+import { notificationsApi } from "@/api"
+import type { Notification } from "@/api/notifications"
+
+const MAX_RETRY_DELAY = 60000
+
+/**
+ * Keeps the notification queries current from the server's SSE stream instead of polling.
+ * The ticket in the stream URL expires quickly, so a dropped stream is reopened with a new one.
+ */
+export function useNotificationStream(enabled = true) {
+  const queryClient = useQueryClient()
+
+  useEffect(() => {
+    if (!enabled) return
+
+    let source: EventSource | null = null
+    let retryTimer: ReturnType<typeof setTimeout> | undefined
+    let retryDelay = 1000
+    let closed = false
+
+    const connect = async () => {
+      let url: string
+      try {
+        url = await notificationsApi.getStreamUrl()
+      } catch {
+        scheduleReconnect()
+        return
+      }
+      if (closed) return
+
+      const stream = new EventSource(url)
+      source = stream
+
+      stream.onopen = () => {
+        retryDelay = 1000
+        // Catch up on anything missed while the stream was down
+        queryClient.invalidateQueries({ queryKey: ["notifications"] })
+        queryClient.invalidateQueries({ queryKey: ["received-invitations"] })
+        queryClient.invalidateQueries({ queryKey: ["pending-invitations-count"] })
+      }
+
+      stream.addEventListener("unread-count", (event) => {
+        const { count } = JSON.parse((event as MessageEvent).data) as { count: number }
+        queryClient.setQueryData(["notifications-count"], count)
+      })
+
+      stream.addEventListener("notification", (event) => {
+        const notification = JSON.parse((event as MessageEvent).data) as Notification
+        queryClient.invalidateQueries({ queryKey: ["notifications"] })
+        if (notification.type.startsWith("INVITATION_")) {
+          queryClient.invalidateQueries({ queryKey: ["received-invitations"] })
+          queryClient.invalidateQueries({ queryKey: ["pending-invitations-count"] })
+        }
+      })
+
+      stream.onerror = () => {
+        // The browser would retry with the expired ticket; reopen with a fresh one instead
+        stream.close()
+        source = null
+        scheduleReconnect()
+      }
+    }
+
+    const scheduleReconnect = () => {
+      if (closed) return
+      retryTimer = setTimeout(connect, retryDelay)
+      retryDelay = Math.min(retryDelay * 2, MAX_RETRY_DELAY)
+    }
+
+    connect()
+
+    return () => {
+      closed = true
+      clearTimeout(retryTimer)
+      source?.close()
+    }
+  }, [enabled, queryClient])
+}
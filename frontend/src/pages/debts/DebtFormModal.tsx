@@ -12,6 +12,7 @@ import { debtsApi } from "@/api"
 import { cn } from "@/lib/utils"
 import { useAuth } from "@/context/AuthContext"
 import type { Debt, DebtRequest, ApiError } from "@/types"
+import { DebtPaymentHistory } from "./DebtPaymentHistory"
 
 function createDebtSchema(t: (key: string) => string) {
   return z.object({
@@ -291,6 +292,9 @@ export function DebtFormModal({ isOpen, onClose, debt }: DebtFormModalProps) {
             />
           </div>
 
+          {/* Payments are kept in their own ledger, no longer appended to the note */}
+          {debt && <DebtPaymentHistory debt={debt} />}
+
           <div className="flex justify-end gap-2 pt-4">
             <Button type="button" variant="outline" onClick={onClose}>
               {t("common.cancel")}
@@ -0,0 +1,67 @@
+import { useInfiniteQuery } from "@tanstack/react-query"
+import { useTranslation } from "react-i18next"
+import { Button } from "@/components/ui"
+import { debtsApi } from "@/api"
+import { formatCurrency, formatDate } from "@/lib/utils"
+import type { Debt } from "@/types"
+
+interface DebtPaymentHistoryProps {
+  debt: Debt
+}
+
+export function DebtPaymentHistory({ debt }: DebtPaymentHistoryProps) {
+  const { t, i18n } = useTranslation()
+
+  // Under the "debts" key so recording a payment refreshes the list
+  const { data, fetchNextPage, hasNextPage, isFetchingNextPage, isLoading } = useInfiniteQuery({
+    queryKey: ["debts", debt.id, "payments"],
+    queryFn: ({ pageParam }) => debtsApi.getPayments(debt.id, pageParam),
+    initialPageParam: undefined as { date: string; id: string } | undefined,
+    getNextPageParam: (lastPage) =>
+      lastPage.nextBeforeDate && lastPage.nextBeforeId
+        ? { date: lastPage.nextBeforeDate, id: lastPage.nextBeforeId }
+        : undefined,
+  })
+
+  const payments = data?.pages.flatMap((page) => page.payments) ?? []
+
+  return (
+    <div className="space-y-2">
+      <h3 className="text-sm font-medium">{t("debts.paymentHistory")}</h3>
+      {isLoading ? (
+        <p className="text-sm text-muted-foreground">{t("common.loading")}</p>
+      ) : payments.length === 0 ? (
+        <p className="text-sm text-muted-foreground">{t("debts.noPayments")}</p>
+      ) : (
+        <ul className="divide-y rounded-md border text-sm">
+          {payments.map((payment) => (
+            <li key={payment.id} className="flex items-start justify-between gap-3 px-3 py-2">
+              <div className="min-w-0">
+                <p>{formatDate(payment.paymentDate, i18n.language)}</p>
+                {(payment.accountName || payment.note) && (
+                  <p className="truncate text-xs text-muted-foreground">
+                    {[payment.accountName, payment.note].filter(Boolean).join(" - ")}
+                  </p>
+                )}
+              </div>
+              <span className="whitespace-nowrap font-medium">
+                {formatCurrency(payment.amount, debt.currency)}
+              </span>
+            </li>
+          ))}
+        </ul>
+      )}
+      {hasNextPage && (
+        <Button
+          type="button"
+          variant="outline"
+          size="sm"
+          isLoading={isFetchingNextPage}
+          onClick={() => fetchNextPage()}
+        >
+          {t("debts.loadMorePayments")}
+        </Button>
+      )}
+    </div>
+  )
+}
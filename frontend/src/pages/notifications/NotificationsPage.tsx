@@ -58,13 +58,11 @@ export default function NotificationsPage() {
   const { data: notificationsPage, isLoading } = useQuery({
     queryKey: ["notifications"],
     queryFn: () => notificationsApi.getAll(0, 50),
-    refetchInterval: 15000, // Real-time: refetch mỗi 15 giây
   })
 
   const { data: pendingInvitations } = useQuery({
     queryKey: ["received-invitations"],
     queryFn: invitationsApi.getReceived,
-    refetchInterval: 15000, // Real-time: refetch mỗi 15 giây
   })
 
   const markAsReadMutation = useMutation({
@@ -454,6 +454,23 @@ export interface DebtPaymentRequest {
   note?: string
 }
 
+export interface DebtPayment {
+  id: string
+  amount: number
+  paymentDate: string
+  accountId: string | null
+  accountName: string | null
+  note: string | null
+  createdAt: string
+}
+
+// Newest first; pass nextBeforeDate/nextBeforeId back for the following page (null on the last page)
+export interface DebtPaymentHistory {
+  payments: DebtPayment[]
+  nextBeforeDate: string | null
+  nextBeforeId: string | null
+}
+
 export interface DebtSummary {
   totalLent: number
   totalBorrowed: number